@@ -0,0 +1,118 @@
+package com.tpi.benchmark;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tpi.model.Camion;
+import com.tpi.repository.CamionRepository;
+import com.tpi.service.CamionService;
+
+/**
+ * Filtro de camiones por capacidad de peso y volumen (CamionService.findByCapacidades).
+ *
+ * - filtrarCamiones: el servicio real, con el índice de capacidades en memoria.
+ * - filtrarCamionesReferencia: recorrido lineal + orden por ID, lo que hacía la consulta JPQL.
+ * - recargarIndice: reconstrucción del índice, que se paga en cada alta, modificación o baja.
+ *
+ * Los pedidos (peso, volumen) salen de un arreglo aleatorio fijo; la mitad pide solo
+ * volumen (peso 0), como la cotización y la planificación de depósitos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CapacidadesBenchmark {
+
+    private static final int CANTIDAD_CONSULTAS = 1024;
+
+    @Param({"10", "100", "1000"})
+    private int cantidadCamiones;
+
+    private CamionService camionService;
+    private List<Camion> camiones;
+    private final double[] pesos = new double[CANTIDAD_CONSULTAS];
+    private final double[] volumenes = new double[CANTIDAD_CONSULTAS];
+    private int siguiente;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random random = new Random(42);
+        camiones = new ArrayList<>(cantidadCamiones);
+        for (int i = 0; i < cantidadCamiones; i++) {
+            camiones.add(Camion.builder()
+                .id((long) i + 1)
+                .dominio(String.format("AA%03dBB", i))
+                .costoPorKm(80 + random.nextDouble() * 80)
+                .consumoCombustibleLx100km(20 + random.nextDouble() * 20)
+                .capacidadPesoKg(5_000 + random.nextDouble() * 25_000)
+                .capacidadVolumenM3(10 + random.nextDouble() * 70)
+                .build());
+        }
+
+        CamionRepository repositorio = RepositorioFijo.de(CamionRepository.class,
+            Map.of("findByDisponibleTrue", camiones));
+        camionService = new CamionService(repositorio);
+        camionService.recargarIndice();
+
+        for (int i = 0; i < CANTIDAD_CONSULTAS; i++) {
+            pesos[i] = i % 2 == 0 ? 0 : random.nextDouble() * 30_000;
+            volumenes[i] = random.nextDouble() * 80;
+            List<Long> indice = camionService.findByCapacidades(pesos[i], volumenes[i]).stream()
+                .map(Camion::getId).toList();
+            List<Long> lineal = filtrarLineal(pesos[i], volumenes[i]).stream().map(Camion::getId).toList();
+            if (!indice.equals(lineal)) {
+                throw new IllegalStateException("El índice y el filtro lineal no coinciden en la consulta " + i);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Camion> filtrarCamiones() {
+        int i = siguienteConsulta();
+        return camionService.findByCapacidades(pesos[i], volumenes[i]);
+    }
+
+    @Benchmark
+    public List<Camion> filtrarCamionesReferencia() {
+        int i = siguienteConsulta();
+        return filtrarLineal(pesos[i], volumenes[i]);
+    }
+
+    @Benchmark
+    public CamionService recargarIndice() {
+        camionService.recargarIndice();
+        return camionService;
+    }
+
+    private int siguienteConsulta() {
+        int i = siguiente;
+        siguiente = (siguiente + 1) & (CANTIDAD_CONSULTAS - 1);
+        return i;
+    }
+
+    private List<Camion> filtrarLineal(double peso, double volumen) {
+        return camiones.stream()
+            .filter(c -> c.getCapacidadPesoKg() >= peso && c.getCapacidadVolumenM3() >= volumen)
+            .sorted(Comparator.comparing(Camion::getId))
+            .toList();
+    }
+}
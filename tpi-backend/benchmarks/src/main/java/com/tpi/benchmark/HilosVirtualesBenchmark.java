@@ -0,0 +1,258 @@
+package com.tpi.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.client.RestClientAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.embedded.EmbeddedWebServerFactoryCustomizerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.RestClient;
+
+import com.sun.net.httpserver.HttpServer;
+import com.tpi.comun.http.ClientesHttpConfig;
+import com.tpi.comun.http.FabricaClientesHttp;
+import com.tpi.comun.resiliencia.ResilienciaConfig;
+import com.tpi.comun.resiliencia.ResilienciaHttp;
+
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Prueba de carga del modo de hilos virtuales (spring.threads.virtual.enabled).
+ *
+ * Levanta un servicio MVC con el mismo camino que una request real de logistica-service:
+ * Tomcat, PlazoFilter, un controlador y un RestClient con el pool de FabricaClientesHttp y
+ * el interceptor de ResilienciaHttp. El controlador llama a un servicio simulado que tarda
+ * {@link #ESPERA_DESTINO} en responder. Se le mandan {@code concurrencia} requests
+ * simultáneas una y otra vez y se cuentan las respuestas por segundo ("respuestas" en el
+ * resultado, el score de la tanda no importa).
+ *
+ * Con hilos de plataforma cada request en espera ocupa uno de los 200 hilos de Tomcat, así que
+ * el tope es ~200 / ESPERA_DESTINO respuestas por segundo. Con hilos virtuales el tope pasa a
+ * ser la concurrencia (o la CPU). Los pools de conexiones y el bulkhead se agrandan para que
+ * no limiten; en los servicios son ellos los que acotan lo que llega a cada destino.
+ *
+ * En modo virtual se registran los eventos jdk.VirtualThreadPinned (hilo virtual que se bloquea
+ * sin poder soltar su carrier, ej: dentro de un synchronized) y al final se imprime cuántos hubo
+ * y dónde. Se espera cero.
+ *
+ * El modo virtual tarda en calentar (el JIT compila el camino de los hilos virtuales bajo carga):
+ * correr con -Djmh.include=HilosVirtuales -Djmh.warmup=10.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 10, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class HilosVirtualesBenchmark {
+
+    private static final Duration ESPERA_DESTINO = Duration.ofMillis(500);
+
+    @Param({"false", "true"})
+    private boolean hilosVirtuales;
+
+    // Requests simultáneas (clientes conectados a la vez)
+    @Param({"100", "1000"})
+    private int concurrencia;
+
+    private HttpServer destino;
+    private ExecutorService hilosDestino;
+    private ConfigurableApplicationContext servicio;
+    private HttpClient cliente;
+    private ExecutorService hilosCliente;
+    private HttpRequest request;
+
+    private RecordingStream eventos;
+    private final LongAdder fijados = new LongAdder();
+    private final Map<String, LongAdder> fijadosPorLugar = new ConcurrentHashMap<>();
+
+    /**
+     * Respuestas por segundo (las cuenta JMH como operaciones).
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Contador {
+        public long respuestas;
+    }
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        // 1. Servicio destino simulado: responde después de ESPERA_DESTINO. Por defecto cierra las
+        //    conexiones inactivas que pasan de 200, que el pool del servicio todavía cree abiertas
+        System.setProperty("sun.net.httpserver.maxIdleConnections", String.valueOf(concurrencia));
+        hilosDestino = Executors.newVirtualThreadPerTaskExecutor();
+        destino = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+        destino.setExecutor(hilosDestino);
+        destino.createContext("/lento", intercambio -> {
+            try {
+                Thread.sleep(ESPERA_DESTINO);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] cuerpo = "{\"ok\":true}".getBytes(StandardCharsets.UTF_8);
+            intercambio.getResponseHeaders().set("Content-Type", "application/json");
+            intercambio.sendResponseHeaders(200, cuerpo.length);
+            try (OutputStream salida = intercambio.getResponseBody()) {
+                salida.write(cuerpo);
+            }
+        });
+        destino.start();
+
+        // 2. Servicio bajo prueba (sin application.yml: solo estos parámetros)
+        servicio = new SpringApplicationBuilder(ServicioCarga.class)
+            .web(WebApplicationType.SERVLET)
+            .run("--spring.config.name=carga",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--server.port=0",
+                "--server.tomcat.accept-count=" + concurrencia,
+                "--spring.threads.virtual.enabled=" + hilosVirtuales,
+                "--destino.url=http://127.0.0.1:" + destino.getAddress().getPort(),
+                "--http-cliente.max-conexiones=" + concurrencia,
+                "--resiliencia.max-llamadas=" + concurrencia,
+                "--resiliencia.llamada-lenta=10s");
+        int puerto = ((ServletWebServerApplicationContext) servicio).getWebServer().getPort();
+
+        // 3. Clientes de la carga
+        hilosCliente = Executors.newVirtualThreadPerTaskExecutor();
+        cliente = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(hilosCliente)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + puerto + "/carga"))
+            .timeout(Duration.ofSeconds(30))
+            .build();
+
+        // 4. Hilos virtuales fijados a su carrier
+        if (hilosVirtuales) {
+            eventos = new RecordingStream();
+            eventos.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            eventos.onEvent("jdk.VirtualThreadPinned", evento -> {
+                fijados.increment();
+                String lugar = evento.getStackTrace() == null || evento.getStackTrace().getFrames().isEmpty()
+                    ? "(sin stack)"
+                    : evento.getStackTrace().getFrames().get(0).getMethod().getType().getName() + "."
+                        + evento.getStackTrace().getFrames().get(0).getMethod().getName();
+                fijadosPorLugar.computeIfAbsent(lugar, clave -> new LongAdder()).increment();
+            });
+            eventos.startAsync();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        if (eventos != null) {
+            eventos.close();
+            System.out.println();
+            System.out.println("Hilos virtuales fijados (jdk.VirtualThreadPinned): " + fijados.sum());
+            fijadosPorLugar.forEach((lugar, cantidad) -> System.out.println("  " + cantidad.sum() + "  " + lugar));
+        }
+        servicio.close();
+        cliente.close();
+        hilosCliente.close();
+        destino.stop(0);
+        hilosDestino.close();
+    }
+
+    /**
+     * Una tanda: {@code concurrencia} requests a la vez, esperando todas las respuestas.
+     */
+    @Benchmark
+    public void tanda(Contador contador) {
+        CompletableFuture<?>[] respuestas = new CompletableFuture<?>[concurrencia];
+        for (int i = 0; i < concurrencia; i++) {
+            respuestas[i] = cliente.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenAccept(respuesta -> {
+                    if (respuesta.statusCode() != 200) {
+                        throw new IllegalStateException("Respuesta " + respuesta.statusCode());
+                    }
+                });
+        }
+        CompletableFuture.allOf(respuestas).join();
+        contador.respuestas += concurrencia;
+    }
+
+    /**
+     * Servicio mínimo con el camino HTTP de logistica-service (sin base de datos ni seguridad).
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({
+        PropertyPlaceholderAutoConfiguration.class,
+        ServletWebServerFactoryAutoConfiguration.class,
+        EmbeddedWebServerFactoryCustomizerAutoConfiguration.class,
+        DispatcherServletAutoConfiguration.class,
+        WebMvcAutoConfiguration.class,
+        HttpMessageConvertersAutoConfiguration.class,
+        JacksonAutoConfiguration.class,
+        RestClientAutoConfiguration.class,
+        ClientesHttpConfig.class,
+        ResilienciaConfig.class
+    })
+    @Import(ControladorCarga.class)
+    static class ServicioCarga {
+    }
+
+    @RestController
+    static class ControladorCarga {
+
+        private final RestClient destino;
+
+        ControladorCarga(RestClient.Builder builder, FabricaClientesHttp fabrica, ResilienciaHttp resiliencia,
+                         @Value("${destino.url}") String url) {
+            this.destino = builder
+                .requestFactory(fabrica.requestFactory("destino"))
+                .requestInterceptor(resiliencia.interceptor("destino"))
+                .baseUrl(url)
+                .build();
+        }
+
+        @GetMapping("/carga")
+        String carga() {
+            return destino.get().uri("/lento").retrieve().body(String.class);
+        }
+    }
+}
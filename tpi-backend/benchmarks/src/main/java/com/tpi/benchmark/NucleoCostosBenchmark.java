@@ -0,0 +1,299 @@
+package com.tpi.benchmark;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tpi.costo.NucleoCostos;
+import com.tpi.model.Camion;
+import com.tpi.model.TipoTramo;
+import com.tpi.model.Tramo;
+
+/**
+ * Cálculo de costos de una ruta: el cálculo anterior de CalculoCostoService
+ * (acumuladores Double en caja y getters en cada paso) contra NucleoCostos.
+ *
+ * - *Referencia: copia del cálculo anterior, sobre la lista de tramos.
+ * - *Nucleo: lo que hace hoy CalculoCostoService. La liquidación pasa los tramos a arreglos y
+ *   llama a NucleoCostos; la estimación usa la versión de NucleoCostos que lee la lista de tramos.
+ * - *SoloNucleo: NucleoCostos sobre arreglos ya armados y reutilizados (recotización por lotes).
+ *
+ * Antes de medir se verifica que ambos cálculos den el mismo total.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NucleoCostosBenchmark {
+
+    private static final double COSTO_GESTION = 1500.0;
+    private static final double PRECIO_COMBUSTIBLE = 1.45;
+    private static final double COSTO_POR_KM_PROMEDIO = 120.0;
+    private static final double CONSUMO_PROMEDIO = 32.0;
+
+    @Param({"3", "20", "200"})
+    private int cantidadTramos;
+
+    private List<Tramo> tramos;
+
+    // Arreglos ya armados y salidas reutilizables para *SoloNucleo
+    private double[] distancias;
+    private long[] segundos;
+    private long[] segundosEstimados;
+    private double[] estadias;
+    private double[] costosPorKm;
+    private double[] consumos;
+    private double[] costosTramo;
+    private final double[] totales = new double[NucleoCostos.CANTIDAD_TOTALES];
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random random = new Random(42);
+        TipoTramo[] tipos = {
+            TipoTramo.builder().id(1L).nombre("ORIGEN_DEPOSITO").build(),
+            TipoTramo.builder().id(2L).nombre("DEPOSITO_DEPOSITO").build(),
+            TipoTramo.builder().id(3L).nombre("DEPOSITO_DESTINO").build()
+        };
+
+        tramos = new ArrayList<>(cantidadTramos);
+        for (int i = 0; i < cantidadTramos; i++) {
+            Date llegada = new Date(1_700_000_000_000L + i * 86_400_000L);
+            tramos.add(Tramo.builder()
+                .id((long) i)
+                .orden(i)
+                .tipo(tipos[i % tipos.length])
+                .distanciaKm(50 + random.nextDouble() * 500)
+                .duracionEstimadaSegundos(1_800L + random.nextInt(30_000))
+                .costoEstadia(i % 3 == 2 ? null : 2_000 + random.nextDouble() * 3_000)
+                .fechaHoraLlegada(llegada)
+                .fechaHoraFin(new Date(llegada.getTime() + random.nextInt(200_000_000)))
+                .camion(i % 5 == 4 ? null : Camion.builder()
+                    .id((long) i)
+                    .costoPorKm(80 + random.nextDouble() * 80)
+                    .consumoCombustibleLx100km(20 + random.nextDouble() * 20)
+                    .build())
+                .build());
+        }
+
+        distancias = new double[cantidadTramos];
+        segundos = new long[cantidadTramos];
+        segundosEstimados = new long[cantidadTramos];
+        estadias = new double[cantidadTramos];
+        costosPorKm = new double[cantidadTramos];
+        consumos = new double[cantidadTramos];
+        costosTramo = new double[cantidadTramos];
+        armarArreglosFinales(tramos, distancias, segundos, estadias, costosPorKm, consumos);
+        for (int i = 0; i < cantidadTramos; i++) {
+            segundosEstimados[i] = tramos.get(i).getDuracionEstimadaSegundos();
+        }
+
+        verificar("liquidar", liquidarReferencia(), liquidarNucleo());
+        verificar("estimar", estimarReferencia(), estimarNucleo());
+    }
+
+    // ===== COSTO FINAL =====
+
+    @Benchmark
+    public Double liquidarReferencia() {
+        Double costoGestionTotal = 0.0;
+        Double costoCamionTotal = 0.0;
+        Double costoCombustibleTotal = 0.0;
+        Double costoEstadiaTotal = 0.0;
+        Double distanciaTotalKm = 0.0;
+        Long tiempoTotalSegundos = 0L;
+
+        for (Tramo tramo : tramos) {
+            Double costoGestionTramo = COSTO_GESTION;
+            costoGestionTotal += costoGestionTramo;
+
+            Double costoCamionTramo = 0.0;
+            if (tramo.getCamion() != null && tramo.getDistanciaKm() != null) {
+                costoCamionTramo = tramo.getDistanciaKm() * tramo.getCamion().getCostoPorKm();
+                costoCamionTotal += costoCamionTramo;
+            }
+
+            Double costoCombustibleTramo = 0.0;
+            if (tramo.getCamion() != null && tramo.getDistanciaKm() != null) {
+                Double litrosConsumidos = tramo.getDistanciaKm() *
+                                        (tramo.getCamion().getConsumoCombustibleLx100km() / 100);
+                costoCombustibleTramo = litrosConsumidos * PRECIO_COMBUSTIBLE;
+                costoCombustibleTotal += costoCombustibleTramo;
+            }
+
+            Double costoEstadiaTramo = 0.0;
+            if (tramo.involucraEstadiaEnDeposito() && tramo.getCostoEstadia() != null) {
+                costoEstadiaTramo = tramo.getCostoEstadia();
+                costoEstadiaTotal += costoEstadiaTramo;
+            }
+
+            tiempoTotalSegundos += duracionSegundos(tramo.getFechaHoraLlegada(), tramo.getFechaHoraFin());
+            distanciaTotalKm += tramo.getDistanciaKm();
+
+            tramo.setCostoReal(costoGestionTramo + costoCamionTramo + costoCombustibleTramo + costoEstadiaTramo);
+        }
+
+        return costoGestionTotal + costoCamionTotal + costoCombustibleTotal + costoEstadiaTotal
+            + distanciaTotalKm * 0 + tiempoTotalSegundos * 0;
+    }
+
+    @Benchmark
+    public double liquidarNucleo() {
+        int cantidad = tramos.size();
+        double[] distanciasRuta = new double[cantidad];
+        long[] segundosRuta = new long[cantidad];
+        double[] estadiasRuta = new double[cantidad];
+        double[] costosPorKmRuta = new double[cantidad];
+        double[] consumosRuta = new double[cantidad];
+        armarArreglosFinales(tramos, distanciasRuta, segundosRuta, estadiasRuta, costosPorKmRuta, consumosRuta);
+
+        double[] costos = new double[cantidad];
+        double[] totalesRuta = new double[NucleoCostos.CANTIDAD_TOTALES];
+        NucleoCostos.liquidar(distanciasRuta, segundosRuta, estadiasRuta, costosPorKmRuta, consumosRuta, cantidad,
+            COSTO_GESTION, PRECIO_COMBUSTIBLE, costos, totalesRuta);
+
+        for (int i = 0; i < cantidad; i++) {
+            tramos.get(i).setCostoReal(costos[i]);
+        }
+        return totalesRuta[NucleoCostos.TOTAL];
+    }
+
+    @Benchmark
+    public double liquidarSoloNucleo() {
+        NucleoCostos.liquidar(distancias, segundos, estadias, costosPorKm, consumos, cantidadTramos,
+            COSTO_GESTION, PRECIO_COMBUSTIBLE, costosTramo, totales);
+        return totales[NucleoCostos.TOTAL];
+    }
+
+    // ===== COSTO ESTIMADO =====
+
+    @Benchmark
+    public double estimarReferencia() {
+        double costoTotal = 0.0;
+        double costoGestionTotal = 0.0;
+        double costoCamionTotal = 0.0;
+        double costoCombustibleTotal = 0.0;
+        double costoEstadiaTotal = 0.0;
+        double distanciaTotal = 0.0;
+        long tiempoSegundosTotal = 0L;
+        Double costoPorKmPromedio = COSTO_POR_KM_PROMEDIO;
+        Double consumoPromedio = CONSUMO_PROMEDIO;
+        Double precioCombustible = PRECIO_COMBUSTIBLE;
+
+        for (Tramo tramo : tramos) {
+            double subtotalGestion = COSTO_GESTION;
+            double subtotalCamion = 0.0;
+            double subtotalCombustible = 0.0;
+            double subtotalEstadia = 0.0;
+
+            if (tramo.getDistanciaKm() != null) {
+                subtotalCamion = tramo.getDistanciaKm() * costoPorKmPromedio;
+            }
+            if (tramo.getDistanciaKm() != null) {
+                double litrosConsumidos = tramo.getDistanciaKm() * (consumoPromedio / 100);
+                subtotalCombustible = litrosConsumidos * precioCombustible;
+            }
+            if (tramo.involucraEstadiaEnDeposito() && tramo.getCostoEstadia() != null) {
+                subtotalEstadia = tramo.getCostoEstadia();
+            }
+
+            double subtotalTramo = subtotalGestion + subtotalCamion + subtotalCombustible + subtotalEstadia;
+            tramo.setCostoAproximado(redondear2(subtotalTramo));
+
+            costoGestionTotal += subtotalGestion;
+            costoCamionTotal += subtotalCamion;
+            costoCombustibleTotal += subtotalCombustible;
+            costoEstadiaTotal += subtotalEstadia;
+            if (tramo.getDistanciaKm() != null) {
+                distanciaTotal += tramo.getDistanciaKm();
+            }
+            if (tramo.getDuracionEstimadaSegundos() != null) {
+                tiempoSegundosTotal += tramo.getDuracionEstimadaSegundos();
+            }
+            costoTotal += subtotalTramo;
+        }
+
+        return costoTotal + (costoGestionTotal + costoCamionTotal + costoCombustibleTotal
+            + costoEstadiaTotal + distanciaTotal + tiempoSegundosTotal) * 0;
+    }
+
+    @Benchmark
+    public double estimarNucleo() {
+        double[] totalesRuta = new double[NucleoCostos.CANTIDAD_TOTALES];
+        NucleoCostos.estimar(tramos, NucleoCostosBenchmark::distanciaKm, NucleoCostosBenchmark::segundosEstimados,
+            NucleoCostosBenchmark::costoEstadia, COSTO_GESTION, COSTO_POR_KM_PROMEDIO, CONSUMO_PROMEDIO,
+            PRECIO_COMBUSTIBLE, (tramo, costo) -> tramo.setCostoAproximado(NucleoCostos.redondear2(costo)),
+            totalesRuta);
+        return totalesRuta[NucleoCostos.TOTAL];
+    }
+
+    @Benchmark
+    public double estimarSoloNucleo() {
+        NucleoCostos.estimar(distancias, segundosEstimados, estadias, cantidadTramos, COSTO_GESTION,
+            COSTO_POR_KM_PROMEDIO, CONSUMO_PROMEDIO, PRECIO_COMBUSTIBLE, costosTramo, totales);
+        return totales[NucleoCostos.TOTAL];
+    }
+
+    // ===== AUXILIARES =====
+
+    // Igual que CalculoCostoService.calcularCostoFinalRuta
+    private static void armarArreglosFinales(List<Tramo> tramos, double[] distancias, long[] segundos,
+                                             double[] estadias, double[] costosPorKm, double[] consumos) {
+        for (int i = 0; i < tramos.size(); i++) {
+            Tramo tramo = tramos.get(i);
+            Double distanciaKm = tramo.getDistanciaKm();
+            Camion camion = tramo.getCamion();
+
+            distancias[i] = distanciaKm != null ? distanciaKm : 0;
+            if (camion != null && distanciaKm != null) {
+                costosPorKm[i] = camion.getCostoPorKm();
+                consumos[i] = camion.getConsumoCombustibleLx100km();
+            }
+            estadias[i] = costoEstadia(tramo);
+            segundos[i] = duracionSegundos(tramo.getFechaHoraLlegada(), tramo.getFechaHoraFin());
+        }
+    }
+
+    // Igual que CalculoCostoService.calcularCostosConPromedios
+    private static double distanciaKm(Tramo tramo) {
+        return tramo.getDistanciaKm() != null ? tramo.getDistanciaKm() : 0;
+    }
+
+    private static long segundosEstimados(Tramo tramo) {
+        return tramo.getDuracionEstimadaSegundos() != null ? tramo.getDuracionEstimadaSegundos() : 0;
+    }
+
+    private static double costoEstadia(Tramo tramo) {
+        return tramo.involucraEstadiaEnDeposito() && tramo.getCostoEstadia() != null ? tramo.getCostoEstadia() : 0;
+    }
+
+    private static long duracionSegundos(Date inicio, Date fin) {
+        return inicio == null || fin == null ? 0 : (fin.getTime() - inicio.getTime()) / 1000;
+    }
+
+    private static Double redondear2(Double valor) {
+        return Math.round(valor * 100.0) / 100.0;
+    }
+
+    private static void verificar(String calculo, double referencia, double nucleo) {
+        if (Math.abs(referencia - nucleo) > 1e-6 * Math.max(1, Math.abs(referencia))) {
+            throw new IllegalStateException(calculo + ": la referencia da " + referencia + " y el núcleo " + nucleo);
+        }
+    }
+}
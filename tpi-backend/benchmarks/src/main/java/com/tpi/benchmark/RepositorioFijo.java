@@ -0,0 +1,38 @@
+package com.tpi.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+/**
+ * Repositorios de Spring Data falsos para armar los servicios sin base de datos.
+ *
+ * Cada método pedido devuelve siempre el mismo valor; cualquier otro método falla,
+ * así un benchmark no mide sin querer un camino distinto del que dice medir.
+ */
+final class RepositorioFijo {
+
+    private RepositorioFijo() {
+    }
+
+    /**
+     * @param tipo        interfaz del repositorio
+     * @param respuestas  nombre del método → valor que devuelve
+     * @return implementación del repositorio que responde solo esos métodos
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T de(Class<T> tipo, Map<String, Object> respuestas) {
+        return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] {tipo}, (proxy, metodo, args) -> {
+            if (respuestas.containsKey(metodo.getName())) {
+                return respuestas.get(metodo.getName());
+            }
+            if (metodo.getDeclaringClass() == Object.class) {
+                return switch (metodo.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> tipo.getSimpleName() + " fijo";
+                };
+            }
+            throw new UnsupportedOperationException(tipo.getSimpleName() + "." + metodo.getName());
+        });
+    }
+}
@@ -0,0 +1,76 @@
+package com.tpi.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tpi.routingosrm.dto.RouteAlternativeResponse;
+import com.tpi.routingosrm.dto.RouteResponse;
+
+/**
+ * Elección de la mejor ruta alternativa en routing-service (RouteAlternativeResponse.fromEntity),
+ * que corre por cada respuesta de OSRM.
+ *
+ * - fromEntity: la versión actual (una pasada por índice).
+ * - fromEntityReferencia: copia de la versión anterior (stream().min() + indexOf, que compara
+ *   los records campo por campo hasta encontrar la mejor).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RutasAlternativasBenchmark {
+
+    // OSRM devuelve hasta 3 alternativas con la configuración por defecto
+    @Param({"1", "3", "10"})
+    private int cantidadRutas;
+
+    private List<RouteResponse> rutas;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random random = new Random(42);
+        List<RouteResponse> generadas = new ArrayList<>(cantidadRutas);
+        for (int i = 0; i < cantidadRutas; i++) {
+            generadas.add(new RouteResponse(
+                100 + random.nextDouble() * 900,
+                3_600L + random.nextInt(36_000),
+                -31.4167, -64.1833, -34.6037, -58.3816));
+        }
+        // Como en RoutingService: lista inmutable armada con toList()
+        rutas = generadas.stream().toList();
+
+        if (!fromEntity().equals(fromEntityReferencia())) {
+            throw new IllegalStateException("La versión actual y la anterior eligen rutas distintas");
+        }
+    }
+
+    @Benchmark
+    public RouteAlternativeResponse fromEntity() {
+        return RouteAlternativeResponse.fromEntity(rutas);
+    }
+
+    @Benchmark
+    public RouteAlternativeResponse fromEntityReferencia() {
+        RouteResponse mejorRuta = rutas.stream()
+                .min((r1, r2) -> Long.compare(r1.duracionSegundos(), r2.duracionSegundos()))
+                .orElse(rutas.get(0));
+        return new RouteAlternativeResponse(rutas.indexOf(mejorRuta), rutas);
+    }
+}
@@ -0,0 +1,173 @@
+package com.tpi.benchmark;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.tpi.dto.response.CostosEstimadosDTOs.CostosDTO;
+import com.tpi.dto.response.CostosEstimadosDTOs.CostosEstimadosDTO;
+import com.tpi.dto.response.CostosEstimadosDTOs.MetricasDTO;
+import com.tpi.dto.response.CostosEstimadosDTOs.ResumenDTO;
+import com.tpi.dto.response.RutasTramosCamionResponsesDTO.RutaTramosCamionResponse;
+import com.tpi.dto.response.RutasTramosCamionResponsesDTO.TramoConDetalles;
+import com.tpi.model.Camion;
+import com.tpi.model.EstadoTramo;
+import com.tpi.model.Ruta;
+import com.tpi.model.TipoTramo;
+import com.tpi.model.TipoUbicacion;
+import com.tpi.model.Tramo;
+import com.tpi.model.Ubicacion;
+
+/**
+ * Serialización y lectura JSON de las respuestas más grandes de logistica-service:
+ * la ruta con tramos y camiones (RutaTramosCamionResponse) y los costos estimados
+ * con los camiones compatibles (CostosEstimadosDTO).
+ *
+ * El ObjectMapper se arma con Jackson2ObjectMapperBuilder, igual que el de Spring Boot
+ * en los controladores. Los DTO se arman con sus métodos of(...) a partir de entidades,
+ * así también se mide si cambian los campos que se exponen.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacionJsonBenchmark {
+
+    // Tramos de la ruta y camiones compatibles de la cotización
+    @Param({"3", "20", "200"})
+    private int cantidad;
+
+    private ObjectWriter escritorRuta;
+    private ObjectReader lectorRuta;
+    private ObjectWriter escritorCostos;
+    private ObjectReader lectorCostos;
+
+    private RutaTramosCamionResponse ruta;
+    private CostosEstimadosDTO costos;
+    private byte[] jsonRuta;
+    private byte[] jsonCostos;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        escritorRuta = mapper.writerFor(RutaTramosCamionResponse.class);
+        lectorRuta = mapper.readerFor(RutaTramosCamionResponse.class);
+        escritorCostos = mapper.writerFor(CostosEstimadosDTO.class);
+        lectorCostos = mapper.readerFor(CostosEstimadosDTO.class);
+
+        Random random = new Random(42);
+        List<Camion> camiones = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            camiones.add(camion(i, random));
+        }
+        ruta = armarRuta(camiones, random);
+        costos = CostosEstimadosDTO.of(1L, true, new Date(1_700_000_000_000L),
+            new ResumenDTO(cantidad, cantidad, 1_234_567.89, 8_765.4, 120.5),
+            new CostosDTO(30_000.0, 900_000.0, 250_000.0, 1.45, 54_567.89, 120.0),
+            new MetricasDTO(32.0, 433_800L),
+            camiones);
+
+        jsonRuta = escritorRuta.writeValueAsBytes(ruta);
+        jsonCostos = escritorCostos.writeValueAsBytes(costos);
+
+        // La lectura tiene que devolver exactamente lo que se escribió
+        if (!ruta.equals(lectorRuta.readValue(jsonRuta)) || !costos.equals(lectorCostos.readValue(jsonCostos))) {
+            throw new IllegalStateException("La ida y vuelta por JSON no conserva los datos");
+        }
+    }
+
+    @Benchmark
+    public byte[] serializarRuta() throws Exception {
+        return escritorRuta.writeValueAsBytes(ruta);
+    }
+
+    @Benchmark
+    public RutaTramosCamionResponse deserializarRuta() throws Exception {
+        return lectorRuta.readValue(jsonRuta);
+    }
+
+    @Benchmark
+    public byte[] serializarCostos() throws Exception {
+        return escritorCostos.writeValueAsBytes(costos);
+    }
+
+    @Benchmark
+    public CostosEstimadosDTO deserializarCostos() throws Exception {
+        return lectorCostos.readValue(jsonCostos);
+    }
+
+    private RutaTramosCamionResponse armarRuta(List<Camion> camiones, Random random) {
+        TipoUbicacion tipoDeposito = TipoUbicacion.builder().id(3L).nombre("DEPOSITO").build();
+        TipoTramo tipo = TipoTramo.builder().id(2L).nombre("DEPOSITO_DEPOSITO").build();
+        EstadoTramo estado = EstadoTramo.builder().id(2L).nombre("ASIGNADO").build();
+        Ruta entidad = Ruta.builder().id(1L).solicitudId(1L).cantidadTramos(cantidad)
+            .cantidadDepositos(cantidad - 1).build();
+
+        Ubicacion anterior = ubicacion(0, tipoDeposito, random);
+        List<TramoConDetalles> tramos = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            Ubicacion siguiente = ubicacion(i + 1, tipoDeposito, random);
+            Date inicio = new Date(1_700_000_000_000L + i * 86_400_000L);
+            tramos.add(TramoConDetalles.of(Tramo.builder()
+                .id((long) i + 1)
+                .orden(i + 1)
+                .origen(anterior)
+                .destino(siguiente)
+                .tipo(tipo)
+                .estado(estado)
+                .costoAproximado(50_000 + random.nextDouble() * 10_000)
+                .diasEstadia(1)
+                .fechaHoraInicio(inicio)
+                .fechaHoraLlegada(new Date(inicio.getTime() + 20_000_000L))
+                .camion(camiones.get(i))
+                .build()));
+            anterior = siguiente;
+        }
+        return RutaTramosCamionResponse.of(entidad, tramos);
+    }
+
+    private static Ubicacion ubicacion(int i, TipoUbicacion tipo, Random random) {
+        return Ubicacion.builder()
+            .id((long) i + 1)
+            .nombre("Depósito " + i)
+            .direccion("Av. Siempre Viva " + (100 + i))
+            .latitud(-38 + random.nextDouble() * 10)
+            .longitud(-68 + random.nextDouble() * 10)
+            .tipo(tipo)
+            .build();
+    }
+
+    private static Camion camion(int i, Random random) {
+        return Camion.builder()
+            .id((long) i + 1)
+            .dominio(String.format("AA%03dBB", i))
+            .nombreConductor("Conductor " + i)
+            .modelo("Modelo " + (i % 7))
+            .costoPorKm(80 + random.nextDouble() * 80)
+            .consumoCombustibleLx100km(20 + random.nextDouble() * 20)
+            .capacidadPesoKg(5_000 + random.nextDouble() * 25_000)
+            .capacidadVolumenM3(10 + random.nextDouble() * 70)
+            .build();
+    }
+}
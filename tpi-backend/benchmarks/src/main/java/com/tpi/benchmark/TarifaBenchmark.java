@@ -0,0 +1,113 @@
+package com.tpi.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tpi.model.Tarifa;
+import com.tpi.repository.TarifaRepository;
+import com.tpi.service.TarifaService;
+
+/**
+ * Búsqueda de la tarifa de un contenedor por volumen (TarifaService.getTarifaByVolumenContenedor).
+ *
+ * - buscarTarifa: el servicio real, con su índice en memoria (búsqueda binaria).
+ * - buscarTarifaReferencia: recorrido lineal de la lista, lo que hacía la consulta por rango.
+ * - recargarIndice: reconstrucción del índice, que se paga en cada alta, modificación o baja.
+ *
+ * Los volúmenes consultados se toman en orden de un arreglo aleatorio fijo, así cada
+ * llamada busca un rango distinto y el predictor de saltos no memoriza la respuesta.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TarifaBenchmark {
+
+    private static final double ANCHO_RANGO = 10.0;
+    private static final int CANTIDAD_CONSULTAS = 1024;
+
+    @Param({"4", "64", "1024"})
+    private int cantidadTarifas;
+
+    private TarifaService tarifaService;
+    private List<Tarifa> tarifas;
+    private final double[] volumenes = new double[CANTIDAD_CONSULTAS];
+    private int siguiente;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        tarifas = new ArrayList<>(cantidadTarifas);
+        for (int i = 0; i < cantidadTarifas; i++) {
+            tarifas.add(Tarifa.builder()
+                .id((long) i + 1)
+                .nombre("Tarifa " + i)
+                .volumenMin(i * ANCHO_RANGO)
+                .volumenMax((i + 1) * ANCHO_RANGO)
+                .costoGestionPorTramo(1500.0)
+                .precioCombustiblePorLitro(1.45)
+                .build());
+        }
+
+        TarifaRepository repositorio = RepositorioFijo.de(TarifaRepository.class, Map.of("findAll", tarifas));
+        tarifaService = new TarifaService(repositorio, evento -> { });
+        tarifaService.recargarIndice();
+
+        Random random = new Random(42);
+        for (int i = 0; i < CANTIDAD_CONSULTAS; i++) {
+            volumenes[i] = random.nextDouble() * cantidadTarifas * ANCHO_RANGO;
+            if (tarifaService.getTarifaByVolumenContenedor(volumenes[i]) != buscarLineal(volumenes[i])) {
+                throw new IllegalStateException("El índice y el recorrido lineal no coinciden para " + volumenes[i]);
+            }
+        }
+    }
+
+    @Benchmark
+    public Tarifa buscarTarifa() {
+        return tarifaService.getTarifaByVolumenContenedor(siguienteVolumen());
+    }
+
+    @Benchmark
+    public Tarifa buscarTarifaReferencia() {
+        return buscarLineal(siguienteVolumen());
+    }
+
+    @Benchmark
+    public TarifaService recargarIndice() {
+        tarifaService.recargarIndice();
+        return tarifaService;
+    }
+
+    private double siguienteVolumen() {
+        double volumen = volumenes[siguiente];
+        siguiente = (siguiente + 1) & (CANTIDAD_CONSULTAS - 1);
+        return volumen;
+    }
+
+    // Primer rango (por volumen mínimo) que contiene el volumen, igual que el índice en los bordes
+    private Tarifa buscarLineal(double volumen) {
+        for (Tarifa tarifa : tarifas) {
+            if (tarifa.getVolumenMin() <= volumen && volumen <= tarifa.getVolumenMax()) {
+                return tarifa;
+            }
+        }
+        return null;
+    }
+}
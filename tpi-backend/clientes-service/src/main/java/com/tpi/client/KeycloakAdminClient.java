@@ -1,6 +1,8 @@
 package com.tpi.client;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
@@ -13,9 +15,13 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 import java.net.URLEncoder;
 
+import com.tpi.comun.resiliencia.Plazo;
+
+import io.micrometer.observation.annotation.Observed;
 import lombok.Getter;
 
 import lombok.RequiredArgsConstructor;
@@ -38,8 +44,15 @@ public class KeycloakAdminClient {
     private String adminUser = "admin";
     private String adminPass = "admin123";
 
+    // Se considera vencido el token de admin este tiempo antes de su expires_in
+    private static final Duration MARGEN_RENOVACION_TOKEN = Duration.ofSeconds(30);
+
     private final RestTemplate keycloackRestTemplate;
 
+    // Token de admin compartido entre llamadas (evita un login por operación)
+    private final KeycloakTokenCache tokenCache = new KeycloakTokenCache(
+            this::loginAdmin, this::refrescarTokenAdmin, MARGEN_RENOVACION_TOKEN, Clock.systemUTC());
+
     /**
      * Crea un usuario en Keycloak utilizando la API de administración.
      *
@@ -47,6 +60,7 @@ public class KeycloakAdminClient {
      * @return ID del usuario creado en Keycloak.
      * @throws RuntimeException si ocurre cualquier error durante la creación.
      */
+    @Observed(name = "tpi.cliente.llamadas", lowCardinalityKeyValues = {"destino", "keycloak"})
     @SuppressWarnings("null")
     public String createUser(KeycloakUserDto user) {
         log.info("Creando usuario en Keycloak: {}", user.username());
@@ -101,6 +115,12 @@ public class KeycloakAdminClient {
             log.info("✅ Usuario creado exitosamente con ID: {}", userId);
             return userId;
 
+        } catch (HttpClientErrorException.Unauthorized e) {
+            // Keycloak rechazó el token (revocado o sesión cerrada): descartarlo para el próximo intento
+            tokenCache.invalidar();
+            log.error("Token de admin rechazado en createUser para email: {}", user.email(), e);
+            throw new RuntimeException("Error creando usuario: " + e.getMessage(), e);
+
         } catch (Exception e) {
             log.error("Error en createUser para email: {}", user.email(), e);
             throw new RuntimeException("Error creando usuario: " + e.getMessage(), e);
@@ -112,7 +132,8 @@ public class KeycloakAdminClient {
      * Busca el ID de un usuario recientemente creado usando reintentos.
      * 
      * Dado que Keycloak a veces no devuelve el ID en el header "Location",
-     * este método realiza una búsqueda por email hasta que el usuario aparezca.
+     * este método realiza una búsqueda por email hasta que el usuario aparezca
+     * o hasta que no quede plazo para otro intento.
      *
      * @param email Email del usuario recién creado.
      * @param token Token de administrador para autenticar la petición.
@@ -134,6 +155,11 @@ public class KeycloakAdminClient {
                 log.warn("Intento {} fallado al buscar usuario: {}", i + 1, e.getMessage());
             }
 
+            // Sin tiempo para esperar y volver a buscar dentro del plazo de la request, no se reintenta
+            if (Plazo.restante().filter(queda -> queda.toMillis() <= retryDelayMs).isPresent()) {
+                break;
+            }
+
             // Esperar antes de reintentar
             try {
                 Thread.sleep(retryDelayMs);
@@ -143,7 +169,7 @@ public class KeycloakAdminClient {
             }
         }
 
-        throw new RuntimeException("No se pudo encontrar el usuario después de " + maxRetries + " intentos");
+        throw new RuntimeException("No se pudo encontrar el usuario dentro del plazo (hasta " + maxRetries + " intentos)");
     }
 
 
@@ -196,17 +222,53 @@ public class KeycloakAdminClient {
 
 
     /**
-     * Obtiene un token de administrador desde Keycloak utilizando el flujo
-     * "password grant". Este token permite realizar operaciones administrativas
-     * como creación de usuarios, actualización de roles, etc.
+     * Obtiene un token de administrador vigente para llamar a la API de administración
+     * (creación de usuarios, actualización de roles, etc.).
+     * El token se reutiliza entre llamadas y solo se pide uno nuevo cuando está por vencer.
      *
-     * @return Token JWT de administrador obtenido desde Keycloak.
+     * @return Token JWT de administrador.
      */
-    @SuppressWarnings("null")
     private String obtenerTokenAdmin() {
+        return tokenCache.obtenerToken();
+    }
 
-        // Log informativo indicando el inicio del proceso
-        log.info("Obteniendo token de admin para Keycloak");
+    /**
+     * Hace login en el realm "master" con el flujo "password grant".
+     *
+     * @return Respuesta de Keycloak con access token, refresh token y vencimientos.
+     */
+    private KeycloakTokenResponse loginAdmin() {
+
+        // Construcción del cuerpo del formulario con los parámetros necesarios
+        MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+        form.add("grant_type", "password"); // Tipo de flujo OAuth2
+        form.add("client_id", "admin-cli"); // Cliente interno de administración de Keycloak
+        form.add("username", adminUser);    // Usuario administrador
+        form.add("password", adminPass);    // Contraseña del administrador
+
+        return pedirTokenAdmin(form);
+    }
+
+    /**
+     * Renueva el token de administrador con el flujo "refresh_token", sin reenviar la contraseña.
+     *
+     * @param refreshToken Refresh token obtenido en el login anterior.
+     * @return Respuesta de Keycloak con el nuevo access token.
+     */
+    private KeycloakTokenResponse refrescarTokenAdmin(String refreshToken) {
+        MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+        form.add("grant_type", "refresh_token");
+        form.add("client_id", "admin-cli");
+        form.add("refresh_token", refreshToken);
+
+        return pedirTokenAdmin(form);
+    }
+
+    /**
+     * Envía el formulario al endpoint de token del realm "master".
+     */
+    @SuppressWarnings("null")
+    private KeycloakTokenResponse pedirTokenAdmin(MultiValueMap<String, String> form) {
 
         // Construcción de la URL del endpoint para obtener el token del realm "master"
         String url = keycloakUrl + "/realms/master/protocol/openid-connect/token";
@@ -216,13 +278,6 @@ public class KeycloakAdminClient {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
 
-        // Construcción del cuerpo del formulario con los parámetros necesarios
-        MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
-        form.add("grant_type", "password"); // Tipo de flujo OAuth2
-        form.add("client_id", "admin-cli"); // Cliente interno de administración de Keycloak
-        form.add("username", adminUser);    // Usuario administrador
-        form.add("password", adminPass);    // Contraseña del administrador
-
         // Se crea la entidad HTTP combinando headers y cuerpo del formulario
         HttpEntity<MultiValueMap<String, String>> entity = new HttpEntity<>(form, headers);
 
@@ -230,15 +285,15 @@ public class KeycloakAdminClient {
         KeycloakTokenResponse tokenResponse = keycloackRestTemplate
                 .postForObject(url, entity, KeycloakTokenResponse.class);
 
-        // Log del objeto recibido para debug
-        log.debug("TokenResponse: {}", tokenResponse);
-
-        // Se retorna únicamente el access_token extraído del response
-        return tokenResponse.access_token();
+        if (tokenResponse == null || tokenResponse.access_token() == null) {
+            throw new RuntimeException("Keycloak no devolvió un token de administrador");
+        }
+        return tokenResponse;
     }
 
 
     @SuppressWarnings({ "null", "rawtypes" })
+    @Observed(name = "tpi.cliente.llamadas", lowCardinalityKeyValues = {"destino", "keycloak"})
     public void assignRole(String userId, String roleName) {
 
         // Log inicial indicando la asignación del rol
@@ -264,12 +319,19 @@ public class KeycloakAdminClient {
         HttpEntity<Void> roleEntity = new HttpEntity<>(headers);
 
         // Petición GET para obtener los datos del rol
-        ResponseEntity<Map> roleResponse = keycloackRestTemplate.exchange(
-                roleUrl,
-                HttpMethod.GET,
-                roleEntity,
-                Map.class
-        );
+        ResponseEntity<Map> roleResponse;
+        try {
+            roleResponse = keycloackRestTemplate.exchange(
+                    roleUrl,
+                    HttpMethod.GET,
+                    roleEntity,
+                    Map.class
+            );
+        } catch (HttpClientErrorException.Unauthorized e) {
+            // Token de admin rechazado: descartarlo para que la próxima operación haga login
+            tokenCache.invalidar();
+            throw e;
+        }
 
         // Log de debug con la información del rol
         log.debug("Rol obtenido: {}", roleResponse.getBody());
@@ -0,0 +1,116 @@
+package com.tpi.client;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.tpi.client.KeycloakAdminClient.KeycloakTokenResponse;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Guarda el token de administrador de Keycloak y lo reutiliza mientras siga vigente.
+ *
+ * - El token se considera vencido un margen antes de expires_in, para no usar uno
+ *   que expire en pleno request.
+ * - Cuando vence se renueva con el refresh token; si no hay o fue rechazado,
+ *   se vuelve a hacer login.
+ * - Si varios hilos lo piden vencido a la vez, solo uno renueva y el resto espera
+ *   y usa ese mismo resultado (una única llamada a Keycloak en vuelo).
+ */
+@Slf4j
+public class KeycloakTokenCache {
+
+    private record TokenVigente(String accessToken, Instant vence, String refreshToken, Instant refreshVence) {
+
+        boolean accesoVigente(Instant ahora) {
+            return ahora.isBefore(vence);
+        }
+
+        boolean refreshVigente(Instant ahora) {
+            return refreshToken != null && ahora.isBefore(refreshVence);
+        }
+    }
+
+    private final Supplier<KeycloakTokenResponse> login;
+    private final Function<String, KeycloakTokenResponse> refresh;
+    private final Duration margen;
+    private final Clock clock;
+
+    // ReentrantLock y no synchronized: no fija el hilo virtual a su carrier mientras espera la red
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile TokenVigente token;
+
+    /**
+     * @param login   hace login con usuario y contraseña (password grant)
+     * @param refresh renueva a partir de un refresh token (refresh_token grant)
+     * @param margen  cuánto antes del vencimiento se considera vencido el token
+     * @param clock   reloj para calcular vencimientos
+     */
+    public KeycloakTokenCache(Supplier<KeycloakTokenResponse> login,
+                              Function<String, KeycloakTokenResponse> refresh,
+                              Duration margen,
+                              Clock clock) {
+        this.login = login;
+        this.refresh = refresh;
+        this.margen = margen;
+        this.clock = clock;
+    }
+
+    /**
+     * Devuelve un access token vigente, renovándolo si hace falta.
+     */
+    public String obtenerToken() {
+        TokenVigente actual = token;
+        if (actual != null && actual.accesoVigente(clock.instant())) {
+            return actual.accessToken();
+        }
+
+        lock.lock();
+        try {
+            // Otro hilo pudo haberlo renovado mientras esperábamos el lock
+            actual = token;
+            Instant ahora = clock.instant();
+            if (actual != null && actual.accesoVigente(ahora)) {
+                return actual.accessToken();
+            }
+
+            token = renovar(actual, ahora);
+            return token.accessToken();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Descarta el token guardado (por ejemplo si Keycloak lo rechazó con 401),
+     * así la próxima llamada hace login de nuevo.
+     */
+    public void invalidar() {
+        token = null;
+    }
+
+    private TokenVigente renovar(TokenVigente actual, Instant ahora) {
+        if (actual != null && actual.refreshVigente(ahora)) {
+            try {
+                log.debug("Renovando token de admin con refresh token");
+                return desde(refresh.apply(actual.refreshToken()), ahora);
+            } catch (RuntimeException e) {
+                log.warn("No se pudo renovar el token de admin, se hace login: {}", e.getMessage());
+            }
+        }
+
+        log.info("Obteniendo token de admin para Keycloak");
+        return desde(login.get(), ahora);
+    }
+
+    private TokenVigente desde(KeycloakTokenResponse respuesta, Instant ahora) {
+        Instant vence = ahora.plusSeconds(respuesta.expires_in()).minus(margen);
+        Instant refreshVence = ahora.plusSeconds(respuesta.refresh_expires_in()).minus(margen);
+        return new TokenVigente(respuesta.access_token(), vence, respuesta.refresh_token(), refreshVence);
+    }
+}
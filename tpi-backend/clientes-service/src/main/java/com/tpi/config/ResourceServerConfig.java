@@ -51,6 +51,9 @@ public class ResourceServerConfig {
                 // endpoints de pruebas ver si esta actuator en el pom.xml
                 .requestMatchers("/actuator/health").permitAll()
                 .requestMatchers("/actuator/info").permitAll()
+                // Scrape de Prometheus: actuator atiende en management.server.port, que docker-compose no
+                // publica y el gateway no enruta (sus rutas van al puerto de la API)
+                .requestMatchers("/actuator/prometheus").permitAll()
                 .requestMatchers("/clientes/sincronizar").permitAll()
                 
                 // Endpoints PÚBLICOS (sin autenticación)
@@ -1,14 +1,53 @@
 package com.tpi.config;
 
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import com.tpi.comun.resiliencia.Plazo;
+
+/**
+ * RestTemplate de las llamadas a Keycloak (API de administración y token de admin).
+ * Cada llamada espera a lo sumo lo que le queda al plazo de la request (Plazo, fijado por
+ * PlazoFilter desde X-Deadline-Ms); si el plazo ya venció, falla sin llamar.
+ */
 @Configuration
 public class RestClientConfig {
-    
+
     @Bean
-    public RestTemplate keycloackRestTemplate() {
-        return new RestTemplate();
+    public RestTemplate keycloackRestTemplate(
+            @Value("${http-cliente.timeout-conexion:2s}") Duration timeoutConexion,
+            @Value("${http-cliente.timeout-lectura:10s}") Duration timeoutLectura) {
+        return new RestTemplate(new FabricaConPlazo(timeoutConexion, timeoutLectura));
+    }
+
+    // Conexiones con los timeouts configurados, acotados al plazo de la request
+    static class FabricaConPlazo extends SimpleClientHttpRequestFactory {
+
+        private final Duration timeoutConexion;
+        private final Duration timeoutLectura;
+
+        FabricaConPlazo(Duration timeoutConexion, Duration timeoutLectura) {
+            this.timeoutConexion = timeoutConexion;
+            this.timeoutLectura = timeoutLectura;
+        }
+
+        @Override
+        protected void prepareConnection(HttpURLConnection conexion, String metodo) throws IOException {
+            super.prepareConnection(conexion, metodo);
+            if (Plazo.restante().filter(queda -> queda.isNegative() || queda.isZero()).isPresent()) {
+                throw new SocketTimeoutException("Plazo de la request vencido: no se llama a " + conexion.getURL());
+            }
+            // 0 en HttpURLConnection es "sin timeout": como mínimo 1 ms
+            conexion.setConnectTimeout((int) Math.max(1, Plazo.acotar(timeoutConexion).toMillis()));
+            conexion.setReadTimeout((int) Math.max(1, Plazo.acotar(timeoutLectura).toMillis()));
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,7 @@
 package com.tpi.controller;
 
+import com.tpi.comun.paginacion.PaginaRequest;
+import com.tpi.comun.paginacion.PaginaResponse;
 import com.tpi.dto.ActualizarClienteRequest;
 import com.tpi.dto.responses.ClienteDTO;
 import com.tpi.dto.SincronizarClienteRequest;
@@ -8,6 +10,7 @@ import com.tpi.model.Cliente;
 import com.tpi.service.ClienteService;
 import com.tpi.service.KeycloakService;
 
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.web.ErrorResponse;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.HttpStatus;
@@ -271,20 +274,59 @@ public class ClienteController {
     }
 
     /*
-     * Obtener Clientes listados
+     * Obtener Clientes listados (paginado por cursor)
      */
     @Operation(
-        summary = "Listar todos los clientes",
-        description = "Obtiene una lista de todos los clientes registrados en el sistema"
+        summary = "Listar clientes",
+        description = """
+            Obtiene una página de los clientes registrados en el sistema.
+
+            Parámetros de paginación:
+            • tamanio: cantidad de elementos por página (1 a 200, por defecto 20)
+            • orden: campo por el cual ordenar (id, nombre, email)
+            • direccion: ASC o DESC
+            • cursor: valor siguienteCursor de la página anterior
+            """
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200", 
+            description = "Página de clientes obtenida exitosamente",
+            content = @Content(schema = @Schema(implementation = PaginaResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "400", 
+            description = "Parámetros de paginación inválidos"
+        )
+    })
+    @GetMapping
+    public PaginaResponse<Cliente> listarClientes(@ParameterObject PaginaRequest pagina) {
+        return clienteService.getClientes(pagina);
+    }
+
+    /*
+     * Obtener varios Clientes por ID en una sola llamada
+     */
+    @Operation(
+        summary = "Obtener clientes por lista de IDs",
+        description = "Recupera en una sola llamada los clientes cuyos IDs de Keycloak se indican. " +
+                      "Los IDs inexistentes se omiten del resultado."
     )
     @ApiResponse(
-        responseCode = "200", 
-        description = "Lista de clientes obtenida exitosamente",
-        content = @Content(schema = @Schema(implementation = Cliente[].class))
+        responseCode = "200",
+        description = "Clientes encontrados",
+        content = @Content(schema = @Schema(implementation = ClienteDTO[].class))
     )
-    @GetMapping
-    public List<Cliente> listarClientes() {
-        return clienteService.getAllClientes();
+    @GetMapping(params = "ids")
+    public List<ClienteDTO> obtenerClientesPorIds(
+        @Parameter(
+            description = "IDs de Keycloak separados por coma",
+            example = "123e4567-e89b-12d3-a456-426614174000,223e4567-e89b-12d3-a456-426614174001",
+            required = true
+        )
+        @RequestParam List<String> ids) {
+
+        return clienteService.getDTOsClientesByIds(ids);
     }
 
 }
\ No newline at end of file
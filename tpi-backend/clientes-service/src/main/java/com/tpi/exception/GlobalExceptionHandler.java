@@ -7,6 +7,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import com.tpi.comun.excepcion.ParametroInvalidoException;
+
 /**
  * Manejador global de excepciones para la API REST.
  * Intercepta excepciones lanzadas por los controladores y devuelve
@@ -87,4 +89,19 @@ public class GlobalExceptionHandler {
         );
         return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
     }
-}
+
+    /**
+     * Maneja parámetros de request inválidos (ej: cursor de paginación corrupto).
+     * Devuelve 400 BAD REQUEST.
+     */
+    @ExceptionHandler(ParametroInvalidoException.class)
+    public ResponseEntity<ErrorResponse> handleParametroInvalido(ParametroInvalidoException ex) {
+        log.warn("Parámetro inválido: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse(
+            "PARAMETRO_INVALIDO",
+            ex.getMessage(),
+            HttpStatus.BAD_REQUEST.value()
+        );
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+}
\ No newline at end of file
@@ -1,6 +1,10 @@
 package com.tpi.repository;
 
 import com.tpi.model.Cliente;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -28,4 +32,7 @@ public interface ClienteRepository extends JpaRepository<Cliente, String> {
     count() - Contar total de clientes
     existsById(String id) - Verificar si existe 
     */
+
+    // Página de clientes a partir de una posición keyset (para listados sin cargar la tabla completa)
+    Window<Cliente> findBy(ScrollPosition posicion, Sort orden, Limit limite);
 }
\ No newline at end of file
@@ -2,9 +2,14 @@ package com.tpi.service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 import org.springframework.stereotype.Service;
 
+import com.tpi.comun.paginacion.PaginaRequest;
+import com.tpi.comun.paginacion.PaginaResponse;
+import com.tpi.comun.paginacion.Paginador;
 import com.tpi.dto.responses.ClienteDTO;
 import com.tpi.dto.request.ClienteRequest;
 import com.tpi.exception.EntidadNotFoundException;
@@ -17,6 +22,13 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class ClienteService {
 
+    // Campos por los que se puede ordenar el listado (todos no nulos)
+    private static final Paginador PAGINADOR = new Paginador(Map.<String, Function<String, Object>>of(
+        "id", valor -> valor,
+        "nombre", valor -> valor,
+        "email", valor -> valor
+    ));
+
     private final ClienteRepository clienteRepository;
 
     /**
@@ -130,7 +142,24 @@ public class ClienteService {
      *
      * @return lista completa de entidades Cliente
      */
-    public List<Cliente> getAllClientes() {
-        return clienteRepository.findAll();
+    public PaginaResponse<Cliente> getClientes(PaginaRequest pagina) {
+        Paginador.Consulta consulta = PAGINADOR.consulta(pagina);
+        return PAGINADOR.pagina(
+            clienteRepository.findBy(consulta.posicion(), consulta.orden(), consulta.limite()),
+            consulta,
+            Function.identity());
+    }
+
+    /**
+     * Obtiene varios clientes en una sola consulta a partir de sus IDs.
+     * Los IDs que no existen simplemente no aparecen en el resultado.
+     *
+     * @param ids IDs de los clientes (keycloakId)
+     * @return lista de DTOs de los clientes encontrados
+     */
+    public List<ClienteDTO> getDTOsClientesByIds(List<String> ids) {
+        return clienteRepository.findAllById(ids).stream()
+            .map(ClienteDTO::fromEntity)
+            .toList();
     }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.tpi.gateway.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestClient;
+
+import com.tpi.comun.http.FabricaClientesHttp;
+
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * RestClient que usa AuthController, uno por servicio destino y cada uno con su pool
+ * de conexiones (FabricaClientesHttp). Se crean una sola vez en lugar de uno por login.
+ * Con el ObservationRegistry cada llamada es un span hijo del login y manda el header
+ * traceparent al destino.
+ */
+@Configuration
+public class RestClientConfig {
+
+    @Bean
+    public RestClient keycloakRestClient(FabricaClientesHttp fabrica, ObservationRegistry observaciones) {
+        return RestClient.builder()
+            .requestFactory(fabrica.requestFactory("keycloak"))
+            .observationRegistry(observaciones)
+            .build();
+    }
+
+    @Bean
+    public RestClient clientesRestClient(FabricaClientesHttp fabrica, ObservationRegistry observaciones) {
+        return RestClient.builder()
+            .requestFactory(fabrica.requestFactory("clientes"))
+            .observationRegistry(observaciones)
+            .build();
+    }
+}
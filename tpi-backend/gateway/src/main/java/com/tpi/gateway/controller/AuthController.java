@@ -12,7 +12,10 @@ import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.Map;
 
+import lombok.RequiredArgsConstructor;
+
 @RestController
+@RequiredArgsConstructor
 public class AuthController {
 
     // ================================
@@ -32,6 +35,10 @@ public class AuthController {
     private static final String CLIENT_ID = "tpi-backend-client";
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
+    // Clientes con pool de conexiones (RestClientConfig)
+    private final RestClient keycloakRestClient;
+    private final RestClient clientesRestClient;
+
     // =============================================
     //  CALLBACK DE KEYCLOAK (AUTENTICACIÓN)
     // =============================================
@@ -39,8 +46,6 @@ public class AuthController {
     @GetMapping("/api/login/oauth2/code/keycloak")
     public String intercambiarCode(@RequestParam String code) throws Exception {
 
-        RestClient restClient = RestClient.create();
-
         System.out.println("===============================================");
         System.out.println("🔔 CALLBACK DE KEYCLOAK RECIBIDO");
         System.out.println("🔹 Authorization Code: " + code);
@@ -63,7 +68,7 @@ public class AuthController {
         // -------------------------------
         String tokenResponse;
         try {
-            tokenResponse = restClient.post()
+            tokenResponse = keycloakRestClient.post()
                     .uri(KEYCLOAK_TOKEN_URL)
                     .contentType(MediaType.APPLICATION_FORM_URLENCODED)
                     .body(formData)
@@ -122,7 +127,7 @@ public class AuthController {
         System.out.println("➡ Body: " + syncRequest);
 
         try {
-            restClient.post()
+            clientesRestClient.post()
                     .uri(CLIENTES_SYNC_URL)
                     .contentType(MediaType.APPLICATION_JSON)
                     .header("Authorization", "Bearer " + accessToken)
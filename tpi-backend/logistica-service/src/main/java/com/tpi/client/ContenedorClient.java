@@ -4,6 +4,7 @@ import com.tpi.dto.ContenedorDTO;
 import com.tpi.exception.EntidadNotFoundException;
 import com.tpi.exception.MicroservicioNoDisponibleException;
 import com.tpi.service.SecurityContextService;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 // import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
@@ -11,6 +12,7 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 
 @Service
+@Observed(name = "tpi.cliente.llamadas", lowCardinalityKeyValues = {"destino", "solicitudes-service"})
 @RequiredArgsConstructor
 public class ContenedorClient {
     
@@ -1,15 +1,24 @@
 package com.tpi.client;
 
+import com.tpi.dto.external.RouteResponseDTOs.Coordenada;
+import com.tpi.dto.external.RouteResponseDTOs.MatrixRequest;
+import com.tpi.dto.external.RouteResponseDTOs.MatrixResponse;
 import com.tpi.dto.external.RouteResponseDTOs.RouteAlternativeResponse;
 import com.tpi.exception.EntidadNotFoundException;
 import com.tpi.exception.MicroservicioNoDisponibleException;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 
 @Service
+@Observed(name = "tpi.cliente.llamadas", lowCardinalityKeyValues = {"destino", "routing-service"})
 @RequiredArgsConstructor
 public class RoutingClient {
 
@@ -67,4 +76,54 @@ public class RoutingClient {
                 "Error al calcular ruta: ", e.getMessage(), e);
         }
     }
+
+    /**
+     * Calls the routing microservice to get the distance/duration matrix between every pair of points.
+     * One request replaces n² individual route calls. The points are sent once, without
+     * destinations, and the routing service uses each one as both origin and destination.
+     *
+     * @param puntos points used as both origins and destinations
+     * @return       matrix where cell [i][j] is the trip from puntos[i] to puntos[j]
+     */
+    public MatrixResponse calcularMatriz(List<Coordenada> puntos) {
+        return pedirMatriz(new MatrixRequest(puntos, null));
+    }
+
+    /**
+     * Calls the routing microservice to get the distance/duration matrix from every origin to every destination.
+     *
+     * @param origenes origin points (rows)
+     * @param destinos destination points (columns)
+     * @return         matrix where cell [i][j] is the trip from origenes[i] to destinos[j]
+     */
+    public MatrixResponse calcularMatriz(List<Coordenada> origenes, List<Coordenada> destinos) {
+        return pedirMatriz(new MatrixRequest(origenes, destinos));
+    }
+
+    private MatrixResponse pedirMatriz(MatrixRequest request) {
+        try {
+            MatrixResponse response = routingRestClient.post()
+                .uri("/api/v1/routing/matriz")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(request)
+                .retrieve()
+                .body(MatrixResponse.class);
+
+            if (response == null) {
+                throw new MicroservicioNoDisponibleException(
+                    "servicio de routing", "Respuesta vacía", null
+                );
+            }
+
+            return response;
+
+        } catch (MicroservicioNoDisponibleException e) {
+            throw e;
+
+        } catch (Exception e) {
+            // Network errors, timeouts, 4xx/5xx from the routing service, parsing errors, etc.
+            throw new MicroservicioNoDisponibleException(
+                "servicio de routing", "cálculo de matriz: " + e.getMessage(), e);
+        }
+    }
 }
@@ -1,11 +1,18 @@
 package com.tpi.client;
 
+import static org.springframework.security.oauth2.client.web.client.RequestAttributeClientRegistrationIdResolver.clientRegistrationId;
+
+import java.util.List;
+
+import com.tpi.config.RestClientConfig;
 import com.tpi.dto.external.ContenedorResponseDTO;
+import com.tpi.dto.external.CostoEstimadoSolicitudDTO;
 import com.tpi.dto.external.SolicitudUpdateEstadoResponseDTO;
 import com.tpi.exception.EntidadNotFoundException;
 import com.tpi.exception.MicroservicioNoDisponibleException;
 import com.tpi.service.SecurityContextService;
 
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -14,6 +21,7 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 
 @Service
+@Observed(name = "tpi.cliente.llamadas", lowCardinalityKeyValues = {"destino", "solicitudes-service"})
 @Slf4j
 @RequiredArgsConstructor
 public class SolicitudClient {
@@ -80,4 +88,29 @@ public class SolicitudClient {
                 "Error al obtener solicitud: ", e.getMessage(), e);
         }
     }
+
+
+    /**
+     * Actualiza en ms-solicitudes el costo estimado de las solicitudes recotizadas.
+     * Lo llama un trabajo en segundo plano, que no tiene contexto de seguridad: usa el
+     * token del servicio (client credentials), que se renueva solo mientras dura el trabajo.
+     */
+    public void actualizarCostosEstimados(List<CostoEstimadoSolicitudDTO> costos) {
+        log.debug("Actualizando costo estimado de {} solicitudes", costos.size());
+
+        try {
+            solicitudesRestClient
+                .patch()
+                .uri(SOLICITUD_PATH + "/costos-estimados")
+                .attributes(clientRegistrationId(RestClientConfig.REGISTRO_SERVICIO))
+                .body(costos)
+                .retrieve()
+                .toBodilessEntity();
+
+        } catch (Exception e) {
+            log.error("Error al actualizar costos estimados de {} solicitudes: {}", costos.size(), e.getMessage());
+            throw new MicroservicioNoDisponibleException(
+                "Error al actualizar costos estimados: ", e.getMessage(), e);
+        }
+    }
 }
@@ -0,0 +1,50 @@
+package com.tpi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+
+import com.tpi.comun.resiliencia.Plazo;
+
+/**
+ * Ejecutores para tareas en paralelo.
+ *
+ * Usan hilos virtuales si spring.threads.virtual.enabled está activo (igual que Tomcat):
+ * las tareas pasan casi todo el tiempo esperando la respuesta de otro servicio.
+ */
+@Configuration
+public class AsyncConfig {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean hilosVirtuales;
+
+    /**
+     * Ejecutor para las llamadas al servicio de routing (un hilo por llamada).
+     * No tiene límite propio: cuántas llamadas hay en curso lo acota RoutingParaleloService,
+     * que espera un permiso sin pasar el deadline en lugar de bloquear al encolar.
+     * Cada tarea corre con el plazo y la traza de la request que la encoló
+     * (los spans de sus llamadas quedan como hijos del span de la request).
+     */
+    @Bean
+    public SimpleAsyncTaskExecutor routingExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("routing-");
+        executor.setVirtualThreads(hilosVirtuales);
+        TaskDecorator contexto = new ContextPropagatingTaskDecorator();
+        executor.setTaskDecorator(tarea -> Plazo.propagar(contexto.decorate(tarea)));
+        return executor;
+    }
+
+    /**
+     * Ejecutor de la recotización de rutas: corre cada trabajo y sus bloques de tramos
+     * en su propio hilo. La cantidad de bloques en paralelo la limita el propio trabajo.
+     */
+    @Bean
+    public SimpleAsyncTaskExecutor recotizacionExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("recotizacion-");
+        executor.setVirtualThreads(hilosVirtuales);
+        return executor;
+    }
+}
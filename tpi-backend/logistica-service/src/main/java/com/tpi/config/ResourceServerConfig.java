@@ -46,6 +46,9 @@ public class ResourceServerConfig {
                 
                 .requestMatchers("/actuator/health").permitAll()
                 .requestMatchers("/actuator/info").permitAll()
+                // Scrape de Prometheus: actuator atiende en management.server.port, que docker-compose no
+                // publica y el gateway no enruta (sus rutas van al puerto de la API)
+                .requestMatchers("/actuator/prometheus").permitAll()
 
                 .requestMatchers(HttpMethod.GET, "/api/v1/camiones").hasAnyRole("ADMIN", "TRANSPORTISTA")
                 .requestMatchers(HttpMethod.GET, "/api/v1/camiones/**").hasAnyRole("ADMIN", "TRANSPORTISTA")
@@ -63,6 +66,7 @@ public class ResourceServerConfig {
                 .requestMatchers(HttpMethod.GET, "/api/v1/tarifas").hasAnyRole("ADMIN", "TRANSPORTISTA", "CLIENTE")
                 .requestMatchers(HttpMethod.GET, "/api/v1/tarifas/**").hasAnyRole("ADMIN", "TRANSPORTISTA", "CLIENTE")
                 .requestMatchers(HttpMethod.POST, "/api/v1/tarifas").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/v1/tarifas/*/recotizacion").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.PATCH, "/api/v1/tarifas/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/api/v1/tarifas/**").hasRole("ADMIN")
 
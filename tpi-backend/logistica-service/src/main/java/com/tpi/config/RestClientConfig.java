@@ -4,27 +4,57 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.client.AuthorizedClientServiceOAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.client.web.client.OAuth2ClientHttpRequestInterceptor;
 import org.springframework.web.client.RestClient;
 
+import com.tpi.comun.http.FabricaClientesHttp;
+import com.tpi.comun.resiliencia.ResilienciaHttp;
+import com.tpi.exception.MicroservicioNoDisponibleException;
+
+/**
+ * RestClient de cada servicio destino. Los que apuntan al mismo servicio comparten
+ * el pool de conexiones de FabricaClientesHttp y la resiliencia (bulkhead, circuito,
+ * reintentos y plazo) de ResilienciaHttp.
+ */
 @Configuration
 public class RestClientConfig {
     private static final String SOLICITUDES_URL = "http://solicitudes-service:8083";
     // private static final String SOLICITUDES_URL = "http://localhost:8082"
 
     private static final String ROUTING_URL = "http://routing-service:8088";
+
+    // Registro de application.yml con las credenciales del servicio (client credentials)
+    public static final String REGISTRO_SERVICIO = "logistica-service";
+
+    // El token del servicio es uno solo, sin importar qué usuario (si hay) está en el hilo
+    private static final Authentication PRINCIPAL_SERVICIO = new AnonymousAuthenticationToken(
+        REGISTRO_SERVICIO, REGISTRO_SERVICIO, AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
     // private static final String ROUTING_URL = "http://localhost:8088"  // <- Corregí el comentario
-    
+
     @Bean
-    public RestClient contenedorRestClient() {     // Bean llamado "solicitudesRestClient"
-        return RestClient.builder()
+    public RestClient contenedorRestClient(RestClient.Builder builder, FabricaClientesHttp fabrica,
+            ResilienciaHttp resiliencia) {     // Bean llamado "solicitudesRestClient"
+        return builder
+            .requestFactory(fabrica.requestFactory("solicitudes"))
+            .requestInterceptor(resiliencia.interceptor("solicitudes"))
             .baseUrl(SOLICITUDES_URL)
             .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
             .build();
     }
 
     @Bean
-    public RestClient solicitudesRestClient() {  // Bean llamado "solicitudRestClient"
-        return RestClient.builder()
+    public RestClient solicitudesRestClient(RestClient.Builder builder, FabricaClientesHttp fabrica,
+            ResilienciaHttp resiliencia, OAuth2ClientHttpRequestInterceptor tokenServicio) {  // Bean llamado "solicitudRestClient"
+        return builder
+            .requestFactory(fabrica.requestFactory("solicitudes"))
+            .requestInterceptor(tokenServicio)
+            .requestInterceptor(resiliencia.interceptor("solicitudes"))
             .baseUrl(SOLICITUDES_URL)
             .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
             .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
@@ -32,10 +62,41 @@ public class RestClientConfig {
     }
 
     @Bean
-    public RestClient routingRestClient() {     // Bean llamado "routingRestClient"  // <- Corregí el comentario
-        return RestClient.builder()
+    public RestClient routingRestClient(RestClient.Builder builder, FabricaClientesHttp fabrica,
+            ResilienciaHttp resiliencia) {     // Bean llamado "routingRestClient"  // <- Corregí el comentario
+        return builder
+            .requestFactory(fabrica.requestFactory("routing"))
+            .requestInterceptor(resiliencia.interceptor("routing"))
             .baseUrl(ROUTING_URL)
             .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
             .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Agrega el token del servicio a las llamadas que lo piden con
+     * RequestAttributeClientRegistrationIdResolver.clientRegistrationId(REGISTRO_SERVICIO);
+     * las demás siguen con el header que pone cada cliente (token del usuario).
+     * El token se pide a Keycloak con client credentials, se reutiliza mientras siga vigente
+     * y se descarta si solicitudes-service lo rechaza (401/403).
+     */
+    @Bean
+    public OAuth2ClientHttpRequestInterceptor tokenServicio(ClientRegistrationRepository registros,
+            OAuth2AuthorizedClientService clientesAutorizados) {
+        // Manager sin request HTTP: sirve desde hilos en segundo plano (el de Spring MVC no)
+        AuthorizedClientServiceOAuth2AuthorizedClientManager manager =
+            new AuthorizedClientServiceOAuth2AuthorizedClientManager(registros, clientesAutorizados);
+
+        OAuth2ClientHttpRequestInterceptor interceptor = new OAuth2ClientHttpRequestInterceptor(manager);
+        interceptor.setPrincipalResolver(request -> PRINCIPAL_SERVICIO);
+        interceptor.setAuthorizationFailureHandler(
+            OAuth2ClientHttpRequestInterceptor.authorizationFailureHandler(clientesAutorizados));
+        return interceptor;
+    }
+
+    // Las llamadas que rechaza la resiliencia (plazo vencido, bulkhead lleno, circuito abierto)
+    // fallan igual que las demás: MicroservicioNoDisponibleException (503)
+    @Bean
+    public ResilienciaHttp.Rechazo rechazoResiliencia() {
+        return MicroservicioNoDisponibleException::new;
+    }
+}
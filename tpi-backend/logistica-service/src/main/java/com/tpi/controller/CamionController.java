@@ -1,5 +1,7 @@
 package com.tpi.controller;
 
+import com.tpi.comun.paginacion.PaginaRequest;
+import com.tpi.comun.paginacion.PaginaResponse;
 import com.tpi.dto.request.ActualizarCamionRequest;
 import com.tpi.dto.request.CamionRequest;
 import com.tpi.model.Camion;
@@ -7,15 +9,14 @@ import com.tpi.service.CamionService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
-import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
-import java.util.List;
 
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -37,18 +38,28 @@ public class CamionController {
     @Operation(
         summary = "Obtener todos los camiones",
         description = """
-            Retorna una lista completa de todos los camiones registrados en el sistema.
+            Retorna una página de los camiones registrados en el sistema.
             Incluye información como patente, marca, modelo, capacidad de carga y estado.
+
+            Parámetros de paginación:
+            • tamanio: cantidad de elementos por página (1 a 200, por defecto 20)
+            • orden: campo por el cual ordenar (id, dominio)
+            • direccion: ASC o DESC
+            • cursor: valor siguienteCursor de la página anterior
             """,
         responses = {
             @ApiResponse(
                 responseCode = "200",
-                description = "Lista de camiones obtenida exitosamente",
+                description = "Página de camiones obtenida exitosamente",
                 content = @Content(
                     mediaType = "application/json",
-                    array = @ArraySchema(schema = @Schema(implementation = Camion.class))
+                    schema = @Schema(implementation = PaginaResponse.class)
                 )
             ),
+            @ApiResponse(
+                responseCode = "400",
+                description = "Parámetros de paginación inválidos"
+            ),
             @ApiResponse(
                 responseCode = "500",
                 description = "Error interno del servidor"
@@ -56,8 +67,8 @@ public class CamionController {
         }
     )
     @GetMapping
-    public List<Camion> listarCamiones() {
-        return camionService.findAll();
+    public PaginaResponse<Camion> listarCamiones(@ParameterObject PaginaRequest pagina) {
+        return camionService.findAll(pagina);
     }
 
     @Operation(
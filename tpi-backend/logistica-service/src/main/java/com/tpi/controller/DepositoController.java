@@ -2,11 +2,13 @@ package com.tpi.controller;
 
 import com.tpi.dto.request.ActualizarDepositoRequest;
 import com.tpi.dto.request.DepositoRequest;
+import com.tpi.dto.response.DepositoCercanoDTO;
 import com.tpi.model.Deposito;
 import com.tpi.service.DepositoService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -46,6 +48,52 @@ public class DepositoController {
         return depositoService.findAll();
     }
 
+    @Operation(
+        summary = "Buscar los depósitos más cercanos",
+        description = "Devuelve los N depósitos más cercanos a un punto, del más cercano al más lejano, "
+            + "con la distancia en km. Usa un índice espacial en memoria."
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Depósitos encontrados",
+        content = @Content(array = @ArraySchema(schema = @Schema(implementation = DepositoCercanoDTO.class)))
+    )
+    @ApiResponse(responseCode = "400", description = "Coordenadas o cantidad fuera de rango")
+    @GetMapping("/cercanos")
+    public List<DepositoCercanoDTO> buscarMasCercanos(
+        @Parameter(description = "Latitud del punto", example = "-34.6037", required = true)
+        @RequestParam double latitud,
+        @Parameter(description = "Longitud del punto", example = "-58.3816", required = true)
+        @RequestParam double longitud,
+        @Parameter(description = "Cantidad de depósitos a devolver (1 a 100)", example = "5")
+        @RequestParam(defaultValue = "5") int cantidad
+    ) {
+        return depositoService.buscarMasCercanos(latitud, longitud, cantidad);
+    }
+
+    @Operation(
+        summary = "Buscar depósitos dentro de un radio",
+        description = "Devuelve los depósitos a menos de radioKm de un punto, del más cercano al más lejano, "
+            + "con la distancia en km. Usa un índice espacial en memoria."
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Depósitos encontrados",
+        content = @Content(array = @ArraySchema(schema = @Schema(implementation = DepositoCercanoDTO.class)))
+    )
+    @ApiResponse(responseCode = "400", description = "Coordenadas o radio fuera de rango")
+    @GetMapping("/dentro-de-radio")
+    public List<DepositoCercanoDTO> buscarDentroDeRadio(
+        @Parameter(description = "Latitud del punto", example = "-34.6037", required = true)
+        @RequestParam double latitud,
+        @Parameter(description = "Longitud del punto", example = "-58.3816", required = true)
+        @RequestParam double longitud,
+        @Parameter(description = "Radio de búsqueda en km", example = "50", required = true)
+        @RequestParam double radioKm
+    ) {
+        return depositoService.buscarDentroDeRadio(latitud, longitud, radioKm);
+    }
+
     @Operation(
         summary = "Crear un nuevo depósito",
         description = "Registra un nuevo depósito en el sistema con la información proporcionada."
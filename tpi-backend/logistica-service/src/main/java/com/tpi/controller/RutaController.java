@@ -1,28 +1,37 @@
 package com.tpi.controller;
 
+import com.tpi.comun.paginacion.PaginaRequest;
+import com.tpi.comun.paginacion.PaginaResponse;
 import com.tpi.dto.CostoFinalDTOs.CostoFinalDTO;
 import com.tpi.dto.request.CrearRutaCompletaRequest;
+import com.tpi.dto.request.CrearRutasLoteRequest;
+import com.tpi.dto.request.OptimizarDepositosRequest;
 import com.tpi.dto.response.CostosEstimadosDTOs.CostosEstimadosDTO;
+import com.tpi.dto.response.LoteRutasDTOs.ResultadoLoteRutasDTO;
+import com.tpi.dto.response.OrdenDepositosResponseDTO;
 import com.tpi.dto.response.RutaAsignadaResponseDTO;
+import com.tpi.dto.response.SeguimientoRutaResponseDTO;
 import com.tpi.dto.response.RutasTramosCamionResponsesDTO.RutaTramosCamionResponse;
 import com.tpi.model.Ruta;
+import com.tpi.service.OptimizacionDepositosService;
+import com.tpi.service.RutaLoteService;
 import com.tpi.service.RutaService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
-import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
@@ -31,6 +40,8 @@ import java.util.List;
 public class RutaController {
 
     private final RutaService rutaService;
+    private final OptimizacionDepositosService optimizacionDepositosService;
+    private final RutaLoteService rutaLoteService;
 
     /**
      * Este endpoint se llama desde el ms-solicitudes es para asignarle una ruta
@@ -223,25 +234,136 @@ public class RutaController {
     }
 
 
-    
+    /**
+     * Crea muchas rutas en una sola llamada (despacho por lotes)
+     */
+    @Operation(
+        summary = "Crear rutas por lote",
+        description = """
+            Crea una ruta por cada solicitud del lote. Los tramos repetidos entre rutas se consultan
+            una sola vez al servicio de routing (por matriz) y todas las rutas se guardan juntas.
+            Cada ruta tiene su propio resultado: si una falla (ubicación inexistente, sin tarifa,
+            sin camino posible) las demás se crean igual.
+            """
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Lote procesado (ver el resultado de cada ruta)",
+            content = @Content(schema = @Schema(implementation = ResultadoLoteRutasDTO.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Lote vacío o datos de entrada inválidos"
+        ),
+        @ApiResponse(
+            responseCode = "503",
+            description = "Servicio de routing no disponible (no se crea ninguna ruta)"
+        )
+    })
+    @PostMapping("/lote")
+    public ResultadoLoteRutasDTO crearRutasPorLote(
+        @RequestBody @Valid CrearRutasLoteRequest request) {
+        return rutaLoteService.crearRutas(request.rutas());
+    }
 
 
+    /**
+     * Ordena los depósitos intermedios para minimizar distancia o duración
+     */
+    @Operation(
+        summary = "Optimizar orden de depósitos intermedios",
+        description = """
+            Dado un origen, un destino y un conjunto de depósitos, devuelve el orden de visita
+            que minimiza la distancia (km) o la duración (segundos) total del recorrido.
+            El resultado se puede enviar tal cual como depositosIntermedios al crear la ruta.
+            """
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Orden calculado exitosamente",
+            content = @Content(schema = @Schema(implementation = OrdenDepositosResponseDTO.class))
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Ubicación o depósito no encontrado"
+        ),
+        @ApiResponse(
+            responseCode = "503",
+            description = "Servicio de routing no disponible"
+        )
+    })
+    @PostMapping("/optimizar-depositos")
+    public OrdenDepositosResponseDTO optimizarDepositos(
+        @RequestBody @Valid OptimizarDepositosRequest request) {
+        return optimizacionDepositosService.optimizar(request);
+    }
+
 
     /**
-     * Lista todas las rutas GET all
+     * Seguimiento agregado: ruta + origen + destino en una sola respuesta
      */
     @Operation(
-        summary = "Listar todas las rutas",
-        description = "Obtiene un listado de todas las rutas disponibles en el sistema"
+        summary = "Obtener seguimiento de una solicitud",
+        description = "Devuelve en una sola llamada la ruta con sus tramos y las ubicaciones de origen y destino de la solicitud"
     )
-    @ApiResponse(
-        responseCode = "200",
-        description = "Lista de rutas obtenida exitosamente",
-        content = @Content(array = @ArraySchema(schema = @Schema(implementation = Ruta.class)))
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Seguimiento obtenido exitosamente",
+            content = @Content(schema = @Schema(implementation = SeguimientoRutaResponseDTO.class))
+        ),
+        @ApiResponse(
+            responseCode = "404", 
+            description = "No se encontró la ruta de la solicitud o alguna de las ubicaciones"
+        )
+    })
+    @GetMapping("/solicitud/{solicitudId}/seguimiento")
+    public SeguimientoRutaResponseDTO obtenerSeguimiento(
+        @Parameter(description = "ID de la solicitud", example = "1")
+        @PathVariable Long solicitudId,
+        @Parameter(description = "ID de la ubicación de origen", example = "1")
+        @RequestParam Long origenId,
+        @Parameter(description = "ID de la ubicación de destino", example = "2")
+        @RequestParam Long destinoId) {
+        return rutaService.obtenerSeguimiento(solicitudId, origenId, destinoId);
+    }
+
+
+    
+
+
+
+    /**
+     * Lista las rutas GET all (paginado por cursor)
+     */
+    @Operation(
+        summary = "Listar rutas",
+        description = """
+            Obtiene una página de las rutas disponibles en el sistema.
+
+            Parámetros de paginación:
+            • tamanio: cantidad de elementos por página (1 a 200, por defecto 20)
+            • orden: campo por el cual ordenar (id)
+            • direccion: ASC o DESC
+            • cursor: valor siguienteCursor de la página anterior
+            """
     )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Página de rutas obtenida exitosamente",
+            content = @Content(schema = @Schema(implementation = PaginaResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Parámetros de paginación inválidos"
+        )
+    })
     @GetMapping
-    public List<Ruta> listarRutas() {
-        return rutaService.findAll();
+    public PaginaResponse<Ruta> listarRutas(@ParameterObject PaginaRequest pagina) {
+        return rutaService.findAll(pagina);
     }
 
     /**
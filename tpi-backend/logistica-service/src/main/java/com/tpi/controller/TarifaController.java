@@ -2,7 +2,9 @@ package com.tpi.controller;
 
 import com.tpi.dto.request.ActualizarTarifaRequest;
 import com.tpi.dto.request.TarifaRequest;
+import com.tpi.dto.response.RecotizacionDTO;
 import com.tpi.model.Tarifa;
+import com.tpi.service.RecotizacionService;
 import com.tpi.service.TarifaService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -33,6 +35,7 @@ import java.util.List;
 public class TarifaController {
 
     private final TarifaService tarifaService;
+    private final RecotizacionService recotizacionService;
 
     @Operation(
         summary = "Obtener todas las tarifas",
@@ -157,4 +160,39 @@ public class TarifaController {
         tarifaService.deleteById(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    @Operation(
+        summary = "Recotizar tramos estimados de la tarifa",
+        description = "Lanza en segundo plano el recálculo del costo aproximado de todos los tramos "
+            + "en estado ESTIMADO de las rutas que usan la tarifa. Se lanza solo al modificar la gestión "
+            + "por tramo, el precio del combustible o el volumen mínimo; este endpoint permite forzarlo."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "202", description = "Recotización lanzada"),
+        @ApiResponse(responseCode = "404", description = "Tarifa no encontrada")
+    })
+    @PostMapping("/{id}/recotizacion")
+    public ResponseEntity<RecotizacionDTO> recotizar(
+        @Parameter(description = "ID de la tarifa", required = true)
+        @PathVariable Long id
+    ) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(recotizacionService.iniciar(id));
+    }
+
+    @Operation(
+        summary = "Avance de la recotización de la tarifa",
+        description = "Devuelve el estado, el avance y el ritmo (tramos por segundo) de la última "
+            + "recotización de la tarifa."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Estado de la recotización"),
+        @ApiResponse(responseCode = "404", description = "La tarifa nunca se recotizó")
+    })
+    @GetMapping("/{id}/recotizacion")
+    public RecotizacionDTO estadoRecotizacion(
+        @Parameter(description = "ID de la tarifa", required = true)
+        @PathVariable Long id
+    ) {
+        return recotizacionService.obtenerEstado(id);
+    }
+}
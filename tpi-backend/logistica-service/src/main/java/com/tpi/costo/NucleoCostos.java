@@ -0,0 +1,222 @@
+package com.tpi.costo;
+
+import java.util.List;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Cálculo de costos de una ruta sobre arreglos primitivos, en una sola pasada y sin boxing.
+ *
+ * Lo usan la cotización estimada, la recotización por cambio de tarifa y la liquidación
+ * final. Cada tramo cuesta: gestión + km × costo por km del camión
+ * + km × consumo / 100 × precio del combustible + estadía.
+ *
+ * Los resultados se escriben en arreglos que pasa quien llama (que puede reutilizarlos),
+ * así el cálculo no crea objetos. La estimación también puede leer los tramos directo de la
+ * lista de entidades: pasarlos antes a arreglos costaba más que lo que ahorraba el cálculo.
+ */
+public final class NucleoCostos {
+
+    // Posiciones del arreglo de totales
+    public static final int GESTION = 0;
+    public static final int CAMION = 1;
+    public static final int COMBUSTIBLE = 2;
+    public static final int ESTADIA = 3;
+    public static final int TOTAL = 4;
+    public static final int DISTANCIA_KM = 5;
+    public static final int SEGUNDOS = 6;
+
+    /** Largo que debe tener el arreglo de totales. */
+    public static final int CANTIDAD_TOTALES = 7;
+
+    private NucleoCostos() {
+    }
+
+    /**
+     * Costo de un tramo.
+     *
+     * @param distanciaKm          distancia del tramo (0 si no se conoce)
+     * @param costoEstadia         costo de estadía del tramo (0 si no corresponde)
+     * @param costoGestionPorTramo costo fijo de gestión por tramo
+     * @param costoPorKm           costo por km del camión
+     * @param consumoLx100km       consumo del camión en litros cada 100 km
+     * @param precioCombustible    precio del combustible por litro
+     * @return costo del tramo
+     */
+    public static double costoTramo(double distanciaKm, double costoEstadia, double costoGestionPorTramo,
+                                    double costoPorKm, double consumoLx100km, double precioCombustible) {
+        return costoGestionPorTramo
+            + distanciaKm * costoPorKm
+            + distanciaKm * (consumoLx100km / 100) * precioCombustible
+            + costoEstadia;
+    }
+
+    /**
+     * Costos ESTIMADOS: todos los tramos con el mismo costo por km y consumo
+     * (los promedios de los camiones compatibles).
+     *
+     * @param distanciaKm          distancia de cada tramo (0 si no se conoce)
+     * @param segundos             duración estimada de cada tramo
+     * @param costoEstadia         costo de estadía de cada tramo (0 si no corresponde)
+     * @param cantidad             cantidad de tramos (los arreglos pueden ser más largos)
+     * @param costoGestionPorTramo costo fijo de gestión por tramo
+     * @param costoPorKm           costo por km promedio
+     * @param consumoLx100km       consumo promedio en litros cada 100 km
+     * @param precioCombustible    precio del combustible por litro
+     * @param costoPorTramo        salida: costo de cada tramo (null si no interesa)
+     * @param totales              salida: acumulados, de largo CANTIDAD_TOTALES
+     */
+    public static void estimar(double[] distanciaKm, long[] segundos, double[] costoEstadia, int cantidad,
+                               double costoGestionPorTramo, double costoPorKm, double consumoLx100km,
+                               double precioCombustible, double[] costoPorTramo, double[] totales) {
+
+        double litrosPorKm = consumoLx100km / 100;
+        double gestion = 0;
+        double camion = 0;
+        double combustible = 0;
+        double estadia = 0;
+        double distancia = 0;
+        double total = 0;
+        long duracion = 0;
+
+        for (int i = 0; i < cantidad; i++) {
+            double km = distanciaKm[i];
+            double subtotalCamion = km * costoPorKm;
+            double subtotalCombustible = km * litrosPorKm * precioCombustible;
+            double subtotal = costoGestionPorTramo + subtotalCamion + subtotalCombustible + costoEstadia[i];
+
+            if (costoPorTramo != null) {
+                costoPorTramo[i] = subtotal;
+            }
+            gestion += costoGestionPorTramo;
+            camion += subtotalCamion;
+            combustible += subtotalCombustible;
+            estadia += costoEstadia[i];
+            total += subtotal;
+            distancia += km;
+            duracion += segundos[i];
+        }
+
+        guardarTotales(totales, gestion, camion, combustible, estadia, total, distancia, duracion);
+    }
+
+    /**
+     * Costos ESTIMADOS leyendo cada tramo de la lista, en la misma pasada que el cálculo y sin
+     * arreglos intermedios. Mismas cuentas y mismo orden de suma que la versión con arreglos.
+     *
+     * @param tramos               tramos de la ruta
+     * @param distanciaKm          distancia de un tramo (0 si no se conoce)
+     * @param segundos             duración estimada de un tramo
+     * @param costoEstadia         costo de estadía de un tramo (0 si no corresponde)
+     * @param costoGestionPorTramo costo fijo de gestión por tramo
+     * @param costoPorKm           costo por km promedio
+     * @param consumoLx100km       consumo promedio en litros cada 100 km
+     * @param precioCombustible    precio del combustible por litro
+     * @param costoPorTramo        salida: recibe cada tramo con su costo (null si no interesa)
+     * @param totales              salida: acumulados, de largo CANTIDAD_TOTALES
+     */
+    public static <T> void estimar(List<T> tramos, ToDoubleFunction<? super T> distanciaKm,
+                                   ToLongFunction<? super T> segundos, ToDoubleFunction<? super T> costoEstadia,
+                                   double costoGestionPorTramo, double costoPorKm, double consumoLx100km,
+                                   double precioCombustible, ObjDoubleConsumer<? super T> costoPorTramo,
+                                   double[] totales) {
+
+        double litrosPorKm = consumoLx100km / 100;
+        double gestion = 0;
+        double camion = 0;
+        double combustible = 0;
+        double estadia = 0;
+        double distancia = 0;
+        double total = 0;
+        long duracion = 0;
+
+        for (int i = 0, cantidad = tramos.size(); i < cantidad; i++) {
+            T tramo = tramos.get(i);
+            double km = distanciaKm.applyAsDouble(tramo);
+            double estadiaTramo = costoEstadia.applyAsDouble(tramo);
+            double subtotalCamion = km * costoPorKm;
+            double subtotalCombustible = km * litrosPorKm * precioCombustible;
+            double subtotal = costoGestionPorTramo + subtotalCamion + subtotalCombustible + estadiaTramo;
+
+            if (costoPorTramo != null) {
+                costoPorTramo.accept(tramo, subtotal);
+            }
+            gestion += costoGestionPorTramo;
+            camion += subtotalCamion;
+            combustible += subtotalCombustible;
+            estadia += estadiaTramo;
+            total += subtotal;
+            distancia += km;
+            duracion += segundos.applyAsLong(tramo);
+        }
+
+        guardarTotales(totales, gestion, camion, combustible, estadia, total, distancia, duracion);
+    }
+
+    /**
+     * Costos FINALES: cada tramo con el costo por km y el consumo de su propio camión
+     * (0 en ambos si el tramo no tiene camión).
+     *
+     * @param distanciaKm          distancia de cada tramo (0 si no se conoce)
+     * @param segundos             duración real de cada tramo
+     * @param costoEstadia         costo de estadía de cada tramo (0 si no corresponde)
+     * @param costoPorKm           costo por km del camión de cada tramo
+     * @param consumoLx100km       consumo del camión de cada tramo en litros cada 100 km
+     * @param cantidad             cantidad de tramos (los arreglos pueden ser más largos)
+     * @param costoGestionPorTramo costo fijo de gestión por tramo
+     * @param precioCombustible    precio del combustible por litro
+     * @param costoPorTramo        salida: costo de cada tramo (null si no interesa)
+     * @param totales              salida: acumulados, de largo CANTIDAD_TOTALES
+     */
+    public static void liquidar(double[] distanciaKm, long[] segundos, double[] costoEstadia,
+                                double[] costoPorKm, double[] consumoLx100km, int cantidad,
+                                double costoGestionPorTramo, double precioCombustible,
+                                double[] costoPorTramo, double[] totales) {
+
+        double gestion = 0;
+        double camion = 0;
+        double combustible = 0;
+        double estadia = 0;
+        double distancia = 0;
+        long duracion = 0;
+
+        for (int i = 0; i < cantidad; i++) {
+            double km = distanciaKm[i];
+            double subtotalCamion = km * costoPorKm[i];
+            double subtotalCombustible = km * (consumoLx100km[i] / 100) * precioCombustible;
+            double subtotal = costoGestionPorTramo + subtotalCamion + subtotalCombustible + costoEstadia[i];
+
+            if (costoPorTramo != null) {
+                costoPorTramo[i] = subtotal;
+            }
+            gestion += costoGestionPorTramo;
+            camion += subtotalCamion;
+            combustible += subtotalCombustible;
+            estadia += costoEstadia[i];
+            distancia += km;
+            duracion += segundos[i];
+        }
+
+        guardarTotales(totales, gestion, camion, combustible, estadia,
+            gestion + camion + combustible + estadia, distancia, duracion);
+    }
+
+    /**
+     * Redondea a dos decimales.
+     */
+    public static double redondear2(double valor) {
+        return Math.round(valor * 100.0) / 100.0;
+    }
+
+    private static void guardarTotales(double[] totales, double gestion, double camion, double combustible,
+                                       double estadia, double total, double distancia, long duracion) {
+        totales[GESTION] = gestion;
+        totales[CAMION] = camion;
+        totales[COMBUSTIBLE] = combustible;
+        totales[ESTADIA] = estadia;
+        totales[TOTAL] = total;
+        totales[DISTANCIA_KM] = distancia;
+        totales[SEGUNDOS] = duracion;
+    }
+}
@@ -0,0 +1,27 @@
+package com.tpi.dto;
+
+/**
+ * Columnas de un tramo (y de su ruta) necesarias para recalcular su costo aproximado.
+ * Se lee como proyección (sin cargar la entidad ni sus relaciones) al recotizar rutas.
+ *
+ * @param id                  ID del tramo.
+ * @param rutaId              ID de la ruta del tramo.
+ * @param solicitudId         solicitud de la ruta (en ms-solicitudes).
+ * @param pesoContenedorKg    peso del contenedor con el que se cotizó la ruta.
+ * @param volumenContenedorM3 volumen del contenedor con el que se cotizó la ruta.
+ * @param distanciaKm         distancia del tramo.
+ * @param costoEstadia        costo de estadía estimado (si aplica).
+ * @param tipoNombre          nombre del tipo de tramo.
+ * @param costoAproximado     costo aproximado guardado actualmente.
+ */
+public record TramoCotizableDTO(
+    Long id,
+    Long rutaId,
+    Long solicitudId,
+    Double pesoContenedorKg,
+    Double volumenContenedorM3,
+    Double distanciaKm,
+    Double costoEstadia,
+    String tipoNombre,
+    Double costoAproximado
+) {}
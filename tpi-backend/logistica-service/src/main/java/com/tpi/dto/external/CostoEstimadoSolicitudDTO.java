@@ -0,0 +1,12 @@
+package com.tpi.dto.external;
+
+/**
+ * Costo estimado recotizado de una solicitud, para actualizarlo en ms-solicitudes.
+ *
+ * @param solicitudId   ID de la solicitud.
+ * @param costoEstimado costo estimado total de su ruta.
+ */
+public record CostoEstimadoSolicitudDTO(
+    Long solicitudId,
+    Double costoEstimado
+) {}
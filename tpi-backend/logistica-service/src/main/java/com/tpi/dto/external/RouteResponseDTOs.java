@@ -18,5 +18,25 @@ public class RouteResponseDTOs {
         Double destinoLat,
         Double destinoLon
     ) {}
+
+    // Punto para el endpoint de matriz del microservicio routing
+    public record Coordenada(
+        double lat,
+        double lon
+    ) {}
+
+    // destinos null: matriz de todos contra todos los orígenes (cada punto viaja una sola vez)
+    public record MatrixRequest(
+        List<Coordenada> origenes,
+        List<Coordenada> destinos
+    ) {}
+
+    // distanciasKm[i][j] = origenes[i] → destinos[j]; null si no hay ruta posible
+    public record MatrixResponse(
+        int cantidadOrigenes,
+        int cantidadDestinos,
+        Double[][] distanciasKm,
+        Long[][] duracionesSegundos
+    ) {}
     
 }
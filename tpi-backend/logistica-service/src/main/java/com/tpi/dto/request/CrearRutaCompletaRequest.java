@@ -44,6 +44,13 @@ public class CrearRutaCompletaRequest {
     )
     private List<Long> depositosIntermedios;
 
+    @Schema(
+        description = "Si es true, los depósitos intermedios se eligen automáticamente según la distancia "
+            + "máxima por tramo y el costo total (depositosIntermedios debe venir vacío)",
+        example = "false"
+    )
+    private Boolean planificarDepositos;
+
     // Constructores
     public CrearRutaCompletaRequest() {}
 
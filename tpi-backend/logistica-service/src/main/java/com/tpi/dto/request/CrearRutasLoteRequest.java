@@ -0,0 +1,17 @@
+package com.tpi.dto.request;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+@Schema(description = "Lote de rutas a crear en una sola llamada")
+public record CrearRutasLoteRequest(
+
+    @Schema(description = "Rutas a crear (una por solicitud); cada una tiene su propio resultado")
+    @NotEmpty(message = "El lote debe tener al menos una ruta")
+    @Size(max = 1000, message = "El lote puede tener como máximo 1000 rutas")
+    List<@Valid CrearRutaCompletaRequest> rutas
+) {}
@@ -0,0 +1,27 @@
+package com.tpi.dto.request;
+
+import java.util.List;
+
+import com.tpi.optimizacion.CriterioOptimizacion;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+
+@Schema(description = "Datos para calcular el mejor orden de visita de los depósitos intermedios")
+public record OptimizarDepositosRequest(
+
+    @Schema(description = "ID de la ubicación de origen", example = "1")
+    @NotNull(message = "El ID de origen es requerido")
+    Long origenId,
+
+    @Schema(description = "ID de la ubicación de destino", example = "2")
+    @NotNull(message = "El ID de destino es requerido")
+    Long destinoId,
+
+    @Schema(description = "IDs de los depósitos a visitar, en cualquier orden", example = "[3, 1, 2]")
+    @NotNull(message = "La lista de depósitos es requerida")
+    List<Long> depositosIds,
+
+    @Schema(description = "Qué minimizar: DISTANCIA o DURACION (por defecto DISTANCIA)", example = "DISTANCIA")
+    CriterioOptimizacion criterio
+) {}
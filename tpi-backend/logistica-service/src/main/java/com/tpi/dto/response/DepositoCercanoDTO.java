@@ -0,0 +1,36 @@
+package com.tpi.dto.response;
+
+import com.tpi.dto.response.UbicacionDTOs.UbicacionResponseDTO;
+import com.tpi.index.IndiceEspacialDepositos.Cercano;
+import com.tpi.model.Deposito;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Depósito encontrado por una búsqueda de cercanía, con su distancia al punto consultado")
+public record DepositoCercanoDTO(
+    @Schema(description = "ID del depósito", example = "1")
+    Long id,
+
+    @Schema(description = "Nombre del depósito", example = "Depósito Central Pilar")
+    String nombre,
+
+    @Schema(description = "Costo de estadía por día", example = "2500.0")
+    Double costoEstadiaPorDia,
+
+    @Schema(description = "Ubicación del depósito")
+    UbicacionResponseDTO ubicacion,
+
+    @Schema(description = "Distancia en línea recta (sobre la superficie) al punto consultado, en km", example = "12.34")
+    Double distanciaKm
+) {
+    public static DepositoCercanoDTO of(Cercano cercano) {
+        Deposito deposito = cercano.deposito();
+        return new DepositoCercanoDTO(
+            deposito.getId(),
+            deposito.getNombre(),
+            deposito.getCostoEstadiaPorDia(),
+            UbicacionResponseDTO.fromEntity(deposito.getUbicacion()),
+            Math.round(cercano.distanciaKm() * 100.0) / 100.0
+        );
+    }
+}
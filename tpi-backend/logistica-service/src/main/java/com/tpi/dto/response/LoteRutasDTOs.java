@@ -0,0 +1,52 @@
+package com.tpi.dto.response;
+
+import java.util.List;
+
+import com.tpi.exception.ErrorResponse;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public class LoteRutasDTOs {
+
+    @Schema(description = "Resultado de la creación de un lote de rutas")
+    public record ResultadoLoteRutasDTO(
+        @Schema(description = "Cantidad de rutas pedidas", example = "120")
+        int total,
+
+        @Schema(description = "Cantidad de rutas creadas", example = "118")
+        int creadas,
+
+        @Schema(description = "Cantidad de rutas con error", example = "2")
+        int fallidas,
+
+        @Schema(description = "Tramos distintos consultados al servicio de routing (los repetidos se consultan una vez)",
+            example = "95")
+        int tramosRuteados,
+
+        @Schema(description = "Un resultado por ruta pedida, en el mismo orden del lote")
+        List<ResultadoRutaDTO> resultados
+    ) {}
+
+    @Schema(description = "Resultado de una ruta del lote: la ruta creada o el error")
+    public record ResultadoRutaDTO(
+        @Schema(description = "Posición de la ruta dentro del lote (desde 0)", example = "0")
+        int indice,
+
+        @Schema(description = "ID de la solicitud", example = "123")
+        Long solicitudId,
+
+        @Schema(description = "Ruta creada (null si hubo error)")
+        RutaAsignadaResponseDTO ruta,
+
+        @Schema(description = "Error de esta ruta (null si se creó)")
+        ErrorResponse error
+    ) {
+        public static ResultadoRutaDTO creada(int indice, Long solicitudId, RutaAsignadaResponseDTO ruta) {
+            return new ResultadoRutaDTO(indice, solicitudId, ruta, null);
+        }
+
+        public static ResultadoRutaDTO fallida(int indice, Long solicitudId, ErrorResponse error) {
+            return new ResultadoRutaDTO(indice, solicitudId, null, error);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.tpi.dto.response;
+
+import java.util.List;
+
+import com.tpi.optimizacion.CriterioOptimizacion;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Orden recomendado de visita de los depósitos intermedios")
+public record OrdenDepositosResponseDTO(
+
+    @Schema(description = "Criterio minimizado", example = "DISTANCIA")
+    CriterioOptimizacion criterio,
+
+    @Schema(description = "Unidad de los totales (km o segundos)", example = "km")
+    String unidad,
+
+    @Schema(description = "IDs de los depósitos en el orden en que conviene visitarlos " +
+                          "(se puede usar tal cual en depositosIntermedios)", example = "[1, 3, 2]")
+    List<Long> depositosOrdenados,
+
+    @Schema(description = "Total del recorrido en el orden recibido", example = "1280.4")
+    Double totalOrdenOriginal,
+
+    @Schema(description = "Total del recorrido en el orden recomendado", example = "1105.9")
+    Double totalOrdenOptimizado
+) {}
@@ -0,0 +1,44 @@
+package com.tpi.dto.response;
+
+import java.util.Date;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Estado y avance de una recotización de rutas tras un cambio de tarifa.
+ */
+@Schema(description = "Avance de la recotización de los tramos estimados de una tarifa")
+public record RecotizacionDTO(
+    @Schema(description = "ID de la recotización", example = "1")
+    Long id,
+
+    @Schema(description = "Tarifa cuyos tramos se recotizan", example = "2")
+    Long tarifaId,
+
+    @Schema(description = "PENDIENTE, EN_CURSO, COMPLETADA, CANCELADA o FALLIDA", example = "EN_CURSO")
+    String estado,
+
+    @Schema(description = "Tramos de las rutas a recotizar (contados al iniciar)", example = "12000")
+    long total,
+
+    @Schema(description = "Tramos ya recalculados", example = "4500")
+    long procesados,
+
+    @Schema(description = "Tramos cuyo costo aproximado cambió y se guardó", example = "4480")
+    long actualizados,
+
+    @Schema(description = "Solicitudes cuyo costo estimado se actualizó en ms-solicitudes", example = "1500")
+    long solicitudesActualizadas,
+
+    @Schema(description = "Porcentaje de avance", example = "37.5")
+    double porcentaje,
+
+    @Schema(description = "Tramos procesados por segundo", example = "8500.0")
+    double tramosPorSegundo,
+
+    Date inicio,
+    Date fin,
+
+    @Schema(description = "Motivo de la falla, si la hubo")
+    String error
+) {}
@@ -0,0 +1,20 @@
+package com.tpi.dto.response;
+
+import com.tpi.dto.response.RutasTramosCamionResponsesDTO.RutaTramosCamionResponse;
+import com.tpi.dto.response.UbicacionDTOs.UbicacionResponseDTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Datos de seguimiento de una solicitud: ruta con sus tramos más origen y destino")
+public record SeguimientoRutaResponseDTO(
+
+    @Schema(description = "Ruta completa con tramos y camiones asignados")
+    RutaTramosCamionResponse ruta,
+
+    @Schema(description = "Ubicación de origen de la solicitud")
+    UbicacionResponseDTO origen,
+
+    @Schema(description = "Ubicación de destino de la solicitud")
+    UbicacionResponseDTO destino
+) {
+}
@@ -0,0 +1,10 @@
+package com.tpi.event;
+
+/**
+ * Evento que se publica cuando cambia algún valor de una tarifa que afecta
+ * los costos estimados (gestión por tramo, precio del combustible o rango de volumen).
+ * Lo escucha la recotización de rutas para actualizar los costos aproximados.
+ *
+ * @param tarifaId ID de la tarifa modificada.
+ */
+public record TarifaModificadaEvent(Long tarifaId) {}
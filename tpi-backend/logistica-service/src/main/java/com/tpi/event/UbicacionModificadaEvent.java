@@ -0,0 +1,10 @@
+package com.tpi.event;
+
+/**
+ * Evento que se publica cuando se modifica o elimina una ubicación.
+ * Lo escuchan los índices en memoria que dependen de coordenadas
+ * (por ejemplo, el índice espacial de depósitos).
+ *
+ * @param ubicacionId ID de la ubicación modificada.
+ */
+public record UbicacionModificadaEvent(Long ubicacionId) {}
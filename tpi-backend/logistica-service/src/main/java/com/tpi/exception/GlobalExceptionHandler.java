@@ -7,6 +7,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import com.tpi.comun.excepcion.ParametroInvalidoException;
+
 /**
  * Manejador global de excepciones para la API REST.
  * Intercepta excepciones lanzadas por los controladores y devuelve
@@ -88,6 +90,21 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
     }
 
+    /**
+     * Maneja casos donde el rango de volumen de una tarifa se superpone con otra.
+     * Devuelve 409 CONFLICT.
+     */
+    @ExceptionHandler(TarifaSolapadaException.class)
+    public ResponseEntity<ErrorResponse> handleTarifaSolapada(TarifaSolapadaException ex) {
+        log.warn("Tarifa solapada: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse(
+            "TARIFA_SOLAPADA",
+            ex.getMessage(),
+            HttpStatus.CONFLICT.value()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
     /**
      * Maneja casos donde el camión no tiene capacidad suficiente
      * para transportar el contenedor.
@@ -104,4 +121,35 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    /**
+     * Maneja casos donde no existe una combinación de depósitos que cumpla
+     * las restricciones de la planificación automática.
+     * Devuelve 422 UNPROCESSABLE ENTITY.
+     */
+    @ExceptionHandler(PlanificacionImposibleException.class)
+    public ResponseEntity<ErrorResponse> handlePlanificacionImposible(PlanificacionImposibleException ex) {
+        log.warn("Planificación imposible: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse(
+            "PLANIFICACION_IMPOSIBLE",
+            ex.getMessage(),
+            HttpStatus.UNPROCESSABLE_ENTITY.value()
+        );
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(error);
+    }
+
+    /**
+     * Maneja parámetros de request inválidos (ej: cursor de paginación corrupto).
+     * Devuelve 400 BAD REQUEST.
+     */
+    @ExceptionHandler(ParametroInvalidoException.class)
+    public ResponseEntity<ErrorResponse> handleParametroInvalido(ParametroInvalidoException ex) {
+        log.warn("Parámetro inválido: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse(
+            "PARAMETRO_INVALIDO",
+            ex.getMessage(),
+            HttpStatus.BAD_REQUEST.value()
+        );
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
 }
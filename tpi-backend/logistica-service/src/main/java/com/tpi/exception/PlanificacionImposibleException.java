@@ -0,0 +1,11 @@
+package com.tpi.exception;
+
+/**
+ * Excepción que indica que no se pudo armar una ruta con depósitos intermedios
+ * respetando las restricciones de planificación (por ejemplo, la distancia máxima por tramo).
+ */
+public class PlanificacionImposibleException extends RuntimeException {
+    public PlanificacionImposibleException(String mensaje) {
+        super(mensaje);
+    }
+}
@@ -0,0 +1,11 @@
+package com.tpi.exception;
+
+/**
+ * Excepción que indica que los rangos de volumen de dos tarifas se superponen,
+ * por lo que no se podría decidir qué tarifa aplicar a un contenedor.
+ */
+public class TarifaSolapadaException extends RuntimeException {
+    public TarifaSolapadaException(String mensaje) {
+        super(mensaje);
+    }
+}
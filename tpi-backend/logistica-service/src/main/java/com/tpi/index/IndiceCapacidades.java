@@ -0,0 +1,193 @@
+package com.tpi.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import com.tpi.model.Camion;
+
+/**
+ * Índice inmutable en dos dimensiones (peso, volumen) sobre los camiones disponibles.
+ *
+ * Responde "todos los camiones con capacidadPeso >= w y capacidadVolumen >= v" sin ir
+ * a la base de datos. Es un árbol de rangos estático (merge sort tree):
+ *
+ * - Los camiones se ordenan por capacidad de peso de mayor a menor, así los que
+ *   soportan el peso w son siempre un prefijo del arreglo (búsqueda binaria).
+ * - Para cada nivel k se guarda el mismo arreglo partido en bloques de 2^k posiciones,
+ *   cada bloque ordenado por volumen de mayor a menor.
+ * - El prefijo se cubre con a lo sumo log n bloques completos, y en cada uno los
+ *   camiones con volumen >= v son también un prefijo del bloque (otra búsqueda binaria).
+ *
+ * Consulta: O(log² n + min(k log k, n)) siendo k la cantidad de resultados (se devuelven ordenados por ID). Construcción: O(n log² n).
+ * Los camiones sin capacidades cargadas no se indexan (nunca cumplirían la consulta).
+ */
+public final class IndiceCapacidades {
+
+    private static final IndiceCapacidades VACIO = new IndiceCapacidades(new Camion[0]);
+
+    // Camiones ordenados por peso descendente
+    private final Camion[] camiones;
+    private final double[] pesos;
+
+    // Los mismos camiones ordenados por ID, y la posición de cada uno en ese orden
+    private final Camion[] porId;
+    private final int[] posicionPorId;
+
+    // niveles[k][i] = posición (en camiones) del i-ésimo elemento, con bloques de 2^k ordenados por volumen desc
+    private final int[][] niveles;
+    private final double[][] volumenes;
+
+    private IndiceCapacidades(Camion[] camiones) {
+        this.camiones = camiones;
+        int n = camiones.length;
+
+        this.pesos = new double[n];
+        for (int i = 0; i < n; i++) {
+            pesos[i] = camiones[i].getCapacidadPesoKg();
+        }
+
+        Integer[] ordenId = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            ordenId[i] = i;
+        }
+        Arrays.sort(ordenId, Comparator.comparing((Integer i) -> camiones[i].getId()));
+        this.porId = new Camion[n];
+        this.posicionPorId = new int[n];
+        for (int i = 0; i < n; i++) {
+            porId[i] = camiones[ordenId[i]];
+            posicionPorId[ordenId[i]] = i;
+        }
+
+        int cantidadNiveles = 1;
+        while ((1 << (cantidadNiveles - 1)) < n) {
+            cantidadNiveles++;
+        }
+        this.niveles = new int[cantidadNiveles][];
+        this.volumenes = new double[cantidadNiveles][];
+
+        // Nivel 0: bloques de un elemento, ya "ordenados"
+        Integer[] posiciones = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            posiciones[i] = i;
+        }
+        Comparator<Integer> porVolumenDesc = Comparator.comparingDouble(
+            (Integer i) -> camiones[i].getCapacidadVolumenM3()).reversed();
+
+        for (int k = 0; k < cantidadNiveles; k++) {
+            int bloque = 1 << k;
+            for (int desde = 0; desde < n; desde += bloque) {
+                Arrays.sort(posiciones, desde, Math.min(desde + bloque, n), porVolumenDesc);
+            }
+            niveles[k] = new int[n];
+            volumenes[k] = new double[n];
+            for (int i = 0; i < n; i++) {
+                niveles[k][i] = posiciones[i];
+                volumenes[k][i] = camiones[posiciones[i]].getCapacidadVolumenM3();
+            }
+        }
+    }
+
+    /**
+     * Construye el índice con los camiones indicados.
+     *
+     * @param camiones camiones a indexar (normalmente los disponibles)
+     * @return índice listo para consultar
+     */
+    public static IndiceCapacidades construir(List<Camion> camiones) {
+        Camion[] conCapacidades = camiones.stream()
+            .filter(c -> c.getCapacidadPesoKg() != null && c.getCapacidadVolumenM3() != null)
+            .sorted(Comparator.comparingDouble(Camion::getCapacidadPesoKg).reversed())
+            .toArray(Camion[]::new);
+
+        return conCapacidades.length == 0 ? VACIO : new IndiceCapacidades(conCapacidades);
+    }
+
+    /**
+     * Busca los camiones que soportan el peso y el volumen pedidos.
+     *
+     * @param peso    peso mínimo requerido (kg), o null si no se exige un mínimo
+     * @param volumen volumen mínimo requerido (m³), o null si no se exige un mínimo
+     * @return camiones que cumplen ambas capacidades, ordenados por ID
+     */
+    public List<Camion> buscar(Double peso, Double volumen) {
+        // 1. Prefijo de camiones con capacidadPeso >= peso (todos si no hay mínimo)
+        int prefijo = peso == null ? camiones.length : cantidadConPesoMinimo(peso);
+        double volumenMinimo = volumen == null ? Double.NEGATIVE_INFINITY : volumen;
+
+        // 2. Cubrir el prefijo con bloques alineados, de mayor a menor tamaño.
+        //    Se juntan las posiciones por ID para ordenar enteros y no los camiones.
+        int[] encontrados = new int[prefijo];
+        int cantidad = 0;
+        int inicio = 0;
+        for (int k = niveles.length - 1; k >= 0; k--) {
+            int bloque = 1 << k;
+            if (inicio + bloque <= prefijo) {
+                // 3. Dentro del bloque, los de volumen >= pedido están al principio
+                int hasta = inicio + cantidadConVolumenMinimo(volumenes[k], inicio, inicio + bloque, volumenMinimo);
+                for (int i = inicio; i < hasta; i++) {
+                    encontrados[cantidad++] = posicionPorId[niveles[k][i]];
+                }
+                inicio += bloque;
+            }
+        }
+
+        // 4. Ordenar por ID: con muchos resultados conviene marcar y recorrer en orden
+        //    (O(n)) en lugar de ordenar (O(k log k))
+        List<Camion> resultado = new ArrayList<>(cantidad);
+        if (cantidad > porId.length / 8) {
+            boolean[] marcados = new boolean[porId.length];
+            for (int i = 0; i < cantidad; i++) {
+                marcados[encontrados[i]] = true;
+            }
+            for (int i = 0; i < porId.length; i++) {
+                if (marcados[i]) {
+                    resultado.add(porId[i]);
+                }
+            }
+        } else {
+            Arrays.sort(encontrados, 0, cantidad);
+            for (int i = 0; i < cantidad; i++) {
+                resultado.add(porId[encontrados[i]]);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * @return cantidad de camiones indexados
+     */
+    public int tamanio() {
+        return camiones.length;
+    }
+
+    private int cantidadConPesoMinimo(double peso) {
+        // Primer índice con peso < mínimo (el arreglo está en orden descendente)
+        int desde = 0;
+        int hasta = pesos.length;
+        while (desde < hasta) {
+            int medio = (desde + hasta) >>> 1;
+            if (pesos[medio] >= peso) {
+                desde = medio + 1;
+            } else {
+                hasta = medio;
+            }
+        }
+        return desde;
+    }
+
+    private static int cantidadConVolumenMinimo(double[] volumenes, int inicio, int fin, double volumen) {
+        int desde = inicio;
+        int hasta = fin;
+        while (desde < hasta) {
+            int medio = (desde + hasta) >>> 1;
+            if (volumenes[medio] >= volumen) {
+                desde = medio + 1;
+            } else {
+                hasta = medio;
+            }
+        }
+        return desde - inicio;
+    }
+}
@@ -0,0 +1,295 @@
+package com.tpi.index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.ObjDoubleConsumer;
+
+import com.tpi.model.Deposito;
+import com.tpi.model.Ubicacion;
+
+/**
+ * Índice espacial inmutable sobre las ubicaciones de los depósitos (árbol k-d).
+ *
+ * Cada (latitud, longitud) se pasa a un punto (x, y, z) sobre la esfera unitaria.
+ * La distancia en línea recta entre dos de esos puntos (cuerda) crece junto con la
+ * distancia sobre la superficie, así que un árbol k-d de 3 dimensiones responde
+ * búsquedas por radio y de los k más cercanos exactas en todo el globo (sin problemas
+ * en el antimeridiano ni cerca de los polos) en O(log n + resultados) en promedio.
+ *
+ * El árbol es implícito: en cada rango [desde, hasta) el elemento del medio es el nodo,
+ * los de la izquierda tienen coordenada menor o igual en el eje (profundidad % 3)
+ * y los de la derecha mayor o igual.
+ */
+public final class IndiceEspacialDepositos {
+
+    public static final double RADIO_TIERRA_KM = 6371.0088;
+
+    private static final IndiceEspacialDepositos VACIO = new IndiceEspacialDepositos(new Deposito[0]);
+
+    /**
+     * Depósito encontrado por una búsqueda, con su distancia al punto consultado.
+     */
+    public record Cercano(Deposito deposito, double distanciaKm) {}
+
+    // Candidato de la búsqueda de los k más cercanos (distancia como cuerda al cuadrado)
+    private record Candidato(int posicion, double cuerda2) {}
+
+    private final Deposito[] depositos;
+    private final double[][] puntos;
+    private final double costoEstadiaMinimo;
+
+    private IndiceEspacialDepositos(Deposito[] depositos) {
+        this.depositos = depositos;
+        this.puntos = new double[depositos.length][];
+        double minimo = Double.MAX_VALUE;
+        for (int i = 0; i < depositos.length; i++) {
+            Ubicacion u = depositos[i].getUbicacion();
+            puntos[i] = aEsfera(u.getLatitud(), u.getLongitud());
+            Double costo = depositos[i].getCostoEstadiaPorDia();
+            minimo = Math.min(minimo, costo != null ? costo : 0);
+        }
+        this.costoEstadiaMinimo = depositos.length == 0 ? 0 : minimo;
+        construirArbol(0, depositos.length, 0);
+    }
+
+    /**
+     * Construye el índice. Se ignoran los depósitos sin ubicación o sin coordenadas.
+     *
+     * @param depositos depósitos a indexar (en cualquier orden)
+     * @return índice listo para consultar
+     */
+    public static IndiceEspacialDepositos construir(List<Deposito> depositos) {
+        Deposito[] conCoordenadas = depositos.stream()
+            .filter(d -> d.getUbicacion() != null
+                && d.getUbicacion().getLatitud() != null
+                && d.getUbicacion().getLongitud() != null)
+            .toArray(Deposito[]::new);
+
+        return conCoordenadas.length == 0 ? VACIO : new IndiceEspacialDepositos(conCoordenadas);
+    }
+
+    /**
+     * Busca los depósitos a una distancia (sobre la superficie) menor o igual al radio.
+     *
+     * @param latitud  latitud del punto de consulta
+     * @param longitud longitud del punto de consulta
+     * @param radioKm  radio de búsqueda en km
+     * @return depósitos dentro del radio, del más cercano al más lejano
+     */
+    public List<Cercano> dentroDeRadio(double latitud, double longitud, double radioKm) {
+        List<Cercano> resultado = new ArrayList<>();
+        recorrerDentroDeRadio(latitud, longitud, radioKm,
+            (deposito, distanciaKm) -> resultado.add(new Cercano(deposito, distanciaKm)));
+
+        resultado.sort(Comparator.comparingDouble(Cercano::distanciaKm));
+        return resultado;
+    }
+
+    /**
+     * Igual que dentroDeRadio pero sin armar ni ordenar la lista: llama a la acción
+     * por cada depósito dentro del radio, en cualquier orden. Pensado para búsquedas
+     * que consultan el índice muchas veces.
+     *
+     * @param latitud  latitud del punto de consulta
+     * @param longitud longitud del punto de consulta
+     * @param radioKm  radio de búsqueda en km
+     * @param accion   recibe cada depósito y su distancia en km
+     */
+    public void recorrerDentroDeRadio(double latitud, double longitud, double radioKm,
+                                      ObjDoubleConsumer<Deposito> accion) {
+        if (depositos.length == 0 || radioKm < 0) {
+            return;
+        }
+        double[] consulta = aEsfera(latitud, longitud);
+        double cuerda = cuerda(radioKm);
+        buscarEnRadio(0, depositos.length, 0, consulta, cuerda * cuerda, accion);
+    }
+
+    /**
+     * Busca los depósitos más cercanos (sobre la superficie) a un punto.
+     *
+     * @param latitud  latitud del punto de consulta
+     * @param longitud longitud del punto de consulta
+     * @param cantidad cantidad máxima de depósitos a devolver
+     * @return hasta {@code cantidad} depósitos, del más cercano al más lejano
+     */
+    public List<Cercano> masCercanos(double latitud, double longitud, int cantidad) {
+        List<Cercano> resultado = new ArrayList<>();
+        if (depositos.length == 0 || cantidad <= 0) {
+            return resultado;
+        }
+
+        // Montículo de máximos: en la cima queda el peor de los k mejores encontrados
+        PriorityQueue<Candidato> mejores = new PriorityQueue<>(
+            Comparator.comparingDouble(Candidato::cuerda2).reversed());
+        buscarMasCercanos(0, depositos.length, 0, aEsfera(latitud, longitud), cantidad, mejores);
+
+        for (Candidato candidato : mejores) {
+            resultado.add(new Cercano(depositos[candidato.posicion()], desdeCuerda(Math.sqrt(candidato.cuerda2()))));
+        }
+        resultado.sort(Comparator.comparingDouble(Cercano::distanciaKm));
+        return resultado;
+    }
+
+    /**
+     * @return cantidad de depósitos indexados
+     */
+    public int tamanio() {
+        return depositos.length;
+    }
+
+    /**
+     * @return menor costo de estadía por día entre los depósitos indexados (0 si no hay)
+     */
+    public double costoEstadiaMinimo() {
+        return costoEstadiaMinimo;
+    }
+
+    /**
+     * Distancia sobre la superficie terrestre (fórmula de haversine).
+     *
+     * @return distancia en km entre los dos puntos
+     */
+    public static double distanciaKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+            + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+            * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * RADIO_TIERRA_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private void construirArbol(int desde, int hasta, int profundidad) {
+        if (hasta - desde <= 1) {
+            return;
+        }
+        // Dejar la mediana del eje en el medio (menores a la izquierda, mayores a la derecha)
+        int medio = (desde + hasta) >>> 1;
+        seleccionar(desde, hasta - 1, medio, profundidad % 3);
+
+        construirArbol(desde, medio, profundidad + 1);
+        construirArbol(medio + 1, hasta, profundidad + 1);
+    }
+
+    // Quickselect sobre [izquierda, derecha]: deja en k el elemento que iría ahí si se ordenara por el eje
+    private void seleccionar(int izquierda, int derecha, int k, int eje) {
+        while (izquierda < derecha) {
+            double pivote = puntos[(izquierda + derecha) >>> 1][eje];
+            int i = izquierda;
+            int j = derecha;
+            while (i <= j) {
+                while (puntos[i][eje] < pivote) {
+                    i++;
+                }
+                while (puntos[j][eje] > pivote) {
+                    j--;
+                }
+                if (i <= j) {
+                    intercambiar(i++, j--);
+                }
+            }
+            if (k <= j) {
+                derecha = j;
+            } else if (k >= i) {
+                izquierda = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void intercambiar(int i, int j) {
+        Deposito deposito = depositos[i];
+        depositos[i] = depositos[j];
+        depositos[j] = deposito;
+        double[] punto = puntos[i];
+        puntos[i] = puntos[j];
+        puntos[j] = punto;
+    }
+
+    private void buscarEnRadio(int desde, int hasta, int profundidad,
+                               double[] consulta, double cuerdaMaxima2, ObjDoubleConsumer<Deposito> accion) {
+        if (desde >= hasta) {
+            return;
+        }
+        int medio = (desde + hasta) >>> 1;
+        int eje = profundidad % 3;
+
+        double d2 = distanciaCuadrada(consulta, puntos[medio]);
+        if (d2 <= cuerdaMaxima2) {
+            accion.accept(depositos[medio], desdeCuerda(Math.sqrt(d2)));
+        }
+
+        // Solo se baja a un lado si el plano de corte está dentro del radio
+        double diferencia = consulta[eje] - puntos[medio][eje];
+        if (diferencia <= 0 || diferencia * diferencia <= cuerdaMaxima2) {
+            buscarEnRadio(desde, medio, profundidad + 1, consulta, cuerdaMaxima2, accion);
+        }
+        if (diferencia >= 0 || diferencia * diferencia <= cuerdaMaxima2) {
+            buscarEnRadio(medio + 1, hasta, profundidad + 1, consulta, cuerdaMaxima2, accion);
+        }
+    }
+
+    private void buscarMasCercanos(int desde, int hasta, int profundidad,
+                                   double[] consulta, int cantidad, PriorityQueue<Candidato> mejores) {
+        if (desde >= hasta) {
+            return;
+        }
+        int medio = (desde + hasta) >>> 1;
+        int eje = profundidad % 3;
+
+        double d2 = distanciaCuadrada(consulta, puntos[medio]);
+        if (mejores.size() < cantidad) {
+            mejores.add(new Candidato(medio, d2));
+        } else if (d2 < mejores.peek().cuerda2()) {
+            mejores.poll();
+            mejores.add(new Candidato(medio, d2));
+        }
+
+        // Primero el lado del punto consultado; el otro solo si el plano de corte
+        // está más cerca que el peor de los k mejores
+        double diferencia = consulta[eje] - puntos[medio][eje];
+        boolean izquierdaPrimero = diferencia <= 0;
+        if (izquierdaPrimero) {
+            buscarMasCercanos(desde, medio, profundidad + 1, consulta, cantidad, mejores);
+        } else {
+            buscarMasCercanos(medio + 1, hasta, profundidad + 1, consulta, cantidad, mejores);
+        }
+        if (mejores.size() < cantidad || diferencia * diferencia < mejores.peek().cuerda2()) {
+            if (izquierdaPrimero) {
+                buscarMasCercanos(medio + 1, hasta, profundidad + 1, consulta, cantidad, mejores);
+            } else {
+                buscarMasCercanos(desde, medio, profundidad + 1, consulta, cantidad, mejores);
+            }
+        }
+    }
+
+    private static double[] aEsfera(double latitud, double longitud) {
+        double lat = Math.toRadians(latitud);
+        double lon = Math.toRadians(longitud);
+        return new double[] {
+            Math.cos(lat) * Math.cos(lon),
+            Math.cos(lat) * Math.sin(lon),
+            Math.sin(lat)
+        };
+    }
+
+    private static double distanciaCuadrada(double[] a, double[] b) {
+        double dx = a[0] - b[0];
+        double dy = a[1] - b[1];
+        double dz = a[2] - b[2];
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    // Largo de la cuerda (esfera unitaria) que corresponde a una distancia sobre la superficie
+    private static double cuerda(double distanciaKm) {
+        double angulo = Math.min(distanciaKm / RADIO_TIERRA_KM, Math.PI);
+        return 2 * Math.sin(angulo / 2);
+    }
+
+    private static double desdeCuerda(double cuerda) {
+        return 2 * RADIO_TIERRA_KM * Math.asin(Math.min(1, cuerda / 2));
+    }
+}
@@ -0,0 +1,164 @@
+package com.tpi.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+import com.tpi.exception.TarifaSolapadaException;
+import com.tpi.model.Tarifa;
+
+/**
+ * Índice inmutable de tarifas ordenadas por rango de volumen [volumenMin, volumenMax].
+ *
+ * Como los rangos no se superponen (se valida al construir), al ordenarlos por
+ * volumenMin también quedan ordenados por volumenMax, y la búsqueda de la tarifa
+ * para un volumen es una búsqueda binaria O(log n).
+ *
+ * Los rangos pueden compartir un extremo (ej: 0-20 y 20-40); en ese caso el volumen
+ * del borde corresponde a la tarifa de menor rango, igual que antes del índice.
+ */
+public final class IndiceTarifas {
+
+    private final Tarifa[] tarifas;
+    private final double[] minimos;
+    private final double[] maximos;
+
+    private IndiceTarifas(Tarifa[] tarifas) {
+        this.tarifas = tarifas;
+        this.minimos = new double[tarifas.length];
+        this.maximos = new double[tarifas.length];
+        for (int i = 0; i < tarifas.length; i++) {
+            minimos[i] = tarifas[i].getVolumenMin();
+            maximos[i] = tarifas[i].getVolumenMax();
+        }
+    }
+
+    /**
+     * Construye el índice validando los rangos.
+     *
+     * @param tarifas tarifas a indexar (en cualquier orden)
+     * @return índice listo para consultar
+     * @throws TarifaSolapadaException si algún rango es inválido o se superpone con otro
+     */
+    public static IndiceTarifas construir(List<Tarifa> tarifas) {
+        return construir(tarifas, (tarifa, motivo) -> {
+            throw new TarifaSolapadaException(motivo);
+        });
+    }
+
+    /**
+     * Construye el índice dejando afuera las tarifas con rango inválido o que se superponen con
+     * una anterior (de menor volumenMin), en lugar de fallar. Sirve para cargar una tabla que ya
+     * tiene filas inconsistentes sin dejar al servicio sin tarifas.
+     *
+     * @param tarifas tarifas a indexar (en cualquier orden)
+     * @param descartada recibe cada tarifa que quedó afuera y el motivo
+     * @return índice con las tarifas que no se superponen
+     */
+    public static IndiceTarifas construirDescartando(List<Tarifa> tarifas, BiConsumer<Tarifa, String> descartada) {
+        return construir(tarifas, descartada);
+    }
+
+    /**
+     * Verifica que una tarifa (nueva o modificada) tenga un rango válido que no se superpone con
+     * ninguna de las otras. Compara contra todas, no solo contra las indexadas, para que una fila
+     * descartada al cargar tampoco pueda quedar superpuesta con una tarifa nueva.
+     *
+     * @param tarifa tarifa a validar
+     * @param otras resto de las tarifas (sin la versión anterior de la misma tarifa)
+     * @throws TarifaSolapadaException si el rango es inválido o se superpone con otra
+     */
+    public static void verificar(Tarifa tarifa, Collection<Tarifa> otras) {
+        String invalido = rangoInvalido(tarifa);
+        if (invalido != null) {
+            throw new TarifaSolapadaException(invalido);
+        }
+        for (Tarifa otra : otras) {
+            if (rangoInvalido(otra) == null && seSuperponen(otra, tarifa)) {
+                throw new TarifaSolapadaException(solapamiento(otra, tarifa));
+            }
+        }
+    }
+
+    private static IndiceTarifas construir(List<Tarifa> tarifas, BiConsumer<Tarifa, String> descartada) {
+        List<Tarifa> validas = new ArrayList<>(tarifas.size());
+        for (Tarifa t : tarifas) {
+            String invalido = rangoInvalido(t);
+            if (invalido == null) {
+                validas.add(t);
+            } else {
+                descartada.accept(t, invalido);
+            }
+        }
+
+        validas.sort(Comparator.comparingDouble(Tarifa::getVolumenMin)
+            .thenComparingDouble(Tarifa::getVolumenMax));
+
+        // Dos rangos consecutivos se superponen si el siguiente empieza antes de que termine el anterior
+        List<Tarifa> ordenadas = new ArrayList<>(validas.size());
+        for (Tarifa actual : validas) {
+            Tarifa anterior = ordenadas.isEmpty() ? null : ordenadas.get(ordenadas.size() - 1);
+            if (anterior != null && seSuperponen(anterior, actual)) {
+                descartada.accept(actual, solapamiento(anterior, actual));
+            } else {
+                ordenadas.add(actual);
+            }
+        }
+
+        return new IndiceTarifas(ordenadas.toArray(Tarifa[]::new));
+    }
+
+    private static String rangoInvalido(Tarifa t) {
+        if (t.getVolumenMin() == null || t.getVolumenMax() == null || t.getVolumenMin() > t.getVolumenMax()) {
+            return String.format("La tarifa '%s' tiene un rango de volumen inválido: %s - %s",
+                t.getNombre(), t.getVolumenMin(), t.getVolumenMax());
+        }
+        return null;
+    }
+
+    // Pueden compartir un extremo (ej: 0-20 y 20-40)
+    private static boolean seSuperponen(Tarifa a, Tarifa b) {
+        return a.getVolumenMin() < b.getVolumenMax() && b.getVolumenMin() < a.getVolumenMax();
+    }
+
+    private static String solapamiento(Tarifa anterior, Tarifa actual) {
+        return String.format("Los rangos de volumen de '%s' (%s - %s) y '%s' (%s - %s) se superponen",
+            anterior.getNombre(), anterior.getVolumenMin(), anterior.getVolumenMax(),
+            actual.getNombre(), actual.getVolumenMin(), actual.getVolumenMax());
+    }
+
+    /**
+     * Busca la tarifa cuyo rango contiene el volumen.
+     *
+     * @param volumen volumen del contenedor (m³)
+     * @return la tarifa, o vacío si ningún rango lo cubre
+     */
+    public Optional<Tarifa> buscar(double volumen) {
+        // Primer rango cuyo máximo es >= volumen
+        int desde = 0;
+        int hasta = maximos.length;
+        while (desde < hasta) {
+            int medio = (desde + hasta) >>> 1;
+            if (maximos[medio] < volumen) {
+                desde = medio + 1;
+            } else {
+                hasta = medio;
+            }
+        }
+
+        if (desde < maximos.length && minimos[desde] <= volumen) {
+            return Optional.of(tarifas[desde]);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return tarifas indexadas, ordenadas por volumenMin
+     */
+    public List<Tarifa> tarifas() {
+        return List.of(tarifas);
+    }
+}
@@ -18,7 +18,10 @@ import lombok.*;
 public class Ruta {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Secuencia con allocationSize: Hibernate reserva IDs de a 50 y puede agrupar los INSERT en lotes
+    // (con IDENTITY necesita ejecutar cada INSERT para conocer el ID y desactiva el batching)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rutaSeq")
+    @SequenceGenerator(name = "rutaSeq", sequenceName = "rutas_seq", allocationSize = 50)
     private Long id;
     
     private Long solicitudId; // ID del ms-solicitudes
@@ -31,6 +34,11 @@ public class Ruta {
     private Integer cantidadTramos;
     private Integer cantidadDepositos;
 
+    // Contenedor con el que se cotizó la ruta (calcularCostosEstimados). La recotización por
+    // cambio de tarifa promedia los camiones compatibles con este mismo contenedor.
+    private Double pesoContenedorKg;
+    private Double volumenContenedorM3;
+
     @Temporal(TemporalType.TIMESTAMP)
     private Date fechaHoraCreacion;
 
@@ -14,7 +14,10 @@ import java.util.Date;
 @Builder
 public class Tramo {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Secuencia con allocationSize: Hibernate reserva IDs de a 50 y puede agrupar los INSERT en lotes
+    // (con IDENTITY necesita ejecutar cada INSERT para conocer el ID y desactiva el batching)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tramoSeq")
+    @SequenceGenerator(name = "tramoSeq", sequenceName = "tramos_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne
@@ -128,10 +131,21 @@ public class Tramo {
      * @return true si el destino es un depósito, false en caso contrario
      */
     public boolean involucraEstadiaEnDeposito() {
-        return tipo != null && 
-               (tipo.getNombre().contains("DEPOSITO") || 
-                tipo.getNombre().equals("ORIGEN_DEPOSITO") ||
-                tipo.getNombre().equals("DEPOSITO_DEPOSITO"));
+        return tipo != null && involucraEstadiaEnDeposito(tipo.getNombre());
+    }
+
+    /**
+     * Igual que involucraEstadiaEnDeposito() pero a partir del nombre del tipo de tramo,
+     * para cuando se leen solo columnas sueltas del tramo.
+     *
+     * @param nombreTipo nombre del tipo de tramo (puede ser null)
+     * @return true si el tipo de tramo involucra un depósito
+     */
+    public static boolean involucraEstadiaEnDeposito(String nombreTipo) {
+        return nombreTipo != null &&
+               (nombreTipo.contains("DEPOSITO") ||
+                nombreTipo.equals("ORIGEN_DEPOSITO") ||
+                nombreTipo.equals("DEPOSITO_DEPOSITO"));
     }
     
     /**
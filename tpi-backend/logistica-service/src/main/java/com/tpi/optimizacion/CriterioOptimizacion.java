@@ -0,0 +1,9 @@
+package com.tpi.optimizacion;
+
+/**
+ * Qué se minimiza al ordenar los depósitos intermedios.
+ */
+public enum CriterioOptimizacion {
+    DISTANCIA,  // kilómetros totales
+    DURACION    // segundos totales de manejo
+}
@@ -0,0 +1,300 @@
+package com.tpi.optimizacion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Heurística para ordenar las paradas intermedias de un recorrido con origen y destino fijos,
+ * minimizando el costo total (distancia o duración) según una matriz de costos.
+ *
+ * Índices de la matriz: 0 = origen, n-1 = destino, 1..n-2 = paradas a ordenar.
+ * La matriz puede ser asimétrica (ida y vuelta no cuestan lo mismo en la red vial).
+ *
+ * 1. Inserción del más cercano: arranca con origen → destino y va agregando la parada
+ *    más cercana al recorrido, en la posición donde menos lo alarga.
+ * 2. Mejora local hasta que no haya cambios:
+ *    - 2-opt: invierte un tramo del recorrido si así queda más corto.
+ *    - Or-opt: mueve bloques de 1 a 3 paradas consecutivas a otra posición.
+ *
+ * Es O(n³) por pasada; para decenas de paradas resuelve en pocos milisegundos.
+ * Con pocas paradas (hasta MAX_PARADAS_EXACTO) se usa programación dinámica
+ * (Held-Karp), que da el orden óptimo en O(2^k · k²).
+ */
+public final class OptimizadorSecuencia {
+
+    // Costo usado para pares sin ruta posible (evita operar con infinitos)
+    public static final double SIN_RUTA = 1e12;
+
+    private static final double EPSILON = 1e-9;
+    private static final int MAX_BLOQUE_OR_OPT = 3;
+    private static final int MAX_PASADAS = 100;
+    private static final int MAX_PARADAS_EXACTO = 12;
+
+    private final double[][] costo;
+
+    private OptimizadorSecuencia(double[][] costo) {
+        this.costo = costo;
+    }
+
+    /**
+     * Calcula el orden de visita de las paradas intermedias.
+     *
+     * @param costo matriz cuadrada de costos (costo[i][j] = ir de i a j)
+     * @return índices de las paradas (entre 1 y n-2) en el orden en que conviene visitarlas
+     */
+    public static int[] optimizar(double[][] costo) {
+        int n = costo.length;
+        if (n < 2) {
+            throw new IllegalArgumentException("La matriz debe incluir al menos origen y destino");
+        }
+        if (n <= 3) {
+            return n == 3 ? new int[] {1} : new int[0];
+        }
+
+        if (n - 2 <= MAX_PARADAS_EXACTO) {
+            return exacto(costo);
+        }
+        return heuristica(costo);
+    }
+
+    /**
+     * Inserción del más cercano más mejora local (2-opt y Or-opt), sin importar la cantidad
+     * de paradas. Visible en el paquete para probarla también con pocas paradas.
+     */
+    static int[] heuristica(double[][] costo) {
+        OptimizadorSecuencia optimizador = new OptimizadorSecuencia(costo);
+        List<Integer> ruta = optimizador.insercionMasCercano();
+
+        boolean mejoro = true;
+        for (int pasada = 0; mejoro && pasada < MAX_PASADAS; pasada++) {
+            mejoro = optimizador.dosOpt(ruta) | optimizador.orOpt(ruta);
+        }
+
+        // Quitar origen y destino
+        return ruta.subList(1, ruta.size() - 1).stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Costo total de recorrer origen → paradas (en el orden dado) → destino.
+     *
+     * @param costo   matriz de costos
+     * @param paradas índices de las paradas intermedias, en orden de visita
+     * @return suma de los costos de cada tramo
+     */
+    public static double costoTotal(double[][] costo, int[] paradas) {
+        double total = 0;
+        int anterior = 0;
+        for (int parada : paradas) {
+            total += costo[anterior][parada];
+            anterior = parada;
+        }
+        return total + costo[anterior][costo.length - 1];
+    }
+
+    /**
+     * Held-Karp con origen y destino fijos.
+     * mejor[mascara][j] = costo mínimo de salir del origen, visitar las paradas de la máscara
+     * y terminar en la parada j (que pertenece a la máscara).
+     */
+    private static int[] exacto(double[][] costo) {
+        int n = costo.length;
+        int k = n - 2;
+        int completo = (1 << k) - 1;
+        double[][] mejor = new double[1 << k][k];
+        int[][] previo = new int[1 << k][k];
+
+        for (double[] fila : mejor) {
+            Arrays.fill(fila, Double.MAX_VALUE);
+        }
+        for (int j = 0; j < k; j++) {
+            mejor[1 << j][j] = costo[0][j + 1];
+            previo[1 << j][j] = -1;
+        }
+
+        for (int mascara = 1; mascara <= completo; mascara++) {
+            for (int j = 0; j < k; j++) {
+                double actual = mejor[mascara][j];
+                if ((mascara & (1 << j)) == 0 || actual == Double.MAX_VALUE) {
+                    continue;
+                }
+                for (int siguiente = 0; siguiente < k; siguiente++) {
+                    if ((mascara & (1 << siguiente)) != 0) {
+                        continue;
+                    }
+                    int nueva = mascara | (1 << siguiente);
+                    double candidato = actual + costo[j + 1][siguiente + 1];
+                    if (candidato < mejor[nueva][siguiente]) {
+                        mejor[nueva][siguiente] = candidato;
+                        previo[nueva][siguiente] = j;
+                    }
+                }
+            }
+        }
+
+        // Elegir la última parada antes del destino y reconstruir hacia atrás
+        int ultima = 0;
+        double mejorTotal = Double.MAX_VALUE;
+        for (int j = 0; j < k; j++) {
+            double total = mejor[completo][j] + costo[j + 1][n - 1];
+            if (total < mejorTotal) {
+                mejorTotal = total;
+                ultima = j;
+            }
+        }
+
+        int[] orden = new int[k];
+        int mascara = completo;
+        for (int pos = k - 1, j = ultima; pos >= 0; pos--) {
+            orden[pos] = j + 1;
+            int anterior = previo[mascara][j];
+            mascara &= ~(1 << j);
+            j = anterior;
+        }
+        return orden;
+    }
+
+    private List<Integer> insercionMasCercano() {
+        int n = costo.length;
+        int destino = n - 1;
+
+        List<Integer> ruta = new ArrayList<>(n);
+        ruta.add(0);
+        ruta.add(destino);
+
+        // Distancia de cada parada pendiente al nodo más cercano que ya está en el recorrido
+        double[] cercania = new double[n];
+        boolean[] enRuta = new boolean[n];
+        enRuta[0] = true;
+        enRuta[destino] = true;
+        for (int v = 1; v < destino; v++) {
+            cercania[v] = Math.min(cercaniaEntre(0, v), cercaniaEntre(destino, v));
+        }
+
+        for (int agregadas = 0; agregadas < n - 2; agregadas++) {
+            // Elegir la parada pendiente más cercana al recorrido
+            int elegida = -1;
+            for (int v = 1; v < destino; v++) {
+                if (!enRuta[v] && (elegida < 0 || cercania[v] < cercania[elegida])) {
+                    elegida = v;
+                }
+            }
+
+            // Insertarla donde menos alarga el recorrido
+            int mejorPosicion = 1;
+            double mejorAumento = Double.MAX_VALUE;
+            for (int i = 0; i < ruta.size() - 1; i++) {
+                int a = ruta.get(i);
+                int b = ruta.get(i + 1);
+                double aumento = costo[a][elegida] + costo[elegida][b] - costo[a][b];
+                if (aumento < mejorAumento) {
+                    mejorAumento = aumento;
+                    mejorPosicion = i + 1;
+                }
+            }
+            ruta.add(mejorPosicion, elegida);
+            enRuta[elegida] = true;
+
+            for (int v = 1; v < destino; v++) {
+                if (!enRuta[v]) {
+                    cercania[v] = Math.min(cercania[v], cercaniaEntre(elegida, v));
+                }
+            }
+        }
+        return ruta;
+    }
+
+    private double cercaniaEntre(int a, int b) {
+        return Math.min(costo[a][b], costo[b][a]);
+    }
+
+    /**
+     * Prueba invertir cada tramo interno ruta[i..j]. Como la matriz puede ser asimétrica,
+     * se recalcula el costo del tramo completo en ambos sentidos.
+     */
+    private boolean dosOpt(List<Integer> ruta) {
+        boolean mejoro = false;
+        int ultimo = ruta.size() - 2; // última posición de parada (sin el destino)
+
+        for (int i = 1; i < ultimo; i++) {
+            for (int j = i + 1; j <= ultimo; j++) {
+                double actual = costo[ruta.get(i - 1)][ruta.get(i)]
+                    + costoInterno(ruta, i, j, false)
+                    + costo[ruta.get(j)][ruta.get(j + 1)];
+                double invertido = costo[ruta.get(i - 1)][ruta.get(j)]
+                    + costoInterno(ruta, i, j, true)
+                    + costo[ruta.get(i)][ruta.get(j + 1)];
+
+                if (invertido + EPSILON < actual) {
+                    invertir(ruta, i, j);
+                    mejoro = true;
+                }
+            }
+        }
+        return mejoro;
+    }
+
+    private double costoInterno(List<Integer> ruta, int i, int j, boolean invertido) {
+        double total = 0;
+        for (int k = i; k < j; k++) {
+            total += invertido
+                ? costo[ruta.get(k + 1)][ruta.get(k)]
+                : costo[ruta.get(k)][ruta.get(k + 1)];
+        }
+        return total;
+    }
+
+    private static void invertir(List<Integer> ruta, int i, int j) {
+        while (i < j) {
+            Integer aux = ruta.get(i);
+            ruta.set(i++, ruta.get(j));
+            ruta.set(j--, aux);
+        }
+    }
+
+    /**
+     * Prueba mover cada bloque de 1 a 3 paradas consecutivas a cualquier otra posición
+     * del recorrido, manteniendo el sentido del bloque.
+     */
+    private boolean orOpt(List<Integer> ruta) {
+        boolean mejoro = false;
+
+        for (int largo = 1; largo <= MAX_BLOQUE_OR_OPT; largo++) {
+            for (int i = 1; i + largo - 1 <= ruta.size() - 2; i++) {
+                int fin = i + largo - 1;
+                int anterior = ruta.get(i - 1);
+                int siguiente = ruta.get(fin + 1);
+                int primero = ruta.get(i);
+                int ultimo = ruta.get(fin);
+
+                double ahorroQuitar = costo[anterior][primero] + costo[ultimo][siguiente] - costo[anterior][siguiente];
+
+                // Buscar el mejor hueco (a, b) fuera del bloque
+                int mejorHueco = -1;
+                double mejorDelta = -EPSILON;
+                for (int k = 0; k < ruta.size() - 1; k++) {
+                    if (k >= i - 1 && k <= fin) {
+                        continue; // huecos adyacentes o internos al bloque
+                    }
+                    int a = ruta.get(k);
+                    int b = ruta.get(k + 1);
+                    double delta = costo[a][primero] + costo[ultimo][b] - costo[a][b] - ahorroQuitar;
+                    if (delta < mejorDelta) {
+                        mejorDelta = delta;
+                        mejorHueco = k;
+                    }
+                }
+
+                if (mejorHueco >= 0) {
+                    List<Integer> bloque = new ArrayList<>(ruta.subList(i, fin + 1));
+                    ruta.subList(i, fin + 1).clear();
+                    // Si el hueco estaba después del bloque, se corrió "largo" posiciones
+                    int posicion = mejorHueco < i ? mejorHueco + 1 : mejorHueco + 1 - largo;
+                    ruta.addAll(posicion, bloque);
+                    mejoro = true;
+                }
+            }
+        }
+        return mejoro;
+    }
+}
@@ -0,0 +1,172 @@
+package com.tpi.optimizacion;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import com.tpi.index.IndiceEspacialDepositos;
+import com.tpi.model.Deposito;
+import com.tpi.model.Ubicacion;
+
+/**
+ * Elige los depósitos intermedios de una ruta larga cuando ningún tramo
+ * puede superar cierta distancia.
+ *
+ * Es una búsqueda A* sobre el grafo implícito origen → depósitos → destino:
+ * - Hay arista entre dos puntos si la distancia vial estimada (distancia en línea
+ *   recta × factor de desvío) no supera el máximo por tramo. Los vecinos de cada
+ *   punto salen del índice espacial, sin armar el grafo completo.
+ * - Costo de un tramo: gestión por tramo + km × costo por km (camión + combustible),
+ *   más la estadía en el depósito al que se llega.
+ * - Heurística: con la distancia vial estimada hasta el destino se sabe cuántos tramos
+ *   faltan como mínimo; se suma la gestión de esos tramos, la estadía más barata en cada
+ *   parada intermedia y los km × costo por km. Nunca sobreestima y es consistente,
+ *   así que el primer camino que llega al destino es el de menor costo.
+ */
+public final class PlanificadorDepositos {
+
+    /**
+     * Parámetros de costo y restricciones de la búsqueda.
+     *
+     * @param maxKmTramo        distancia vial máxima estimada de cada tramo
+     * @param factorDesvio      relación estimada entre distancia vial y en línea recta (>= 1)
+     * @param costoPorKm        costo por km del camión más el combustible
+     * @param costoPorTramo     costo de gestión de cada tramo
+     * @param diasEstadiaParada días de estadía que se cobran en cada depósito intermedio
+     */
+    public record Parametros(
+        double maxKmTramo,
+        double factorDesvio,
+        double costoPorKm,
+        double costoPorTramo,
+        double diasEstadiaParada
+    ) {}
+
+    /**
+     * Resultado de la planificación.
+     *
+     * @param depositos          depósitos intermedios en orden de visita (vacía = tramo directo)
+     * @param distanciaEstimadaKm distancia vial estimada del recorrido completo
+     * @param costoEstimado      costo estimado del recorrido completo
+     */
+    public record Plan(List<Deposito> depositos, double distanciaEstimadaKm, double costoEstimado) {}
+
+    // Etiqueta de la búsqueda: punto alcanzado (deposito null = destino) y cómo se llegó
+    private record Etiqueta(Deposito deposito, boolean esDestino, double costo, double km,
+                            double prioridad, Etiqueta anterior) {}
+
+    private final IndiceEspacialDepositos indice;
+    private final Parametros parametros;
+    private final double radioVecinosKm;
+    private final double estadiaMinima;
+
+    private PlanificadorDepositos(IndiceEspacialDepositos indice, Parametros parametros) {
+        this.indice = indice;
+        this.parametros = parametros;
+        this.radioVecinosKm = parametros.maxKmTramo() / parametros.factorDesvio();
+        this.estadiaMinima = indice.costoEstadiaMinimo() * parametros.diasEstadiaParada();
+    }
+
+    /**
+     * Busca la secuencia de depósitos de menor costo entre origen y destino.
+     *
+     * @return el plan, o vacío si no hay forma de llegar respetando el máximo por tramo
+     */
+    public static Optional<Plan> planificar(IndiceEspacialDepositos indice, Ubicacion origen,
+                                            Ubicacion destino, Parametros parametros) {
+        if (parametros.maxKmTramo() <= 0 || parametros.factorDesvio() < 1) {
+            throw new IllegalArgumentException("Máximo por tramo o factor de desvío inválidos");
+        }
+        return new PlanificadorDepositos(indice, parametros).buscar(origen, destino);
+    }
+
+    private Optional<Plan> buscar(Ubicacion origen, Ubicacion destino) {
+
+        PriorityQueue<Etiqueta> abiertas = new PriorityQueue<>(Comparator.comparingDouble(Etiqueta::prioridad));
+        Map<Long, Double> mejorCosto = new HashMap<>();
+        Set<Long> cerrados = new HashSet<>();
+
+        Etiqueta inicio = new Etiqueta(null, false, 0, 0, heuristica(origen, destino), null);
+        abiertas.add(inicio);
+
+        while (!abiertas.isEmpty()) {
+            Etiqueta actual = abiertas.poll();
+
+            // 1. Llegar al destino: por la heurística consistente es el camino óptimo
+            if (actual.esDestino()) {
+                return Optional.of(armarPlan(actual));
+            }
+
+            Long id = actual == inicio ? null : actual.deposito().getId();
+            if (id != null && !cerrados.add(id)) {
+                continue;   // ya se expandió con un costo menor o igual
+            }
+            Ubicacion punto = id == null ? origen : actual.deposito().getUbicacion();
+
+            // 2. Tramo directo al destino
+            double kmDestino = kmVial(punto, destino);
+            if (kmDestino <= parametros.maxKmTramo()) {
+                double costo = actual.costo() + costoTramo(kmDestino);
+                abiertas.add(new Etiqueta(null, true, costo, actual.km() + kmDestino, costo, actual));
+            }
+
+            // 3. Tramos a los depósitos alcanzables desde este punto
+            indice.recorrerDentroDeRadio(punto.getLatitud(), punto.getLongitud(), radioVecinosKm,
+                (deposito, distanciaKm) -> {
+                    if (cerrados.contains(deposito.getId())) {
+                        return;
+                    }
+                    double km = distanciaKm * parametros.factorDesvio();
+                    double costo = actual.costo() + costoTramo(km) + costoEstadia(deposito);
+
+                    Double previo = mejorCosto.get(deposito.getId());
+                    if (previo == null || costo < previo) {
+                        mejorCosto.put(deposito.getId(), costo);
+                        abiertas.add(new Etiqueta(deposito, false, costo, actual.km() + km,
+                            costo + heuristica(deposito.getUbicacion(), destino), actual));
+                    }
+                });
+        }
+
+        return Optional.empty();
+    }
+
+    private Plan armarPlan(Etiqueta destino) {
+        List<Deposito> depositos = new ArrayList<>();
+        for (Etiqueta e = destino.anterior(); e != null && e.deposito() != null; e = e.anterior()) {
+            depositos.add(e.deposito());
+        }
+        Collections.reverse(depositos);
+        return new Plan(List.copyOf(depositos), destino.km(), destino.costo());
+    }
+
+    private double kmVial(Ubicacion a, Ubicacion b) {
+        return IndiceEspacialDepositos.distanciaKm(a.getLatitud(), a.getLongitud(), b.getLatitud(), b.getLongitud())
+            * parametros.factorDesvio();
+    }
+
+    private double costoTramo(double km) {
+        return parametros.costoPorTramo() + km * parametros.costoPorKm();
+    }
+
+    private double costoEstadia(Deposito deposito) {
+        Double porDia = deposito.getCostoEstadiaPorDia();
+        return porDia != null ? porDia * parametros.diasEstadiaParada() : 0;
+    }
+
+    // Cota inferior del costo que falta: tramos mínimos para cubrir la distancia vial estimada
+    private double heuristica(Ubicacion desde, Ubicacion destino) {
+        double km = kmVial(desde, destino);
+        double tramosMinimos = Math.max(1, Math.ceil(km / parametros.maxKmTramo()));
+        return tramosMinimos * parametros.costoPorTramo()
+            + (tramosMinimos - 1) * estadiaMinima
+            + km * parametros.costoPorKm();
+    }
+}
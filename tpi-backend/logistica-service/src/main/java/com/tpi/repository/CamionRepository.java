@@ -4,6 +4,10 @@ import com.tpi.model.Camion;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -20,6 +24,16 @@ public interface CamionRepository extends JpaRepository<Camion, Long> {
      */
     Optional<Camion> findByDominio(String dominio);
 
+    /**
+     * Lee una página de camiones a partir de una posición keyset.
+     *
+     * @param posicion posición desde la cual continuar (keyset inicial para la primera página).
+     * @param orden orden estable de la consulta (incluye el ID como desempate).
+     * @param limite cantidad máxima de camiones a devolver.
+     * @return ventana con los camiones y la posición de cada uno.
+     */
+    Window<Camion> findBy(ScrollPosition posicion, Sort orden, Limit limite);
+
     /**
      * Obtiene todos los camiones que están marcados como disponibles.
      *
@@ -4,12 +4,19 @@ import com.tpi.model.Ruta;
 
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface RutaRepository extends JpaRepository<Ruta, Long> {
     Optional<Ruta> findBySolicitudId(Long solicitudId);
+
+    // Página de rutas a partir de una posición keyset
+    Window<Ruta> findBy(ScrollPosition posicion, Sort orden, Limit limite);
 }
 
 
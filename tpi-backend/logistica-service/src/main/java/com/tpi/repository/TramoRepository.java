@@ -1,11 +1,19 @@
 package com.tpi.repository;
 
+import com.tpi.dto.TramoCotizableDTO;
 import com.tpi.model.Tramo;
 
+import jakarta.persistence.QueryHint;
+
 import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -25,4 +33,44 @@ public interface TramoRepository extends JpaRepository<Tramo, Long> {
     @Query("SELECT t FROM Tramo t WHERE t.ruta.id = :rutaId")
     List<Tramo> findTramosByRutaId(@Param("rutaId") Long rutaId);
 
+    // Tramos de una ruta ordenados, con todas sus asociaciones en una sola consulta:
+    // las que lee TramoConDetalles (y las ansiosas de cada una) van como LEFT JOIN.
+    @EntityGraph(attributePaths = {
+        "ruta", "ruta.tarifa", "origen", "origen.tipo", "destino", "destino.tipo", "camion", "tipo", "estado"
+    })
+    List<Tramo> findConDetallesByRutaIdOrderByOrdenAsc(Long rutaId);
+
+    // Tramos de la ruta de una solicitud ordenados, con la ruta y todas las asociaciones
+    // en una sola consulta (alcanza para armar RutaTramosCamionResponse).
+    @EntityGraph(attributePaths = {
+        "ruta", "ruta.tarifa", "origen", "origen.tipo", "destino", "destino.tipo", "camion", "tipo", "estado"
+    })
+    List<Tramo> findConDetallesByRutaSolicitudIdOrderByOrdenAsc(Long solicitudId);
+
+    // Rutas de una tarifa que se pueden recotizar: ya cotizadas (tienen el contenedor guardado)
+    // y con todos sus tramos todavía en el estado indicado (sin camiones asignados).
+    String RUTAS_RECOTIZABLES = """
+        r.tarifa.id = :tarifaId
+        AND r.pesoContenedorKg IS NOT NULL AND r.volumenContenedorM3 IS NOT NULL
+        AND NOT EXISTS (SELECT 1 FROM Tramo o WHERE o.ruta = r AND o.estado.nombre <> :estado)
+        """;
+
+    // Cantidad de tramos de las rutas recotizables de una tarifa.
+    @Query("SELECT COUNT(t) FROM Tramo t JOIN t.ruta r WHERE " + RUTAS_RECOTIZABLES)
+    long contarCotizablesPorTarifa(@Param("tarifaId") Long tarifaId, @Param("estado") String estado);
+
+    // Recorre con un cursor los tramos de las rutas recotizables de una tarifa, ruta por ruta
+    // y en el orden de cada ruta, trayendo solo las columnas que hacen falta (sin cargar entidades).
+    // Hay que consumir el Stream dentro de una transacción y cerrarlo al terminar.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+        SELECT new com.tpi.dto.TramoCotizableDTO(t.id, r.id, r.solicitudId, r.pesoContenedorKg,
+            r.volumenContenedorM3, t.distanciaKm, t.costoEstadia, tt.nombre, t.costoAproximado)
+        FROM Tramo t JOIN t.ruta r LEFT JOIN t.tipo tt
+        WHERE
+        """ + RUTAS_RECOTIZABLES + """
+        ORDER BY r.id, t.orden, t.id
+        """)
+    Stream<TramoCotizableDTO> recorrerCotizablesPorTarifa(@Param("tarifaId") Long tarifaId, @Param("estado") String estado);
+
 }
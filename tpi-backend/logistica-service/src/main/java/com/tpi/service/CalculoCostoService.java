@@ -5,11 +5,13 @@ import com.tpi.model.Tramo;
 import com.tpi.model.Camion;
 import com.tpi.model.Ruta;
 import com.tpi.client.SolicitudClient;
+import com.tpi.costo.NucleoCostos;
 import com.tpi.dto.CostoFinalDTOs.*;
 import com.tpi.dto.external.ContenedorResponseDTO;
 import com.tpi.dto.response.CostosEstimadosDTOs.CostosEstimadosDTO;
 import com.tpi.dto.response.CostosEstimadosDTOs;
 
+import io.micrometer.observation.annotation.Observed;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,6 +22,7 @@ import org.springframework.stereotype.Service;
 
 @Service
 @Transactional
+@Observed(name = "tpi.costos.calculos")
 @Slf4j
 @RequiredArgsConstructor
 public class CalculoCostoService {
@@ -48,88 +51,62 @@ public class CalculoCostoService {
         
         // 2. Obtener precios fijos de la tarifa
         Tarifa tarifa = ruta.getTarifa();
-        Double precioCombustible = tarifa.getPrecioCombustiblePorLitro();
-        Double costoGestionPorTramo = tarifa.getCostoGestionPorTramo();
-        
-        // 3. Inicializar acumuladores
-        Double costoGestionTotal = 0.0;
-        Double costoCamionTotal = 0.0;
-        Double costoCombustibleTotal = 0.0;
-        Double costoEstadiaTotal = 0.0;
-
-        Double distanciaTotalKm = 0.0;
-        Long tiempoTotalSegundos = 0L;
-
-        // 4. Procesar cada tramo de la ruta
-        for (Tramo tramo : tramos) {
-
-            // A. Gestión
-            Double costoGestionTramo = costoGestionPorTramo;
-            costoGestionTotal += costoGestionTramo;
-
-            // B. Camión
-            Double costoCamionTramo = 0.0;
-            if (tramo.getCamion() != null && tramo.getDistanciaKm() != null) {
-                costoCamionTramo = tramo.getDistanciaKm() * tramo.getCamion().getCostoPorKm();
-                costoCamionTotal += costoCamionTramo;
-            }
-
-            // C. Combustible
-            Double costoCombustibleTramo = 0.0;
-            if (tramo.getCamion() != null && tramo.getDistanciaKm() != null) {
-                Double litrosConsumidos = tramo.getDistanciaKm() * 
-                                        (tramo.getCamion().getConsumoCombustibleLx100km() / 100);
-                costoCombustibleTramo = litrosConsumidos * precioCombustible;
-                costoCombustibleTotal += costoCombustibleTramo;
+        double precioCombustible = tarifa.getPrecioCombustiblePorLitro();
+        double costoGestionPorTramo = tarifa.getCostoGestionPorTramo();
+
+        // 3. Pasar los tramos a arreglos. Sin camión (o sin distancia) el tramo no suma
+        //    costo de camión ni de combustible; el tiempo es el real (llegada a fin).
+        int cantidad = tramos.size();
+        double[] distancias = new double[cantidad];
+        long[] segundos = new long[cantidad];
+        double[] estadias = new double[cantidad];
+        double[] costosPorKm = new double[cantidad];
+        double[] consumos = new double[cantidad];
+
+        for (int i = 0; i < cantidad; i++) {
+            Tramo tramo = tramos.get(i);
+            Double distanciaKm = tramo.getDistanciaKm();
+            Camion camion = tramo.getCamion();
+
+            distancias[i] = distanciaKm != null ? distanciaKm : 0;
+            if (camion != null && distanciaKm != null) {
+                costosPorKm[i] = camion.getCostoPorKm();
+                consumos[i] = camion.getConsumoCombustibleLx100km();
             }
+            estadias[i] = costoEstadia(tramo);
+            segundos[i] = calcularDuracionSegundos(tramo.getFechaHoraLlegada(), tramo.getFechaHoraFin());
+        }
 
-            // D. Estadia
-            Double costoEstadiaTramo = 0.0;
-            if (tramo.involucraEstadiaEnDeposito() && tramo.getCostoEstadia() != null) {
-                costoEstadiaTramo = tramo.getCostoEstadia();
-                costoEstadiaTotal += costoEstadiaTramo;
-            }
-
-            // E. Tiempo
-            long duracionTramoSegundos = calcularDuracionSegundos(
-                tramo.getFechaHoraLlegada(),
-                tramo.getFechaHoraFin()
-            );
-            tiempoTotalSegundos += duracionTramoSegundos;
-
-            distanciaTotalKm += tramo.getDistanciaKm();
-
-            // F. Costo real del tramo
-            Double costoRealTramo = costoGestionTramo 
-                                + costoCamionTramo 
-                                + costoCombustibleTramo 
-                                + costoEstadiaTramo;
+        // 4. Calcular gestión, camión, combustible, estadía y tiempo en una sola pasada
+        double[] costosTramo = new double[cantidad];
+        double[] totales = new double[NucleoCostos.CANTIDAD_TOTALES];
+        NucleoCostos.liquidar(distancias, segundos, estadias, costosPorKm, consumos, cantidad,
+            costoGestionPorTramo, precioCombustible, costosTramo, totales);
 
-            tramo.setCostoReal(costoRealTramo);
+        // 5. Costo real de cada tramo
+        for (int i = 0; i < cantidad; i++) {
+            tramos.get(i).setCostoReal(costosTramo[i]);
         }
 
-        // 5. Calcular total final
-        Double costoTotal = costoGestionTotal + costoCamionTotal 
-                        + costoCombustibleTotal + costoEstadiaTotal;
-
+        double costoTotal = totales[NucleoCostos.TOTAL];
         log.info("Cálculo completado para ruta ID: {}. Total: ${}", ruta.getId(), costoTotal);
 
         // === 6. Resumen general ===
         ResumenCfDTO resumen = new ResumenCfDTO(
-                tramos.size(),
+                cantidad,
                 costoTotal,
-                distanciaTotalKm,
-                this.round2(tiempoTotalSegundos)
+                totales[NucleoCostos.DISTANCIA_KM],
+                NucleoCostos.redondear2(totales[NucleoCostos.SEGUNDOS])
         );
 
         // === 6.1. Desglose de costos ===
         CostosCfDTO costos = new CostosCfDTO(
-                this.round2(costoGestionTotal),
-                this.round2(costoCamionTotal),
-                this.round2(costoCombustibleTotal),
-                this.round2(precioCombustible),
-                this.round2(costoEstadiaTotal),
-                this.round2( costoTotal)
+                NucleoCostos.redondear2(totales[NucleoCostos.GESTION]),
+                NucleoCostos.redondear2(totales[NucleoCostos.CAMION]),
+                NucleoCostos.redondear2(totales[NucleoCostos.COMBUSTIBLE]),
+                NucleoCostos.redondear2(precioCombustible),
+                NucleoCostos.redondear2(totales[NucleoCostos.ESTADIA]),
+                NucleoCostos.redondear2(costoTotal)
         );
 
         // === 6.2. Construir DTO final ===
@@ -163,7 +140,8 @@ public class CalculoCostoService {
      *
      * Este método:
      * 1. Obtiene los tramos de la ruta.
-     * 2. Consulta el microservicio de solicitudes para obtener la información del contenedor.
+     * 2. Consulta el microservicio de solicitudes para obtener la información del contenedor
+     *    y lo guarda en la ruta (la recotización por cambio de tarifa lo vuelve a usar).
      * 3. Busca camiones compatibles según peso y volumen requeridos.
      * 4. Calcula los promedios de costo y consumo entre los camiones compatibles.
      * 5. Obtiene la tarifa asociada a la ruta.
@@ -186,6 +164,8 @@ public class CalculoCostoService {
         
         // 2. Obtener información del contenedor de la solicitud llamada a ms solicitudes
         ContenedorResponseDTO contenedor = solicitudesClient.obtenerInfoContenedor(ruta.getSolicitudId());
+        ruta.setPesoContenedorKg(contenedor.peso());
+        ruta.setVolumenContenedorM3(contenedor.volumen());
         
         // 3. Buscar camiones que cumplan con las capacidades
         List<Camion> camionesCompatibles = camionService.findByCapacidades(
@@ -222,20 +202,19 @@ public class CalculoCostoService {
      * @param camiones lista de camiones compatibles con la solicitud.
      * @return objeto PromedioCamiones con los promedios calculados.
      */
-    private PromedioCamiones calcularPromedioCamiones(List<Camion> camiones) {
-        // 1. Calcula el costo por kilómetro promedio entre todos los camiones recibidos. o 0.0 por defecto
-        Double costoPorKmPromedio = camiones.stream()
-            .mapToDouble(Camion::getCostoPorKm)
-            .average()
-            .orElse(0.0);
-            
-        // 2. Calcula el consumo de combustible promedio (litros cada 100 km). o 0.0 por defecto
-        Double consumoPromedio = camiones.stream()
-            .mapToDouble(Camion::getConsumoCombustibleLx100km)
-            .average()
-            .orElse(0.0);
-            
-        return new PromedioCamiones(costoPorKmPromedio, consumoPromedio);
+    PromedioCamiones calcularPromedioCamiones(List<Camion> camiones) {
+        // Costo por km y consumo (litros cada 100 km) en una sola pasada; 0.0 si no hay camiones
+        double sumaCostoPorKm = 0;
+        double sumaConsumo = 0;
+        for (Camion camion : camiones) {
+            sumaCostoPorKm += camion.getCostoPorKm();
+            sumaConsumo += camion.getConsumoCombustibleLx100km();
+        }
+
+        int cantidad = camiones.size();
+        return cantidad == 0
+            ? new PromedioCamiones(0.0, 0.0)
+            : new PromedioCamiones(sumaCostoPorKm / cantidad, sumaConsumo / cantidad);
     }
     
     /**
@@ -267,94 +246,44 @@ public class CalculoCostoService {
      */
     private CostosEstimadosDTO calcularCostosConPromedios(
         Long rutaId, List<Tramo> tramos, PromedioCamiones promedio,
-        Double costoGestionPorTramo, Double precioCombustible, List<Camion> camiones) {
-    
-        // Acumuladores globales
-        double costoGestionTotal = 0.0;
-        double distanciaTotal = 0.0;
-        double costoCamionTotal = 0.0;
-        double costoCombustibleTotal = 0.0;
-        double costoEstadiaTotal = 0.0;
-        long tiempoSegundosTotal = 0L;
-
-        double costoTotal = 0.0;
-
-        for (Tramo tramo : tramos) {
-
-            // --- COSTOS PARCIALES DEL TRAMO ---
-            double subtotalGestion = costoGestionPorTramo;
-            double subtotalCamion = 0.0;
-            double subtotalCombustible = 0.0;
-            double subtotalEstadia = 0.0;
-
-            // A. Coste de camión
-            if (tramo.getDistanciaKm() != null) {
-                subtotalCamion = tramo.getDistanciaKm() * promedio.costoPorKmPromedio();
-            }
-
-            // B. Coste de combustible
-            if (tramo.getDistanciaKm() != null) {
-                double litrosConsumidos = tramo.getDistanciaKm() * (promedio.consumoPromedio() / 100);
-                subtotalCombustible = litrosConsumidos * precioCombustible;
-            }
-
-            // C. Estadia si corresponde
-            if (tramo.involucraEstadiaEnDeposito() && tramo.getCostoEstadia() != null) {
-                subtotalEstadia = tramo.getCostoEstadia();
-            }
-
-            // --- SUBTOTAL DEL TRAMO ---
-            double subtotalTramo = subtotalGestion + subtotalCamion + subtotalCombustible + subtotalEstadia;
-
-            // Guardar costo aproximado en el tramo
-            tramo.setCostoAproximado(this.round2(subtotalTramo));
-
-            // --- SUMAR A LOS ACUMULADORES GLOBALES ---
-            costoGestionTotal += subtotalGestion;
-            costoCamionTotal += subtotalCamion;
-            costoCombustibleTotal += subtotalCombustible;
-            costoEstadiaTotal += subtotalEstadia;
-
-            if (tramo.getDistanciaKm() != null) {
-                distanciaTotal += tramo.getDistanciaKm();
-            }
-
-            if (tramo.getDuracionEstimadaSegundos() != null) {
-                tiempoSegundosTotal += tramo.getDuracionEstimadaSegundos();
-            }
-
-            costoTotal += subtotalTramo;
-        }
+        double costoGestionPorTramo, double precioCombustible, List<Camion> camiones) {
+
+        // Calcular todos los costos en una sola pasada sobre los tramos, guardando el costo
+        // aproximado de cada uno (sin distancia o sin duración = 0)
+        int cantidad = tramos.size();
+        double[] totales = new double[NucleoCostos.CANTIDAD_TOTALES];
+        NucleoCostos.estimar(tramos, CalculoCostoService::distanciaKm, CalculoCostoService::segundosEstimados,
+            CalculoCostoService::costoEstadia, costoGestionPorTramo, promedio.costoPorKmPromedio(),
+            promedio.consumoPromedio(), precioCombustible,
+            (tramo, costo) -> tramo.setCostoAproximado(NucleoCostos.redondear2(costo)), totales);
+        tramoService.saveAll(tramos);
 
-        // Horas totales
+        long tiempoSegundosTotal = (long) totales[NucleoCostos.SEGUNDOS];
         double totalHoras = tiempoSegundosTotal / 3600.0;
 
-        // Guardar datos
-        tramoService.saveAll(tramos);
-
         // 1. Construir ResumenDTO
         CostosEstimadosDTOs.ResumenDTO resumen = new CostosEstimadosDTOs.ResumenDTO(
-                tramos.size(),                     // cantidadTramos
-                camiones.size(),               // cantidadCamionesCompatibles
-                round2(costoTotal),                // costoTotal
-                round2(distanciaTotal),            // distanciaTotalKm
-                round2(totalHoras)                 // tiempoEstimadoHoras
+                cantidad,                                                  // cantidadTramos
+                camiones.size(),                                           // cantidadCamionesCompatibles
+                NucleoCostos.redondear2(totales[NucleoCostos.TOTAL]),        // costoTotal
+                NucleoCostos.redondear2(totales[NucleoCostos.DISTANCIA_KM]), // distanciaTotalKm
+                NucleoCostos.redondear2(totalHoras)                        // tiempoEstimadoHoras
         );
 
         // 2. Construir CostosDTO
         CostosEstimadosDTOs.CostosDTO costos = new CostosEstimadosDTOs.CostosDTO(
-                round2(costoGestionTotal),         // gestion
-                round2(costoCamionTotal),          // camion
-                round2(costoCombustibleTotal),     // combustible Total
-                round2(precioCombustible),     // combustible Litro
-                round2(costoEstadiaTotal),         // estadia
-                round2(promedio.costoPorKmPromedio()) // costoPorKmPromedio
+                NucleoCostos.redondear2(totales[NucleoCostos.GESTION]),      // gestion
+                NucleoCostos.redondear2(totales[NucleoCostos.CAMION]),       // camion
+                NucleoCostos.redondear2(totales[NucleoCostos.COMBUSTIBLE]),  // combustible Total
+                NucleoCostos.redondear2(precioCombustible),                // combustible Litro
+                NucleoCostos.redondear2(totales[NucleoCostos.ESTADIA]),      // estadia
+                NucleoCostos.redondear2(promedio.costoPorKmPromedio())     // costoPorKmPromedio
         );
 
         // 3. Construir MetricasDTO
         CostosEstimadosDTOs.MetricasDTO metricas = new CostosEstimadosDTOs.MetricasDTO(
-                round2(promedio.consumoPromedio()),  // consumoPromedioLx100
-                tiempoSegundosTotal                   // tiempoEstimadoSegundos
+                NucleoCostos.redondear2(promedio.consumoPromedio()),       // consumoPromedioLx100
+                tiempoSegundosTotal                                        // tiempoEstimadoSegundos
         );
 
         // 5. Construir el CostosEstimadosDTO final
@@ -366,17 +295,40 @@ public class CalculoCostoService {
     }
 
     /**
-     * Redondea un valor Double a dos decimales usando Math.round().
+     * Costo estimado de un tramo con los valores promedio de los camiones compatibles, sin redondear.
+     * Es la misma fórmula que usa calcularCostosEstimados para cada tramo
+     * (gestión + camión + combustible + estadía si corresponde): el costo aproximado guardado
+     * es este valor redondeado, y el total de la ruta es la suma redondeada.
+     *
+     * @param distanciaKm          distancia del tramo (null = sin costo por km).
+     * @param costoEstadia         costo de estadía del tramo (puede ser null).
+     * @param involucraEstadia     si el tramo involucra estadía en depósito.
+     * @param costoGestionPorTramo costo fijo de gestión por tramo.
+     * @param promedio             promedios de los camiones compatibles.
+     * @param precioCombustible    precio del combustible por litro.
+     * @return costo estimado del tramo.
      */
-    private Double round2(Double value) {
-        return Math.round(value * 100.0) / 100.0;
+    static double costoEstimadoTramo(Double distanciaKm, Double costoEstadia, boolean involucraEstadia,
+                                     double costoGestionPorTramo, PromedioCamiones promedio,
+                                     double precioCombustible) {
+        return NucleoCostos.costoTramo(
+            distanciaKm != null ? distanciaKm : 0,
+            involucraEstadia && costoEstadia != null ? costoEstadia : 0,
+            costoGestionPorTramo, promedio.costoPorKmPromedio(), promedio.consumoPromedio(), precioCombustible);
     }
 
-    private Double round2(Long value) {
-        return Math.round(value * 100.0) / 100.0;
+    private static double distanciaKm(Tramo tramo) {
+        return tramo.getDistanciaKm() != null ? tramo.getDistanciaKm() : 0;
+    }
+
+    private static long segundosEstimados(Tramo tramo) {
+        return tramo.getDuracionEstimadaSegundos() != null ? tramo.getDuracionEstimadaSegundos() : 0;
+    }
+
+    private static double costoEstadia(Tramo tramo) {
+        return tramo.involucraEstadiaEnDeposito() && tramo.getCostoEstadia() != null ? tramo.getCostoEstadia() : 0;
     }
 
-    
     // Records auxiliares
-    private record PromedioCamiones(Double costoPorKmPromedio, Double consumoPromedio) {}
+    record PromedioCamiones(double costoPorKmPromedio, double consumoPromedio) {}
 }
\ No newline at end of file
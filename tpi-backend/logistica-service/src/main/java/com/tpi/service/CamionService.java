@@ -1,9 +1,18 @@
 package com.tpi.service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import jakarta.persistence.EntityNotFoundException;
 
+import com.tpi.comun.paginacion.PaginaRequest;
+import com.tpi.comun.paginacion.PaginaResponse;
+import com.tpi.comun.paginacion.Paginador;
 import com.tpi.repository.CamionRepository;
 
 import com.tpi.dto.external.ContenedorResponseDTO;
@@ -11,21 +20,42 @@ import com.tpi.dto.request.ActualizarCamionRequest;
 import com.tpi.dto.request.CamionRequest;
 import com.tpi.exception.CapacidadInsuficienteException;
 import com.tpi.exception.EntidadNotFoundException;
+import com.tpi.index.IndiceCapacidades;
 import com.tpi.model.Camion;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class CamionService {
     
+    // Campos por los que se puede ordenar el listado (todos no nulos)
+    private static final Paginador PAGINADOR = new Paginador(Map.<String, Function<String, Object>>of(
+        "id", Long::valueOf,
+        "dominio", valor -> valor
+    ));
+
     private final CamionRepository camionRepository;
+
+    // Índice en memoria de los camiones disponibles por capacidad (peso, volumen)
+    private volatile IndiceCapacidades indiceDisponibles;
+
+    // Serializa leer los camiones disponibles + publicar el índice, igual que en DepositoService:
+    // una recarga que leyó antes de una escritura no puede publicar después de una más nueva.
+    private final ReentrantLock recarga = new ReentrantLock();
     
     /**
-     * Obtiene todos los camiones registrados.
-     * @return Lista completa de entidades Camion.
+     * Obtiene una página de camiones registrados.
+     * @param pagina tamaño, orden y cursor de la página pedida.
+     * @return Página de entidades Camion con el cursor de la siguiente.
      */
-    public List<Camion> findAll() {
-        return camionRepository.findAll();
+    public PaginaResponse<Camion> findAll(PaginaRequest pagina) {
+        Paginador.Consulta consulta = PAGINADOR.consulta(pagina);
+        return PAGINADOR.pagina(
+            camionRepository.findBy(consulta.posicion(), consulta.orden(), consulta.limite()),
+            consulta,
+            Function.identity());
     }
 
     /**
@@ -47,17 +77,52 @@ public class CamionService {
      */
     @SuppressWarnings("null")
     public Camion save(Camion camion) {
-        return camionRepository.save(camion);
+        Camion guardado = camionRepository.save(camion);
+        recargarIndice();
+        return guardado;
     }
 
     /**
-     * Busca camiones que cumplan con capacidades mínimas de peso y volumen.
-     * @param pesoRequerido Peso requerido.
-     * @param volumenRequerido Volumen requerido.
-     * @return Lista de camiones que cumplen con los requisitos.
+     * Busca camiones disponibles que cumplan con capacidades mínimas de peso y volumen.
+     * Se resuelve con el índice en memoria, sin consultar la base de datos.
+     * @param pesoRequerido Peso requerido (null: ningún camión cumple).
+     * @param volumenRequerido Volumen requerido (null: ningún camión cumple).
+     * @return Lista de camiones que cumplen con los requisitos, ordenada por ID.
      */
     public List<Camion> findByCapacidades(Double pesoRequerido, Double volumenRequerido) {
-        return camionRepository.findByCapacidadesSuficientes(pesoRequerido, volumenRequerido);
+        // Como la consulta JPQL que reemplaza (capacidad >= NULL nunca es verdadero): un contenedor
+        // sin peso o sin volumen no tiene camiones compatibles, no "cualquier camión"
+        if (pesoRequerido == null || volumenRequerido == null) {
+            return List.of();
+        }
+        return indice().buscar(pesoRequerido, volumenRequerido);
+    }
+
+    /**
+     * Reconstruye el índice de capacidades con los camiones disponibles y lo publica de una sola vez.
+     * Se llama al iniciar la aplicación (después del DataLoader) y tras cada alta, modificación o baja.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recargarIndice() {
+        recarga.lock();
+        try {
+            indiceDisponibles = IndiceCapacidades.construir(camionRepository.findByDisponibleTrue());
+            log.debug("Índice de capacidades reconstruido con {} camiones disponibles", indiceDisponibles.tamanio());
+        } finally {
+            recarga.unlock();
+        }
+    }
+
+    /**
+     * Devuelve el índice actual, construyéndolo si todavía no existe.
+     */
+    private IndiceCapacidades indice() {
+        IndiceCapacidades actual = indiceDisponibles;
+        if (actual == null) {
+            recargarIndice();
+            actual = indiceDisponibles;
+        }
+        return actual;
     }
 
     /**
@@ -71,6 +136,7 @@ public class CamionService {
             throw new EntityNotFoundException("Camión no encontrado con ID: " + id);
         }
         camionRepository.deleteById(id);
+        recargarIndice();
     }
 
     /**
@@ -112,7 +178,9 @@ public class CamionService {
             camionExistente.setCapacidadVolumenM3(request.capacidadVolumenM3());
         }
         
-        return camionRepository.save(camionExistente);
+        Camion actualizado = camionRepository.save(camionExistente);
+        recargarIndice();
+        return actualizado;
     }
 
 
@@ -144,7 +212,9 @@ public class CamionService {
             .capacidadVolumenM3(request.capacidadVolumenM3())
             .build();
 
-        return camionRepository.save(camion);
+        Camion creado = camionRepository.save(camion);
+        recargarIndice();
+        return creado;
     }
 
     
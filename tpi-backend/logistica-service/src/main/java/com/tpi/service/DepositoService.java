@@ -1,25 +1,48 @@
 package com.tpi.service;
 
+import com.tpi.comun.excepcion.ParametroInvalidoException;
 import com.tpi.repository.DepositoRepository;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import com.tpi.dto.request.ActualizarDepositoRequest;
 import com.tpi.dto.request.DepositoRequest;
+import com.tpi.dto.response.DepositoCercanoDTO;
+import com.tpi.event.UbicacionModificadaEvent;
 import com.tpi.exception.EntidadNotFoundException;
+import com.tpi.index.IndiceEspacialDepositos;
 import com.tpi.model.Deposito;
 import com.tpi.model.Ubicacion;
 
 @Service
+@Slf4j
 @RequiredArgsConstructor
 public class DepositoService {
     
     private final DepositoRepository depositoRepository;
     private final UbicacionService ubicacionService;
+
+    // Límites de las búsquedas por cercanía
+    private static final int MAX_CERCANOS = 100;
+    private static final double MAX_RADIO_KM = 20_100;    // media circunferencia terrestre
+
+    // Índice espacial de los depósitos. Se reemplaza entero tras cada alta, modificación o baja.
+    private volatile IndiceEspacialDepositos indiceEspacial;
+
+    // Serializa leer los depósitos + publicar el índice: sin esto una recarga que leyó la tabla
+    // antes de una escritura puede publicar su índice después del que ya la incluía.
+    // ReentrantLock y no synchronized: no fija el hilo virtual a su carrier mientras espera la base.
+    private final ReentrantLock recarga = new ReentrantLock();
     
     /**
      * Obtiene todos los depósitos registrados.
@@ -58,7 +81,9 @@ public class DepositoService {
      */
     @SuppressWarnings("null")
     public Deposito save(Deposito deposito) {
-        return depositoRepository.save(deposito);
+        Deposito guardado = depositoRepository.save(deposito);
+        recargarIndice();
+        return guardado;
     }
 
     /**
@@ -83,7 +108,9 @@ public class DepositoService {
             depositoExistente.setUbicacion(ubicacion);
         }
         
-        return depositoRepository.save(depositoExistente);
+        Deposito actualizado = depositoRepository.save(depositoExistente);
+        recargarIndice();
+        return actualizado;
     }
 
     /**
@@ -97,6 +124,7 @@ public class DepositoService {
             throw new EntityNotFoundException("Depósito no encontrado con ID: " + id);
         }
         depositoRepository.deleteById(id);
+        recargarIndice();
     }
 
 
@@ -120,6 +148,94 @@ public class DepositoService {
                 .ubicacion(ubicacion)
                 .build();
 
-        return depositoRepository.save(deposito);
+        Deposito creado = depositoRepository.save(deposito);
+        recargarIndice();
+        return creado;
+    }
+
+
+    /**
+     * Busca los depósitos más cercanos a un punto usando el índice espacial (sin consultar la base).
+     *
+     * @param latitud  latitud del punto.
+     * @param longitud longitud del punto.
+     * @param cantidad cantidad de depósitos a devolver (entre 1 y 100).
+     * @return depósitos del más cercano al más lejano, con su distancia.
+     * @throws ParametroInvalidoException si las coordenadas o la cantidad están fuera de rango.
+     */
+    public List<DepositoCercanoDTO> buscarMasCercanos(double latitud, double longitud, int cantidad) {
+        validarCoordenadas(latitud, longitud);
+        if (cantidad < 1 || cantidad > MAX_CERCANOS) {
+            throw new ParametroInvalidoException("La cantidad debe estar entre 1 y " + MAX_CERCANOS);
+        }
+        return indiceEspacial().masCercanos(latitud, longitud, cantidad).stream()
+            .map(DepositoCercanoDTO::of)
+            .toList();
+    }
+
+    /**
+     * Busca los depósitos que están a menos de cierta distancia de un punto usando el índice espacial.
+     *
+     * @param latitud  latitud del punto.
+     * @param longitud longitud del punto.
+     * @param radioKm  radio de búsqueda en km.
+     * @return depósitos dentro del radio, del más cercano al más lejano, con su distancia.
+     * @throws ParametroInvalidoException si las coordenadas o el radio están fuera de rango.
+     */
+    public List<DepositoCercanoDTO> buscarDentroDeRadio(double latitud, double longitud, double radioKm) {
+        validarCoordenadas(latitud, longitud);
+        if (!(radioKm >= 0 && radioKm <= MAX_RADIO_KM)) {
+            throw new ParametroInvalidoException("El radio debe estar entre 0 y " + (int) MAX_RADIO_KM + " km");
+        }
+        return indiceEspacial().dentroDeRadio(latitud, longitud, radioKm).stream()
+            .map(DepositoCercanoDTO::of)
+            .toList();
+    }
+
+    private void validarCoordenadas(double latitud, double longitud) {
+        if (!(latitud >= -90 && latitud <= 90) || !(longitud >= -180 && longitud <= 180)) {
+            throw new ParametroInvalidoException(
+                "Coordenadas fuera de rango: latitud [-90, 90], longitud [-180, 180]");
+        }
+    }
+
+
+    /**
+     * Devuelve el índice espacial actual de los depósitos, construyéndolo si todavía no existe.
+     *
+     * @return índice para búsquedas por cercanía.
+     */
+    public IndiceEspacialDepositos indiceEspacial() {
+        IndiceEspacialDepositos actual = indiceEspacial;
+        if (actual == null) {
+            recargarIndice();
+            actual = indiceEspacial;
+        }
+        return actual;
+    }
+
+    /**
+     * Reconstruye el índice espacial a partir de la base de datos y lo publica de una sola vez.
+     * Se llama al iniciar la aplicación (después del DataLoader) y tras cada alta, modificación o baja.
+     * Las recargas van de a una, así la última en publicar es también la última en leer la tabla.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recargarIndice() {
+        recarga.lock();
+        try {
+            indiceEspacial = IndiceEspacialDepositos.construir(depositoRepository.findAll());
+            log.debug("Índice espacial reconstruido con {} depósitos", indiceEspacial.tamanio());
+        } finally {
+            recarga.unlock();
+        }
+    }
+
+    /**
+     * Si cambian las coordenadas de una ubicación (o se elimina), el índice puede quedar
+     * desactualizado: se reconstruye una vez confirmada la transacción.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarUbicacion(UbicacionModificadaEvent evento) {
+        recargarIndice();
     }
 }
\ No newline at end of file
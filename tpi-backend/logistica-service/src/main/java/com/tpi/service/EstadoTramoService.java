@@ -2,19 +2,35 @@ package com.tpi.service;
 
 import java.util.List;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import com.tpi.comun.catalogo.Catalogo;
 import com.tpi.exception.EntidadNotFoundException;
 import com.tpi.model.EstadoTramo;
 import com.tpi.repository.EstadoTramoRepository;
 
-import lombok.RequiredArgsConstructor;
-
 @Service
-@RequiredArgsConstructor
 public class EstadoTramoService {
 
     private final EstadoTramoRepository estadoTramoRepository;
+
+    // Copia en memoria de la tabla (se recarga en cada escritura)
+    private final Catalogo<EstadoTramo> catalogo;
+
+    public EstadoTramoService(EstadoTramoRepository estadoTramoRepository) {
+        this.estadoTramoRepository = estadoTramoRepository;
+        this.catalogo = new Catalogo<>(estadoTramoRepository::findAll, EstadoTramo::getId, EstadoTramo::getNombre);
+    }
+
+    /**
+     * Carga el catálogo al iniciar, después de que el DataLoader insertó los datos por defecto.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarCatalogo() {
+        catalogo.recargar();
+    }
     
     /**
      * Obtiene todos los estados de tramo disponibles.
@@ -22,7 +38,7 @@ public class EstadoTramoService {
      * @return lista con todos los EstadoTramo.
      */
     public List<EstadoTramo> findAll() {
-        return estadoTramoRepository.findAll();
+        return catalogo.todos();
     }
 
     /**
@@ -32,21 +48,22 @@ public class EstadoTramoService {
      * @param id identificador del estado de tramo.
      * @return el EstadoTramo encontrado.
      */
-    @SuppressWarnings("null")
     public EstadoTramo findById(Long id) {
-        return estadoTramoRepository.findById(id)
+        return catalogo.porId(id)
                 .orElseThrow(() -> new EntidadNotFoundException("EstadoTramo", id));
     }
 
     /**
-     * Guarda un nuevo estado de tramo o actualiza uno existente.
+     * Guarda un nuevo estado de tramo o actualiza uno existente, y recarga el catálogo.
      *
      * @param estadoTramo entidad a persistir.
      * @return la entidad guardada.
      */
     @SuppressWarnings("null")
     public EstadoTramo save(EstadoTramo estadoTramo) {
-        return estadoTramoRepository.save(estadoTramo);
+        EstadoTramo guardado = estadoTramoRepository.save(estadoTramo);
+        catalogo.recargar();
+        return guardado;
     }
 
     /**
@@ -57,7 +74,7 @@ public class EstadoTramoService {
      * @return el EstadoTramo correspondiente.
      */
     public EstadoTramo findByNombre(String nombre) {
-        return estadoTramoRepository.findByNombre(nombre)
+        return catalogo.porNombre(nombre)
             .orElseThrow(() -> new EntidadNotFoundException("EstadoTramo", nombre));
     }
-}
\ No newline at end of file
+}
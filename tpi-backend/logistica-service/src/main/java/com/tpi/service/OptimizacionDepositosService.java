@@ -0,0 +1,122 @@
+package com.tpi.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+
+import com.tpi.client.RoutingClient;
+import com.tpi.dto.external.RouteResponseDTOs.Coordenada;
+import com.tpi.dto.external.RouteResponseDTOs.MatrixResponse;
+import com.tpi.dto.request.OptimizarDepositosRequest;
+import com.tpi.dto.response.OrdenDepositosResponseDTO;
+import com.tpi.exception.EntidadNotFoundException;
+import com.tpi.model.Deposito;
+import com.tpi.model.Ubicacion;
+import com.tpi.optimizacion.CriterioOptimizacion;
+import com.tpi.optimizacion.OptimizadorSecuencia;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Calcula en qué orden conviene visitar los depósitos intermedios de una ruta.
+ * Pide una sola matriz de distancias/duraciones al servicio de routing y la ordena
+ * con OptimizadorSecuencia (inserción del más cercano + 2-opt/Or-opt).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OptimizacionDepositosService {
+
+    private final UbicacionService ubicacionService;
+    private final DepositoService depositoService;
+    private final RoutingClient routingClient;
+
+    /**
+     * Devuelve los depósitos en el orden que minimiza el criterio pedido,
+     * junto con el total del orden original y del optimizado.
+     *
+     * @param request origen, destino, depósitos y criterio.
+     * @return orden recomendado y totales.
+     * @throws EntidadNotFoundException si alguna ubicación o depósito no existe.
+     */
+    public OrdenDepositosResponseDTO optimizar(OptimizarDepositosRequest request) {
+
+        CriterioOptimizacion criterio = request.criterio() != null
+            ? request.criterio() : CriterioOptimizacion.DISTANCIA;
+        String unidad = criterio == CriterioOptimizacion.DISTANCIA ? "km" : "segundos";
+
+        // 1. Depósitos sin repetir, en el orden recibido
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(request.depositosIds()));
+        Ubicacion origen = ubicacionService.findById(request.origenId());
+        Ubicacion destino = ubicacionService.findById(request.destinoId());
+
+        if (ids.isEmpty()) {
+            return new OrdenDepositosResponseDTO(criterio, unidad, List.of(), null, null);
+        }
+
+        Map<Long, Deposito> porId = depositoService.findAllById(ids).stream()
+            .collect(Collectors.toMap(Deposito::getId, Function.identity()));
+        for (Long id : ids) {
+            if (!porId.containsKey(id)) {
+                throw new EntidadNotFoundException("Depósito", id);
+            }
+        }
+
+        // 2. Puntos de la matriz: 0 = origen, 1..n = depósitos, n+1 = destino
+        List<Ubicacion> puntos = new ArrayList<>(ids.size() + 2);
+        puntos.add(origen);
+        ids.forEach(id -> puntos.add(porId.get(id).getUbicacion()));
+        puntos.add(destino);
+
+        MatrixResponse matriz = routingClient.calcularMatriz(puntos.stream()
+            .map(u -> new Coordenada(u.getLatitud(), u.getLongitud()))
+            .toList());
+        double[][] costo = matrizDeCostos(matriz, criterio, puntos.size());
+
+        // 3. Ordenar y comparar contra el orden recibido
+        long inicio = System.nanoTime();
+        int[] orden = OptimizadorSecuencia.optimizar(costo);
+        log.debug("Orden de {} depósitos calculado en {} µs", ids.size(), (System.nanoTime() - inicio) / 1_000);
+
+        int[] ordenOriginal = new int[ids.size()];
+        Arrays.setAll(ordenOriginal, i -> i + 1);
+
+        List<Long> ordenados = Arrays.stream(orden).mapToObj(i -> ids.get(i - 1)).toList();
+
+        return new OrdenDepositosResponseDTO(
+            criterio,
+            unidad,
+            ordenados,
+            redondear(OptimizadorSecuencia.costoTotal(costo, ordenOriginal)),
+            redondear(OptimizadorSecuencia.costoTotal(costo, orden))
+        );
+    }
+
+    /**
+     * Pasa la matriz del servicio de routing a double[][], según el criterio.
+     * Los pares sin ruta posible quedan con un costo prohibitivo.
+     */
+    private static double[][] matrizDeCostos(MatrixResponse matriz, CriterioOptimizacion criterio, int n) {
+        double[][] costo = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                Number valor = criterio == CriterioOptimizacion.DISTANCIA
+                    ? matriz.distanciasKm()[i][j]
+                    : matriz.duracionesSegundos()[i][j];
+                costo[i][j] = i == j ? 0 : valor != null ? valor.doubleValue() : OptimizadorSecuencia.SIN_RUTA;
+            }
+        }
+        return costo;
+    }
+
+    private static Double redondear(double valor) {
+        return valor >= OptimizadorSecuencia.SIN_RUTA ? null : Math.round(valor * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,123 @@
+package com.tpi.service;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.tpi.exception.PlanificacionImposibleException;
+import com.tpi.model.Camion;
+import com.tpi.model.Deposito;
+import com.tpi.model.Tarifa;
+import com.tpi.model.Tramo;
+import com.tpi.model.Ubicacion;
+import com.tpi.optimizacion.PlanificadorDepositos;
+import com.tpi.optimizacion.PlanificadorDepositos.Parametros;
+import com.tpi.optimizacion.PlanificadorDepositos.Plan;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Planificación automática de depósitos intermedios para rutas largas.
+ *
+ * Arma los parámetros de costo (tarifa, promedio de los camiones compatibles y estadía
+ * de cada depósito) y delega la búsqueda en PlanificadorDepositos, que usa el índice
+ * espacial de depósitos para no recorrer toda la red.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PlanificacionDepositosService {
+
+    private final DepositoService depositoService;
+    private final CamionService camionService;
+
+    // Distancia vial máxima de un tramo (km)
+    @Value("${logistica.planificacion.max-km-tramo:600}")
+    private double maxKmTramo;
+
+    // Tiempo de manejo máximo de un tramo (0 = sin límite por tiempo)
+    @Value("${logistica.planificacion.max-duracion-tramo:0s}")
+    private Duration maxDuracionTramo;
+
+    // Velocidad usada para pasar el límite de tiempo a km
+    @Value("${logistica.planificacion.velocidad-promedio-kmh:60}")
+    private double velocidadPromedioKmh;
+
+    // Distancia vial estimada = distancia en línea recta × factor
+    @Value("${logistica.planificacion.factor-desvio:1.3}")
+    private double factorDesvio;
+
+    // Días de estadía que se estiman en cada depósito intermedio
+    @Value("${logistica.planificacion.dias-estadia-por-parada:1}")
+    private double diasEstadiaPorParada;
+
+    /**
+     * Elige los depósitos intermedios de menor costo total entre origen y destino,
+     * sin que ningún tramo supere la distancia o el tiempo máximo configurado.
+     *
+     * @param origen    ubicación de origen.
+     * @param destino   ubicación de destino.
+     * @param tarifa    tarifa de la ruta (gestión por tramo y precio del combustible).
+     * @param volumen   volumen del contenedor, para promediar los camiones compatibles.
+     * @return IDs de los depósitos en orden de visita (vacía = tramo directo).
+     * @throws PlanificacionImposibleException si no hay combinación de depósitos posible.
+     */
+    public List<Long> seleccionarDepositos(Ubicacion origen, Ubicacion destino, Tarifa tarifa, Double volumen) {
+
+        // 1. Costo por km con los promedios de los camiones que pueden llevar el contenedor
+        List<Camion> compatibles = camionService.findByCapacidades(0.0, volumen);
+        if (compatibles.isEmpty()) {
+            log.warn("Sin camiones compatibles con volumen {}: se planifica sin costo por km", volumen);
+        }
+        double costoPorKmPromedio = compatibles.stream().mapToDouble(Camion::getCostoPorKm).average().orElse(0.0);
+        double consumoPromedio = compatibles.stream()
+            .mapToDouble(Camion::getConsumoCombustibleLx100km).average().orElse(0.0);
+        double costoPorKm = costoPorKmPromedio + consumoPromedio / 100 * tarifa.getPrecioCombustiblePorLitro();
+
+        Parametros parametros = new Parametros(
+            maxKmPorTramo(), factorDesvio, costoPorKm, tarifa.getCostoGestionPorTramo(), diasEstadiaPorParada);
+
+        // 2. Buscar la secuencia de depósitos
+        long inicio = System.nanoTime();
+        Plan plan = PlanificadorDepositos.planificar(depositoService.indiceEspacial(), origen, destino, parametros)
+            .orElseThrow(() -> new PlanificacionImposibleException(
+                "No hay depósitos que permitan unir la ubicación " + origen.getId() + " con la " + destino.getId()
+                + " sin superar " + Math.round(parametros.maxKmTramo()) + " km por tramo"));
+
+        log.info("Planificación automática: {} depósitos, ~{} km, costo estimado ${} ({} µs)",
+            plan.depositos().size(), Math.round(plan.distanciaEstimadaKm()),
+            Math.round(plan.costoEstimado()), (System.nanoTime() - inicio) / 1_000);
+
+        return plan.depositos().stream().map(Deposito::getId).toList();
+    }
+
+    /**
+     * Avisa en el log si algún tramo, ya con la distancia real del routing,
+     * supera el máximo por tramo (la planificación trabaja con distancias estimadas).
+     *
+     * @param tramos tramos de la ruta planificada.
+     */
+    public void verificarTramos(List<Tramo> tramos) {
+        double maximo = maxKmPorTramo();
+        for (Tramo tramo : tramos) {
+            if (tramo.getDistanciaKm() != null && tramo.getDistanciaKm() > maximo) {
+                log.warn("Tramo {} de la ruta {} mide {} km y supera el máximo planificado de {} km",
+                    tramo.getOrden(), tramo.getRuta().getId(), tramo.getDistanciaKm(), Math.round(maximo));
+            }
+        }
+    }
+
+    /**
+     * Límite efectivo por tramo en km: el menor entre el límite en km y el de tiempo de manejo.
+     */
+    private double maxKmPorTramo() {
+        if (maxDuracionTramo.isZero() || maxDuracionTramo.isNegative()) {
+            return maxKmTramo;
+        }
+        double kmPorTiempo = maxDuracionTramo.toSeconds() / 3600.0 * velocidadPromedioKmh;
+        return Math.min(maxKmTramo, kmPorTiempo);
+    }
+}
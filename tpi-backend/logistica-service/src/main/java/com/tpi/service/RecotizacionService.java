@@ -0,0 +1,392 @@
+package com.tpi.service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tpi.client.SolicitudClient;
+import com.tpi.costo.NucleoCostos;
+import com.tpi.dto.TramoCotizableDTO;
+import com.tpi.dto.external.CostoEstimadoSolicitudDTO;
+import com.tpi.dto.response.RecotizacionDTO;
+import com.tpi.event.TarifaModificadaEvent;
+import com.tpi.exception.EntidadNotFoundException;
+import com.tpi.model.Camion;
+import com.tpi.model.Tarifa;
+import com.tpi.model.Tramo;
+import com.tpi.repository.TramoRepository;
+import com.tpi.service.CalculoCostoService.PromedioCamiones;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Recotización en segundo plano de las rutas estimadas cuando cambia una tarifa.
+ *
+ * Cada recotización:
+ * - Recorre con un cursor los tramos de las rutas con esa tarifa que ya se cotizaron y no
+ *   tienen camiones asignados, ruta por ruta y leyendo solo las columnas necesarias
+ *   (nunca tiene todos los tramos en memoria).
+ * - Arma bloques de rutas completas y los recalcula en paralelo, con un máximo de bloques
+ *   en vuelo: si se alcanza, la lectura espera a que termine alguno.
+ * - Guarda el costo aproximado de cada bloque con un único UPDATE por lotes de JDBC. El UPDATE
+ *   vuelve a exigir que la ruta siga recotizable (todos sus tramos ESTIMADO y sin camión): un
+ *   tramo que recibió camión o cambió de estado después de la lectura no se pisa.
+ * - Manda a ms-solicitudes el costo estimado total de cada ruta del bloque cuyos tramos se
+ *   guardaron todos, cambie o no (así repetir una recotización que falló deja las solicitudes
+ *   al día). Las rutas que dejaron de ser recotizables no se mandan.
+ *
+ * Los costos salen de la misma fórmula y la misma base que calcularCostosEstimados: el
+ * promedio de los camiones compatibles con el contenedor guardado en cada ruta al cotizarla.
+ *
+ * ms-solicitudes se llama con el token del servicio (client credentials, ver
+ * SolicitudClient.actualizarCostosEstimados) y no con el de quien disparó la recotización:
+ * el trabajo no depende de que siga vigente el token de un usuario.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecotizacionService {
+
+    private static final String ESTADO_ESTIMADO = "ESTIMADO";
+    // Mismo criterio que TramoRepository.RUTAS_RECOTIZABLES, evaluado al escribir
+    private static final String ACTUALIZAR_COSTO = """
+        UPDATE tramos t SET costo_aproximado = ?
+        WHERE t.id = ?
+          AND NOT EXISTS (SELECT 1 FROM tramos o JOIN estado_tramo e ON e.id = o.estado_tramo_id
+                          WHERE o.ruta_id = t.ruta_id AND (e.nombre <> ? OR o.camion_id IS NOT NULL))
+        """;
+
+    private final TarifaService tarifaService;
+    private final CamionService camionService;
+    private final CalculoCostoService calculoCostoService;
+    private final SolicitudClient solicitudClient;
+    private final TramoRepository tramoRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final SimpleAsyncTaskExecutor recotizacionExecutor;
+
+    // Tramos por bloque, como mínimo (cada bloque se recalcula y se guarda de una vez; nunca corta una ruta)
+    @Value("${logistica.recotizacion.tamanio-bloque:1000}")
+    private int tamanioBloque;
+
+    // Bloques que se procesan en paralelo como máximo
+    @Value("${logistica.recotizacion.paralelismo:4}")
+    private int paralelismo;
+
+    private final AtomicLong secuencia = new AtomicLong();
+
+    // Última recotización lanzada para cada tarifa
+    private final Map<Long, Recotizacion> recotizaciones = new ConcurrentHashMap<>();
+
+    // Valores de la tarifa con los que se recalcula cada tramo, y los promedios de camiones
+    // por contenedor (se calculan una vez por recotización; vacío = sin camiones compatibles)
+    private record CostosTarifa(double costoGestionPorTramo, double precioCombustible,
+                                Map<Contenedor, Optional<PromedioCamiones>> promedios) {}
+
+    private record Contenedor(double pesoKg, double volumenM3) {}
+
+    /**
+     * Al confirmarse un cambio de tarifa que afecta los costos, se recotizan sus tramos estimados.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarTarifa(TarifaModificadaEvent evento) {
+        iniciar(evento.tarifaId());
+    }
+
+    /**
+     * Lanza la recotización de los tramos estimados de una tarifa y vuelve enseguida.
+     * Si ya había una en curso para la misma tarifa, se cancela y la nueva empieza
+     * cuando aquella termina (así nunca se pisan costos viejos sobre nuevos).
+     *
+     * @param tarifaId ID de la tarifa.
+     * @return estado inicial de la recotización.
+     * @throws EntidadNotFoundException si la tarifa no existe.
+     */
+    public RecotizacionDTO iniciar(Long tarifaId) {
+        tarifaService.findById(tarifaId);
+
+        Recotizacion nueva = new Recotizacion(secuencia.incrementAndGet(), tarifaId);
+        Recotizacion anterior = recotizaciones.put(tarifaId, nueva);
+
+        CompletableFuture<Void> previa = CompletableFuture.completedFuture(null);
+        if (anterior != null) {
+            anterior.cancelada = true;
+            previa = anterior.terminada;
+        }
+        nueva.terminada = previa.handle((sinValor, error) -> null)
+            .thenRunAsync(() -> ejecutar(nueva), recotizacionExecutor);
+
+        log.info("Recotización {} de la tarifa {} encolada", nueva.id, tarifaId);
+        return nueva.aDTO();
+    }
+
+    /**
+     * Devuelve el avance de la última recotización de una tarifa.
+     *
+     * @param tarifaId ID de la tarifa.
+     * @return estado y avance de la recotización.
+     * @throws EntidadNotFoundException si la tarifa nunca se recotizó.
+     */
+    public RecotizacionDTO obtenerEstado(Long tarifaId) {
+        Recotizacion recotizacion = recotizaciones.get(tarifaId);
+        if (recotizacion == null) {
+            throw new EntidadNotFoundException("Recotización de la tarifa", tarifaId);
+        }
+        return recotizacion.aDTO();
+    }
+
+    private void ejecutar(Recotizacion recotizacion) {
+        if (recotizacion.cancelada) {
+            recotizacion.terminar("CANCELADA", null);
+            return;
+        }
+        recotizacion.empezar();
+
+        try {
+            // 1. Valores de la tarifa (una sola vez por recotización)
+            CostosTarifa costos = costosDeTarifa(recotizacion.tarifaId);
+            recotizacion.total = tramoRepository.contarCotizablesPorTarifa(recotizacion.tarifaId, ESTADO_ESTIMADO);
+
+            // 2. Recorrer los tramos con el cursor y mandar los bloques a recalcular
+            Semaphore bloquesEnVuelo = new Semaphore(paralelismo);
+            AtomicReference<Throwable> falla = new AtomicReference<>();
+
+            try {
+                recorrer(recotizacion, costos, bloquesEnVuelo, falla);
+            } catch (RuntimeException e) {
+                falla.compareAndSet(null, e);
+            }
+
+            // 3. Esperar a que terminen los bloques en vuelo (también si falló la lectura:
+            //    el estado final recién se informa cuando nadie más escribe)
+            bloquesEnVuelo.acquireUninterruptibly(paralelismo);
+            if (falla.get() != null) {
+                throw new IllegalStateException("Falló la recotización: " + falla.get().getMessage(), falla.get());
+            }
+
+            recotizacion.terminar(recotizacion.cancelada ? "CANCELADA" : "COMPLETADA", null);
+            RecotizacionDTO resumen = recotizacion.aDTO();
+            log.info("Recotización {} de la tarifa {} {}: {} tramos procesados, {} actualizados, "
+                    + "{} solicitudes actualizadas ({} tramos/s)",
+                resumen.id(), resumen.tarifaId(), resumen.estado().toLowerCase(), resumen.procesados(),
+                resumen.actualizados(), resumen.solicitudesActualizadas(), Math.round(resumen.tramosPorSegundo()));
+
+        } catch (RuntimeException e) {
+            log.error("Recotización {} de la tarifa {} fallida: {}",
+                recotizacion.id, recotizacion.tarifaId, e.getMessage(), e);
+            recotizacion.terminar("FALLIDA", e.getMessage());
+        }
+    }
+
+    private CostosTarifa costosDeTarifa(Long tarifaId) {
+        Tarifa tarifa = tarifaService.findById(tarifaId);
+        return new CostosTarifa(
+            tarifa.getCostoGestionPorTramo(),
+            tarifa.getPrecioCombustiblePorLitro(),
+            new ConcurrentHashMap<>());
+    }
+
+    // Lee los tramos con el cursor y arma bloques de rutas completas
+    private void recorrer(Recotizacion recotizacion, CostosTarifa costos,
+                          Semaphore bloquesEnVuelo, AtomicReference<Throwable> falla) {
+        TransactionTemplate lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+        lectura.executeWithoutResult(estado -> {
+            try (Stream<TramoCotizableDTO> tramos =
+                     tramoRepository.recorrerCotizablesPorTarifa(recotizacion.tarifaId, ESTADO_ESTIMADO)) {
+
+                Iterator<TramoCotizableDTO> cursor = tramos.iterator();
+                List<TramoCotizableDTO> bloque = new ArrayList<>(tamanioBloque);
+                while (cursor.hasNext() && !recotizacion.cancelada && falla.get() == null) {
+                    TramoCotizableDTO tramo = cursor.next();
+                    // El bloque se cierra al empezar otra ruta: el total de cada solicitud sale de todos sus tramos
+                    if (bloque.size() >= tamanioBloque && !tramo.rutaId().equals(bloque.get(bloque.size() - 1).rutaId())) {
+                        enviarBloque(recotizacion, bloque, costos, bloquesEnVuelo, falla);
+                        bloque = new ArrayList<>(tamanioBloque);
+                    }
+                    bloque.add(tramo);
+                }
+                if (!bloque.isEmpty() && !recotizacion.cancelada && falla.get() == null) {
+                    enviarBloque(recotizacion, bloque, costos, bloquesEnVuelo, falla);
+                }
+            }
+        });
+    }
+
+    // Espera un lugar libre y recalcula el bloque en otro hilo
+    private void enviarBloque(Recotizacion recotizacion, List<TramoCotizableDTO> bloque, CostosTarifa costos,
+                              Semaphore bloquesEnVuelo, AtomicReference<Throwable> falla) {
+        bloquesEnVuelo.acquireUninterruptibly();
+        try {
+            CompletableFuture.runAsync(() -> procesarBloque(recotizacion, bloque, costos), recotizacionExecutor)
+                .whenComplete((sinValor, error) -> {
+                    if (error != null) {
+                        falla.compareAndSet(null, error);
+                    }
+                    bloquesEnVuelo.release();
+                });
+        } catch (RuntimeException e) {
+            // El bloque no llegó a lanzarse: devolver su lugar
+            bloquesEnVuelo.release();
+            throw e;
+        }
+    }
+
+    private void procesarBloque(Recotizacion recotizacion, List<TramoCotizableDTO> bloque, CostosTarifa costos) {
+        // Se escriben todos los tramos de las rutas recalculadas (no solo los que cambiaron) para
+        // saber, por las filas afectadas, qué rutas seguían siendo recotizables
+        List<TramoCotizableDTO> escritos = new ArrayList<>();
+        List<Object[]> costosNuevos = new ArrayList<>();
+        List<CostoEstimadoSolicitudDTO> cotizaciones = new ArrayList<>();
+
+        // Los tramos de cada ruta vienen juntos y en orden
+        int desde = 0;
+        while (desde < bloque.size()) {
+            TramoCotizableDTO primero = bloque.get(desde);
+            int hasta = desde;
+            while (hasta < bloque.size() && bloque.get(hasta).rutaId().equals(primero.rutaId())) {
+                hasta++;
+            }
+
+            Optional<PromedioCamiones> promedio = promedioPara(costos, primero);
+            if (promedio.isEmpty()) {
+                log.warn("Recotización {}: ruta {} sin camiones compatibles con su contenedor, se mantiene su costo",
+                    recotizacion.id, primero.rutaId());
+            } else {
+                // Igual que calcularCostosEstimados: cada tramo redondeado, el total es la suma redondeada
+                double total = 0;
+                for (int i = desde; i < hasta; i++) {
+                    TramoCotizableDTO tramo = bloque.get(i);
+                    double costo = CalculoCostoService.costoEstimadoTramo(
+                        tramo.distanciaKm(), tramo.costoEstadia(), Tramo.involucraEstadiaEnDeposito(tramo.tipoNombre()),
+                        costos.costoGestionPorTramo(), promedio.get(), costos.precioCombustible());
+                    total += costo;
+
+                    escritos.add(tramo);
+                    costosNuevos.add(new Object[] { NucleoCostos.redondear2(costo), tramo.id(), ESTADO_ESTIMADO });
+                }
+                cotizaciones.add(new CostoEstimadoSolicitudDTO(primero.solicitudId(), NucleoCostos.redondear2(total)));
+            }
+            desde = hasta;
+        }
+
+        // Rutas con algún tramo que ya no se pudo escribir: no se recotizan ni se mandan
+        Set<Long> descartadas = new HashSet<>();
+        int cambiados = 0;
+        if (!escritos.isEmpty()) {
+            int[] filas = jdbcTemplate.batchUpdate(ACTUALIZAR_COSTO, costosNuevos);
+            for (int i = 0; i < filas.length; i++) {
+                TramoCotizableDTO tramo = escritos.get(i);
+                if (filas[i] == 0) {
+                    descartadas.add(tramo.rutaId());
+                } else if (tramo.costoAproximado() == null
+                        || tramo.costoAproximado() != (double) costosNuevos.get(i)[0]) {
+                    cambiados++;
+                }
+            }
+        }
+        if (!descartadas.isEmpty()) {
+            log.info("Recotización {}: {} rutas dejaron de ser recotizables durante la recotización, se omiten",
+                recotizacion.id, descartadas.size());
+            Set<Long> solicitudesDescartadas = new HashSet<>();
+            for (TramoCotizableDTO tramo : escritos) {
+                if (descartadas.contains(tramo.rutaId())) {
+                    solicitudesDescartadas.add(tramo.solicitudId());
+                }
+            }
+            cotizaciones.removeIf(cotizacion -> solicitudesDescartadas.contains(cotizacion.solicitudId()));
+        }
+
+        if (!cotizaciones.isEmpty()) {
+            solicitudClient.actualizarCostosEstimados(cotizaciones);
+            recotizacion.solicitudesActualizadas.addAndGet(cotizaciones.size());
+        }
+
+        long procesados = recotizacion.procesados.addAndGet(bloque.size());
+        recotizacion.actualizados.addAndGet(cambiados);
+        log.debug("Recotización {}: {}/{} tramos", recotizacion.id, procesados, recotizacion.total);
+    }
+
+    // Promedio de los camiones compatibles con el contenedor de la ruta (misma base que calcularCostosEstimados)
+    private Optional<PromedioCamiones> promedioPara(CostosTarifa costos, TramoCotizableDTO tramo) {
+        Contenedor contenedor = new Contenedor(tramo.pesoContenedorKg(), tramo.volumenContenedorM3());
+        return costos.promedios().computeIfAbsent(contenedor, c -> {
+            List<Camion> compatibles = camionService.findByCapacidades(c.pesoKg(), c.volumenM3());
+            return compatibles.isEmpty()
+                ? Optional.empty()
+                : Optional.of(calculoCostoService.calcularPromedioCamiones(compatibles));
+        });
+    }
+
+    /**
+     * Estado mutable de una recotización. Lo actualizan los hilos del trabajo
+     * y lo leen las consultas de avance.
+     */
+    private static final class Recotizacion {
+
+        private final long id;
+        private final Long tarifaId;
+        private final AtomicLong procesados = new AtomicLong();
+        private final AtomicLong actualizados = new AtomicLong();
+        private final AtomicLong solicitudesActualizadas = new AtomicLong();
+
+        private volatile String estado = "PENDIENTE";
+        private volatile long total;
+        private volatile boolean cancelada;
+        private volatile Date inicio;
+        private volatile Date fin;
+        private volatile long inicioNanos;
+        private volatile long finNanos;
+        private volatile String error;
+        private volatile CompletableFuture<Void> terminada = CompletableFuture.completedFuture(null);
+
+        private Recotizacion(long id, Long tarifaId) {
+            this.id = id;
+            this.tarifaId = tarifaId;
+        }
+
+        private void empezar() {
+            inicio = new Date();
+            inicioNanos = System.nanoTime();
+            estado = "EN_CURSO";
+        }
+
+        private void terminar(String estadoFinal, String mensajeError) {
+            finNanos = System.nanoTime();
+            fin = new Date();
+            error = mensajeError;
+            estado = estadoFinal;
+        }
+
+        private RecotizacionDTO aDTO() {
+            long hechos = procesados.get();
+            double segundos = inicioNanos == 0 ? 0
+                : ((finNanos != 0 ? finNanos : System.nanoTime()) - inicioNanos) / 1e9;
+            return new RecotizacionDTO(
+                id, tarifaId, estado, total, hechos, actualizados.get(), solicitudesActualizadas.get(),
+                total == 0 ? (fin != null ? 100 : 0) : Math.min(100, hechos * 100.0 / total),
+                segundos > 0 ? hechos / segundos : 0,
+                inicio, fin, error);
+        }
+    }
+}
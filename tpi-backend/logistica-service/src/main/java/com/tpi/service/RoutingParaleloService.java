@@ -0,0 +1,111 @@
+package com.tpi.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import com.tpi.exception.MicroservicioNoDisponibleException;
+import com.tpi.comun.resiliencia.Plazo;
+
+/**
+ * Llamadas en paralelo al servicio de routing (tramos de una ruta, matrices de un lote).
+ *
+ * Un semáforo compartido acota cuántas llamadas hay en curso a la vez
+ * (logistica.routing.max-concurrencia). El deadline corre desde antes de lanzar la primera:
+ * esperar un permiso libre también lo consume, y si no se consigue a tiempo se corta igual
+ * que si routing no respondiera.
+ *
+ * Las llamadas corren con el deadline como plazo (Plazo), así el timeout de respuesta del
+ * cliente HTTP (FabricaClientesHttp) corta la que siga en curso y su permiso se libera.
+ * Cancelar el CompletableFuture no alcanza: no interrumpe la llamada HTTP.
+ */
+@Service
+public class RoutingParaleloService {
+
+    private final SimpleAsyncTaskExecutor routingExecutor;
+    private final Semaphore permisos;
+
+    public RoutingParaleloService(SimpleAsyncTaskExecutor routingExecutor,
+            @Value("${logistica.routing.max-concurrencia:16}") int maxConcurrencia) {
+        this.routingExecutor = routingExecutor;
+        this.permisos = new Semaphore(maxConcurrencia);
+    }
+
+    /**
+     * Ejecuta las llamadas en paralelo y espera a todas dentro del deadline.
+     *
+     * @param llamadas llamadas a routing
+     * @param deadline tiempo máximo para todas, acotado además al plazo de la request
+     * @param operacion descripción para el error (ej: "cálculo de 5 tramos")
+     * @return el resultado de cada llamada, en el mismo orden
+     * @throws MicroservicioNoDisponibleException si no terminan todas a tiempo; si alguna
+     *         falla se propaga su excepción original (EntidadNotFound, MicroservicioNoDisponible, etc.)
+     */
+    public <T> List<T> ejecutar(List<Supplier<T>> llamadas, Duration deadline, String operacion) {
+
+        // 1. El deadline empieza ahora y pasa a ser el plazo de las llamadas (el ejecutor lo copia)
+        Duration plazo = Plazo.acotar(deadline);
+        List<CompletableFuture<T>> enCurso = new ArrayList<>(llamadas.size());
+        try (Plazo.Alcance alcance = Plazo.abrir(plazo)) {
+
+            // 2. Lanzar cada llamada cuando haya un permiso libre, sin pasar el deadline
+            for (Supplier<T> llamada : llamadas) {
+                if (!permisos.tryAcquire(restanteNanos(), TimeUnit.NANOSECONDS)) {
+                    throw vencido(operacion, plazo, null);
+                }
+                try {
+                    enCurso.add(CompletableFuture.supplyAsync(() -> {
+                        try {
+                            return llamada.get();
+                        } finally {
+                            permisos.release();
+                        }
+                    }, routingExecutor));
+                } catch (RuntimeException e) {
+                    permisos.release();
+                    throw e;
+                }
+            }
+
+            // 3. Esperar a todas con lo que queda del deadline
+            CompletableFuture.allOf(enCurso.toArray(CompletableFuture[]::new))
+                .get(restanteNanos(), TimeUnit.NANOSECONDS);
+
+        } catch (TimeoutException e) {
+            throw vencido(operacion, plazo, e);
+
+        } catch (ExecutionException e) {
+            // Propagar la excepción original del cliente
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new MicroservicioNoDisponibleException("servicio de routing", operacion, e.getCause());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MicroservicioNoDisponibleException("servicio de routing", operacion, e);
+        }
+
+        return enCurso.stream().map(CompletableFuture::join).toList();
+    }
+
+    // Lo que queda del plazo abierto en ejecutar (cero si ya venció)
+    private static long restanteNanos() {
+        return Plazo.restante().map(Duration::toNanos).filter(nanos -> nanos > 0).orElse(0L);
+    }
+
+    private static MicroservicioNoDisponibleException vencido(String operacion, Duration plazo, Throwable causa) {
+        return new MicroservicioNoDisponibleException(
+            "servicio de routing", operacion + " (deadline " + plazo + ")", causa);
+    }
+}
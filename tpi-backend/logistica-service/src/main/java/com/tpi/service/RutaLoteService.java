@@ -0,0 +1,361 @@
+package com.tpi.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tpi.comun.excepcion.ParametroInvalidoException;
+import com.tpi.client.RoutingClient;
+import com.tpi.dto.external.RouteResponseDTOs.Coordenada;
+import com.tpi.dto.external.RouteResponseDTOs.MatrixResponse;
+import com.tpi.dto.request.CrearRutaCompletaRequest;
+import com.tpi.dto.response.LoteRutasDTOs.ResultadoLoteRutasDTO;
+import com.tpi.dto.response.LoteRutasDTOs.ResultadoRutaDTO;
+import com.tpi.dto.response.RutaAsignadaResponseDTO;
+import com.tpi.exception.EntidadNotFoundException;
+import com.tpi.exception.ErrorResponse;
+import com.tpi.exception.MicroservicioNoDisponibleException;
+import com.tpi.exception.PlanificacionImposibleException;
+import com.tpi.model.Deposito;
+import com.tpi.model.Ruta;
+import com.tpi.model.Tarifa;
+import com.tpi.model.Tramo;
+import com.tpi.model.Ubicacion;
+import com.tpi.repository.RutaRepository;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creación de muchas rutas en una sola llamada (ej: el despacho de la mañana).
+ *
+ * A diferencia de crear las rutas de a una:
+ * - Ubicaciones y depósitos de todo el lote se leen con una consulta cada uno.
+ * - Los tramos repetidos entre rutas (mismo origen y destino) se consultan una sola vez,
+ *   y se resuelven con el endpoint de matriz del servicio de routing en grupos,
+ *   en vez de una llamada por tramo.
+ * - Todas las rutas y tramos se guardan juntos al final, en una transacción que solo abarca
+ *   la escritura: las consultas al routing (hasta el deadline del lote) se hacen antes, sin
+ *   tener tomada una conexión de la base.
+ *
+ * Cada ruta del lote tiene su propio resultado: un error de datos (ubicación inexistente,
+ * sin tarifa, sin camino posible...) solo afecta a esa ruta.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RutaLoteService {
+
+    private final RutaRepository rutaRepository;
+    private final TramoService tramoService;
+    private final UbicacionService ubicacionService;
+    private final DepositoService depositoService;
+    private final TarifaService tarifaService;
+    private final PlanificacionDepositosService planificacionService;
+    private final RoutingClient routingClient;
+
+    // Consultas de matriz en paralelo, con la concurrencia compartida con TramoService
+    private final RoutingParaleloService routingParalelo;
+    private final PlatformTransactionManager transactionManager;
+
+    // Tramos distintos por cada consulta de matriz (la matriz es orígenes × destinos del grupo)
+    @Value("${logistica.routing.lote.tramos-por-matriz:50}")
+    private int tramosPorMatriz;
+
+    // Tiempo máximo para obtener el routing de TODOS los tramos del lote
+    @Value("${logistica.routing.lote.deadline:60s}")
+    private Duration deadlineLote;
+
+    // Tramo identificado por sus ubicaciones; dos rutas que lo comparten usan el mismo resultado
+    private record ParUbicaciones(Long origenId, Long destinoId) {}
+
+    private record Recorrido(Double distanciaKm, Long duracionSegundos) {}
+
+    // Ruta del lote ya validada, lista para armar sus tramos
+    private record Pendiente(int indice, CrearRutaCompletaRequest request, Tarifa tarifa,
+                             List<Ubicacion> puntos, int cantidadDepositos, boolean planificada) {}
+
+    // Ruta del lote con sus tramos armados, lista para guardar
+    private record Armada(Pendiente pendiente, Ruta ruta, List<Tramo> tramos) {}
+
+    /**
+     * Crea todas las rutas del lote.
+     *
+     * @param requests rutas a crear, una por solicitud.
+     * @return un resultado por ruta (en el mismo orden) y totales del lote.
+     * @throws MicroservicioNoDisponibleException si el servicio de routing no responde a tiempo
+     *         (en ese caso no se guarda ninguna ruta).
+     */
+    public ResultadoLoteRutasDTO crearRutas(List<CrearRutaCompletaRequest> requests) {
+
+        log.info("Creando lote de {} rutas", requests.size());
+        ResultadoRutaDTO[] resultados = new ResultadoRutaDTO[requests.size()];
+
+        // 1 y 2. Leer y validar en una transacción de solo lectura
+        TransactionTemplate lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+        List<Pendiente> pendientes = lectura.execute(estado -> validar(requests, resultados));
+
+        // 3. Tramos distintos de todo el lote y su routing en grupos (sin transacción abierta)
+        Map<ParUbicaciones, Ubicacion[]> tramosUnicos = new LinkedHashMap<>();
+        for (Pendiente pendiente : pendientes) {
+            List<Ubicacion> puntos = pendiente.puntos();
+            for (int j = 0; j + 1 < puntos.size(); j++) {
+                tramosUnicos.putIfAbsent(par(puntos.get(j), puntos.get(j + 1)),
+                    new Ubicacion[] {puntos.get(j), puntos.get(j + 1)});
+            }
+        }
+        Map<ParUbicaciones, Recorrido> recorridos = calcularRecorridos(tramosUnicos);
+
+        // 4 y 5. Armar y guardar todo junto en una transacción solo para la escritura
+        TransactionTemplate escritura = new TransactionTemplate(transactionManager);
+        int creadas = escritura.execute(estado -> guardar(pendientes, recorridos, resultados));
+
+        log.info("Lote terminado: {} rutas creadas, {} con error, {} tramos distintos ruteados",
+            creadas, requests.size() - creadas, tramosUnicos.size());
+
+        return new ResultadoLoteRutasDTO(
+            requests.size(), creadas, requests.size() - creadas, tramosUnicos.size(), List.of(resultados));
+    }
+
+    /**
+     * Lee ubicaciones y depósitos de todo el lote y valida cada ruta por separado.
+     * Las rutas con error quedan con su resultado en {@code resultados}.
+     */
+    private List<Pendiente> validar(List<CrearRutaCompletaRequest> requests, ResultadoRutaDTO[] resultados) {
+
+        // 1. Leer ubicaciones y depósitos de todo el lote de una vez
+        Map<Long, Ubicacion> ubicaciones = ubicacionService.findAllById(requests.stream()
+                .flatMap(r -> Stream.of(r.getOrigenId(), r.getDestinoId()))
+                .collect(Collectors.toSet()))
+            .stream().collect(Collectors.toMap(Ubicacion::getId, Function.identity()));
+
+        Map<Long, Deposito> depositos = depositoService.findAllById(requests.stream()
+                .filter(r -> r.getDepositosIntermedios() != null)
+                .flatMap(r -> r.getDepositosIntermedios().stream())
+                .distinct()
+                .toList())
+            .stream().collect(Collectors.toMap(Deposito::getId, Function.identity()));
+
+        // 2. Validar cada ruta por separado
+        List<Pendiente> pendientes = new ArrayList<>();
+        Set<Long> solicitudesDelLote = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            CrearRutaCompletaRequest request = requests.get(i);
+            try {
+                if (!solicitudesDelLote.add(request.getSolicitudId())) {
+                    throw new ParametroInvalidoException(
+                        "La solicitud " + request.getSolicitudId() + " aparece más de una vez en el lote");
+                }
+                pendientes.add(preparar(i, request, ubicaciones, depositos));
+            } catch (RuntimeException e) {
+                resultados[i] = ResultadoRutaDTO.fallida(i, request.getSolicitudId(), error(e));
+            }
+        }
+        return pendientes;
+    }
+
+    /**
+     * Arma las rutas y tramos con su recorrido y los guarda juntos.
+     *
+     * @return cantidad de rutas creadas
+     */
+    private int guardar(List<Pendiente> pendientes, Map<ParUbicaciones, Recorrido> recorridos,
+                        ResultadoRutaDTO[] resultados) {
+
+        // 4. Armar rutas y tramos (las que tienen algún tramo sin camino vial quedan con error)
+        List<Ruta> rutas = new ArrayList<>();
+        List<Tramo> tramos = new ArrayList<>();
+        List<Armada> armadas = new ArrayList<>();
+        for (Pendiente pendiente : pendientes) {
+            try {
+                Ruta ruta = Ruta.builder()
+                    .solicitudId(pendiente.request().getSolicitudId())
+                    .tarifa(pendiente.tarifa())
+                    .cantidadTramos(pendiente.cantidadDepositos() + 1)
+                    .cantidadDepositos(pendiente.cantidadDepositos())
+                    .build();
+
+                List<Ubicacion> puntos = pendiente.puntos();
+                List<Tramo> tramosRuta = tramoService.armarTramos(ruta, puntos.get(0), puntos.get(puntos.size() - 1),
+                    puntos.subList(1, puntos.size() - 1));
+                for (Tramo tramo : tramosRuta) {
+                    Recorrido recorrido = recorridos.get(par(tramo.getOrigen(), tramo.getDestino()));
+                    if (recorrido == null) {
+                        throw new EntidadNotFoundException("Ruta", "entre las ubicaciones "
+                            + tramo.getOrigen().getId() + " y " + tramo.getDestino().getId());
+                    }
+                    tramo.setDistanciaKm(Math.round(recorrido.distanciaKm() * 100.0) / 100.0);
+                    tramo.setDuracionEstimadaSegundos(recorrido.duracionSegundos());
+                }
+
+                rutas.add(ruta);
+                tramos.addAll(tramosRuta);
+                armadas.add(new Armada(pendiente, ruta, tramosRuta));
+            } catch (RuntimeException e) {
+                resultados[pendiente.indice()] = ResultadoRutaDTO.fallida(
+                    pendiente.indice(), pendiente.request().getSolicitudId(), error(e));
+            }
+        }
+
+        // 5. Guardar todo junto
+        rutaRepository.saveAll(rutas);
+        tramoService.saveAll(tramos);
+
+        for (Armada armada : armadas) {
+            Pendiente pendiente = armada.pendiente();
+            if (pendiente.planificada()) {
+                planificacionService.verificarTramos(armada.tramos());
+            }
+            resultados[pendiente.indice()] = ResultadoRutaDTO.creada(pendiente.indice(), armada.ruta().getSolicitudId(),
+                RutaAsignadaResponseDTO.fromEntity(armada.ruta(), pendiente.tarifa(), armada.tramos()));
+        }
+        return armadas.size();
+    }
+
+    /**
+     * Valida una ruta del lote y resuelve sus ubicaciones, tarifa y depósitos (sin consultar la base).
+     */
+    private Pendiente preparar(int indice, CrearRutaCompletaRequest request,
+                               Map<Long, Ubicacion> ubicaciones, Map<Long, Deposito> depositos) {
+
+        Ubicacion origen = buscar(ubicaciones, request.getOrigenId(), "Ubicacion");
+        Ubicacion destino = buscar(ubicaciones, request.getDestinoId(), "Ubicacion");
+        Tarifa tarifa = tarifaService.getTarifaByVolumenContenedor(request.getVolumenContenedor());
+
+        List<Long> depositosIds = request.getDepositosIntermedios() != null
+            ? request.getDepositosIntermedios() : List.of();
+
+        boolean planificar = Boolean.TRUE.equals(request.getPlanificarDepositos());
+        if (planificar) {
+            if (!depositosIds.isEmpty()) {
+                throw new ParametroInvalidoException(
+                    "No se pueden indicar depósitos intermedios y pedir planificación automática a la vez");
+            }
+            depositosIds = planificacionService.seleccionarDepositos(
+                origen, destino, tarifa, request.getVolumenContenedor());
+        }
+
+        List<Ubicacion> puntos = new ArrayList<>(depositosIds.size() + 2);
+        puntos.add(origen);
+        for (Long depositoId : depositosIds) {
+            // Los depósitos planificados vienen del índice espacial, no del mapa precargado
+            Deposito deposito = depositos.containsKey(depositoId)
+                ? depositos.get(depositoId) : depositoService.findById(depositoId);
+            puntos.add(deposito.getUbicacion());
+        }
+        puntos.add(destino);
+
+        return new Pendiente(indice, request, tarifa, puntos, depositosIds.size(), planificar);
+    }
+
+    /**
+     * Resuelve distancia y duración de los tramos distintos con el endpoint de matriz.
+     * Los tramos se agrupan (ordenados por origen, para que cada grupo repita orígenes)
+     * y cada grupo es una consulta orígenes × destinos; los grupos van en paralelo.
+     *
+     * @return recorrido de cada tramo; los que no tienen camino vial no aparecen.
+     */
+    private Map<ParUbicaciones, Recorrido> calcularRecorridos(Map<ParUbicaciones, Ubicacion[]> tramosUnicos) {
+
+        // Paso 1: Agrupar los tramos
+        List<Map.Entry<ParUbicaciones, Ubicacion[]>> ordenados = new ArrayList<>(tramosUnicos.entrySet());
+        ordenados.sort(Comparator.comparing((Map.Entry<ParUbicaciones, Ubicacion[]> e) -> e.getKey().origenId())
+            .thenComparing(e -> e.getKey().destinoId()));
+
+        List<List<Map.Entry<ParUbicaciones, Ubicacion[]>>> grupos = new ArrayList<>();
+        for (int desde = 0; desde < ordenados.size(); desde += tramosPorMatriz) {
+            grupos.add(ordenados.subList(desde, Math.min(ordenados.size(), desde + tramosPorMatriz)));
+        }
+
+        // Paso 2: Una consulta de matriz por grupo, todas a la vez y con un único deadline para el lote
+        List<Map<ParUbicaciones, Recorrido>> respuestas = routingParalelo.ejecutar(grupos.stream()
+                .<Supplier<Map<ParUbicaciones, Recorrido>>>map(grupo -> () -> recorridosDelGrupo(grupo))
+                .toList(),
+            deadlineLote, "cálculo de " + tramosUnicos.size() + " tramos");
+
+        Map<ParUbicaciones, Recorrido> recorridos = new HashMap<>();
+        respuestas.forEach(recorridos::putAll);
+        return recorridos;
+    }
+
+    private Map<ParUbicaciones, Recorrido> recorridosDelGrupo(List<Map.Entry<ParUbicaciones, Ubicacion[]>> grupo) {
+
+        // Orígenes y destinos distintos del grupo, con su fila/columna en la matriz
+        Map<Long, Integer> filas = new LinkedHashMap<>();
+        Map<Long, Integer> columnas = new LinkedHashMap<>();
+        List<Coordenada> origenes = new ArrayList<>();
+        List<Coordenada> destinos = new ArrayList<>();
+        for (Map.Entry<ParUbicaciones, Ubicacion[]> tramo : grupo) {
+            Ubicacion origen = tramo.getValue()[0];
+            Ubicacion destino = tramo.getValue()[1];
+            if (filas.putIfAbsent(origen.getId(), origenes.size()) == null) {
+                origenes.add(new Coordenada(origen.getLatitud(), origen.getLongitud()));
+            }
+            if (columnas.putIfAbsent(destino.getId(), destinos.size()) == null) {
+                destinos.add(new Coordenada(destino.getLatitud(), destino.getLongitud()));
+            }
+        }
+
+        MatrixResponse matriz = routingClient.calcularMatriz(origenes, destinos);
+
+        Map<ParUbicaciones, Recorrido> recorridos = new HashMap<>();
+        for (Map.Entry<ParUbicaciones, Ubicacion[]> tramo : grupo) {
+            int fila = filas.get(tramo.getKey().origenId());
+            int columna = columnas.get(tramo.getKey().destinoId());
+            Double distancia = matriz.distanciasKm()[fila][columna];
+            Long duracion = matriz.duracionesSegundos()[fila][columna];
+            if (distancia != null && duracion != null) {
+                recorridos.put(tramo.getKey(), new Recorrido(distancia, duracion));
+            }
+        }
+        return recorridos;
+    }
+
+    private static ParUbicaciones par(Ubicacion origen, Ubicacion destino) {
+        return new ParUbicaciones(origen.getId(), destino.getId());
+    }
+
+    private static <T> T buscar(Map<Long, T> porId, Long id, String entidad) {
+        T encontrado = porId.get(id);
+        if (encontrado == null) {
+            throw new EntidadNotFoundException(entidad, String.valueOf(id));
+        }
+        return encontrado;
+    }
+
+    /**
+     * Traduce el error de una ruta del lote al mismo código y estado que devolvería
+     * el endpoint de a una ruta (ver GlobalExceptionHandler). Los errores que no son
+     * de datos (routing caído, errores internos) no se capturan y cortan todo el lote.
+     */
+    private static ErrorResponse error(RuntimeException e) {
+        if (e instanceof EntidadNotFoundException || e instanceof EntityNotFoundException) {
+            return new ErrorResponse("ENTIDAD_NO_ENCONTRADA", e.getMessage(), HttpStatus.NOT_FOUND.value());
+        }
+        if (e instanceof ParametroInvalidoException) {
+            return new ErrorResponse("PARAMETRO_INVALIDO", e.getMessage(), HttpStatus.BAD_REQUEST.value());
+        }
+        if (e instanceof PlanificacionImposibleException) {
+            return new ErrorResponse("PLANIFICACION_IMPOSIBLE", e.getMessage(), HttpStatus.UNPROCESSABLE_ENTITY.value());
+        }
+        throw e;
+    }
+}
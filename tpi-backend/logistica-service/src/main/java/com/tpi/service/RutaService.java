@@ -2,13 +2,21 @@ package com.tpi.service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 import org.springframework.stereotype.Service;
 
+import com.tpi.comun.excepcion.ParametroInvalidoException;
+import com.tpi.comun.paginacion.PaginaRequest;
+import com.tpi.comun.paginacion.PaginaResponse;
+import com.tpi.comun.paginacion.Paginador;
 import com.tpi.dto.CostoFinalDTOs.CostoFinalDTO;
 import com.tpi.dto.request.CrearRutaCompletaRequest;
 import com.tpi.dto.response.CostosEstimadosDTOs.CostosEstimadosDTO;
 import com.tpi.dto.response.RutaAsignadaResponseDTO;
+import com.tpi.dto.response.SeguimientoRutaResponseDTO;
+import com.tpi.dto.response.UbicacionDTOs.UbicacionResponseDTO;
 import com.tpi.dto.response.RutasTramosCamionResponsesDTO.RutaTramosCamionResponse;
 import com.tpi.dto.response.RutasTramosCamionResponsesDTO.TramoConDetalles;
 import com.tpi.exception.EntidadNotFoundException;
@@ -28,6 +36,11 @@ import jakarta.transaction.Transactional;
 @RequiredArgsConstructor
 @Transactional
 public class RutaService {
+
+    // Las rutas solo se ordenan por ID (ascendente o descendente)
+    private static final Paginador PAGINADOR = new Paginador(Map.<String, Function<String, Object>>of(
+        "id", Long::valueOf
+    ));
     
     private final RutaRepository rutaRepository;
 
@@ -35,6 +48,7 @@ public class RutaService {
     private final UbicacionService ubicacionService;
     private final TarifaService tarifaService;
     private final CalculoCostoService calculadoraService;
+    private final PlanificacionDepositosService planificacionService;
 
     @SuppressWarnings("null")
     public RutaAsignadaResponseDTO crearRutaParaSolicitud(CrearRutaCompletaRequest request) {
@@ -62,6 +76,17 @@ public class RutaService {
 
         log.debug("Tarifa encontrada: {}", tarifa.getId());
 
+        // 3.1 Planificación automática: elegir los depósitos intermedios
+        boolean planificar = Boolean.TRUE.equals(request.getPlanificarDepositos());
+        if (planificar) {
+            if (!request.getDepositosIntermedios().isEmpty()) {
+                throw new ParametroInvalidoException(
+                    "No se pueden indicar depósitos intermedios y pedir planificación automática a la vez");
+            }
+            request.setDepositosIntermedios(planificacionService.seleccionarDepositos(
+                origen, destino, tarifa, request.getVolumenContenedor()));
+        }
+
         // 4. Calcular cantidad de tramos
         int cantidadDepositos = request.getDepositosIntermedios().size();    // 1
         int cantidadTramos = cantidadDepositos + 1;
@@ -86,6 +111,9 @@ public class RutaService {
             ruta, origen, destino, request.getDepositosIntermedios()
         );
         log.info("{} tramos creados exitosamente para ruta ID: {}", tramos.size(), ruta.getId());
+        if (planificar) {
+            planificacionService.verificarTramos(tramos);
+        }
 
         // 7. Retornar respuesta
         log.info("Creación de ruta completada para solicitud ID: {}. Ruta ID: {}", 
@@ -104,19 +132,61 @@ public class RutaService {
      */
     public RutaTramosCamionResponse obtenerRutaConTramosPorSolicitudId(Long solicitudId) {
 
-        // 1. Buscar la ruta asociada al ID de solicitud en la base de datos.
-        //    Si no existe, se lanza EntityNotFoundException.
-        Ruta ruta = rutaRepository.findBySolicitudId(solicitudId)
+        // 1. Tramos de la ruta de la solicitud junto con la ruta, ubicaciones, camión,
+        //    tipo y estado, todo en una sola consulta (el seguimiento se consulta muy seguido)
+        List<Tramo> tramos = tramoService.tramosConDetallesPorSolicitudId(solicitudId);
+
+        // 2. La ruta viene con el primer tramo. Solo si no tiene tramos se busca aparte;
+        //    si no existe, se lanza EntityNotFoundException.
+        Ruta ruta = !tramos.isEmpty()
+            ? tramos.get(0).getRuta()
+            : rutaRepository.findBySolicitudId(solicitudId)
                 .orElseThrow(() -> new EntityNotFoundException(
                     "No se encontró ruta para la solicitud ID: " + solicitudId
                 ));
 
-        // 2. Obtener todos los tramos pertenecientes a esta ruta,
-        //    incluyendo información detallada (camión, origen, destino, etc.)
-        List<TramoConDetalles> tramos = tramoService.obtenerTramosConDetallesPorRutaId(ruta.getId());
-
         // 3. Construir el DTO de respuesta unificado con la ruta + tramos.
-        return RutaTramosCamionResponse.of(ruta, tramos);
+        return RutaTramosCamionResponse.of(ruta, tramos.stream().map(TramoConDetalles::of).toList());
+    }
+
+
+    /**
+     * Arma en una sola respuesta todo lo que necesita el seguimiento de una solicitud:
+     * la ruta con sus tramos y las ubicaciones de origen y destino.
+     * Evita que el ms-solicitudes tenga que hacer tres llamadas separadas.
+     *
+     * @param solicitudId ID de la solicitud.
+     * @param origenId    ID de la ubicación de origen de la solicitud.
+     * @param destinoId   ID de la ubicación de destino de la solicitud.
+     * @return DTO con ruta, origen y destino.
+     */
+    public SeguimientoRutaResponseDTO obtenerSeguimiento(Long solicitudId, Long origenId, Long destinoId) {
+
+        // 1. Ruta y tramos (lanza excepción si la solicitud no tiene ruta)
+        RutaTramosCamionResponse ruta = obtenerRutaConTramosPorSolicitudId(solicitudId);
+
+        // 2. Ubicaciones de origen y destino: normalmente son el origen del primer tramo
+        //    y el destino del último, que ya vinieron en la consulta de los tramos
+        UbicacionResponseDTO origen = ubicacionDeRuta(ruta, origenId);
+        UbicacionResponseDTO destino = ubicacionDeRuta(ruta, destinoId);
+
+        return new SeguimientoRutaResponseDTO(ruta, origen, destino);
+    }
+
+
+    /**
+     * Devuelve la ubicación si ya aparece en los tramos de la ruta; si no, la busca.
+     */
+    private UbicacionResponseDTO ubicacionDeRuta(RutaTramosCamionResponse ruta, Long ubicacionId) {
+        for (TramoConDetalles tramo : ruta.tramos()) {
+            if (tramo.origen() != null && ubicacionId.equals(tramo.origen().id())) {
+                return tramo.origen();
+            }
+            if (tramo.destino() != null && ubicacionId.equals(tramo.destino().id())) {
+                return tramo.destino();
+            }
+        }
+        return UbicacionResponseDTO.fromEntity(ubicacionService.findById(ubicacionId));
     }
 
 
@@ -160,13 +230,20 @@ public class RutaService {
 
 
     /**
-     * Obtiene todas las rutas disponibles en la base de datos.
+     * Obtiene una página de las rutas almacenadas en la base de datos.
      *
-     * @return Lista completa de rutas.
+     * @param pagina tamaño, orden y cursor de la página pedida.
+     * @return Página de rutas con el cursor de la siguiente.
      */
-    public List<Ruta> findAll() {
-        // 1. Solicita al repositorio que devuelva todas las rutas almacenadas.
-        return rutaRepository.findAll();
+    public PaginaResponse<Ruta> findAll(PaginaRequest pagina) {
+        // 1. Traducir los parámetros a una consulta keyset
+        Paginador.Consulta consulta = PAGINADOR.consulta(pagina);
+
+        // 2. Leer solo la ventana pedida (no la tabla completa)
+        return PAGINADOR.pagina(
+            rutaRepository.findBy(consulta.posicion(), consulta.orden(), consulta.limite()),
+            consulta,
+            Function.identity());
     }
     
     /**
@@ -3,20 +3,42 @@ package com.tpi.service;
 
 import com.tpi.dto.request.ActualizarTarifaRequest;
 import com.tpi.dto.request.TarifaRequest;
+import com.tpi.event.TarifaModificadaEvent;
 import com.tpi.exception.EntidadNotFoundException;
+import com.tpi.index.IndiceTarifas;
 import com.tpi.model.Tarifa;
 import com.tpi.repository.TarifaRepository;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
+@Slf4j
 @RequiredArgsConstructor
 public class TarifaService {
 
     private final TarifaRepository tarifaRepository;
+    private final ApplicationEventPublisher eventos;
+
+    // Índice en memoria por rango de volumen. Se reemplaza entero (nunca se modifica)
+    // cada vez que cambia la tabla de tarifas, así los lectores siempre ven una versión consistente.
+    private volatile IndiceTarifas indice;
+
+    // Serializa validar + guardar + recargar el índice: sin esto dos altas o modificaciones
+    // concurrentes validan contra la misma tabla, guardan rangos superpuestos, y una recarga
+    // lenta puede publicar un índice anterior al de otra escritura.
+    // ReentrantLock y no synchronized: no fija el hilo virtual a su carrier mientras espera la base.
+    private final ReentrantLock escritura = new ReentrantLock();
 
     /**
      * Obtiene una tarifa por su ID.
@@ -71,10 +93,16 @@ public class TarifaService {
      */
     @SuppressWarnings("null")
     public void deleteById(Long id) {
-        if (!tarifaRepository.existsById(id)) {
-            throw new EntityNotFoundException("Tarifa no encontrada con ID: " + id);
+        escritura.lock();
+        try {
+            if (!tarifaRepository.existsById(id)) {
+                throw new EntityNotFoundException("Tarifa no encontrada con ID: " + id);
+            }
+            tarifaRepository.deleteById(id);
+            recargarIndice();
+        } finally {
+            escritura.unlock();
         }
-        tarifaRepository.deleteById(id);
     }
 
 
@@ -109,32 +137,96 @@ public class TarifaService {
         if (request.precioCombustiblePorLitro() != null) {
             tarifaExistente.setPrecioCombustiblePorLitro(request.precioCombustiblePorLitro());
         }
-        
-        return tarifaRepository.save(tarifaExistente);
+
+        Tarifa actualizada = guardarValidando(tarifaExistente);
+
+        // Si cambió algo que entra en el costo estimado, se recotizan las rutas de la tarifa
+        if (request.costoGestionPorTramo() != null || request.precioCombustiblePorLitro() != null
+                || request.volumenMin() != null) {
+            eventos.publishEvent(new TarifaModificadaEvent(id));
+        }
+        return actualizada;
     }
 
 
     /**
      * Busca la tarifa correspondiente según el volumen del contenedor.
+     * Usa el índice en memoria (búsqueda binaria), sin consultar la base de datos.
      * 
      * @param volumen Volumen del contenedor a evaluar (en m³)
      * @return Tarifa que cubre el rango de volumen dado
      * @throws EntityNotFoundException Si no se encuentra ninguna tarifa que incluya el volumen
      */
     public Tarifa getTarifaByVolumenContenedor(Double volumen) {
-        // Obtener todas las tarifas de la base de datos
-        List<Tarifa> tarifas = tarifaRepository.findAll();
-
-        // Filtrar para encontrar la tarifa cuyo rango cubra el volumen
-        return tarifas.stream()
-                .filter(t -> volumen >= t.getVolumenMin() && volumen <= t.getVolumenMax())
-                .findFirst() // Tomar la primera que cumpla la condición
+        return indice().buscar(volumen)
                 .orElseThrow(() -> new EntityNotFoundException(
                         "No se encontró tarifa para volumen: " + volumen
                 ));
     }
 
 
+    /**
+     * Reconstruye el índice de tarifas a partir de la base de datos y lo publica de una sola vez.
+     * Se llama al iniciar la aplicación (después del DataLoader) y tras cada alta, modificación o baja.
+     *
+     * Si la tabla ya tiene rangos superpuestos (ej: cargados a mano) no falla: deja afuera esas
+     * filas y las registra, para que el servicio arranque y se puedan corregir con la API.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recargarIndice() {
+        escritura.lock();
+        try {
+            indice = IndiceTarifas.construirDescartando(tarifaRepository.findAll(), (tarifa, motivo) ->
+                log.warn("Tarifa {} fuera del índice: {}", tarifa.getId(), motivo));
+            log.debug("Índice de tarifas reconstruido con {} tarifas", indice.tarifas().size());
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    /**
+     * Devuelve el índice actual, construyéndolo si todavía no existe.
+     */
+    private IndiceTarifas indice() {
+        IndiceTarifas actual = indice;
+        if (actual == null) {
+            recargarIndice();
+            actual = indice;
+        }
+        return actual;
+    }
+
+    /**
+     * Valida que la tarifa (nueva o modificada) no se superponga con las demás, la guarda y
+     * recarga el índice, todo con el lock de escritura: otra escritura no puede guardar un rango
+     * entre la validación y el guardado.
+     *
+     * @param tarifa tarifa a guardar (si tiene ID, reemplaza a su versión guardada)
+     * @return tarifa guardada
+     * @throws com.tpi.exception.TarifaSolapadaException si el rango es inválido o se superpone
+     */
+    @SuppressWarnings("null")
+    private Tarifa guardarValidando(Tarifa tarifa) {
+        escritura.lock();
+        try {
+            // Contra la tabla y no contra el índice, que puede haber dejado afuera filas superpuestas
+            List<Tarifa> otras = new ArrayList<>();
+            for (Tarifa t : tarifaRepository.findAll()) {
+                if (tarifa.getId() == null || !Objects.equals(t.getId(), tarifa.getId())) {
+                    otras.add(t);
+                }
+            }
+            IndiceTarifas.verificar(tarifa, otras);
+
+            Tarifa guardada = tarifaRepository.save(tarifa);
+            recargarIndice();
+            return guardada;
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+
     /**
      * Crea una nueva tarifa a partir del payload recibido.
      *
@@ -152,6 +244,6 @@ public class TarifaService {
             .precioCombustiblePorLitro(request.getPrecioCombustiblePorLitro())
             .build();
 
-        return tarifaRepository.save(tarifa);
+        return guardarValidando(tarifa);
     }
 }
\ No newline at end of file
@@ -1,17 +1,34 @@
 package com.tpi.service;
 
 import java.util.List;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
-import lombok.RequiredArgsConstructor;
+import com.tpi.comun.catalogo.Catalogo;
 import com.tpi.exception.EntidadNotFoundException;
 import com.tpi.repository.TipoTramoRepository;
 import com.tpi.model.TipoTramo;
 
 @Service
-@RequiredArgsConstructor
 public class TipoTramoService {
 
     private final TipoTramoRepository tipoTramoRepository;
+
+    // Copia en memoria de la tabla (se recarga en cada escritura)
+    private final Catalogo<TipoTramo> catalogo;
+
+    public TipoTramoService(TipoTramoRepository tipoTramoRepository) {
+        this.tipoTramoRepository = tipoTramoRepository;
+        this.catalogo = new Catalogo<>(tipoTramoRepository::findAll, TipoTramo::getId, TipoTramo::getNombre);
+    }
+
+    /**
+     * Carga el catálogo al iniciar, después de que el DataLoader insertó los datos por defecto.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarCatalogo() {
+        catalogo.recargar();
+    }
     
     /**
      * Devuelve todos los tipos de tramo existentes.
@@ -19,7 +36,7 @@ public class TipoTramoService {
      * @return Lista de todos los tipos de tramo.
      */
     public List<TipoTramo> findAll() {
-        return tipoTramoRepository.findAll();
+        return catalogo.todos();
     }
 
     /**
@@ -29,21 +46,22 @@ public class TipoTramoService {
      * @return TipoTramo encontrado.
      * @throws EntidadNotFoundException si no existe un tipo de tramo con el ID dado.
      */
-    @SuppressWarnings("null")
     public TipoTramo findById(Long id) {
-        return tipoTramoRepository.findById(id)
+        return catalogo.porId(id)
                 .orElseThrow(() -> new EntidadNotFoundException("TipoTramo", id));
     }
 
     /**
-     * Guarda un tipo de tramo en la base de datos.
+     * Guarda un tipo de tramo en la base de datos y recarga el catálogo.
      *
      * @param camion TipoTramo a guardar.
      * @return TipoTramo guardado.
      */
     @SuppressWarnings("null")
     public TipoTramo save(TipoTramo camion) {
-        return tipoTramoRepository.save(camion);
+        TipoTramo guardado = tipoTramoRepository.save(camion);
+        catalogo.recargar();
+        return guardado;
     }
 
     /**
@@ -54,7 +72,7 @@ public class TipoTramoService {
      * @throws EntidadNotFoundException si no existe un tipo de tramo con el nombre dado.
      */
     public TipoTramo findByNombre(String nombre) {
-        return tipoTramoRepository.findByNombre(nombre)
+        return catalogo.porNombre(nombre)
             .orElseThrow(() -> new EntidadNotFoundException("TipoTramo", nombre));
     }
 }
@@ -1,9 +1,16 @@
 package com.tpi.service;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.tpi.client.RoutingClient;
@@ -15,6 +22,7 @@ import com.tpi.dto.external.RouteResponseDTOs.RouteResponse;
 import com.tpi.dto.response.RutasTramosCamionResponsesDTO.TramoConDetalles;
 
 import com.tpi.exception.EntidadNotFoundException;
+import com.tpi.exception.MicroservicioNoDisponibleException;
 
 import com.tpi.model.Camion;
 import com.tpi.model.Deposito;
@@ -39,6 +47,13 @@ public class TramoService {
     private final RoutingClient routingClient;
     private final SolicitudClient solicitudClient;
 
+    // Consultas al routing de cada tramo en paralelo, con concurrencia acotada
+    private final RoutingParaleloService routingParalelo;
+
+    // Tiempo máximo para obtener el routing de TODOS los tramos de una ruta
+    @Value("${logistica.routing.deadline-ruta:20s}")
+    private Duration deadlineRuta;
+
     /**
      * Genera automáticamente los tramos de una ruta en función de:
      * - Origen
@@ -52,23 +67,60 @@ public class TramoService {
      *        Depósito1 → Depósito2
      *        ...
      *        ÚltimoDepósito → Destino
+     *
+     * Las consultas al servicio de routing de cada tramo se hacen en paralelo,
+     * así que el tiempo total es el del tramo más lento y no la suma de todos.
      */
+    @Observed(name = "tpi.tramos.automaticos")
     public List<Tramo> crearTramosAutomaticos(
             Ruta ruta, Ubicacion origen, Ubicacion destino, List<Long> depositosIds) {
-        
-        // Paso 1: Crear contenedor para los tramos que se devolverán
-        List<Tramo> tramos = new ArrayList<>();
 
-        // Paso 2: Obtener depósitos si la lista contiene IDs
-        List<Deposito> depositos = (depositosIds != null && !depositosIds.isEmpty())
+        // Paso 1: Obtener depósitos si la lista contiene IDs
+        boolean hayDepositos = depositosIds != null && !depositosIds.isEmpty();
+        List<Deposito> depositos = hayDepositos
             ? depositoService.findAllById(depositosIds)
             : new ArrayList<>();
 
-        // Paso 3: Extraer ubicaciones de cada depósito
-        List<Ubicacion> ubicacionesDepositos = depositos.stream()
-            .map(Deposito::getUbicacion)
+        // Paso 2: Extraer ubicaciones de cada depósito, en el orden pedido
+        // (findAllById no garantiza devolverlos en el orden de los IDs)
+        Map<Long, Deposito> depositosPorId = depositos.stream()
+            .collect(Collectors.toMap(Deposito::getId, Function.identity()));
+        List<Ubicacion> ubicacionesDepositos = !hayDepositos ? new ArrayList<>() : depositosIds.stream()
+            .map(id -> {
+                Deposito deposito = depositosPorId.get(id);
+                if (deposito == null) {
+                    throw new EntidadNotFoundException("Depósito", id);
+                }
+                return deposito.getUbicacion();
+            })
             .collect(Collectors.toList());
 
+        // Paso 3: Armar los tramos (sin distancia ni duración todavía)
+        List<Tramo> tramos = armarTramos(ruta, origen, destino, ubicacionesDepositos);
+
+        // Paso 4: Calcular distancia y duración de todos los tramos en paralelo
+        calcularRoutingEnParalelo(tramos);
+
+        // Paso 5: Guardar todos los tramos generados en la BD
+        return tramoRepository.saveAll(tramos);
+    }
+
+
+    /**
+     * Arma los tramos de una ruta (origen → depósitos → destino) con su tipo, estado
+     * inicial y orden, sin distancia ni duración y sin persistir.
+     *
+     * @param ruta                 Ruta a la que pertenecen los tramos.
+     * @param origen               Ubicación de origen.
+     * @param destino              Ubicación de destino.
+     * @param ubicacionesDepositos Ubicaciones de los depósitos intermedios, en orden de visita.
+     * @return Tramos en orden.
+     */
+    public List<Tramo> armarTramos(
+            Ruta ruta, Ubicacion origen, Ubicacion destino, List<Ubicacion> ubicacionesDepositos) {
+
+        List<Tramo> tramos = new ArrayList<>();
+
         // ============================================================
         // Caso 1: NO hay depósitos intermedios → tramo directo
         // ============================================================
@@ -77,23 +129,23 @@ public class TramoService {
 
         if (ubicacionesDepositos.isEmpty()) {
 
-            // Paso 4: Obtener tipo de tramo ORIGEN_DESTINO
+            // Paso 2: Obtener tipo de tramo ORIGEN_DESTINO
             TipoTramo tipoTramo = tipoTramoService.findByNombre("ORIGEN_DESTINO");
 
-            // Paso 5: Crear tramo directo origen → destino (orden = 0)
+            // Paso 3: Crear tramo directo origen → destino (orden = 0)
             Tramo tramoDirecto = crearTramo(
                 ruta, origen, destino,
                 tipoTramo, 0, estado
             );
 
-            // Paso 6: Guardar tramo directo en la lista
+            // Paso 4: Guardar tramo directo en la lista
             tramos.add(tramoDirecto);
         }
         // ============================================================
         // Caso 2: Sí hay depósitos intermedios
         // ============================================================
         else {
-            // Paso 7: Primer tramo Origen → Primer depósito
+            // Paso 5: Primer tramo Origen → Primer depósito
             TipoTramo tipoTramo = tipoTramoService.findByNombre("ORIGEN_DEPOSITO");
 
             Tramo primerTramo = crearTramo(
@@ -102,10 +154,10 @@ public class TramoService {
             );
             tramos.add(primerTramo);
 
-            // Paso 8: Tramos intermedios entre depósitos consecutivos
-            for (int i = 0; i < ubicacionesDepositos.size() - 1; i++) {
+            // Paso 6: Tramos intermedios entre depósitos consecutivos
+            TipoTramo tipoTramito = tipoTramoService.findByNombre("DEPOSITO_DEPOSITO");
 
-                TipoTramo tipoTramito = tipoTramoService.findByNombre("DEPOSITO_DEPOSITO");
+            for (int i = 0; i < ubicacionesDepositos.size() - 1; i++) {
 
                 Tramo tramoIntermedio = crearTramo(
                     ruta, ubicacionesDepositos.get(i), ubicacionesDepositos.get(i + 1),
@@ -115,7 +167,7 @@ public class TramoService {
                 tramos.add(tramoIntermedio);
             }
 
-            // Paso 9: Último tramo ÚltimoDepósito → Destino
+            // Paso 7: Último tramo ÚltimoDepósito → Destino
             TipoTramo tipoTramoLast = tipoTramoService.findByNombre("DEPOSITO_DESTINO");
 
             Tramo ultimoTramo = crearTramo(
@@ -130,15 +182,13 @@ public class TramoService {
             tramos.add(ultimoTramo);
         }
 
-        // Paso 10: Guardar todos los tramos generados en la BD
-        return tramoRepository.saveAll(tramos);
+        return tramos;
     }
 
 
     /**
-     * Crea un Tramo entre dos ubicaciones (origen → destino) calculando
-     * distancia y duración con el servicio de routing (OSRM). Si falla el
-     * llamado al servicio, usa un cálculo de fallback euclidiano.
+     * Crea un Tramo entre dos ubicaciones (origen → destino).
+     * La distancia y duración se completan después con calcularRoutingEnParalelo.
      *
      * @param ruta      Ruta a la que pertenece el tramo (referencia).
      * @param origen    Ubicación de origen.
@@ -146,37 +196,56 @@ public class TramoService {
      * @param tipoTramo Tipo de tramo (ORIGEN_DESTINO, DEPOSITO_DEPOSITO, etc.).
      * @param orden     Posición/orden del tramo dentro de la ruta.
      * @param estado     Estado de tramo ("ESTIMADO", "ASIGNADO", "INICIADO", "FINALIZADO")
-     * @return Tramo construido (sin persistir).
+     * @return Tramo construido (sin persistir y sin distancia/duración).
      */
     private Tramo crearTramo(Ruta ruta, Ubicacion origen, Ubicacion destino,
                             TipoTramo tipoTramo, int orden, EstadoTramo estado) {
 
-        // Paso 1: Intentar calcular distancia y duración usando el servicio de routing (OSRM)
-        // 2 Llamada al cliente de routing pasando lat/lon de origen y destino
-        RouteAlternativeResponse rutaInfo = routingClient.calcularRutaCompleta(
-            origen.getLatitud(), origen.getLongitud(),
-            destino.getLatitud(), destino.getLongitud()
-        );
-
-        // Obtener la mejor ruta posible desde la respuesta
-        RouteResponse routeInfo = rutaInfo.rutas().get(rutaInfo.bestRuta());
-        
-        // Paso 4: Construir y devolver el Tramo usando los valores calculados
-        double distanciaRedondeada = Math.round(routeInfo.distanciaKm() * 100.0) / 100.0;
-
         return Tramo.builder()
-            .ruta(ruta) // 4.1 Referencia a la ruta (por entidad/ID)
-            .origen(origen) // 4.2 Origen (entidad)
-            .destino(destino) // 4.3 Destino (entidad)
-            .tipo(tipoTramo) // 4.4 Tipo de tramo
-            .estado(estado) // 4.5 Estado inicial
-            .distanciaKm(distanciaRedondeada) // 4.6 Distancia en km (desde OSRM o fallback)
-            .duracionEstimadaSegundos(routeInfo.duracionSegundos()) // 4.7 Duración estimada en segundos INT
-            .orden(orden) // 4.8 Orden para mantener secuencia de tramos
+            .ruta(ruta) // Referencia a la ruta (por entidad/ID)
+            .origen(origen) // Origen (entidad)
+            .destino(destino) // Destino (entidad)
+            .tipo(tipoTramo) // Tipo de tramo
+            .estado(estado) // Estado inicial
+            .orden(orden) // Orden para mantener secuencia de tramos
             .build();
     }
 
 
+    /**
+     * Consulta al servicio de routing (OSRM) la distancia y duración de cada tramo,
+     * con las llamadas en paralelo (RoutingParaleloService).
+     * Cada resultado se asigna a su propio tramo, por lo que el orden de la lista
+     * (campo "orden") se mantiene sin importar qué llamada termine primero.
+     *
+     * @param tramos Tramos ya construidos, en orden.
+     * @throws MicroservicioNoDisponibleException si no se completan todos dentro del deadline.
+     */
+    private void calcularRoutingEnParalelo(List<Tramo> tramos) {
+
+        // Paso 1 y 2: Una llamada por tramo, todas con un único deadline para la ruta completa
+        List<RouteAlternativeResponse> respuestas = routingParalelo.ejecutar(tramos.stream()
+                .<Supplier<RouteAlternativeResponse>>map(tramo -> () -> routingClient.calcularRutaCompleta(
+                    tramo.getOrigen().getLatitud(), tramo.getOrigen().getLongitud(),
+                    tramo.getDestino().getLatitud(), tramo.getDestino().getLongitud()))
+                .toList(),
+            deadlineRuta, "cálculo de " + tramos.size() + " tramos");
+
+        // Paso 3: Volcar cada resultado en su tramo (mismo índice)
+        for (int i = 0; i < tramos.size(); i++) {
+            RouteAlternativeResponse rutaInfo = respuestas.get(i);
+
+            // Obtener la mejor ruta posible desde la respuesta
+            RouteResponse routeInfo = rutaInfo.rutas().get(rutaInfo.bestRuta());
+            double distanciaRedondeada = Math.round(routeInfo.distanciaKm() * 100.0) / 100.0;
+
+            Tramo tramo = tramos.get(i);
+            tramo.setDistanciaKm(distanciaRedondeada);                          // Distancia en km (desde OSRM)
+            tramo.setDuracionEstimadaSegundos(routeInfo.duracionSegundos());    // Duración estimada en segundos
+        }
+    }
+
+
     /**
      * Obtiene una lista de tramos con sus detalles completos para una ruta específica.
      *
@@ -184,13 +253,24 @@ public class TramoService {
      * @return Lista de objetos TramoConDetalles ordenados por su campo "orden".
      */
     public List<TramoConDetalles> obtenerTramosConDetallesPorRutaId(Long rutaId) {
-        List<Tramo> tramos = tramoRepository.findByRutaIdOrderByOrdenAsc(rutaId);
+        List<Tramo> tramos = tramoRepository.findConDetallesByRutaIdOrderByOrdenAsc(rutaId);
         
         return tramos.stream()
                 .map(this::mapearTramoConDetalles)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Obtiene los tramos de la ruta de una solicitud, ordenados, con la ruta y todas
+     * las asociaciones que usa TramoConDetalles ya cargadas (una sola consulta).
+     *
+     * @param solicitudId ID de la solicitud.
+     * @return Tramos ordenados por "orden" (vacía si la solicitud no tiene ruta o tramos).
+     */
+    public List<Tramo> tramosConDetallesPorSolicitudId(Long solicitudId) {
+        return tramoRepository.findConDetallesByRutaSolicitudIdOrderByOrdenAsc(solicitudId);
+    }
+
     /**
      * Convierte una entidad Tramo en un DTO TramoConDetalles.
      *
@@ -241,10 +321,11 @@ public class TramoService {
      * Guarda en la base de datos todos los tramos recibidos.
      *
      * @param tramos lista de tramos a persistir en la base de datos.
+     * @return los tramos guardados.
      */
     @SuppressWarnings("null")
-    public void saveAll(List<Tramo> tramos) {
-        tramoRepository.saveAll(tramos);
+    public List<Tramo> saveAll(List<Tramo> tramos) {
+        return tramoRepository.saveAll(tramos);
     }
 
     /**
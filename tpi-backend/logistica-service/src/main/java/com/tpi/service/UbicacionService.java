@@ -1,14 +1,17 @@
 package com.tpi.service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.tpi.dto.request.UbicacionRequestDTO;
 import com.tpi.dto.response.UbicacionDTOs.UbicacionResponseDTO;
 
+import com.tpi.event.UbicacionModificadaEvent;
 import com.tpi.exception.EntidadNotFoundException;
 import com.tpi.model.TipoUbicacion;
 import com.tpi.model.Ubicacion;
@@ -25,6 +28,7 @@ public class UbicacionService {
 
     private final UbicacionRepository ubicacionRepository;
     private final TipoUbicacionService tipoUbicacionService;
+    private final ApplicationEventPublisher eventos;
 
     /**
      * Crea una nueva ubicación a partir de los datos del request.
@@ -61,6 +65,17 @@ public class UbicacionService {
             .orElseThrow(() -> new EntidadNotFoundException("Ubicacion", id));
     }
 
+    /**
+     * Busca varias ubicaciones en una sola consulta.
+     *
+     * @param ids identificadores de las ubicaciones.
+     * @return las ubicaciones encontradas (solo las que existen), en cualquier orden.
+     */
+    @SuppressWarnings("null")
+    public List<Ubicacion> findAllById(Collection<Long> ids) {
+        return ubicacionRepository.findAllById(ids);
+    }
+
     /**
      * Obtiene todas las ubicaciones convertidas a DTO.
      *
@@ -89,7 +104,9 @@ public class UbicacionService {
         TipoUbicacion tipo = tipoUbicacionService.findById(request.tipoId());
         existente.setTipo(tipo);
 
-        return ubicacionRepository.save(existente);
+        Ubicacion actualizada = ubicacionRepository.save(existente);
+        eventos.publishEvent(new UbicacionModificadaEvent(id));
+        return actualizada;
     }
 
     /**
@@ -129,7 +146,9 @@ public class UbicacionService {
             }
         });
 
-        return ubicacionRepository.save(existente);
+        Ubicacion actualizada = ubicacionRepository.save(existente);
+        eventos.publishEvent(new UbicacionModificadaEvent(id));
+        return actualizada;
     }
 
     /**
@@ -144,6 +163,7 @@ public class UbicacionService {
             throw new EntityNotFoundException("Ubicación no encontrada con ID: " + id);
         }
         ubicacionRepository.deleteById(id);
+        eventos.publishEvent(new UbicacionModificadaEvent(id));
     }
 
 }
\ No newline at end of file
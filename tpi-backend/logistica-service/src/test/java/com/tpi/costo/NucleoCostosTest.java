@@ -0,0 +1,279 @@
+package com.tpi.costo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * NucleoCostos contra las cuentas que hacía CalculoCostoService antes de pasarlas a arreglos
+ * primitivos (acumuladores Double, un tramo por vez), con arreglos y leyendo la lista de tramos.
+ * Tienen que dar exactamente lo mismo: mismos costos por tramo, mismos totales y mismos redondeos.
+ */
+class NucleoCostosTest {
+
+    private static final int CASOS = 500;
+
+    @Test
+    void estimarDaLoMismoQueElCalculoAnterior() {
+        Random azar = new Random(11);
+        for (int caso = 0; caso < CASOS; caso++) {
+            Tramos tramos = Tramos.alAzar(azar, azar.nextInt(13), true);
+            double gestion = 500 + azar.nextInt(5000);
+            double costoPorKm = 100 + azar.nextDouble() * 300;
+            double consumo = 20 + azar.nextDouble() * 25;
+            double precio = 800 + azar.nextDouble() * 900;
+
+            int n = tramos.cantidad();
+            double[] costosTramo = new double[n];
+            double[] totales = new double[NucleoCostos.CANTIDAD_TOTALES];
+            NucleoCostos.estimar(tramos.distanciasPrimitivas(), tramos.segundosPrimitivos(), tramos.estadiasPrimitivas(),
+                n, gestion, costoPorKm, consumo, precio, costosTramo, totales);
+
+            Anterior anterior = estimarAnterior(tramos, gestion, costoPorKm, consumo, precio);
+            for (int i = 0; i < n; i++) {
+                assertThat(NucleoCostos.redondear2(costosTramo[i])).as("caso %d tramo %d", caso, i)
+                    .isEqualTo(redondear2Anterior(anterior.costosTramo()[i]));
+                assertThat(NucleoCostos.costoTramo(tramos.distanciasPrimitivas()[i], tramos.estadiasPrimitivas()[i],
+                    gestion, costoPorKm, consumo, precio)).as("caso %d tramo %d", caso, i)
+                    .isEqualTo(anterior.costosTramo()[i]);
+            }
+            assertTotales(caso, totales, anterior);
+        }
+    }
+
+    @Test
+    void estimarSobreLaListaDaLoMismoQueElCalculoAnterior() {
+        Random azar = new Random(13);
+        for (int caso = 0; caso < CASOS; caso++) {
+            Tramos tramos = Tramos.alAzar(azar, azar.nextInt(13), true);
+            double gestion = 500 + azar.nextInt(5000);
+            double costoPorKm = 100 + azar.nextDouble() * 300;
+            double consumo = 20 + azar.nextDouble() * 25;
+            double precio = 800 + azar.nextDouble() * 900;
+
+            // Cada tramo de la lista es su posición en los arreglos de Tramos
+            int n = tramos.cantidad();
+            double[] distancias = tramos.distanciasPrimitivas();
+            long[] segundos = tramos.segundosPrimitivos();
+            double[] estadias = tramos.estadiasPrimitivas();
+            double[] costosTramo = new double[n];
+            double[] totales = new double[NucleoCostos.CANTIDAD_TOTALES];
+            NucleoCostos.estimar(IntStream.range(0, n).boxed().toList(), i -> distancias[i], i -> segundos[i],
+                i -> estadias[i], gestion, costoPorKm, consumo, precio, (i, costo) -> costosTramo[i] = costo, totales);
+
+            Anterior anterior = estimarAnterior(tramos, gestion, costoPorKm, consumo, precio);
+            for (int i = 0; i < n; i++) {
+                assertThat(costosTramo[i]).as("caso %d tramo %d", caso, i).isEqualTo(anterior.costosTramo()[i]);
+            }
+            assertTotales(caso, totales, anterior);
+        }
+    }
+
+    @Test
+    void liquidarDaLoMismoQueElCalculoAnterior() {
+        Random azar = new Random(12);
+        for (int caso = 0; caso < CASOS; caso++) {
+            // El cálculo anterior sumaba la distancia sin chequear null: se comparan tramos con distancia
+            Tramos tramos = Tramos.alAzar(azar, azar.nextInt(13), false);
+            double gestion = 500 + azar.nextInt(5000);
+            double precio = 800 + azar.nextDouble() * 900;
+
+            int n = tramos.cantidad();
+            double[] costosPorKm = new double[n];
+            double[] consumos = new double[n];
+            for (int i = 0; i < n; i++) {
+                if (tramos.costoPorKmCamion()[i] != null) {
+                    costosPorKm[i] = tramos.costoPorKmCamion()[i];
+                    consumos[i] = tramos.consumoCamion()[i];
+                }
+            }
+            double[] costosTramo = new double[n];
+            double[] totales = new double[NucleoCostos.CANTIDAD_TOTALES];
+            NucleoCostos.liquidar(tramos.distanciasPrimitivas(), tramos.segundosPrimitivos(), tramos.estadiasPrimitivas(),
+                costosPorKm, consumos, n, gestion, precio, costosTramo, totales);
+
+            Anterior anterior = liquidarAnterior(tramos, gestion, precio);
+            for (int i = 0; i < n; i++) {
+                assertThat(costosTramo[i]).as("caso %d tramo %d", caso, i).isEqualTo(anterior.costosTramo()[i]);
+            }
+            assertTotales(caso, totales, anterior);
+        }
+    }
+
+    @Test
+    void sinTramosTodoEnCero() {
+        double[] totales = new double[NucleoCostos.CANTIDAD_TOTALES];
+        Arrays.fill(totales, -1);
+
+        NucleoCostos.estimar(new double[0], new long[0], new double[0], 0, 1000, 200, 30, 900, null, totales);
+
+        assertThat(totales).containsOnly(0.0);
+    }
+
+    private static void assertTotales(int caso, double[] totales, Anterior anterior) {
+        assertThat(totales[NucleoCostos.GESTION]).as("caso %d gestión", caso).isEqualTo(anterior.gestion());
+        assertThat(totales[NucleoCostos.CAMION]).as("caso %d camión", caso).isEqualTo(anterior.camion());
+        assertThat(totales[NucleoCostos.COMBUSTIBLE]).as("caso %d combustible", caso).isEqualTo(anterior.combustible());
+        assertThat(totales[NucleoCostos.ESTADIA]).as("caso %d estadía", caso).isEqualTo(anterior.estadia());
+        assertThat(totales[NucleoCostos.TOTAL]).as("caso %d total", caso).isEqualTo(anterior.total());
+        assertThat(totales[NucleoCostos.DISTANCIA_KM]).as("caso %d distancia", caso).isEqualTo(anterior.distancia());
+        assertThat((long) totales[NucleoCostos.SEGUNDOS]).as("caso %d segundos", caso).isEqualTo(anterior.segundos());
+        assertThat(NucleoCostos.redondear2(totales[NucleoCostos.TOTAL])).as("caso %d total redondeado", caso)
+            .isEqualTo(redondear2Anterior(anterior.total()));
+    }
+
+    // Datos de los tramos como los tenían las entidades: distancia, duración, estadía y camión pueden faltar
+    private record Tramos(Double[] distancias, Long[] segundos, Double[] estadias, boolean[] involucraEstadia,
+                          Double[] costoPorKmCamion, Double[] consumoCamion) {
+
+        static Tramos alAzar(Random azar, int n, boolean conNulos) {
+            Tramos t = new Tramos(new Double[n], new Long[n], new Double[n], new boolean[n], new Double[n], new Double[n]);
+            for (int i = 0; i < n; i++) {
+                t.distancias[i] = conNulos && azar.nextInt(6) == 0 ? null : azar.nextDouble() * 1200;
+                t.segundos[i] = conNulos && azar.nextInt(6) == 0 ? null : (long) azar.nextInt(50_000);
+                t.estadias[i] = azar.nextInt(4) == 0 ? null : azar.nextDouble() * 20_000;
+                t.involucraEstadia[i] = azar.nextBoolean();
+                if (azar.nextInt(5) != 0) {
+                    t.costoPorKmCamion[i] = 100 + azar.nextDouble() * 300;
+                    t.consumoCamion[i] = 20 + azar.nextDouble() * 25;
+                }
+            }
+            return t;
+        }
+
+        int cantidad() {
+            return distancias.length;
+        }
+
+        double[] distanciasPrimitivas() {
+            double[] d = new double[cantidad()];
+            for (int i = 0; i < d.length; i++) {
+                d[i] = distancias[i] != null ? distancias[i] : 0;
+            }
+            return d;
+        }
+
+        long[] segundosPrimitivos() {
+            long[] s = new long[cantidad()];
+            for (int i = 0; i < s.length; i++) {
+                s[i] = segundos[i] != null ? segundos[i] : 0;
+            }
+            return s;
+        }
+
+        // Como CalculoCostoService.costoEstadia: solo si el tramo involucra estadía y tiene costo
+        double[] estadiasPrimitivas() {
+            double[] e = new double[cantidad()];
+            for (int i = 0; i < e.length; i++) {
+                e[i] = involucraEstadia[i] && estadias[i] != null ? estadias[i] : 0;
+            }
+            return e;
+        }
+    }
+
+    private record Anterior(double[] costosTramo, double gestion, double camion, double combustible,
+                            double estadia, double total, double distancia, long segundos) {}
+
+    // CalculoCostoService.calcularCostosConPromedios antes de NucleoCostos
+    private static Anterior estimarAnterior(Tramos tramos, Double costoGestionPorTramo, double costoPorKmPromedio,
+                                            double consumoPromedio, Double precioCombustible) {
+        double costoGestionTotal = 0.0;
+        double distanciaTotal = 0.0;
+        double costoCamionTotal = 0.0;
+        double costoCombustibleTotal = 0.0;
+        double costoEstadiaTotal = 0.0;
+        long tiempoSegundosTotal = 0L;
+        double costoTotal = 0.0;
+        double[] costosTramo = new double[tramos.cantidad()];
+
+        for (int i = 0; i < tramos.cantidad(); i++) {
+            double subtotalGestion = costoGestionPorTramo;
+            double subtotalCamion = 0.0;
+            double subtotalCombustible = 0.0;
+            double subtotalEstadia = 0.0;
+
+            if (tramos.distancias()[i] != null) {
+                subtotalCamion = tramos.distancias()[i] * costoPorKmPromedio;
+            }
+            if (tramos.distancias()[i] != null) {
+                double litrosConsumidos = tramos.distancias()[i] * (consumoPromedio / 100);
+                subtotalCombustible = litrosConsumidos * precioCombustible;
+            }
+            if (tramos.involucraEstadia()[i] && tramos.estadias()[i] != null) {
+                subtotalEstadia = tramos.estadias()[i];
+            }
+
+            double subtotalTramo = subtotalGestion + subtotalCamion + subtotalCombustible + subtotalEstadia;
+            costosTramo[i] = subtotalTramo;
+
+            costoGestionTotal += subtotalGestion;
+            costoCamionTotal += subtotalCamion;
+            costoCombustibleTotal += subtotalCombustible;
+            costoEstadiaTotal += subtotalEstadia;
+            if (tramos.distancias()[i] != null) {
+                distanciaTotal += tramos.distancias()[i];
+            }
+            if (tramos.segundos()[i] != null) {
+                tiempoSegundosTotal += tramos.segundos()[i];
+            }
+            costoTotal += subtotalTramo;
+        }
+        return new Anterior(costosTramo, costoGestionTotal, costoCamionTotal, costoCombustibleTotal,
+            costoEstadiaTotal, costoTotal, distanciaTotal, tiempoSegundosTotal);
+    }
+
+    // CalculoCostoService.calcularCostoFinalRuta antes de NucleoCostos (camión null = tramo sin camión)
+    private static Anterior liquidarAnterior(Tramos tramos, Double costoGestionPorTramo, Double precioCombustible) {
+        Double costoGestionTotal = 0.0;
+        Double costoCamionTotal = 0.0;
+        Double costoCombustibleTotal = 0.0;
+        Double costoEstadiaTotal = 0.0;
+        Double distanciaTotalKm = 0.0;
+        Long tiempoTotalSegundos = 0L;
+        double[] costosTramo = new double[tramos.cantidad()];
+
+        for (int i = 0; i < tramos.cantidad(); i++) {
+            boolean conCamion = tramos.costoPorKmCamion()[i] != null;
+            Double distanciaKm = tramos.distancias()[i];
+
+            Double costoGestionTramo = costoGestionPorTramo;
+            costoGestionTotal += costoGestionTramo;
+
+            Double costoCamionTramo = 0.0;
+            if (conCamion && distanciaKm != null) {
+                costoCamionTramo = distanciaKm * tramos.costoPorKmCamion()[i];
+                costoCamionTotal += costoCamionTramo;
+            }
+
+            Double costoCombustibleTramo = 0.0;
+            if (conCamion && distanciaKm != null) {
+                Double litrosConsumidos = distanciaKm * (tramos.consumoCamion()[i] / 100);
+                costoCombustibleTramo = litrosConsumidos * precioCombustible;
+                costoCombustibleTotal += costoCombustibleTramo;
+            }
+
+            Double costoEstadiaTramo = 0.0;
+            if (tramos.involucraEstadia()[i] && tramos.estadias()[i] != null) {
+                costoEstadiaTramo = tramos.estadias()[i];
+                costoEstadiaTotal += costoEstadiaTramo;
+            }
+
+            tiempoTotalSegundos += tramos.segundos()[i] != null ? tramos.segundos()[i] : 0;
+            distanciaTotalKm += distanciaKm;
+
+            costosTramo[i] = costoGestionTramo + costoCamionTramo + costoCombustibleTramo + costoEstadiaTramo;
+        }
+
+        Double costoTotal = costoGestionTotal + costoCamionTotal + costoCombustibleTotal + costoEstadiaTotal;
+        return new Anterior(costosTramo, costoGestionTotal, costoCamionTotal, costoCombustibleTotal,
+            costoEstadiaTotal, costoTotal, distanciaTotalKm, tiempoTotalSegundos);
+    }
+
+    private static Double redondear2Anterior(Double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
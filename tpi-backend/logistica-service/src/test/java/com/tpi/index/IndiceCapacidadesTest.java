@@ -0,0 +1,107 @@
+package com.tpi.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.tpi.model.Camion;
+
+/**
+ * IndiceCapacidades contra un recorrido lineal con el mismo criterio que la consulta
+ * anterior (capacidadPesoKg >= peso AND capacidadVolumenM3 >= volumen, ordenado por ID).
+ * Un mínimo null no filtra por esa capacidad.
+ */
+class IndiceCapacidadesTest {
+
+    @Test
+    void coincideConElRecorridoLinealEnTamaniosYCapacidadesVariadas() {
+        Random azar = new Random(11);
+
+        // Tamaños que no son potencia de 2 para cubrir bloques incompletos del árbol
+        for (int n : new int[] {0, 1, 2, 3, 7, 8, 9, 33, 100, 257}) {
+            List<Camion> camiones = camiones(azar, n);
+            IndiceCapacidades indice = IndiceCapacidades.construir(camiones);
+
+            for (int consulta = 0; consulta < 200; consulta++) {
+                Double peso = minimo(azar, camiones, true);
+                Double volumen = minimo(azar, camiones, false);
+
+                assertThat(indice.buscar(peso, volumen))
+                    .as("n=%d peso>=%s volumen>=%s", n, peso, volumen)
+                    .containsExactlyElementsOf(recorridoLineal(camiones, peso, volumen));
+            }
+        }
+    }
+
+    @Test
+    void sinMinimosDevuelveTodosLosCamionesConCapacidades() {
+        List<Camion> camiones = camiones(new Random(3), 20);
+
+        assertThat(IndiceCapacidades.construir(camiones).buscar(null, null))
+            .containsExactlyElementsOf(recorridoLineal(camiones, null, null))
+            .allSatisfy(camion -> {
+                assertThat(camion.getCapacidadPesoKg()).isNotNull();
+                assertThat(camion.getCapacidadVolumenM3()).isNotNull();
+            });
+    }
+
+    @Test
+    void losMinimosSonInclusivos() {
+        Camion justo = camion(1L, 1000.0, 10.0);
+        IndiceCapacidades indice = IndiceCapacidades.construir(List.of(justo, camion(2L, 999.0, 10.0)));
+
+        assertThat(indice.buscar(1000.0, 10.0)).containsExactly(justo);
+        assertThat(indice.buscar(1000.0, 10.000001)).isEmpty();
+    }
+
+    // Camiones con capacidades repetidas (empates) y algunos sin capacidades cargadas
+    private static List<Camion> camiones(Random azar, int n) {
+        List<Camion> camiones = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Double peso = azar.nextInt(10) == 0 ? null : 1000.0 * (1 + azar.nextInt(25));
+            Double volumen = azar.nextInt(10) == 0 ? null : 5.0 * (1 + azar.nextInt(18));
+            // IDs desordenados respecto de las capacidades
+            camiones.add(camion((long) (n - i) * 7, peso, volumen));
+        }
+        return camiones;
+    }
+
+    // Null, un valor existente (caso de igualdad) o uno cualquiera del rango
+    private static Double minimo(Random azar, List<Camion> camiones, boolean peso) {
+        int opcion = azar.nextInt(4);
+        if (opcion == 0) {
+            return null;
+        }
+        if (opcion == 1 && !camiones.isEmpty()) {
+            Camion camion = camiones.get(azar.nextInt(camiones.size()));
+            Double valor = peso ? camion.getCapacidadPesoKg() : camion.getCapacidadVolumenM3();
+            if (valor != null) {
+                return valor;
+            }
+        }
+        return peso ? azar.nextDouble() * 26_000 : azar.nextDouble() * 95;
+    }
+
+    private static List<Camion> recorridoLineal(List<Camion> camiones, Double peso, Double volumen) {
+        return camiones.stream()
+            .filter(c -> c.getCapacidadPesoKg() != null && c.getCapacidadVolumenM3() != null)
+            .filter(c -> peso == null || c.getCapacidadPesoKg() >= peso)
+            .filter(c -> volumen == null || c.getCapacidadVolumenM3() >= volumen)
+            .sorted(Comparator.comparing(Camion::getId))
+            .toList();
+    }
+
+    private static Camion camion(Long id, Double peso, Double volumen) {
+        return Camion.builder()
+            .id(id)
+            .dominio("CAM" + id)
+            .capacidadPesoKg(peso)
+            .capacidadVolumenM3(volumen)
+            .build();
+    }
+}
@@ -0,0 +1,208 @@
+package com.tpi.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.tpi.index.IndiceEspacialDepositos.Cercano;
+import com.tpi.model.Deposito;
+import com.tpi.model.Ubicacion;
+
+/**
+ * IndiceEspacialDepositos (árbol k-d sobre la esfera) contra un recorrido lineal que calcula
+ * la distancia de haversine a cada depósito.
+ */
+class IndiceEspacialDepositosTest {
+
+    // Los depósitos a menos de esto del borde del radio pueden caer de cualquier lado por redondeo
+    private static final double TOLERANCIA_KM = 1e-6;
+
+    @Test
+    void recorrerDentroDeRadioEncuentraLosMismosDepositosQueElRecorridoLineal() {
+        Random azar = new Random(7);
+        for (int n : new int[] {0, 1, 2, 5, 31, 200}) {
+            for (Zona zona : Zona.values()) {
+                List<Deposito> depositos = depositos(azar, n, zona);
+                IndiceEspacialDepositos indice = IndiceEspacialDepositos.construir(depositos);
+
+                for (int consulta = 0; consulta < 50; consulta++) {
+                    double[] punto = zona.punto(azar);
+                    double radio = azar.nextDouble() * (azar.nextBoolean() ? 300 : 3000);
+
+                    Map<Long, Double> encontrados = new HashMap<>();
+                    indice.recorrerDentroDeRadio(punto[0], punto[1], radio,
+                        (deposito, distanciaKm) -> encontrados.put(deposito.getId(), distanciaKm));
+
+                    Map<Long, Double> esperados = recorridoLineal(depositos, punto);
+                    for (Map.Entry<Long, Double> esperado : esperados.entrySet()) {
+                        double distancia = esperado.getValue();
+                        if (Math.abs(distancia - radio) < TOLERANCIA_KM) {
+                            continue;
+                        }
+                        String caso = "n=%d zona=%s radio=%.1f deposito=%d"
+                            .formatted(n, zona, radio, esperado.getKey());
+                        if (distancia < radio) {
+                            assertThat(encontrados).as(caso).containsKey(esperado.getKey());
+                            assertThat(encontrados.get(esperado.getKey())).as(caso)
+                                .isCloseTo(distancia, within(1e-6));
+                        } else {
+                            assertThat(encontrados).as(caso).doesNotContainKey(esperado.getKey());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void dentroDeRadioDevuelveLosDelRecorridoLinealOrdenadosPorDistancia() {
+        Random azar = new Random(19);
+        for (Zona zona : Zona.values()) {
+            List<Deposito> depositos = depositos(azar, 150, zona);
+            IndiceEspacialDepositos indice = IndiceEspacialDepositos.construir(depositos);
+
+            for (int consulta = 0; consulta < 50; consulta++) {
+                double[] punto = zona.punto(azar);
+                double radio = azar.nextDouble() * 2000;
+
+                List<Cercano> resultado = indice.dentroDeRadio(punto[0], punto[1], radio);
+
+                Map<Long, Double> esperados = recorridoLineal(depositos, punto);
+                List<Long> dentro = esperados.entrySet().stream()
+                    .filter(e -> e.getValue() <= radio - TOLERANCIA_KM)
+                    .map(Map.Entry::getKey)
+                    .toList();
+                List<Long> ids = resultado.stream().map(c -> c.deposito().getId()).toList();
+
+                assertThat(ids).as("zona=%s radio=%.1f", zona, radio)
+                    .doesNotHaveDuplicates()
+                    .containsAll(dentro)
+                    .allSatisfy(id -> assertThat(esperados.get(id)).isLessThanOrEqualTo(radio + TOLERANCIA_KM));
+                assertThat(resultado).extracting(Cercano::distanciaKm).isSorted();
+            }
+        }
+    }
+
+    @Test
+    void masCercanosDevuelveLasMenoresDistanciasDelRecorridoLineal() {
+        Random azar = new Random(29);
+        for (Zona zona : Zona.values()) {
+            List<Deposito> depositos = depositos(azar, 150, zona);
+            IndiceEspacialDepositos indice = IndiceEspacialDepositos.construir(depositos);
+
+            for (int consulta = 0; consulta < 50; consulta++) {
+                double[] punto = zona.punto(azar);
+                int cantidad = new int[] {1, 3, 10, 200}[consulta % 4];
+
+                List<Cercano> resultado = indice.masCercanos(punto[0], punto[1], cantidad);
+
+                // Con empates (depósitos repetidos) puede variar cuál se elige, no las distancias
+                Map<Long, Double> distancias = recorridoLineal(depositos, punto);
+                List<Double> esperadas = distancias.values().stream().sorted().limit(cantidad).toList();
+
+                assertThat(resultado).as("zona=%s cantidad=%d", zona, cantidad).hasSize(esperadas.size());
+                assertThat(resultado).extracting(c -> c.deposito().getId()).doesNotHaveDuplicates();
+                for (int i = 0; i < resultado.size(); i++) {
+                    Cercano cercano = resultado.get(i);
+                    assertThat(cercano.distanciaKm()).isCloseTo(esperadas.get(i), within(1e-6));
+                    assertThat(cercano.distanciaKm())
+                        .isCloseTo(distancias.get(cercano.deposito().getId()), within(1e-6));
+                }
+            }
+        }
+    }
+
+    @Test
+    void sinDepositosOCantidadInvalidaNoDevuelveNada() {
+        IndiceEspacialDepositos vacio = IndiceEspacialDepositos.construir(List.of());
+        IndiceEspacialDepositos uno = IndiceEspacialDepositos.construir(List.of(deposito(1L, 0.0, 0.0, 10.0)));
+
+        assertThat(vacio.masCercanos(0, 0, 5)).isEmpty();
+        assertThat(vacio.dentroDeRadio(0, 0, 100)).isEmpty();
+        assertThat(uno.masCercanos(0, 0, 0)).isEmpty();
+        assertThat(uno.dentroDeRadio(0, 0, -1)).isEmpty();
+        assertThat(uno.dentroDeRadio(0, 0, 0)).hasSize(1);
+    }
+
+    @Test
+    void ignoraDepositosSinCoordenadas() {
+        Deposito sinUbicacion = Deposito.builder().id(1L).build();
+        Deposito sinLatitud = Deposito.builder()
+            .id(2L)
+            .ubicacion(Ubicacion.builder().longitud(0.0).build())
+            .build();
+        Deposito valido = deposito(3L, 0.0, 0.0, 100.0);
+
+        IndiceEspacialDepositos indice = IndiceEspacialDepositos.construir(List.of(sinUbicacion, sinLatitud, valido));
+
+        assertThat(indice.tamanio()).isEqualTo(1);
+        assertThat(indice.costoEstadiaMinimo()).isEqualTo(100.0);
+    }
+
+    // Regiones de prueba: una zona chica, el antimeridiano y cerca del polo
+    enum Zona {
+        REGIONAL(-40, -30, -70, -55),
+        ANTIMERIDIANO(-20, 20, 170, 190),
+        POLAR(80, 90, -180, 180),
+        GLOBAL(-90, 90, -180, 180);
+
+        private final double latMin;
+        private final double latMax;
+        private final double lonMin;
+        private final double lonMax;
+
+        Zona(double latMin, double latMax, double lonMin, double lonMax) {
+            this.latMin = latMin;
+            this.latMax = latMax;
+            this.lonMin = lonMin;
+            this.lonMax = lonMax;
+        }
+
+        double[] punto(Random azar) {
+            double lon = lonMin + azar.nextDouble() * (lonMax - lonMin);
+            return new double[] {
+                latMin + azar.nextDouble() * (latMax - latMin),
+                lon > 180 ? lon - 360 : lon
+            };
+        }
+    }
+
+    static List<Deposito> depositos(Random azar, int n, Zona zona) {
+        List<Deposito> depositos = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            // Algunos repetidos en el mismo punto para cubrir empates en el árbol
+            Ubicacion anterior = i > 0 ? depositos.get(i - 1).getUbicacion() : null;
+            double[] punto = anterior != null && azar.nextInt(10) == 0
+                ? new double[] {anterior.getLatitud(), anterior.getLongitud()}
+                : zona.punto(azar);
+            depositos.add(deposito((long) i + 1, punto[0], punto[1], 100.0 + azar.nextInt(1000)));
+        }
+        return depositos;
+    }
+
+    static Map<Long, Double> recorridoLineal(List<Deposito> depositos, double[] punto) {
+        Map<Long, Double> distancias = new HashMap<>();
+        for (Deposito deposito : depositos) {
+            Ubicacion u = deposito.getUbicacion();
+            distancias.put(deposito.getId(),
+                IndiceEspacialDepositos.distanciaKm(punto[0], punto[1], u.getLatitud(), u.getLongitud()));
+        }
+        return distancias;
+    }
+
+    static Deposito deposito(Long id, double latitud, double longitud, Double estadia) {
+        return Deposito.builder()
+            .id(id)
+            .nombre("Depósito " + id)
+            .costoEstadiaPorDia(estadia)
+            .ubicacion(Ubicacion.builder().latitud(latitud).longitud(longitud).build())
+            .build();
+    }
+}
@@ -0,0 +1,117 @@
+package com.tpi.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.tpi.exception.TarifaSolapadaException;
+import com.tpi.model.Tarifa;
+
+/**
+ * IndiceTarifas: búsqueda por volumen (bordes y huecos entre rangos) y detección de rangos
+ * inválidos o superpuestos al construir, al cargar tolerando filas malas y al validar una tarifa.
+ */
+class IndiceTarifasTest {
+
+    private final Tarifa pequenia = tarifa(1L, 0.0, 20.0);
+    private final Tarifa mediana = tarifa(2L, 20.0, 40.0);
+    private final Tarifa grande = tarifa(3L, 50.0, 70.0);
+
+    @Test
+    void elBordeCompartidoCorrespondeALaTarifaDeMenorRango() {
+        IndiceTarifas indice = IndiceTarifas.construir(List.of(grande, mediana, pequenia));
+
+        assertThat(indice.buscar(0.0)).contains(pequenia);
+        assertThat(indice.buscar(20.0)).contains(pequenia);
+        assertThat(indice.buscar(20.000001)).contains(mediana);
+        assertThat(indice.buscar(40.0)).contains(mediana);
+        assertThat(indice.buscar(70.0)).contains(grande);
+        assertThat(indice.tarifas()).containsExactly(pequenia, mediana, grande);
+    }
+
+    @Test
+    void fueraDeLosRangosOEnUnHuecoNoHayTarifa() {
+        IndiceTarifas indice = IndiceTarifas.construir(List.of(pequenia, mediana, grande));
+
+        assertThat(indice.buscar(-0.1)).isEmpty();
+        assertThat(indice.buscar(45.0)).isEmpty();
+        assertThat(indice.buscar(70.1)).isEmpty();
+        assertThat(IndiceTarifas.construir(List.of()).buscar(10.0)).isEmpty();
+    }
+
+    @Test
+    void coincideConElRecorridoLinealEnTodoElRango() {
+        List<Tarifa> tarifas = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            // Rangos de ancho 3 separados por huecos de 1, algunos de ancho cero
+            double min = i * 4.0;
+            tarifas.add(tarifa((long) i, min, i % 7 == 0 ? min : min + 3));
+        }
+        IndiceTarifas indice = IndiceTarifas.construir(tarifas.reversed());
+
+        for (double volumen = -1; volumen <= 125; volumen += 0.25) {
+            double v = volumen;
+            assertThat(indice.buscar(v)).as("volumen %s", v).isEqualTo(tarifas.stream()
+                .filter(t -> t.getVolumenMin() <= v && v <= t.getVolumenMax())
+                .findFirst());
+        }
+    }
+
+    @Test
+    void rechazaRangosSuperpuestosOInvalidos() {
+        assertThatThrownBy(() -> IndiceTarifas.construir(List.of(pequenia, tarifa(9L, 19.0, 30.0))))
+            .isInstanceOf(TarifaSolapadaException.class)
+            .hasMessageContaining("se superponen");
+        // Un rango contenido en otro, aunque no sea el consecutivo por volumenMin
+        assertThatThrownBy(() -> IndiceTarifas.construir(List.of(tarifa(8L, 0.0, 100.0), grande)))
+            .isInstanceOf(TarifaSolapadaException.class);
+        assertThatThrownBy(() -> IndiceTarifas.construir(List.of(tarifa(7L, 30.0, 10.0))))
+            .isInstanceOf(TarifaSolapadaException.class)
+            .hasMessageContaining("inválido");
+        assertThatThrownBy(() -> IndiceTarifas.construir(List.of(tarifa(6L, null, 10.0))))
+            .isInstanceOf(TarifaSolapadaException.class);
+    }
+
+    @Test
+    void alCargarDejaAfueraLasFilasSuperpuestasEInvalidas() {
+        Tarifa solapada = tarifa(4L, 10.0, 30.0);
+        Tarifa invalida = tarifa(5L, 90.0, 80.0);
+        List<Tarifa> descartadas = new ArrayList<>();
+
+        IndiceTarifas indice = IndiceTarifas.construirDescartando(
+            List.of(grande, solapada, invalida, mediana, pequenia), (tarifa, motivo) -> descartadas.add(tarifa));
+
+        // mediana solo se superponía con la descartada: queda en el índice
+        assertThat(descartadas).containsExactlyInAnyOrder(solapada, invalida);
+        assertThat(indice.tarifas()).containsExactly(pequenia, mediana, grande);
+        assertThat(indice.buscar(15.0)).contains(pequenia);
+        assertThat(indice.buscar(30.0)).contains(mediana);
+    }
+
+    @Test
+    void verificarComparaLaTarifaContraTodasLasDemas() {
+        List<Tarifa> otras = List.of(pequenia, mediana, grande);
+
+        IndiceTarifas.verificar(tarifa(null, 40.0, 50.0), otras);
+        IndiceTarifas.verificar(tarifa(null, 70.0, 70.0), otras);
+        assertThatThrownBy(() -> IndiceTarifas.verificar(tarifa(null, 39.0, 45.0), otras))
+            .isInstanceOf(TarifaSolapadaException.class);
+        assertThatThrownBy(() -> IndiceTarifas.verificar(tarifa(null, 60.0, 60.0), otras))
+            .isInstanceOf(TarifaSolapadaException.class);
+        assertThatThrownBy(() -> IndiceTarifas.verificar(tarifa(null, 45.0, 41.0), otras))
+            .isInstanceOf(TarifaSolapadaException.class);
+    }
+
+    private static Tarifa tarifa(Long id, Double min, Double max) {
+        return Tarifa.builder()
+            .id(id)
+            .nombre("Tarifa " + min + "-" + max)
+            .volumenMin(min)
+            .volumenMax(max)
+            .build();
+    }
+}
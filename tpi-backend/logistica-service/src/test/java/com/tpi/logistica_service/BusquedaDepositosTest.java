@@ -0,0 +1,124 @@
+package com.tpi.logistica_service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.tpi.comun.excepcion.ParametroInvalidoException;
+import com.tpi.LogisticaServiceApplication;
+import com.tpi.dto.response.DepositoCercanoDTO;
+import com.tpi.index.IndiceEspacialDepositos;
+import com.tpi.model.Deposito;
+import com.tpi.model.Ubicacion;
+import com.tpi.repository.DepositoRepository;
+import com.tpi.repository.UbicacionRepository;
+import com.tpi.service.DepositoService;
+
+/**
+ * Búsquedas de GET /api/v1/depositos/cercanos y /dentro-de-radio (DepositoService) contra
+ * un recorrido lineal de todos los depósitos guardados, con la distancia de haversine.
+ */
+@SpringBootTest(classes = LogisticaServiceApplication.class)
+class BusquedaDepositosTest {
+
+    @Autowired private DepositoService depositoService;
+    @Autowired private DepositoRepository depositoRepository;
+    @Autowired private UbicacionRepository ubicacionRepository;
+
+    private final List<Deposito> creados = new ArrayList<>();
+
+    @BeforeEach
+    void crearDepositos() {
+        Random azar = new Random(3);
+        for (int i = 0; i < 40; i++) {
+            Ubicacion ubicacion = ubicacionRepository.save(Ubicacion.builder()
+                .nombre("Ubicación búsqueda " + i)
+                .latitud(-40 + azar.nextDouble() * 15)
+                .longitud(-70 + azar.nextDouble() * 15)
+                .build());
+            creados.add(depositoRepository.save(Deposito.builder()
+                .nombre("Depósito búsqueda " + i)
+                .costoEstadiaPorDia(1000.0 + i)
+                .ubicacion(ubicacion)
+                .build()));
+        }
+        depositoService.recargarIndice();
+    }
+
+    @AfterEach
+    void borrarDepositos() {
+        depositoRepository.deleteAll(creados);
+        ubicacionRepository.deleteAll(creados.stream().map(Deposito::getUbicacion).toList());
+        depositoService.recargarIndice();
+    }
+
+    @Test
+    void cercanosCoincideConElRecorridoLineal() {
+        for (int cantidad : new int[] {1, 5, 100}) {
+            List<DepositoCercanoDTO> resultado = depositoService.buscarMasCercanos(-31.4, -64.2, cantidad);
+
+            List<Distancia> esperados = recorridoLineal(-31.4, -64.2).stream().limit(cantidad).toList();
+            assertThat(resultado).extracting(DepositoCercanoDTO::id)
+                .containsExactlyElementsOf(esperados.stream().map(d -> d.deposito().getId()).toList());
+            for (int i = 0; i < resultado.size(); i++) {
+                // La respuesta redondea la distancia a 2 decimales
+                assertThat(resultado.get(i).distanciaKm()).isCloseTo(esperados.get(i).km(), within(0.005));
+            }
+        }
+    }
+
+    @Test
+    void dentroDeRadioCoincideConElRecorridoLineal() {
+        for (double radio : new double[] {0, 150, 600, 20_000}) {
+            List<DepositoCercanoDTO> resultado = depositoService.buscarDentroDeRadio(-34.6, -58.4, radio);
+
+            List<Long> esperados = recorridoLineal(-34.6, -58.4).stream()
+                .filter(d -> d.km() <= radio)
+                .map(d -> d.deposito().getId())
+                .toList();
+            assertThat(resultado).as("radio=%s", radio)
+                .extracting(DepositoCercanoDTO::id)
+                .containsExactlyElementsOf(esperados);
+        }
+    }
+
+    @Test
+    void rechazaParametrosFueraDeRango() {
+        assertThatThrownBy(() -> depositoService.buscarMasCercanos(91, 0, 5))
+            .isInstanceOf(ParametroInvalidoException.class);
+        assertThatThrownBy(() -> depositoService.buscarMasCercanos(0, 0, 0))
+            .isInstanceOf(ParametroInvalidoException.class);
+        assertThatThrownBy(() -> depositoService.buscarMasCercanos(0, 0, 101))
+            .isInstanceOf(ParametroInvalidoException.class);
+        assertThatThrownBy(() -> depositoService.buscarDentroDeRadio(0, -181, 10))
+            .isInstanceOf(ParametroInvalidoException.class);
+        assertThatThrownBy(() -> depositoService.buscarDentroDeRadio(0, 0, -1))
+            .isInstanceOf(ParametroInvalidoException.class);
+        assertThatThrownBy(() -> depositoService.buscarDentroDeRadio(0, 0, Double.NaN))
+            .isInstanceOf(ParametroInvalidoException.class);
+    }
+
+    private record Distancia(Deposito deposito, double km) {}
+
+    // Todos los depósitos con coordenadas, del más cercano al más lejano
+    private List<Distancia> recorridoLineal(double latitud, double longitud) {
+        return depositoRepository.findAll().stream()
+            .filter(d -> d.getUbicacion() != null && d.getUbicacion().getLatitud() != null
+                && d.getUbicacion().getLongitud() != null)
+            .map(d -> new Distancia(d, IndiceEspacialDepositos.distanciaKm(
+                latitud, longitud, d.getUbicacion().getLatitud(), d.getUbicacion().getLongitud())))
+            .sorted(Comparator.comparingDouble(Distancia::km))
+            .toList();
+    }
+}
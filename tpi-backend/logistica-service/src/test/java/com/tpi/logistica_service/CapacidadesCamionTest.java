@@ -0,0 +1,87 @@
+package com.tpi.logistica_service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.tpi.LogisticaServiceApplication;
+import com.tpi.model.Camion;
+import com.tpi.repository.CamionRepository;
+import com.tpi.service.CamionService;
+
+/**
+ * CamionService.findByCapacidades (índice en memoria) devuelve lo mismo que la consulta
+ * JPQL que reemplazó (CamionRepository.findByCapacidadesSuficientes), ordenado por ID; con peso
+ * o volumen null, ninguno.
+ */
+@SpringBootTest(classes = LogisticaServiceApplication.class)
+class CapacidadesCamionTest {
+
+    @Autowired private CamionService camionService;
+    @Autowired private CamionRepository camionRepository;
+
+    private final List<Camion> creados = new ArrayList<>();
+
+    @AfterEach
+    void borrarCamiones() {
+        camionRepository.deleteAll(creados);
+        camionService.recargarIndice();
+    }
+
+    @Test
+    void coincideConLaConsultaAnterior() {
+        // Además de los del DataLoader: no disponibles, sin capacidades y con capacidades repetidas
+        Random azar = new Random(5);
+        for (int i = 0; i < 60; i++) {
+            creados.add(camionRepository.save(Camion.builder()
+                .dominio("CAP" + i)
+                .disponible(azar.nextInt(4) != 0)
+                .capacidadPesoKg(azar.nextInt(12) == 0 ? null : 1000.0 * (1 + azar.nextInt(30)))
+                .capacidadVolumenM3(azar.nextInt(12) == 0 ? null : 10.0 * (1 + azar.nextInt(10)))
+                .build()));
+        }
+        camionService.recargarIndice();
+
+        for (double peso = 0; peso <= 31_000; peso += 2_500) {
+            for (double volumen = 0; volumen <= 105; volumen += 7.5) {
+                List<Camion> anterior = camionRepository.findByCapacidadesSuficientes(peso, volumen).stream()
+                    .sorted(Comparator.comparing(Camion::getId))
+                    .toList();
+
+                assertThat(camionService.findByCapacidades(peso, volumen))
+                    .as("peso>=%s volumen>=%s", peso, volumen)
+                    .extracting(Camion::getId)
+                    .containsExactlyElementsOf(anterior.stream().map(Camion::getId).toList());
+            }
+        }
+    }
+
+    @Test
+    void sinPesoOSinVolumenNoHayCamionesComoEnLaConsultaAnterior() {
+        creados.add(camionRepository.save(Camion.builder()
+            .dominio("CAPNULL")
+            .disponible(true)
+            .capacidadPesoKg(50_000.0)
+            .capacidadVolumenM3(200.0)
+            .build()));
+        camionService.recargarIndice();
+
+        Double[][] pedidos = {{null, 10.0}, {1000.0, null}, {null, null}};
+        for (Double[] pedido : pedidos) {
+            assertThat(camionRepository.findByCapacidadesSuficientes(pedido[0], pedido[1]))
+                .as("consulta anterior peso=%s volumen=%s", pedido[0], pedido[1])
+                .isEmpty();
+            assertThat(camionService.findByCapacidades(pedido[0], pedido[1]))
+                .as("peso=%s volumen=%s", pedido[0], pedido[1])
+                .isEmpty();
+        }
+    }
+}
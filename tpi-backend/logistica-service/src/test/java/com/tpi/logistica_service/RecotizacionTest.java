@@ -0,0 +1,206 @@
+package com.tpi.logistica_service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.tpi.LogisticaServiceApplication;
+import com.tpi.client.RoutingClient;
+import com.tpi.client.SolicitudClient;
+import com.tpi.dto.external.ContenedorResponseDTO;
+import com.tpi.dto.external.CostoEstimadoSolicitudDTO;
+import com.tpi.dto.external.RouteResponseDTOs.RouteAlternativeResponse;
+import com.tpi.dto.external.RouteResponseDTOs.RouteResponse;
+import com.tpi.dto.request.ActualizarTarifaRequest;
+import com.tpi.dto.request.CrearRutaCompletaRequest;
+import com.tpi.dto.response.RecotizacionDTO;
+import com.tpi.dto.response.RutaAsignadaResponseDTO;
+import com.tpi.model.Deposito;
+import com.tpi.model.Tarifa;
+import com.tpi.model.Tramo;
+import com.tpi.service.CamionService;
+import com.tpi.service.DepositoService;
+import com.tpi.service.RecotizacionService;
+import com.tpi.service.RutaService;
+import com.tpi.service.TarifaService;
+import com.tpi.service.TramoService;
+
+/**
+ * La recotización por cambio de tarifa deja los tramos y el costo estimado de cada solicitud
+ * igual que volver a cotizar la ruta con calcularGastosEstimados (mismo contenedor, misma fórmula),
+ * y no toca las rutas que dejaron de ser recotizables mientras corría.
+ */
+@SpringBootTest(classes = LogisticaServiceApplication.class)
+class RecotizacionTest {
+
+    private static final double VOLUMEN = 10.0;
+    private static final Set<String> ESTADOS_FINALES = Set.of("COMPLETADA", "CANCELADA", "FALLIDA");
+
+    @MockitoBean private RoutingClient routingClient;
+    @MockitoBean private SolicitudClient solicitudClient;
+    @MockitoSpyBean private CamionService camionService;
+
+    @Autowired private RutaService rutaService;
+    @Autowired private TramoService tramoService;
+    @Autowired private TarifaService tarifaService;
+    @Autowired private DepositoService depositoService;
+    @Autowired private RecotizacionService recotizacionService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private static long siguienteSolicitud = 50_000;
+
+    // Costos que la recotización mandó a ms-solicitudes
+    private final Map<Long, Double> enviados = new HashMap<>();
+
+    private Tarifa tarifa;
+    private double precioOriginal;
+    private int tamanioBloqueOriginal;
+
+    @BeforeEach
+    void preparar() {
+        // Distancia distinta según el origen de cada tramo
+        when(routingClient.calcularRutaCompleta(anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+            .thenAnswer(inv -> {
+                double km = 40 + Math.abs((double) inv.getArgument(0)) * 3.7 + Math.abs((double) inv.getArgument(3));
+                return new RouteAlternativeResponse(0, List.of(new RouteResponse(km, (long) (km * 50), 0.0, 0.0, 0.0, 0.0)));
+            });
+        doAnswer(inv -> {
+            List<CostoEstimadoSolicitudDTO> costos = inv.getArgument(0);
+            synchronized (enviados) {
+                costos.forEach(c -> enviados.put(c.solicitudId(), c.costoEstimado()));
+            }
+            return null;
+        }).when(solicitudClient).actualizarCostosEstimados(anyList());
+
+        tarifa = tarifaService.getTarifaByVolumenContenedor(VOLUMEN);
+        precioOriginal = tarifa.getPrecioCombustiblePorLitro();
+
+        // Bloques chicos para que haya varios y las rutas queden en el borde
+        tamanioBloqueOriginal = (int) ReflectionTestUtils.getField(recotizacionService, "tamanioBloque");
+        ReflectionTestUtils.setField(recotizacionService, "tamanioBloque", 3);
+    }
+
+    @AfterEach
+    void restaurar() {
+        tarifaService.actualizarTarifa(tarifa.getId(), cambioDePrecio(precioOriginal));
+        esperarRecotizacion();
+        ReflectionTestUtils.setField(recotizacionService, "tamanioBloque", tamanioBloqueOriginal);
+    }
+
+    @Test
+    void coincideConVolverACotizarCadaRuta() {
+        // Contenedores livianos y pesados: cada uno promedia otros camiones
+        Map<Long, RutaAsignadaResponseDTO> rutas = new HashMap<>();
+        double[] pesos = {2_000, 20_000, 2_000, 8_000, 20_000, 11_000};
+        for (int i = 0; i < pesos.length; i++) {
+            Long solicitudId = siguienteSolicitud++;
+            when(solicitudClient.obtenerInfoContenedor(solicitudId))
+                .thenReturn(new ContenedorResponseDTO(solicitudId, pesos[i], VOLUMEN, "REC-" + solicitudId, null));
+            rutas.put(solicitudId, crearRuta(solicitudId, i % 4));
+            rutaService.calcularGastosEstimados(solicitudId);
+        }
+
+        // Cambio de precio del combustible (sin usuario en el hilo: ms-solicitudes se llama con el token del servicio)
+        tarifaService.actualizarTarifa(tarifa.getId(), cambioDePrecio(precioOriginal * 1.37));
+        RecotizacionDTO resultado = esperarRecotizacion();
+
+        assertThat(resultado.estado()).isEqualTo("COMPLETADA");
+        for (Map.Entry<Long, RutaAsignadaResponseDTO> ruta : rutas.entrySet()) {
+            List<Double> recotizados = costosAproximados(ruta.getValue().id());
+
+            double esperado = rutaService.calcularGastosEstimados(ruta.getKey()).resumen().costoTotal();
+
+            assertThat(enviados).as("solicitud %d", ruta.getKey()).containsEntry(ruta.getKey(), esperado);
+            assertThat(recotizados).as("solicitud %d", ruta.getKey())
+                .containsExactlyElementsOf(costosAproximados(ruta.getValue().id()));
+        }
+    }
+
+    @Test
+    void noPisaLasRutasQueRecibieronCamionDuranteLaRecotizacion() {
+        Long libre = siguienteSolicitud++;
+        Long asignada = siguienteSolicitud++;
+        Map<Long, RutaAsignadaResponseDTO> rutas = new HashMap<>();
+        for (Long solicitudId : List.of(libre, asignada)) {
+            when(solicitudClient.obtenerInfoContenedor(solicitudId))
+                .thenReturn(new ContenedorResponseDTO(solicitudId, 5_000.0, VOLUMEN, "REC-" + solicitudId, null));
+            rutas.put(solicitudId, crearRuta(solicitudId, 2));
+            rutaService.calcularGastosEstimados(solicitudId);
+        }
+        List<Double> antes = costosAproximados(rutas.get(asignada).id());
+        Long tramoAsignado = tramoService.tramosPorRutaId(rutas.get(asignada).id()).get(1).getId();
+
+        // Entre la lectura del cursor y el UPDATE, un tramo de la segunda ruta recibe camión
+        doAnswer(inv -> {
+            jdbcTemplate.update("""
+                UPDATE tramos SET camion_id = (SELECT MIN(id) FROM camiones),
+                    estado_tramo_id = (SELECT id FROM estado_tramo WHERE nombre = 'ASIGNADO')
+                WHERE id = ?""", tramoAsignado);
+            return inv.callRealMethod();
+        }).when(camionService).findByCapacidades(anyDouble(), anyDouble());
+
+        tarifaService.actualizarTarifa(tarifa.getId(), cambioDePrecio(precioOriginal * 1.5));
+        RecotizacionDTO resultado = esperarRecotizacion();
+        Mockito.reset(camionService);
+
+        assertThat(resultado.estado()).isEqualTo("COMPLETADA");
+        assertThat(costosAproximados(rutas.get(asignada).id())).isEqualTo(antes);
+        assertThat(enviados).doesNotContainKey(asignada);
+        assertThat(enviados).containsEntry(libre,
+            rutaService.calcularGastosEstimados(libre).resumen().costoTotal());
+    }
+
+    private RutaAsignadaResponseDTO crearRuta(Long solicitudId, int cantidadDepositos) {
+        List<Deposito> depositos = depositoService.findAll();
+        List<Long> intermedios = new ArrayList<>();
+        for (int i = 0; i < cantidadDepositos; i++) {
+            intermedios.add(depositos.get(i % 2).getId());
+        }
+        return rutaService.crearRutaParaSolicitud(new CrearRutaCompletaRequest(
+            solicitudId, VOLUMEN,
+            depositos.get(2).getUbicacion().getId(), depositos.get(1).getUbicacion().getId(),
+            intermedios));
+    }
+
+    private List<Double> costosAproximados(Long rutaId) {
+        return tramoService.tramosPorRutaId(rutaId).stream().map(Tramo::getCostoAproximado).toList();
+    }
+
+    private static ActualizarTarifaRequest cambioDePrecio(double precio) {
+        return new ActualizarTarifaRequest(null, null, null, null, null, null, precio);
+    }
+
+    private RecotizacionDTO esperarRecotizacion() {
+        long limite = System.currentTimeMillis() + 10_000;
+        RecotizacionDTO estado = recotizacionService.obtenerEstado(tarifa.getId());
+        while (!ESTADOS_FINALES.contains(estado.estado()) && System.currentTimeMillis() < limite) {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            estado = recotizacionService.obtenerEstado(tarifa.getId());
+        }
+        return estado;
+    }
+}
@@ -0,0 +1,230 @@
+package com.tpi.logistica_service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.tpi.LogisticaServiceApplication;
+import com.tpi.client.RoutingClient;
+import com.tpi.dto.external.RouteResponseDTOs.Coordenada;
+import com.tpi.dto.external.RouteResponseDTOs.MatrixResponse;
+import com.tpi.dto.request.CrearRutaCompletaRequest;
+import com.tpi.dto.response.LoteRutasDTOs.ResultadoLoteRutasDTO;
+import com.tpi.dto.response.LoteRutasDTOs.ResultadoRutaDTO;
+import com.tpi.exception.MicroservicioNoDisponibleException;
+import com.tpi.model.Deposito;
+import com.tpi.model.Tramo;
+import com.tpi.model.Ubicacion;
+import com.tpi.repository.RutaRepository;
+import com.tpi.service.DepositoService;
+import com.tpi.service.RutaLoteService;
+import com.tpi.service.TramoService;
+
+/**
+ * Creación de rutas por lote: un error de datos (ubicación o depósito inexistente, sin tarifa,
+ * sin camino vial, solicitud repetida) solo afecta a su ruta, los tramos repetidos entre rutas se
+ * rutean una vez, y con el routing caído no se guarda ninguna ruta del lote.
+ */
+@SpringBootTest(classes = LogisticaServiceApplication.class)
+class RutaLoteTest {
+
+    private static final double VOLUMEN = 10.0;
+    private static final long INEXISTENTE = 999_999L;
+
+    @MockitoBean private RoutingClient routingClient;
+
+    @Autowired private RutaLoteService rutaLoteService;
+    @Autowired private RutaRepository rutaRepository;
+    @Autowired private TramoService tramoService;
+    @Autowired private DepositoService depositoService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private static long siguienteSolicitud = 70_000;
+
+    private final List<Long> solicitudes = new ArrayList<>();
+
+    // Ubicaciones de los tres depósitos cargados: a, b y c; de c a a no hay camino vial
+    private Ubicacion a;
+    private Ubicacion b;
+    private Ubicacion c;
+    private Deposito depositoC;
+
+    @BeforeEach
+    void preparar() {
+        List<Deposito> depositos = depositoService.findAll();
+        a = depositos.get(0).getUbicacion();
+        b = depositos.get(1).getUbicacion();
+        depositoC = depositos.get(2);
+        c = depositoC.getUbicacion();
+
+        // Routing simulado: la distancia sale de las coordenadas de cada celda
+        when(routingClient.calcularMatriz(anyList(), anyList())).thenAnswer(inv -> {
+            List<Coordenada> origenes = inv.getArgument(0);
+            List<Coordenada> destinos = inv.getArgument(1);
+            Double[][] distancias = new Double[origenes.size()][destinos.size()];
+            Long[][] duraciones = new Long[origenes.size()][destinos.size()];
+            for (int i = 0; i < origenes.size(); i++) {
+                for (int j = 0; j < destinos.size(); j++) {
+                    if (!esPunto(origenes.get(i), c) || !esPunto(destinos.get(j), a)) {
+                        distancias[i][j] = distanciaKm(origenes.get(i), destinos.get(j));
+                        duraciones[i][j] = Math.round(distancias[i][j] * 60);
+                    }
+                }
+            }
+            return new MatrixResponse(origenes.size(), destinos.size(), distancias, duraciones);
+        });
+    }
+
+    @AfterEach
+    void limpiar() {
+        for (Long solicitudId : solicitudes) {
+            jdbcTemplate.update("DELETE FROM tramos WHERE ruta_id IN (SELECT id FROM rutas WHERE solicitud_id = ?)",
+                solicitudId);
+            jdbcTemplate.update("DELETE FROM rutas WHERE solicitud_id = ?", solicitudId);
+        }
+    }
+
+    @Test
+    void unErrorDeDatosSoloAfectaASuRuta() {
+        List<CrearRutaCompletaRequest> lote = List.of(
+            ruta(a, b),
+            new CrearRutaCompletaRequest(nuevaSolicitud(), VOLUMEN, INEXISTENTE, b.getId(), List.of()),
+            new CrearRutaCompletaRequest(nuevaSolicitud(), VOLUMEN, a.getId(), b.getId(), List.of(INEXISTENTE)),
+            new CrearRutaCompletaRequest(nuevaSolicitud(), 5_000.0, a.getId(), b.getId(), List.of()),
+            ruta(c, a),
+            ruta(b, c));
+
+        ResultadoLoteRutasDTO resultado = rutaLoteService.crearRutas(lote);
+
+        assertThat(resultado.total()).isEqualTo(6);
+        assertThat(resultado.creadas()).isEqualTo(2);
+        assertThat(resultado.fallidas()).isEqualTo(4);
+        assertThat(resultado.resultados()).extracting(ResultadoRutaDTO::indice).containsExactly(0, 1, 2, 3, 4, 5);
+
+        assertCreada(resultado.resultados().get(0));
+        assertFallida(resultado.resultados().get(1), "ENTIDAD_NO_ENCONTRADA", String.valueOf(INEXISTENTE));
+        assertFallida(resultado.resultados().get(2), "ENTIDAD_NO_ENCONTRADA", String.valueOf(INEXISTENTE));
+        assertFallida(resultado.resultados().get(3), "ENTIDAD_NO_ENCONTRADA", "tarifa");
+        assertFallida(resultado.resultados().get(4), "ENTIDAD_NO_ENCONTRADA",
+            "entre las ubicaciones " + c.getId() + " y " + a.getId());
+        assertCreada(resultado.resultados().get(5));
+
+        for (int i = 1; i <= 4; i++) {
+            assertThat(rutaRepository.findBySolicitudId(lote.get(i).getSolicitudId())).as("ruta %d", i).isEmpty();
+        }
+    }
+
+    @Test
+    void unaSolicitudRepetidaEnElLoteFallaSinAfectarALaPrimera() {
+        CrearRutaCompletaRequest primera = ruta(a, b);
+        CrearRutaCompletaRequest repetida = new CrearRutaCompletaRequest(
+            primera.getSolicitudId(), VOLUMEN, b.getId(), c.getId(), List.of());
+
+        ResultadoLoteRutasDTO resultado = rutaLoteService.crearRutas(List.of(primera, repetida));
+
+        assertThat(resultado.creadas()).isEqualTo(1);
+        assertCreada(resultado.resultados().get(0));
+        assertFallida(resultado.resultados().get(1), "PARAMETRO_INVALIDO", "más de una vez en el lote");
+        assertThat(rutaRepository.findBySolicitudId(primera.getSolicitudId()))
+            .hasValueSatisfying(ruta -> assertThat(ruta.getId()).isEqualTo(resultado.resultados().get(0).ruta().id()));
+    }
+
+    @Test
+    void losTramosRepetidosEntreRutasSeRuteanUnaVez() {
+        // a→b dos veces, y a→c→b por el depósito c: tres tramos distintos
+        List<CrearRutaCompletaRequest> lote = List.of(
+            ruta(a, b),
+            ruta(a, b),
+            new CrearRutaCompletaRequest(nuevaSolicitud(), VOLUMEN, a.getId(), b.getId(), List.of(depositoC.getId())));
+
+        ResultadoLoteRutasDTO resultado = rutaLoteService.crearRutas(lote);
+
+        assertThat(resultado.creadas()).isEqualTo(3);
+        assertThat(resultado.tramosRuteados()).isEqualTo(3);
+
+        // Una sola matriz con los orígenes (a, c) y destinos (b, c) distintos
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Coordenada>> origenes = ArgumentCaptor.forClass(List.class);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Coordenada>> destinos = ArgumentCaptor.forClass(List.class);
+        verify(routingClient, times(1)).calcularMatriz(origenes.capture(), destinos.capture());
+        assertThat(origenes.getValue()).hasSize(2);
+        assertThat(destinos.getValue()).hasSize(2);
+
+        // Las dos rutas a→b tienen el mismo recorrido, el que dio la matriz
+        double esperada = Math.round(distanciaKm(coordenada(a), coordenada(b)) * 100.0) / 100.0;
+        for (int i = 0; i < 2; i++) {
+            List<Tramo> tramos = tramoService.tramosPorRutaId(resultado.resultados().get(i).ruta().id());
+            assertThat(tramos).singleElement().extracting(Tramo::getDistanciaKm).isEqualTo(esperada);
+        }
+        assertThat(tramoService.tramosPorRutaId(resultado.resultados().get(2).ruta().id())).hasSize(2);
+    }
+
+    @Test
+    void conElRoutingCaidoNoSeGuardaNingunaRuta() {
+        when(routingClient.calcularMatriz(anyList(), anyList()))
+            .thenThrow(new MicroservicioNoDisponibleException("servicio de routing", "cálculo de matriz", null));
+        List<CrearRutaCompletaRequest> lote = List.of(
+            ruta(a, b),
+            ruta(b, c),
+            new CrearRutaCompletaRequest(nuevaSolicitud(), VOLUMEN, INEXISTENTE, b.getId(), List.of()));
+        long rutasAntes = rutaRepository.count();
+
+        assertThatThrownBy(() -> rutaLoteService.crearRutas(lote))
+            .isInstanceOf(MicroservicioNoDisponibleException.class);
+
+        assertThat(rutaRepository.count()).isEqualTo(rutasAntes);
+        for (CrearRutaCompletaRequest request : lote) {
+            assertThat(rutaRepository.findBySolicitudId(request.getSolicitudId())).isEmpty();
+        }
+    }
+
+    private CrearRutaCompletaRequest ruta(Ubicacion origen, Ubicacion destino) {
+        return new CrearRutaCompletaRequest(nuevaSolicitud(), VOLUMEN, origen.getId(), destino.getId(), List.of());
+    }
+
+    private Long nuevaSolicitud() {
+        Long solicitudId = siguienteSolicitud++;
+        solicitudes.add(solicitudId);
+        return solicitudId;
+    }
+
+    private void assertCreada(ResultadoRutaDTO resultado) {
+        assertThat(resultado.error()).as("ruta %d", resultado.indice()).isNull();
+        assertThat(resultado.ruta()).isNotNull();
+        assertThat(rutaRepository.findBySolicitudId(resultado.solicitudId())).isPresent();
+    }
+
+    private static void assertFallida(ResultadoRutaDTO resultado, String codigo, String mensaje) {
+        assertThat(resultado.ruta()).as("ruta %d", resultado.indice()).isNull();
+        assertThat(resultado.error().codigo()).as("ruta %d", resultado.indice()).isEqualTo(codigo);
+        assertThat(resultado.error().mensaje()).as("ruta %d", resultado.indice()).contains(mensaje);
+    }
+
+    private static boolean esPunto(Coordenada coordenada, Ubicacion ubicacion) {
+        return coordenada.equals(coordenada(ubicacion));
+    }
+
+    private static Coordenada coordenada(Ubicacion ubicacion) {
+        return new Coordenada(ubicacion.getLatitud(), ubicacion.getLongitud());
+    }
+
+    private static double distanciaKm(Coordenada origen, Coordenada destino) {
+        return 5 + Math.abs(origen.lat() - destino.lat()) * 111 + Math.abs(origen.lon() - destino.lon()) * 92;
+    }
+}
@@ -0,0 +1,222 @@
+package com.tpi.logistica_service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tpi.LogisticaServiceApplication;
+import com.zaxxer.hikari.HikariDataSource;
+import com.tpi.client.RoutingClient;
+import com.tpi.dto.external.RouteResponseDTOs.Coordenada;
+import com.tpi.dto.external.RouteResponseDTOs.MatrixResponse;
+import com.tpi.dto.external.RouteResponseDTOs.RouteAlternativeResponse;
+import com.tpi.dto.external.RouteResponseDTOs.RouteResponse;
+import com.tpi.dto.request.CrearRutaCompletaRequest;
+import com.tpi.dto.response.RutaAsignadaResponseDTO;
+import com.tpi.model.Deposito;
+import com.tpi.model.Tramo;
+import com.tpi.service.DepositoService;
+import com.tpi.service.RutaLoteService;
+import com.tpi.service.RutaService;
+import com.tpi.service.TramoService;
+
+/**
+ * Mide cuántas idas y vueltas a la base de datos (ejecuciones JDBC) cuesta crear rutas.
+ * Cada execute / executeQuery / executeUpdate / executeBatch cuenta como una.
+ *
+ * Con IDs por secuencia y batching de JDBC, guardar una ruta no debe crecer
+ * una sentencia por tramo: los INSERT/UPDATE de los tramos van en un solo lote.
+ */
+@SpringBootTest(classes = LogisticaServiceApplication.class)
+@Import(SentenciasPersistenciaRutaTest.ContadorJdbcConfig.class)
+class SentenciasPersistenciaRutaTest {
+
+    private static final AtomicInteger EJECUCIONES = new AtomicInteger();
+
+    @TestConfiguration
+    static class ContadorJdbcConfig {
+
+        // Envuelve el DataSource para contar las ejecuciones de sentencias
+        @Bean
+        static BeanPostProcessor contadorJdbc() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? contar(dataSource, DataSource.class) : bean;
+                }
+            };
+        }
+    }
+
+    @MockitoBean
+    private RoutingClient routingClient;
+
+    @Autowired private RutaService rutaService;
+    @Autowired private RutaLoteService rutaLoteService;
+    @Autowired private TramoService tramoService;
+    @Autowired private DepositoService depositoService;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private DataSource dataSource;
+
+    // Conexiones tomadas del pool mientras se consulta la matriz de routing
+    private final AtomicInteger conexionesDuranteRouting = new AtomicInteger(-1);
+
+    private static long siguienteSolicitud = 10_000;
+
+    @BeforeEach
+    void simularRouting() {
+        when(routingClient.calcularRutaCompleta(anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+            .thenReturn(new RouteAlternativeResponse(0, List.of(new RouteResponse(10.0, 600L, 0.0, 0.0, 0.0, 0.0))));
+        when(routingClient.calcularMatriz(anyList(), anyList())).thenAnswer(inv -> {
+            conexionesDuranteRouting.set(dataSource.unwrap(HikariDataSource.class)
+                .getHikariPoolMXBean().getActiveConnections());
+            List<Coordenada> origenes = inv.getArgument(0);
+            List<Coordenada> destinos = inv.getArgument(1);
+            Double[][] km = new Double[origenes.size()][destinos.size()];
+            Long[][] segundos = new Long[origenes.size()][destinos.size()];
+            for (Double[] fila : km) {
+                Arrays.fill(fila, 10.0);
+            }
+            for (Long[] fila : segundos) {
+                Arrays.fill(fila, 600L);
+            }
+            return new MatrixResponse(origenes.size(), destinos.size(), km, segundos);
+        });
+    }
+
+    @Test
+    void crearRutaNoEjecutaUnaSentenciaPorTramo() {
+        int rutaDirecta = medir(() -> crearRuta(0));
+        int rutaLarga = medir(() -> crearRuta(19));
+
+        // Los 19 tramos extra no deben sumar una sentencia cada uno
+        assertThat(rutaLarga - rutaDirecta).isLessThan(10);
+    }
+
+    @Test
+    void actualizarTramosVaEnUnSoloLote() {
+        RutaAsignadaResponseDTO ruta = crearRuta(19);
+
+        int lectura = medir(() -> transactionTemplate.execute(estado ->
+            tramoService.tramosPorRutaId(ruta.id())));
+        int actualizacion = medir(() -> transactionTemplate.execute(estado -> {
+            List<Tramo> tramos = tramoService.tramosPorRutaId(ruta.id());
+            tramos.forEach(t -> t.setCostoAproximado(1234.0));
+            return tramoService.saveAll(tramos);
+        }));
+
+        // Los 20 UPDATE van en un solo lote
+        assertThat(actualizacion - lectura).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void loteDeRutasNoEjecutaUnaSentenciaPorFila() {
+        List<Deposito> depositos = depositoService.findAll();
+        Long origen = depositos.get(0).getUbicacion().getId();
+        Long destino = depositos.get(2).getUbicacion().getId();
+
+        List<CrearRutaCompletaRequest> lote = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            lote.add(new CrearRutaCompletaRequest(siguienteSolicitud++, 10.0, origen, destino,
+                List.of(depositos.get(1).getId(), depositos.get(0).getId())));
+        }
+
+        // 100 rutas + 300 tramos
+        int ejecuciones = medir(() -> rutaLoteService.crearRutas(lote));
+        assertThat(ejecuciones).isLessThan(40);
+    }
+
+    @Test
+    void loteNoTieneUnaConexionTomadaMientrasConsultaRouting() {
+        List<Deposito> depositos = depositoService.findAll();
+        Long origen = depositos.get(0).getUbicacion().getId();
+        Long destino = depositos.get(2).getUbicacion().getId();
+
+        rutaLoteService.crearRutas(List.of(new CrearRutaCompletaRequest(siguienteSolicitud++, 10.0, origen, destino,
+            List.of(depositos.get(1).getId()))));
+
+        // La transacción abarca solo la lectura y la escritura, no la espera al routing
+        assertThat(conexionesDuranteRouting.get()).isZero();
+    }
+
+    @Test
+    void seguimientoDeRutaEnUnaSolaSentencia() {
+        Long solicitudId = siguienteSolicitud;
+        crearRuta(5);
+        Long ubicacionId = depositoService.findAll().get(2).getUbicacion().getId();
+
+        int tramos = medir(() -> rutaService.obtenerRutaConTramosPorSolicitudId(solicitudId));
+        int seguimiento = medir(() -> rutaService.obtenerSeguimiento(solicitudId, ubicacionId, ubicacionId));
+
+        // Ruta, tramos, ubicaciones, camión, tipo y estado en un solo SELECT
+        assertThat(tramos).isEqualTo(1);
+        assertThat(seguimiento).isEqualTo(1);
+    }
+
+    private RutaAsignadaResponseDTO crearRuta(int cantidadDepositos) {
+        List<Deposito> depositos = depositoService.findAll();
+        List<Long> intermedios = new ArrayList<>();
+        for (int i = 0; i < cantidadDepositos; i++) {
+            intermedios.add(depositos.get(i % 2).getId());
+        }
+        return rutaService.crearRutaParaSolicitud(new CrearRutaCompletaRequest(
+            siguienteSolicitud++, 10.0,
+            depositos.get(2).getUbicacion().getId(), depositos.get(2).getUbicacion().getId(),
+            intermedios));
+    }
+
+    // Ejecuciones JDBC de la operación
+    private static int medir(Supplier<?> operacion) {
+        EJECUCIONES.set(0);
+        operacion.get();
+        return EJECUCIONES.get();
+    }
+
+    // Proxy que cuenta ejecuciones y envuelve las conexiones y sentencias que devuelve
+    @SuppressWarnings("unchecked")
+    private static <T> T contar(T objetivo, Class<T> tipo) {
+        InvocationHandler handler = (proxy, metodo, args) -> {
+            if (metodo.getName().startsWith("execute") && objetivo instanceof Statement) {
+                EJECUCIONES.incrementAndGet();
+            }
+            try {
+                Object resultado = metodo.invoke(objetivo, args);
+                if (resultado instanceof Connection conexion && !(resultado instanceof Proxy)) {
+                    return contar(conexion, Connection.class);
+                }
+                if (resultado instanceof Statement sentencia && metodo.getReturnType().isInterface()) {
+                    return contar(sentencia, (Class<Statement>) metodo.getReturnType());
+                }
+                return resultado;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] {tipo}, handler);
+    }
+}
@@ -0,0 +1,110 @@
+package com.tpi.logistica_service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.tpi.LogisticaServiceApplication;
+import com.tpi.dto.request.TarifaRequest;
+import com.tpi.exception.TarifaSolapadaException;
+import com.tpi.model.Tarifa;
+import com.tpi.repository.TarifaRepository;
+import com.tpi.service.TarifaService;
+
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Altas concurrentes de tarifas con rangos superpuestos: solo una se guarda. Y una tabla que ya
+ * tiene rangos superpuestos no impide recargar el índice.
+ */
+@SpringBootTest(classes = LogisticaServiceApplication.class)
+class TarifasConcurrentesTest {
+
+    @Autowired private TarifaService tarifaService;
+    @Autowired private TarifaRepository tarifaRepository;
+
+    private final List<Long> creadas = new ArrayList<>();
+
+    @AfterEach
+    void borrarTarifas() {
+        tarifaRepository.deleteAllById(creadas);
+        tarifaService.recargarIndice();
+    }
+
+    @Test
+    void dosAltasSuperpuestasConcurrentesNoSeGuardanAmbas() throws Exception {
+        int altas = 8;
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Tarifa>> resultados = new ArrayList<>();
+        try (ExecutorService hilos = Executors.newFixedThreadPool(altas)) {
+            for (int i = 0; i < altas; i++) {
+                TarifaRequest request = request("Concurrente " + i, 1000.0 + i, 1100.0 + i);
+                resultados.add(hilos.submit(() -> {
+                    largada.await();
+                    return tarifaService.crearTarifa(request);
+                }));
+            }
+            largada.countDown();
+        }
+
+        int guardadas = 0;
+        for (Future<Tarifa> resultado : resultados) {
+            try {
+                creadas.add(resultado.get().getId());
+                guardadas++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(TarifaSolapadaException.class);
+            }
+        }
+        assertThat(guardadas).isEqualTo(1);
+        assertThat(tarifaRepository.findAll())
+            .filteredOn(t -> t.getVolumenMin() >= 1000)
+            .hasSize(1);
+    }
+
+    @Test
+    void conFilasSuperpuestasEnLaTablaElIndiceSeRecargaSinEllas() {
+        Tarifa primera = tarifaRepository.save(tarifa("Cargada 1", 2000.0, 2100.0));
+        Tarifa solapada = tarifaRepository.save(tarifa("Cargada 2", 2050.0, 2150.0));
+        creadas.add(primera.getId());
+        creadas.add(solapada.getId());
+
+        tarifaService.recargarIndice();
+
+        assertThat(tarifaService.getTarifaByVolumenContenedor(2060.0).getId()).isEqualTo(primera.getId());
+        assertThatThrownBy(() -> tarifaService.getTarifaByVolumenContenedor(2120.0))
+            .isInstanceOf(EntityNotFoundException.class);
+    }
+
+    private static TarifaRequest request(String nombre, double min, double max) {
+        TarifaRequest request = new TarifaRequest();
+        request.setNombre(nombre);
+        request.setVolumenMin(min);
+        request.setVolumenMax(max);
+        request.setCostoGestionPorTramo(100.0);
+        request.setPrecioCombustiblePorLitro(1.0);
+        return request;
+    }
+
+    private static Tarifa tarifa(String nombre, double min, double max) {
+        return Tarifa.builder()
+            .nombre(nombre)
+            .volumenMin(min)
+            .volumenMax(max)
+            .costoGestionPorTramo(100.0)
+            .precioCombustiblePorLitro(1.0)
+            .build();
+    }
+}
@@ -0,0 +1,141 @@
+package com.tpi.logistica_service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.security.oauth2.client.web.client.RequestAttributeClientRegistrationIdResolver.clientRegistrationId;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.client.web.client.OAuth2ClientHttpRequestInterceptor;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import com.sun.net.httpserver.HttpServer;
+import com.tpi.LogisticaServiceApplication;
+import com.tpi.config.RestClientConfig;
+
+/**
+ * Las llamadas con el registro del servicio llevan un token de client credentials pedido a
+ * Keycloak: sin usuario en el hilo, reutilizado mientras sigue vigente y descartado si el
+ * servicio destino lo rechaza. Las demás llamadas no reciben ese token.
+ */
+@SpringBootTest(classes = LogisticaServiceApplication.class)
+class TokenServicioTest {
+
+    // Keycloak y solicitudes-service simulados en el mismo servidor
+    private static final AtomicInteger tokensEmitidos = new AtomicInteger();
+    private static final List<String> pedidosDeToken = new CopyOnWriteArrayList<>();
+    private static final List<String> autorizaciones = new CopyOnWriteArrayList<>();
+    private static volatile boolean rechazar;
+    private static final HttpServer servidor = iniciarServidor();
+
+    @Autowired private OAuth2ClientHttpRequestInterceptor tokenServicio;
+
+    private RestClient cliente;
+
+    @DynamicPropertySource
+    static void apuntarAKeycloak(DynamicPropertyRegistry registro) {
+        registro.add("spring.security.oauth2.client.provider.keycloak.token-uri", () -> url("/token"));
+        registro.add("spring.security.oauth2.client.registration.logistica-service.client-secret", () -> "secreto");
+    }
+
+    @BeforeEach
+    void preparar() {
+        pedidosDeToken.clear();
+        autorizaciones.clear();
+        rechazar = false;
+        cliente = RestClient.builder().baseUrl(url("")).requestInterceptor(tokenServicio).build();
+    }
+
+    @AfterAll
+    static void detener() {
+        servidor.stop(0);
+    }
+
+    @Test
+    void pideElTokenUnaVezYLoReutilizaSinUsuarioEnElHilo() throws Exception {
+        Thread segundoPlano = Thread.ofVirtual().start(() -> {
+            llamarConTokenDelServicio();
+            llamarConTokenDelServicio();
+        });
+        segundoPlano.join();
+
+        assertThat(pedidosDeToken).hasSize(1);
+        assertThat(pedidosDeToken.get(0)).contains("grant_type=client_credentials");
+        assertThat(autorizaciones).hasSize(2).containsOnly(autorizaciones.get(0));
+        assertThat(autorizaciones.get(0)).startsWith("Bearer token-");
+    }
+
+    @Test
+    void siElDestinoLoRechazaPideUnoNuevo() {
+        llamarConTokenDelServicio();
+        String primero = autorizaciones.get(0);
+
+        rechazar = true;
+        assertThatThrownBy(this::llamarConTokenDelServicio).isInstanceOf(HttpClientErrorException.Unauthorized.class);
+        rechazar = false;
+        llamarConTokenDelServicio();
+
+        assertThat(autorizaciones.get(2)).isNotEqualTo(primero);
+    }
+
+    @Test
+    void sinElRegistroNoAgregaToken() {
+        cliente.patch().uri("/api/v1/solicitudes/costos-estimados").retrieve().toBodilessEntity();
+
+        assertThat(pedidosDeToken).isEmpty();
+        assertThat(autorizaciones).containsExactly("sin token");
+    }
+
+    private void llamarConTokenDelServicio() {
+        cliente.patch()
+            .uri("/api/v1/solicitudes/costos-estimados")
+            .attributes(clientRegistrationId(RestClientConfig.REGISTRO_SERVICIO))
+            .retrieve()
+            .toBodilessEntity();
+    }
+
+    private static String url(String ruta) {
+        return "http://127.0.0.1:" + servidor.getAddress().getPort() + ruta;
+    }
+
+    private static HttpServer iniciarServidor() {
+        try {
+            HttpServer nuevo = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            nuevo.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            nuevo.createContext("/token", intercambio -> {
+                pedidosDeToken.add(new String(intercambio.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+                byte[] cuerpo = """
+                    {"access_token":"token-%d","token_type":"Bearer","expires_in":300}"""
+                    .formatted(tokensEmitidos.incrementAndGet()).getBytes(StandardCharsets.UTF_8);
+                intercambio.getResponseHeaders().set("Content-Type", "application/json");
+                intercambio.sendResponseHeaders(200, cuerpo.length);
+                intercambio.getResponseBody().write(cuerpo);
+                intercambio.close();
+            });
+            nuevo.createContext("/api/v1/solicitudes", intercambio -> {
+                String autorizacion = intercambio.getRequestHeaders().getFirst("Authorization");
+                autorizaciones.add(autorizacion == null ? "sin token" : autorizacion);
+                intercambio.sendResponseHeaders(rechazar ? 401 : 204, -1);
+                intercambio.close();
+            });
+            nuevo.start();
+            return nuevo;
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo iniciar el servidor simulado", e);
+        }
+    }
+}
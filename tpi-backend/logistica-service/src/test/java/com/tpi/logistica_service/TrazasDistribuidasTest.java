@@ -0,0 +1,150 @@
+package com.tpi.logistica_service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.client.RestClient;
+
+import com.sun.net.httpserver.HttpServer;
+import com.tpi.LogisticaServiceApplication;
+import com.tpi.client.RoutingClient;
+import com.tpi.dto.external.RouteResponseDTOs.RouteAlternativeResponse;
+import com.tpi.dto.external.RouteResponseDTOs.RouteResponse;
+import com.tpi.dto.request.CrearRutaCompletaRequest;
+import com.tpi.model.Deposito;
+import com.tpi.service.DepositoService;
+import com.tpi.service.RutaService;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+/**
+ * Trazas de una request: los spans de los repositorios, del cálculo de tramos y de las llamadas
+ * hechas desde el routingExecutor quedan en la misma traza, y los RestClient mandan el header
+ * W3C traceparent. Los spans se juntan en memoria (InMemorySpanExporter) en lugar del archivo.
+ */
+@SpringBootTest(classes = LogisticaServiceApplication.class)
+@AutoConfigureObservability(metrics = false)
+@Import(TrazasDistribuidasTest.ColectorConfig.class)
+class TrazasDistribuidasTest {
+
+    @TestConfiguration
+    static class ColectorConfig {
+
+        // Spring Boot registra todos los SpanExporter en el procesador de spans
+        @Bean
+        InMemorySpanExporter colector() {
+            return InMemorySpanExporter.create();
+        }
+    }
+
+    @MockitoBean
+    private RoutingClient routingClient;
+
+    @Autowired private Tracer tracer;
+    @Autowired private InMemorySpanExporter colector;
+    @Autowired private SdkTracerProvider proveedor;
+    @Autowired private RestClient.Builder restClientBuilder;
+    @Autowired private RutaService rutaService;
+    @Autowired private DepositoService depositoService;
+
+    // Traza activa en cada llamada a routing (corren en el routingExecutor)
+    private final List<String> trazasEnRouting = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void simularRouting() {
+        colector.reset();
+        when(routingClient.calcularRutaCompleta(anyDouble(), anyDouble(), anyDouble(), anyDouble())).thenAnswer(inv -> {
+            Span actual = tracer.currentSpan();
+            trazasEnRouting.add(actual == null ? "sin traza" : actual.context().traceId());
+            return new RouteAlternativeResponse(0, List.of(new RouteResponse(10.0, 600L, 0.0, 0.0, 0.0, 0.0)));
+        });
+    }
+
+    @Test
+    void crearRutaQuedaEnLaTrazaDeLaRequest() {
+        String traza = enSpan(() -> {
+            List<Deposito> depositos = depositoService.findAll();
+            List<Long> intermedios = new ArrayList<>(List.of(depositos.get(0).getId(), depositos.get(1).getId()));
+            rutaService.crearRutaParaSolicitud(new CrearRutaCompletaRequest(
+                90_000L, 10.0,
+                depositos.get(2).getUbicacion().getId(), depositos.get(2).getUbicacion().getId(),
+                intermedios));
+        });
+
+        List<SpanData> spans = terminados().stream().filter(span -> span.getTraceId().equals(traza)).toList();
+
+        // 3 tramos: cada llamada a routing, en otro hilo, sigue en la traza de la request
+        assertThat(trazasEnRouting).hasSize(3).containsOnly(traza);
+
+        // Los repositorios llamados desde crearTramosAutomaticos son hijos de su span
+        SpanData tramos = buscar(spans, "tramo-service#crear-tramos-automaticos");
+        assertThat(buscar(spans, "TramoRepository.saveAll").getParentSpanId()).isEqualTo(tramos.getSpanId());
+        assertThat(buscar(spans, "RutaRepository.save").getParentSpanId()).isEqualTo(tramos.getParentSpanId());
+    }
+
+    @Test
+    void restClientPropagaTraceparent() throws IOException {
+        AtomicReference<String> traceparent = new AtomicReference<>();
+        HttpServer destino = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        destino.createContext("/eco", intercambio -> {
+            traceparent.set(intercambio.getRequestHeaders().getFirst("traceparent"));
+            intercambio.sendResponseHeaders(204, -1);
+            intercambio.close();
+        });
+        destino.start();
+        try {
+            RestClient cliente = restClientBuilder
+                .baseUrl("http://127.0.0.1:" + destino.getAddress().getPort())
+                .build();
+            String traza = enSpan(() -> cliente.get().uri("/eco").retrieve().toBodilessEntity());
+
+            // W3C: 00-<traza>-<span del cliente>-01 (muestreada)
+            assertThat(traceparent.get()).startsWith("00-" + traza + "-").endsWith("-01");
+        } finally {
+            destino.stop(0);
+        }
+    }
+
+    // Corre la operación dentro de un span raíz (como la request que llega) y devuelve su traza
+    private String enSpan(Runnable operacion) {
+        Span request = tracer.nextSpan().name("request").start();
+        try (Tracer.SpanInScope alcance = tracer.withSpan(request)) {
+            operacion.run();
+        } finally {
+            request.end();
+        }
+        return request.context().traceId();
+    }
+
+    private static SpanData buscar(List<SpanData> spans, String nombre) {
+        return spans.stream().filter(span -> span.getName().equals(nombre)).findFirst()
+            .orElseThrow(() -> new AssertionError("Falta el span " + nombre + " en " + spans));
+    }
+
+    private List<SpanData> terminados() {
+        proveedor.forceFlush().join(5, TimeUnit.SECONDS);
+        return colector.getFinishedSpanItems();
+    }
+}
@@ -0,0 +1,178 @@
+package com.tpi.optimizacion;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * OptimizadorSecuencia contra la fuerza bruta (todas las permutaciones de las paradas)
+ * con matrices asimétricas. Índices: 0 = origen, n-1 = destino, 1..n-2 = paradas.
+ */
+class OptimizadorSecuenciaTest {
+
+    private static final double EPSILON = 1e-6;
+
+    @Test
+    void conHastaOchoParadasDevuelveElOrdenOptimo() {
+        Random azar = new Random(17);
+        for (int paradas = 0; paradas <= 8; paradas++) {
+            for (int caso = 0; caso < 20; caso++) {
+                double[][] costo = matrizAsimetrica(azar, paradas + 2, caso % 4 == 0);
+
+                int[] orden = OptimizadorSecuencia.optimizar(costo);
+
+                assertThat(orden).as("paradas=%d caso=%d", paradas, caso)
+                    .containsExactlyInAnyOrder(paradas(costo.length));
+                assertThat(OptimizadorSecuencia.costoTotal(costo, orden))
+                    .as("paradas=%d caso=%d", paradas, caso)
+                    .isCloseTo(optimoPorFuerzaBruta(costo), within(EPSILON));
+            }
+        }
+    }
+
+    @Test
+    void laHeuristicaNoSeAlejaDelOptimoConPocasParadas() {
+        Random azar = new Random(23);
+        for (int paradas = 1; paradas <= 8; paradas++) {
+            for (int caso = 0; caso < 20; caso++) {
+                double[][] costo = matrizAsimetrica(azar, paradas + 2, false);
+
+                int[] orden = OptimizadorSecuencia.heuristica(costo);
+                double optimo = optimoPorFuerzaBruta(costo);
+
+                assertThat(orden).containsExactlyInAnyOrder(paradas(costo.length));
+                assertThat(OptimizadorSecuencia.costoTotal(costo, orden))
+                    .as("paradas=%d caso=%d", paradas, caso)
+                    .isBetween(optimo - EPSILON, optimo * 1.25);
+                assertSinMejoraMoviendoUnaParada(costo, orden);
+            }
+        }
+    }
+
+    @Test
+    void conMasParadasQueElExactoUsaLaHeuristicaYEncuentraElOrdenEvidente() {
+        // Paradas sobre una recta entre origen y destino, en índices mezclados. Avanzar cuesta
+        // la distancia y retroceder además una penalidad: el óptimo es recorrerlas en orden.
+        Random azar = new Random(31);
+        for (int paradas : new int[] {13, 20, 40}) {
+            int n = paradas + 2;
+            List<Integer> indices = new ArrayList<>(IntStream.range(1, n - 1).boxed().toList());
+            Collections.shuffle(indices, azar);
+
+            double[] posicion = new double[n];
+            posicion[n - 1] = paradas + 1;
+            for (int i = 0; i < paradas; i++) {
+                posicion[indices.get(i)] = i + 1;
+            }
+            double[][] costo = new double[n][n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    double distancia = Math.abs(posicion[i] - posicion[j]);
+                    costo[i][j] = posicion[j] < posicion[i] ? distancia + 50 : distancia;
+                }
+            }
+
+            int[] orden = OptimizadorSecuencia.optimizar(costo);
+
+            assertThat(orden).as("paradas=%d", paradas)
+                .containsExactly(indices.stream().mapToInt(Integer::intValue).toArray());
+            assertThat(OptimizadorSecuencia.costoTotal(costo, orden)).isEqualTo(paradas + 1);
+        }
+    }
+
+    @Test
+    void conMasParadasQueElExactoNoQuedaMejoraMoviendoUnaParada() {
+        Random azar = new Random(41);
+        for (int caso = 0; caso < 10; caso++) {
+            double[][] costo = matrizAsimetrica(azar, 30, caso % 3 == 0);
+
+            int[] orden = OptimizadorSecuencia.optimizar(costo);
+
+            assertThat(orden).containsExactlyInAnyOrder(paradas(costo.length));
+            assertSinMejoraMoviendoUnaParada(costo, orden);
+        }
+    }
+
+    // Coordenadas al azar con un recargo distinto en cada sentido; algunos pares sin ruta
+    private static double[][] matrizAsimetrica(Random azar, int n, boolean sinRutas) {
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = azar.nextDouble() * 100;
+            y[i] = azar.nextDouble() * 100;
+        }
+        double[][] costo = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (i == j) {
+                    continue;
+                }
+                costo[i][j] = sinRutas && azar.nextInt(8) == 0
+                    ? OptimizadorSecuencia.SIN_RUTA
+                    : Math.hypot(x[i] - x[j], y[i] - y[j]) * (1 + azar.nextDouble() * 0.6);
+            }
+        }
+        return costo;
+    }
+
+    private static int[] paradas(int n) {
+        return IntStream.range(1, n - 1).toArray();
+    }
+
+    private static double optimoPorFuerzaBruta(double[][] costo) {
+        int[] orden = paradas(costo.length);
+        double mejor = OptimizadorSecuencia.costoTotal(costo, orden);
+        // Permutaciones en orden lexicográfico desde el orden creciente
+        while (siguientePermutacion(orden)) {
+            mejor = Math.min(mejor, OptimizadorSecuencia.costoTotal(costo, orden));
+        }
+        return mejor;
+    }
+
+    private static boolean siguientePermutacion(int[] a) {
+        int i = a.length - 2;
+        while (i >= 0 && a[i] >= a[i + 1]) {
+            i--;
+        }
+        if (i < 0) {
+            return false;
+        }
+        int j = a.length - 1;
+        while (a[j] <= a[i]) {
+            j--;
+        }
+        intercambiar(a, i, j);
+        for (int desde = i + 1, hasta = a.length - 1; desde < hasta; desde++, hasta--) {
+            intercambiar(a, desde, hasta);
+        }
+        return true;
+    }
+
+    private static void intercambiar(int[] a, int i, int j) {
+        int aux = a[i];
+        a[i] = a[j];
+        a[j] = aux;
+    }
+
+    // La mejora local (Or-opt con bloques de una parada) no deja ninguna reubicación que acorte
+    private static void assertSinMejoraMoviendoUnaParada(double[][] costo, int[] orden) {
+        double actual = OptimizadorSecuencia.costoTotal(costo, orden);
+        for (int desde = 0; desde < orden.length; desde++) {
+            for (int hasta = 0; hasta < orden.length; hasta++) {
+                List<Integer> movido = new ArrayList<>(IntStream.of(orden).boxed().toList());
+                movido.add(hasta, movido.remove(desde));
+                double costoMovido = OptimizadorSecuencia.costoTotal(
+                    costo, movido.stream().mapToInt(Integer::intValue).toArray());
+                assertThat(costoMovido).as("mover la parada en %d a %d", desde, hasta)
+                    .isGreaterThan(actual - EPSILON);
+            }
+        }
+    }
+}
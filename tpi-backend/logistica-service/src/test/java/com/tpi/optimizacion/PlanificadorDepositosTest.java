@@ -0,0 +1,159 @@
+package com.tpi.optimizacion;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.tpi.index.IndiceEspacialDepositos;
+import com.tpi.model.Deposito;
+import com.tpi.model.Ubicacion;
+import com.tpi.optimizacion.PlanificadorDepositos.Parametros;
+import com.tpi.optimizacion.PlanificadorDepositos.Plan;
+
+/**
+ * PlanificadorDepositos (A*) contra la enumeración de todos los recorridos simples
+ * origen → depósitos → destino que respetan el máximo por tramo, con el mismo costo.
+ */
+class PlanificadorDepositosTest {
+
+    @Test
+    void eligeElDepositoConMenorCostoTotal() {
+        // Origen y destino a ~445 km; con tramos de hasta 250 km hace falta una parada.
+        // El depósito B queda un poco más lejos de la recta pero su estadía es mucho más barata.
+        Ubicacion origen = ubicacion(0.0, 0.0);
+        Ubicacion destino = ubicacion(4.0, 0.0);
+        Deposito a = deposito(1L, 2.0, 0.0, 1000.0);
+        Deposito b = deposito(2L, 2.0, 0.1, 10.0);
+        Parametros parametros = new Parametros(250, 1.0, 1.0, 100, 1);
+
+        Plan plan = PlanificadorDepositos.planificar(
+            IndiceEspacialDepositos.construir(List.of(a, b)), origen, destino, parametros).orElseThrow();
+
+        assertThat(plan.depositos()).containsExactly(b);
+        double esperado = costo(List.of(origen, b.getUbicacion(), destino), List.of(b), parametros);
+        assertThat(plan.costoEstimado()).isCloseTo(esperado, within(1e-6));
+    }
+
+    @Test
+    void sinDepositosAlAlcanceNoHayPlan() {
+        Deposito lejos = deposito(1L, 2.0, 3.0, 10.0);
+
+        Optional<Plan> plan = PlanificadorDepositos.planificar(
+            IndiceEspacialDepositos.construir(List.of(lejos)),
+            ubicacion(0.0, 0.0), ubicacion(4.0, 0.0), new Parametros(250, 1.0, 1.0, 100, 1));
+
+        assertThat(plan).isEmpty();
+    }
+
+    @Test
+    void coincideConLaFuerzaBrutaEnGrafosChicos() {
+        Random azar = new Random(13);
+        for (int caso = 0; caso < 300; caso++) {
+            int cantidad = azar.nextInt(8);
+            List<Deposito> depositos = new ArrayList<>();
+            for (int i = 0; i < cantidad; i++) {
+                // Algunos depósitos sin costo de estadía cargado (se toma 0)
+                Double estadia = azar.nextInt(6) == 0 ? null : 500.0 + azar.nextInt(5000);
+                depositos.add(deposito((long) i + 1,
+                    -38 + azar.nextDouble() * 8, -66 + azar.nextDouble() * 8, estadia));
+            }
+            Ubicacion origen = ubicacion(-38 + azar.nextDouble() * 8, -66 + azar.nextDouble() * 8);
+            Ubicacion destino = ubicacion(-38 + azar.nextDouble() * 8, -66 + azar.nextDouble() * 8);
+            Parametros parametros = new Parametros(
+                150 + azar.nextInt(400), 1 + azar.nextDouble() * 0.4,
+                100 + azar.nextInt(400), azar.nextInt(20_000), azar.nextInt(3));
+
+            Optional<Plan> plan = PlanificadorDepositos.planificar(
+                IndiceEspacialDepositos.construir(depositos), origen, destino, parametros);
+            Optional<Recorrido> optimo = fuerzaBruta(depositos, origen, destino, parametros);
+
+            assertThat(plan.isPresent()).as("caso %d", caso).isEqualTo(optimo.isPresent());
+            if (optimo.isPresent()) {
+                assertThat(plan.get().costoEstimado()).as("caso %d", caso)
+                    .isCloseTo(optimo.get().costo(), within(1e-6 * optimo.get().costo()));
+                assertThat(plan.get().depositos()).as("caso %d", caso)
+                    .containsExactlyElementsOf(optimo.get().depositos());
+                assertThat(plan.get().distanciaEstimadaKm()).as("caso %d", caso)
+                    .isCloseTo(optimo.get().km(), within(1e-6));
+            }
+        }
+    }
+
+    private record Recorrido(List<Deposito> depositos, double costo, double km) {}
+
+    private static Optional<Recorrido> fuerzaBruta(List<Deposito> depositos, Ubicacion origen,
+                                                   Ubicacion destino, Parametros parametros) {
+        List<Recorrido> mejor = new ArrayList<>();
+        extender(depositos, new ArrayList<>(), origen, destino, parametros, mejor);
+        return mejor.stream().findFirst();
+    }
+
+    // Prueba cerrar el recorrido en el destino y seguir por cada depósito no visitado
+    private static void extender(List<Deposito> depositos, List<Deposito> visitados, Ubicacion origen,
+                                 Ubicacion destino, Parametros parametros, List<Recorrido> mejor) {
+        Ubicacion ultimo = visitados.isEmpty() ? origen : visitados.get(visitados.size() - 1).getUbicacion();
+
+        if (kmVial(ultimo, destino, parametros) <= parametros.maxKmTramo()) {
+            List<Ubicacion> puntos = new ArrayList<>();
+            puntos.add(origen);
+            visitados.forEach(d -> puntos.add(d.getUbicacion()));
+            puntos.add(destino);
+            double costo = costo(puntos, visitados, parametros);
+            if (mejor.isEmpty() || costo < mejor.get(0).costo()) {
+                double km = 0;
+                for (int i = 1; i < puntos.size(); i++) {
+                    km += kmVial(puntos.get(i - 1), puntos.get(i), parametros);
+                }
+                mejor.clear();
+                mejor.add(new Recorrido(List.copyOf(visitados), costo, km));
+            }
+        }
+
+        for (Deposito deposito : depositos) {
+            if (!visitados.contains(deposito)
+                    && kmVial(ultimo, deposito.getUbicacion(), parametros) <= parametros.maxKmTramo()) {
+                visitados.add(deposito);
+                extender(depositos, visitados, origen, destino, parametros, mejor);
+                visitados.remove(visitados.size() - 1);
+            }
+        }
+    }
+
+    // Gestión + km × costo por km de cada tramo, más la estadía en cada depósito intermedio
+    private static double costo(List<Ubicacion> puntos, List<Deposito> paradas, Parametros parametros) {
+        double total = 0;
+        for (int i = 1; i < puntos.size(); i++) {
+            total += parametros.costoPorTramo()
+                + kmVial(puntos.get(i - 1), puntos.get(i), parametros) * parametros.costoPorKm();
+        }
+        for (Deposito parada : paradas) {
+            Double porDia = parada.getCostoEstadiaPorDia();
+            total += porDia != null ? porDia * parametros.diasEstadiaParada() : 0;
+        }
+        return total;
+    }
+
+    private static double kmVial(Ubicacion a, Ubicacion b, Parametros parametros) {
+        return IndiceEspacialDepositos.distanciaKm(a.getLatitud(), a.getLongitud(), b.getLatitud(), b.getLongitud())
+            * parametros.factorDesvio();
+    }
+
+    private static Deposito deposito(Long id, double latitud, double longitud, Double estadia) {
+        return Deposito.builder()
+            .id(id)
+            .nombre("Depósito " + id)
+            .costoEstadiaPorDia(estadia)
+            .ubicacion(ubicacion(latitud, longitud))
+            .build();
+    }
+
+    private static Ubicacion ubicacion(double latitud, double longitud) {
+        return Ubicacion.builder().latitud(latitud).longitud(longitud).build();
+    }
+}
@@ -0,0 +1,119 @@
+package com.tpi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.tpi.model.Camion;
+import com.tpi.model.Deposito;
+import com.tpi.model.Ubicacion;
+import com.tpi.repository.CamionRepository;
+import com.tpi.repository.DepositoRepository;
+
+/**
+ * Recargas de índices en memoria que se pisan: una recarga lenta que leyó la tabla antes de una
+ * escritura no puede publicar su índice después del de la recarga que ya incluye esa escritura.
+ */
+class RecargaIndicesTest {
+
+    @Test
+    void unaRecargaLentaNoPisaElIndiceDeDepositosMasNuevo() throws Exception {
+        Deposito cordoba = deposito(1L, -31.4, -64.2);
+        Deposito rosario = deposito(2L, -32.9, -60.6);
+        DepositoRepository repositorio = mock(DepositoRepository.class);
+        DepositoService servicio = new DepositoService(repositorio, mock(UbicacionService.class));
+
+        Lecturas<Deposito> lecturas = new Lecturas<>(List.of(cordoba), List.of(cordoba, rosario));
+        when(repositorio.findAll()).thenAnswer(invocacion -> lecturas.leer());
+
+        lecturas.competir(servicio::recargarIndice);
+
+        assertThat(servicio.indiceEspacial().tamanio()).isEqualTo(2);
+    }
+
+    @Test
+    void unaRecargaLentaNoPisaElIndiceDeCamionesMasNuevo() throws Exception {
+        Camion chico = camion(1L, 5_000.0, 30.0);
+        Camion grande = camion(2L, 28_000.0, 90.0);
+        CamionRepository repositorio = mock(CamionRepository.class);
+        CamionService servicio = new CamionService(repositorio);
+
+        Lecturas<Camion> lecturas = new Lecturas<>(List.of(chico), List.of(chico, grande));
+        when(repositorio.findByDisponibleTrue()).thenAnswer(invocacion -> lecturas.leer());
+
+        lecturas.competir(servicio::recargarIndice);
+
+        assertThat(servicio.findByCapacidades(20_000.0, 50.0)).containsExactly(grande);
+    }
+
+    /**
+     * Tabla que cambia entre dos lecturas: la primera devuelve la foto anterior y se demora
+     * antes de volver; la segunda ya ve la escritura.
+     */
+    private static final class Lecturas<T> {
+
+        private final List<T> anterior;
+        private final List<T> actual;
+        private final AtomicInteger cantidad = new AtomicInteger();
+        private final CountDownLatch primeraLeyo = new CountDownLatch(1);
+        private final CountDownLatch liberarPrimera = new CountDownLatch(1);
+
+        Lecturas(List<T> anterior, List<T> actual) {
+            this.anterior = anterior;
+            this.actual = actual;
+        }
+
+        List<T> leer() throws InterruptedException {
+            if (cantidad.incrementAndGet() > 1) {
+                return actual;
+            }
+            primeraLeyo.countDown();
+            liberarPrimera.await(5, TimeUnit.SECONDS);
+            return anterior;
+        }
+
+        // Una recarga lee la foto anterior y, mientras se demora, empieza otra
+        void competir(Runnable recarga) throws Exception {
+            try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+                Future<?> lenta = hilos.submit(recarga);
+                assertThat(primeraLeyo.await(5, TimeUnit.SECONDS)).isTrue();
+                Future<?> rapida = hilos.submit(recarga);
+
+                // Tiempo de sobra para que la segunda publique, si no espera a la primera
+                Thread.sleep(200);
+                liberarPrimera.countDown();
+                lenta.get(5, TimeUnit.SECONDS);
+                rapida.get(5, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    private static Camion camion(Long id, double peso, double volumen) {
+        return Camion.builder()
+            .id(id)
+            .dominio("RCG" + id)
+            .disponible(true)
+            .capacidadPesoKg(peso)
+            .capacidadVolumenM3(volumen)
+            .build();
+    }
+
+    private static Deposito deposito(Long id, double latitud, double longitud) {
+        return Deposito.builder()
+            .id(id)
+            .nombre("Depósito " + id)
+            .costoEstadiaPorDia(1000.0)
+            .ubicacion(Ubicacion.builder().id(id).latitud(latitud).longitud(longitud).build())
+            .build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.tpi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import com.tpi.exception.EntidadNotFoundException;
+import com.tpi.exception.MicroservicioNoDisponibleException;
+import com.tpi.comun.resiliencia.Plazo;
+
+/**
+ * El deadline de RoutingParaleloService cubre también la espera por un permiso libre,
+ * y las llamadas corren con ese deadline como plazo (el que acota el timeout HTTP).
+ */
+class RoutingParaleloServiceTest {
+
+    private final SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("routing-test-");
+
+    @BeforeEach
+    void propagarPlazo() {
+        // Igual que el routingExecutor de AsyncConfig: la tarea corre con el plazo del que la encola
+        executor.setTaskDecorator(Plazo::propagar);
+    }
+
+    @Test
+    void devuelveLosResultadosEnOrden() {
+        RoutingParaleloService servicio = new RoutingParaleloService(executor, 2);
+
+        List<Supplier<Integer>> llamadas = List.of(() -> demorar(60, 1), () -> 2, () -> demorar(30, 3));
+
+        assertThat(servicio.ejecutar(llamadas, Duration.ofSeconds(5), "prueba")).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void laEsperaPorUnPermisoEntraEnElDeadline() {
+        // Un solo permiso: la segunda llamada no puede empezar antes de que venza el deadline
+        RoutingParaleloService servicio = new RoutingParaleloService(executor, 1);
+        List<Supplier<Integer>> llamadas = List.of(() -> demorar(400, 1), () -> demorar(400, 2));
+
+        long inicio = System.nanoTime();
+        assertThatThrownBy(() -> servicio.ejecutar(llamadas, Duration.ofMillis(200), "prueba"))
+            .isInstanceOf(MicroservicioNoDisponibleException.class)
+            .hasMessageContaining("deadline");
+
+        // Corta en el deadline, no después de la primera llamada más el deadline
+        assertThat(Duration.ofNanos(System.nanoTime() - inicio)).isLessThan(Duration.ofMillis(350));
+    }
+
+    @Test
+    void lasLlamadasCorrenConElDeadlineComoPlazo() {
+        RoutingParaleloService servicio = new RoutingParaleloService(executor, 4);
+
+        List<Optional<Duration>> plazos = servicio.ejecutar(
+            List.<Supplier<Optional<Duration>>>of(Plazo::restante), Duration.ofSeconds(2), "prueba");
+
+        assertThat(plazos.get(0)).hasValueSatisfying(restante ->
+            assertThat(restante).isPositive().isLessThanOrEqualTo(Duration.ofSeconds(2)));
+    }
+
+    @Test
+    void propagaLaExcepcionDeLaLlamada() {
+        RoutingParaleloService servicio = new RoutingParaleloService(executor, 4);
+        List<Supplier<Integer>> llamadas = List.of(() -> 1, () -> {
+            throw new EntidadNotFoundException("Ruta", "entre 1 y 2");
+        });
+
+        assertThatThrownBy(() -> servicio.ejecutar(llamadas, Duration.ofSeconds(5), "prueba"))
+            .isInstanceOf(EntidadNotFoundException.class);
+    }
+
+    private static int demorar(long milis, int resultado) {
+        try {
+            Thread.sleep(milis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return resultado;
+    }
+}
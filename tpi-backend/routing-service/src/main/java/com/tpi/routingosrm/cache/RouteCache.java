@@ -0,0 +1,95 @@
+package com.tpi.routingosrm.cache;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.tpi.routingosrm.dto.RouteCacheStatsResponse;
+import com.tpi.routingosrm.dto.RouteRequest;
+import com.tpi.routingosrm.osrm.OsrmResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cache acotado (por tamaño y por TTL) de respuestas de OSRM.
+ * Los tramos depósito-depósito se repiten entre envíos, así que la mayoría
+ * de las consultas se resuelven sin ir a OSRM.
+ *
+ * Es asíncrono: se guarda la respuesta "en vuelo", así que pedidos concurrentes
+ * por el mismo par comparten una única llamada a OSRM.
+ *
+ * Publica sus contadores en Micrometer (cache.gets con result=hit/miss, cache.evictions,
+ * cache.size; tag cache=rutas-osrm).
+ */
+@Component
+public class RouteCache implements MeterBinder {
+
+    private final boolean enabled;
+    private final int precision;
+    private final AsyncCache<RouteCacheKey, OsrmResponse> cache;
+
+    public RouteCache(
+            @Value("${osrm.cache.enabled:true}") boolean enabled,
+            @Value("${osrm.cache.max-entries:10000}") long maxEntries,
+            @Value("${osrm.cache.ttl:6h}") Duration ttl,
+            @Value("${osrm.cache.precision:4}") int precision) {
+        this.enabled = enabled;
+        this.precision = precision;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Devuelve la respuesta cacheada para el par origen/destino, o la obtiene con el loader.
+     * Las respuestas vacías o con error de OSRM no se guardan.
+     *
+     * @param req coordenadas de origen y destino
+     * @param alternativas cantidad de alternativas pedidas (0 si es ruta simple)
+     * @param loader llamada real a OSRM
+     * @return Mono con la respuesta de OSRM (cacheada o nueva)
+     */
+    public Mono<OsrmResponse> obtener(RouteRequest req, int alternativas, Supplier<Mono<OsrmResponse>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        RouteCacheKey key = RouteCacheKey.of(req, precision, alternativas);
+        // suppressCancel: si un cliente corta la conexión no se cancela la llamada compartida.
+        // La carga se suscribe con el contexto de Reactor de quien la dispara (ahí viaja la traza
+        // de su request): sin él, la llamada a OSRM quedaría en una traza nueva
+        return Mono.deferContextual(contexto -> Mono.fromFuture(
+                () -> cache.get(key, (k, executor) -> loader.get().contextWrite(contexto).toFuture()), true));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registro) {
+        CaffeineCacheMetrics.monitor(registro, cache, "rutas-osrm");
+    }
+
+    /**
+     * Contadores de aciertos, fallos y desalojos desde el arranque.
+     *
+     * @return estadísticas actuales del cache
+     */
+    public RouteCacheStatsResponse estadisticas() {
+        CacheStats stats = cache.synchronous().stats();
+        return new RouteCacheStatsResponse(
+                enabled,
+                cache.synchronous().estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.evictionCount(),
+                stats.hitRate()
+        );
+    }
+}
@@ -0,0 +1,38 @@
+package com.tpi.routingosrm.cache;
+
+import com.tpi.routingosrm.dto.RouteRequest;
+
+/**
+ * Clave del cache de rutas.
+ * Las coordenadas se guardan "ajustadas a grilla": se multiplican por 10^precision
+ * y se redondean, de modo que dos puntos a pocos metros caen en la misma celda.
+ *
+ * @param alternativas cantidad de alternativas pedidas a OSRM (0 = solo ruta principal)
+ */
+public record RouteCacheKey(
+        long origenLat,
+        long origenLon,
+        long destinoLat,
+        long destinoLon,
+        int alternativas
+) {
+
+    /**
+     * Construye la clave a partir del request, redondeando las coordenadas a la grilla.
+     *
+     * @param req coordenadas de origen y destino
+     * @param precision cantidad de decimales a conservar
+     * @param alternativas cantidad de alternativas pedidas (0 si es ruta simple)
+     * @return clave normalizada
+     */
+    public static RouteCacheKey of(RouteRequest req, int precision, int alternativas) {
+        double factor = Math.pow(10, precision);
+        return new RouteCacheKey(
+                Math.round(req.origenLat() * factor),
+                Math.round(req.origenLon() * factor),
+                Math.round(req.destinoLat() * factor),
+                Math.round(req.destinoLon() * factor),
+                alternativas
+        );
+    }
+}
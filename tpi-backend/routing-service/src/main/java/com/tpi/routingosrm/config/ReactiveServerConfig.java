@@ -0,0 +1,21 @@
+package com.tpi.routingosrm.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Modo reactivo (perfil "reactive").
+ * Como Tomcat también está en el classpath, Spring Boot lo elegiría como servidor
+ * reactivo por defecto; acá se fuerza Netty para que todo el pipeline sea event-loop.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveServerConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
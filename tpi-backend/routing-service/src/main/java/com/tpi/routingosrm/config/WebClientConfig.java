@@ -1,18 +1,63 @@
 package com.tpi.routingosrm.config;
 
+import java.time.Duration;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
 @Configuration
 public class WebClientConfig {
 
+    /**
+     * Pool de conexiones hacia OSRM.
+     * - maxConnections: conexiones simultáneas abiertas contra OSRM
+     * - pendingAcquireMaxCount: pedidos que pueden esperar una conexión libre;
+     *   si se llena, se rechaza enseguida en vez de acumular (backpressure)
+     * - pendingAcquireTimeout: cuánto puede esperar un pedido por una conexión
+     */
+    @Bean
+    public ConnectionProvider osrmConnectionProvider(
+            @Value("${osrm.http.max-connections:200}") int maxConnections,
+            @Value("${osrm.http.pending-acquire-max-count:1000}") int pendingAcquireMaxCount,
+            @Value("${osrm.http.pending-acquire-timeout:2s}") Duration pendingAcquireTimeout,
+            @Value("${osrm.http.max-idle-time:30s}") Duration maxIdleTime) {
+        return ConnectionProvider.builder("osrm")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .evictInBackground(maxIdleTime)
+                .build();
+    }
+
+    /**
+     * Cliente de OSRM. Sale del WebClient.Builder de Spring Boot para que cada llamada
+     * quede medida en http.client.requests (client.name = host de OSRM).
+     */
     @SuppressWarnings("null")
     @Bean
-    public WebClient osrmWebClient(@Value("${osrm.base-url}") String baseUrl) {
-        return WebClient.builder()
+    public WebClient osrmWebClient(
+            WebClient.Builder builder,
+            @Value("${osrm.base-url}") String baseUrl,
+            ConnectionProvider osrmConnectionProvider,
+            @Value("${osrm.http.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${osrm.http.response-timeout:10s}") Duration responseTimeout) {
+
+        HttpClient httpClient = HttpClient.create(osrmConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout)
+                .compress(true);
+
+        return builder
                 .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .build();
     }
 }
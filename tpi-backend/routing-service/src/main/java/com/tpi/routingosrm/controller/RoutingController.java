@@ -1,23 +1,31 @@
 package com.tpi.routingosrm.controller;
 
+import com.tpi.routingosrm.cache.RouteCache;
 import com.tpi.routingosrm.dto.RouteAlternativeResponse;
+import com.tpi.routingosrm.dto.MatrixRequest;
+import com.tpi.routingosrm.dto.MatrixResponse;
+import com.tpi.routingosrm.dto.RouteCacheStatsResponse;
 import com.tpi.routingosrm.dto.RouteRequest;
 import com.tpi.routingosrm.dto.RouteResponse;
 import com.tpi.routingosrm.service.RoutingService;
 import org.springframework.web.bind.annotation.*;
 
+import reactor.core.publisher.Mono;
+
 @RestController
 @RequestMapping("/api/v1/routing")
 public class RoutingController {
 
     private final RoutingService service;
+    private final RouteCache routeCache;
 
-    public RoutingController(RoutingService service) {
+    public RoutingController(RoutingService service, RouteCache routeCache) {
         this.service = service;
+        this.routeCache = routeCache;
     }
 
     @GetMapping("/calcular-ruta")
-    public RouteResponse calcular(
+    public Mono<RouteResponse> calcular(
             @RequestParam double origenLat,
             @RequestParam double origenLon,
             @RequestParam double destinoLat,
@@ -30,7 +38,7 @@ public class RoutingController {
 
 
     @GetMapping("/calcular-rutas-alternativas")
-    public RouteAlternativeResponse calcularAlternativas(
+    public Mono<RouteAlternativeResponse> calcularAlternativas(
             @RequestParam double origenLat,
             @RequestParam double origenLon,
             @RequestParam double destinoLat,
@@ -41,4 +49,16 @@ public class RoutingController {
         RouteRequest req = new RouteRequest(origenLat, origenLon, destinoLat, destinoLon);
         return service.calcularRutasAlternativas(req, maxAlternativas);
     }
+
+
+    @PostMapping("/matriz")
+    public Mono<MatrixResponse> calcularMatriz(@RequestBody MatrixRequest req) {
+        return service.calcularMatriz(req);
+    }
+
+
+    @GetMapping("/cache/estadisticas")
+    public RouteCacheStatsResponse estadisticasCache() {
+        return routeCache.estadisticas();
+    }
 }
@@ -0,0 +1,10 @@
+package com.tpi.routingosrm.dto;
+
+/**
+ * Punto de la matriz de distancias. Lat y lon son objetos para distinguir una coordenada que
+ * falta en el JSON (null) de una en 0: RoutingService rechaza las que faltan.
+ */
+public record Coordenada(
+        Double lat,
+        Double lon
+) {}
@@ -0,0 +1,12 @@
+package com.tpi.routingosrm.dto;
+
+import java.util.List;
+
+/**
+ * Puntos de la matriz de distancias. Sin destinos (null) la matriz es de todos contra todos
+ * los orígenes.
+ */
+public record MatrixRequest(
+        List<Coordenada> origenes,
+        List<Coordenada> destinos
+) {}
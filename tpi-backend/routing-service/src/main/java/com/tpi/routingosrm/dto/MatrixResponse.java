@@ -0,0 +1,13 @@
+package com.tpi.routingosrm.dto;
+
+/**
+ * Matriz de distancias/duraciones origen x destino.
+ * distanciasKm[i][j] corresponde a origenes[i] → destinos[j].
+ * Las celdas sin ruta posible quedan en null.
+ */
+public record MatrixResponse(
+    int cantidadOrigenes,
+    int cantidadDestinos,
+    Double[][] distanciasKm,
+    Long[][] duracionesSegundos
+) {}
@@ -19,13 +19,17 @@ public record RouteAlternativeResponse(
             return new RouteAlternativeResponse(null, rutas);
         }
 
-        // Encontrar la ruta con menor duración
-        RouteResponse mejorRuta = rutas.stream()
-                .min((r1, r2) -> Long.compare(r1.duracionSegundos(), r2.duracionSegundos()))
-                .orElse(rutas.get(0));
-
-        // Usamos el índice como identificador simple
-        int bestIndex = rutas.indexOf(mejorRuta);
+        // Encontrar el índice de la ruta con menor duración en una sola pasada
+        // (ante un empate queda la primera). El índice es el identificador de la mejor ruta.
+        int bestIndex = 0;
+        long menorDuracion = rutas.get(0).duracionSegundos();
+        for (int i = 1; i < rutas.size(); i++) {
+            long duracion = rutas.get(i).duracionSegundos();
+            if (duracion < menorDuracion) {
+                menorDuracion = duracion;
+                bestIndex = i;
+            }
+        }
 
         return new RouteAlternativeResponse(bestIndex, rutas);
     }
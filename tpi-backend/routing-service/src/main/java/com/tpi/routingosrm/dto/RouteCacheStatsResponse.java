@@ -0,0 +1,10 @@
+package com.tpi.routingosrm.dto;
+
+public record RouteCacheStatsResponse(
+    boolean habilitado,
+    long entradas,
+    long aciertos,
+    long fallos,
+    long desalojos,
+    double tasaAciertos        // aciertos / (aciertos + fallos)
+) {}
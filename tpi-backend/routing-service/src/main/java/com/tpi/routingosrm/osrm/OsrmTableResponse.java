@@ -0,0 +1,13 @@
+package com.tpi.routingosrm.osrm;
+
+import java.util.List;
+
+/**
+ * Respuesta del servicio /table de OSRM.
+ * Las celdas sin ruta posible vienen como null.
+ */
+public record OsrmTableResponse(
+        String code,
+        List<List<Double>> durations,   // segundos
+        List<List<Double>> distances    // metros
+) {}
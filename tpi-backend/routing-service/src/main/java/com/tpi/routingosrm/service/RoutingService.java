@@ -1,100 +1,337 @@
 package com.tpi.routingosrm.service;
 
+import com.tpi.comun.resiliencia.PlazoReactivo;
+import com.tpi.routingosrm.cache.RouteCache;
+import com.tpi.routingosrm.dto.Coordenada;
+import com.tpi.routingosrm.dto.MatrixRequest;
+import com.tpi.routingosrm.dto.MatrixResponse;
 import com.tpi.routingosrm.dto.RouteAlternativeResponse;
 import com.tpi.routingosrm.dto.RouteRequest;
 import com.tpi.routingosrm.dto.RouteResponse;
 import com.tpi.routingosrm.osrm.OsrmResponse;
+import com.tpi.routingosrm.osrm.OsrmTableResponse;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 
 @Service
 public class RoutingService {
 
     private final WebClient osrmWebClient;
+    private final RouteCache routeCache;
+    private final MeterRegistry metricas;
+
+    // OSRM limita la cantidad de coordenadas por consulta /table (--max-table-size)
+    private final int tablaMaxCoordenadas;
+    private final int tablaConcurrencia;
 
-    public RoutingService(WebClient osrmWebClient) {
+    // Tamaño máximo de una matriz (orígenes × destinos) que se acepta calcular
+    private final int tablaMaxCeldas;
+
+    public RoutingService(
+            WebClient osrmWebClient,
+            RouteCache routeCache,
+            MeterRegistry metricas,
+            @Value("${osrm.table.max-coordinates:100}") int tablaMaxCoordenadas,
+            @Value("${osrm.table.concurrency:4}") int tablaConcurrencia,
+            @Value("${osrm.table.max-cells:40000}") int tablaMaxCeldas) {
         this.osrmWebClient = osrmWebClient;
+        this.routeCache = routeCache;
+        this.metricas = metricas;
+        this.tablaMaxCoordenadas = tablaMaxCoordenadas;
+        this.tablaConcurrencia = tablaConcurrencia;
+        this.tablaMaxCeldas = tablaMaxCeldas;
     }
 
     /**
      * Calcula la ruta principal entre un origen y un destino usando OSRM.
      * Devuelve solo la primera ruta obtenida del servicio.
+     * Si el par origen/destino ya fue consultado, se responde desde el cache.
+     * No bloquea: el resultado se emite cuando OSRM responde, o 504 si antes vence el plazo
+     * de la request.
      *
      * @param req DTO con coordenadas de origen y destino
-     * @return RouteResponse con distancia en km, duración en segundos y coordenadas
+     * @return Mono con RouteResponse (distancia en km, duración en segundos y coordenadas)
      */
-    public RouteResponse calcularRuta(RouteRequest req) {
+    public Mono<RouteResponse> calcularRuta(RouteRequest req) {
 
         // Construir coordenadas en formato LON,LAT; separadas por ";"
         String coords = req.origenLon() + "," + req.origenLat() + ";" +
                         req.destinoLon() + "," + req.destinoLat();
 
-        // Llamada a OSRM
-        OsrmResponse resp = osrmWebClient.get()
+        // Llamada a OSRM (solo si no está en cache). El plazo acota la espera de esta request,
+        // no la carga compartida en el cache, que sigue para los demás pedidos del mismo par
+        return PlazoReactivo.acotar(routeCache.obtener(req, 0, () -> medirOsrm("ruta", osrmWebClient.get()
                 .uri(uriBuilder -> uriBuilder
                         .path("/route/v1/driving/{coords}")
                         .queryParam("overview", "false") // no necesitamos geometría detallada
                         .build(coords))
                 .retrieve()
-                .bodyToMono(OsrmResponse.class)
-                .block();
-
-        // Tomar la primera ruta devuelta
-        OsrmResponse.Route route = resp.routes().get(0);
-
-        // Convertir a DTO propio
-        return new RouteResponse(
-                route.distance() / 1000.0,            // pasar metros a km
-                Math.round(route.duration()),         // duración en segundos
-                req.origenLat(),
-                req.origenLon(),
-                req.destinoLat(),
-                req.destinoLon()
-        );
+                .bodyToMono(OsrmResponse.class))))
+                .map(resp -> {
+                    // Tomar la primera ruta devuelta
+                    OsrmResponse.Route route = resp.routes().get(0);
+
+                    // Convertir a DTO propio
+                    return new RouteResponse(
+                            route.distance() / 1000.0,            // pasar metros a km
+                            Math.round(route.duration()),         // duración en segundos
+                            req.origenLat(),
+                            req.origenLon(),
+                            req.destinoLat(),
+                            req.destinoLon()
+                    );
+                });
     }
 
 
     /**
      * Calcula rutas alternativas entre un origen y un destino usando OSRM.
      * Permite obtener varias rutas distintas usando el parámetro 'alternatives'.
+     * Si el par origen/destino ya fue consultado, se responde desde el cache.
+     * No bloquea: el resultado se emite cuando OSRM responde, o 504 si antes vence el plazo
+     * de la request.
      *
      * @param req DTO con coordenadas de origen y destino
      * @param maxAlternativas número máximo de rutas alternativas a solicitar
-     * @return RouteAlternativeResponse con una lista de rutas
+     * @return Mono con RouteAlternativeResponse con una lista de rutas
      */
-    public RouteAlternativeResponse calcularRutasAlternativas(RouteRequest req, int maxAlternativas) {
+    public Mono<RouteAlternativeResponse> calcularRutasAlternativas(RouteRequest req, int maxAlternativas) {
 
         // Construir coordenadas en formato LON,LAT
         String coords = req.origenLon() + "," + req.origenLat() + ";" +
                         req.destinoLon() + "," + req.destinoLat();
 
-        // Llamada a OSRM con parámetro alternatives
-        OsrmResponse resp = osrmWebClient.get()
+        // Llamada a OSRM con parámetro alternatives (solo si no está en cache)
+        return PlazoReactivo.acotar(routeCache.obtener(req, maxAlternativas, () -> medirOsrm("rutas-alternativas", osrmWebClient.get()
                 .uri(uriBuilder -> uriBuilder
                         .path("/route/v1/driving/{coords}")
                         .queryParam("overview", "false")          // no necesitamos geometría detallada
                         .queryParam("alternatives", maxAlternativas) // pedir rutas alternativas
                         .build(coords))
                 .retrieve()
-                .bodyToMono(OsrmResponse.class)
-                .block();
-
-        // Convertir todas las rutas devueltas a DTOs
-        List<RouteResponse> rutas = resp.routes().stream()
-                .map(r -> new RouteResponse(
-                        r.distance() / 1000.0,          // metros a km
-                        Math.round(r.duration()),       // duración en segundos
-                        req.origenLat(),
-                        req.origenLon(),
-                        req.destinoLat(),
-                        req.destinoLon()
-                ))
-                .toList();
-
-        return RouteAlternativeResponse.fromEntity(rutas);
+                .bodyToMono(OsrmResponse.class))))
+                .map(resp -> {
+                    // Convertir todas las rutas devueltas a DTOs
+                    List<RouteResponse> rutas = resp.routes().stream()
+                            .map(r -> new RouteResponse(
+                                    r.distance() / 1000.0,          // metros a km
+                                    Math.round(r.duration()),       // duración en segundos
+                                    req.origenLat(),
+                                    req.origenLon(),
+                                    req.destinoLat(),
+                                    req.destinoLon()
+                            ))
+                            .toList();
+
+                    return RouteAlternativeResponse.fromEntity(rutas);
+                });
+    }
+
+
+    /**
+     * Calcula la matriz de distancias y duraciones entre todos los orígenes y destinos
+     * usando el servicio /table de OSRM (una consulta en vez de N×M).
+     * Si la cantidad de coordenadas supera el límite de OSRM, la matriz se divide en
+     * bloques que se consultan en paralelo y luego se reensamblan.
+     * Sin destinos se calcula la matriz de todos contra todos los orígenes, y cada punto
+     * se manda a OSRM una sola vez.
+     * Si el plazo de la request vence antes, se cancelan las consultas pendientes y se responde 504.
+     * Responde 400 si falta algún punto o alguna coordenada, si una coordenada está fuera de rango
+     * o si la matriz supera osrm.table.max-cells celdas.
+     *
+     * @param req lista de orígenes y de destinos (null: los mismos orígenes)
+     * @return Mono con MatrixResponse (distancias en km y duraciones en segundos)
+     */
+    public Mono<MatrixResponse> calcularMatriz(MatrixRequest req) {
+
+        boolean cuadrada = req.destinos() == null;
+        List<Coordenada> origenes = req.origenes();
+        List<Coordenada> destinos = cuadrada ? origenes : req.destinos();
+
+        if (origenes == null || origenes.isEmpty() || destinos.isEmpty()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Se requiere al menos un origen y un destino"));
+        }
+
+        int cantOrigenes = origenes.size();
+        int cantDestinos = destinos.size();
+
+        // Se valida antes de reservar la matriz: el tamaño lo decide quien llama
+        if ((long) cantOrigenes * cantDestinos > tablaMaxCeldas) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "La matriz de " + cantOrigenes + " x " + cantDestinos + " supera el máximo de "
+                    + tablaMaxCeldas + " celdas"));
+        }
+        String invalida = coordenadaInvalida("origenes", origenes);
+        if (invalida == null && !cuadrada) {
+            invalida = coordenadaInvalida("destinos", destinos);
+        }
+        if (invalida != null) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, invalida));
+        }
+
+        Double[][] distancias = new Double[cantOrigenes][cantDestinos];
+        Long[][] duraciones = new Long[cantOrigenes][cantDestinos];
+
+        // 1. Dividir la matriz en bloques que respeten el límite de coordenadas de OSRM
+        //    (todos contra todos: si los puntos entran en una consulta, va entera)
+        List<BloqueTabla> bloques = cuadrada && cantOrigenes <= tablaMaxCoordenadas
+                ? List.of(new BloqueTabla(0, cantOrigenes, 0, cantOrigenes))
+                : dividirEnBloques(cantOrigenes, cantDestinos);
+
+        // 2. Consultar los bloques en paralelo y volcar cada resultado en su posición
+        //    (flatMap emite de a un elemento por vez, así que escribir en los arrays es seguro)
+        return PlazoReactivo.acotar(Flux.fromIterable(bloques)
+                .flatMap(bloque -> consultarBloque(origenes, destinos, cuadrada, bloque)
+                        .map(resp -> new ResultadoBloque(bloque, resp)), tablaConcurrencia)
+                .doOnNext(r -> volcarBloque(r, distancias, duraciones))
+                .then(Mono.fromSupplier(() ->
+                        new MatrixResponse(cantOrigenes, cantDestinos, distancias, duraciones))));
+    }
+
+    // Sub-matriz [origenDesde, origenDesde + cantOrigenes) x [destinoDesde, destinoDesde + cantDestinos)
+    private record BloqueTabla(int origenDesde, int cantOrigenes, int destinoDesde, int cantDestinos) {}
+
+    private record ResultadoBloque(BloqueTabla bloque, OsrmTableResponse resp) {}
+
+    /**
+     * Reparte orígenes y destinos en bloques de forma que cada consulta tenga
+     * como máximo tablaMaxCoordenadas coordenadas (orígenes + destinos).
+     */
+    private List<BloqueTabla> dividirEnBloques(int cantOrigenes, int cantDestinos) {
+        int porLado = Math.max(1, tablaMaxCoordenadas / 2);
+
+        // Si un lado es chico, el otro aprovecha el espacio que sobra
+        int tamOrigenes = Math.min(cantOrigenes, porLado);
+        int tamDestinos = Math.min(cantDestinos, Math.max(1, tablaMaxCoordenadas - tamOrigenes));
+        tamOrigenes = Math.min(cantOrigenes, Math.max(1, tablaMaxCoordenadas - tamDestinos));
+
+        List<BloqueTabla> bloques = new ArrayList<>();
+        for (int o = 0; o < cantOrigenes; o += tamOrigenes) {
+            for (int d = 0; d < cantDestinos; d += tamDestinos) {
+                bloques.add(new BloqueTabla(
+                        o, Math.min(tamOrigenes, cantOrigenes - o),
+                        d, Math.min(tamDestinos, cantDestinos - d)));
+            }
+        }
+        return bloques;
     }
 
+    /**
+     * Consulta un bloque a OSRM: primero van los orígenes del bloque y luego los destinos,
+     * indicando con 'sources' y 'destinations' qué índices son cada cosa.
+     * Un bloque de la diagonal de una matriz de todos contra todos manda sus puntos una sola
+     * vez y sin 'sources' ni 'destinations' (OSRM usa cada punto como origen y destino).
+     */
+    private Mono<OsrmTableResponse> consultarBloque(
+            List<Coordenada> origenes, List<Coordenada> destinos, boolean cuadrada, BloqueTabla bloque) {
+
+        boolean diagonal = cuadrada
+                && bloque.origenDesde() == bloque.destinoDesde()
+                && bloque.cantOrigenes() == bloque.cantDestinos();
+
+        List<Coordenada> coordenadas = new ArrayList<>(
+                origenes.subList(bloque.origenDesde(), bloque.origenDesde() + bloque.cantOrigenes()));
+        if (!diagonal) {
+            coordenadas.addAll(
+                    destinos.subList(bloque.destinoDesde(), bloque.destinoDesde() + bloque.cantDestinos()));
+        }
+
+        // Coordenadas en formato LON,LAT; separadas por ";"
+        String coords = coordenadas.stream()
+                .map(c -> c.lon() + "," + c.lat())
+                .collect(Collectors.joining(";"));
+
+        return medirOsrm("tabla", osrmWebClient.get()
+                .uri(uriBuilder -> {
+                    uriBuilder.path("/table/v1/driving/{coords}");
+                    if (!diagonal) {
+                        uriBuilder
+                                .queryParam("sources", indices(0, bloque.cantOrigenes()))
+                                .queryParam("destinations", indices(
+                                        bloque.cantOrigenes(), bloque.cantOrigenes() + bloque.cantDestinos()));
+                    }
+                    return uriBuilder
+                            .queryParam("annotations", "distance,duration")
+                            .build(coords);
+                })
+                .retrieve()
+                .bodyToMono(OsrmTableResponse.class));
+    }
+
+    /**
+     * Mide una llamada a OSRM (solo las que no salen del cache) en el timer tpi.osrm.llamadas,
+     * con la operación y el resultado: SUCCESS, ERROR o CANCELED (ej: el llamador dejó de esperar).
+     * Las tres operaciones usan la misma URI, así que http.client.requests no las distingue.
+     */
+    private <T> Mono<T> medirOsrm(String operacion, Mono<T> llamada) {
+        return Mono.defer(() -> {
+            Timer.Sample inicio = Timer.start(metricas);
+            return llamada.doFinally(senal -> inicio.stop(Timer.builder("tpi.osrm.llamadas")
+                    .description("Llamadas a OSRM")
+                    .tag("destino", "osrm")
+                    .tag("operacion", operacion)
+                    .tag("outcome", senal == SignalType.ON_COMPLETE ? "SUCCESS"
+                            : senal == SignalType.CANCEL ? "CANCELED" : "ERROR")
+                    .register(metricas)));
+        });
+    }
+
+    /**
+     * Primer punto faltante, sin lat/lon o fuera de rango de la lista.
+     *
+     * @return descripción del problema, o null si todos los puntos son válidos
+     */
+    private static String coordenadaInvalida(String lista, List<Coordenada> puntos) {
+        for (int i = 0; i < puntos.size(); i++) {
+            Coordenada c = puntos.get(i);
+            if (c == null || c.lat() == null || c.lon() == null) {
+                return "Falta la coordenada " + lista + "[" + i + "]";
+            }
+            if (!(Math.abs(c.lat()) <= 90) || !(Math.abs(c.lon()) <= 180)) {
+                return "Coordenada fuera de rango en " + lista + "[" + i + "]: " + c.lat() + "," + c.lon();
+            }
+        }
+        return null;
+    }
+
+    private static String indices(int desde, int hasta) {
+        return IntStream.range(desde, hasta)
+                .mapToObj(Integer::toString)
+                .collect(Collectors.joining(";"));
+    }
+
+    /**
+     * Copia el resultado de un bloque en la matriz completa, convirtiendo metros a km
+     * y redondeando la duración a segundos enteros.
+     */
+    private static void volcarBloque(ResultadoBloque r, Double[][] distancias, Long[][] duraciones) {
+        BloqueTabla b = r.bloque();
+        OsrmTableResponse resp = r.resp();
+
+        for (int i = 0; i < b.cantOrigenes(); i++) {
+            for (int j = 0; j < b.cantDestinos(); j++) {
+                Double metros = resp.distances() != null ? resp.distances().get(i).get(j) : null;
+                Double segundos = resp.durations() != null ? resp.durations().get(i).get(j) : null;
+
+                distancias[b.origenDesde() + i][b.destinoDesde() + j] = metros != null ? metros / 1000.0 : null;
+                duraciones[b.origenDesde() + i][b.destinoDesde() + j] = segundos != null ? Math.round(segundos) : null;
+            }
+        }
+    }
 }
@@ -0,0 +1,149 @@
+package com.tpi.routingosrm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * POST /matriz: se arma la matriz completa a partir de los bloques que responde OSRM, y se
+ * rechaza con 400 (sin llamar a OSRM) una matriz de más de osrm.table.max-cells celdas, un punto
+ * que falta, una coordenada sin lat/lon o fuera de rango.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {"osrm.table.max-cells=6", "osrm.table.max-coordinates=3"})
+class MatrizTest {
+
+    // OSRM simulado: en la celda [i][j] de cada bloque, 1000 * (i + 1) + j metros y segundos
+    private static final AtomicInteger llamadas = new AtomicInteger();
+    private static final HttpServer osrm = iniciarOsrm();
+
+    private final HttpClient cliente = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int puerto;
+
+    @DynamicPropertySource
+    static void apuntarAOsrm(DynamicPropertyRegistry registro) {
+        registro.add("osrm.base-url", () -> "http://127.0.0.1:" + osrm.getAddress().getPort());
+    }
+
+    @BeforeEach
+    void reiniciar() {
+        llamadas.set(0);
+    }
+
+    @Test
+    void armaLaMatrizConLosBloquesDeOsrm() throws Exception {
+        // 2 orígenes + 3 destinos no entran en una consulta de 3 coordenadas: va en bloques
+        HttpResponse<String> respuesta = enviar("""
+            {"origenes":[{"lat":-31.4,"lon":-64.2},{"lat":-32.9,"lon":-60.6}],
+             "destinos":[{"lat":-34.6,"lon":-58.4},{"lat":-24.8,"lon":-65.4},{"lat":-38.0,"lon":-57.5}]}""");
+
+        assertThat(respuesta.statusCode()).isEqualTo(200);
+        assertThat(respuesta.body())
+            .contains("\"cantidadOrigenes\":2", "\"cantidadDestinos\":3")
+            .contains("\"duracionesSegundos\":[[1000,1001,1000],[1000,1001,1000]]");
+        assertThat(llamadas.get()).isGreaterThan(1);
+    }
+
+    @Test
+    void rechazaUnaMatrizDeMasCeldasQueElMaximo() throws Exception {
+        // Todos contra todos: 3 x 3 = 9 celdas > 6
+        HttpResponse<String> respuesta = enviar("""
+            {"origenes":[{"lat":-31.4,"lon":-64.2},{"lat":-32.9,"lon":-60.6},{"lat":-34.6,"lon":-58.4}]}""");
+
+        assertThat(respuesta.statusCode()).isEqualTo(400);
+        assertThat(llamadas).hasValue(0);
+    }
+
+    @Test
+    void rechazaPuntosFaltantesOCoordenadasInvalidas() throws Exception {
+        String[] cuerpos = {
+            """
+            {"origenes":[{"lat":-31.4,"lon":-64.2},null]}""",
+            """
+            {"origenes":[{"lat":-31.4}],"destinos":[{"lat":-32.9,"lon":-60.6}]}""",
+            """
+            {"origenes":[{"lat":-31.4,"lon":-64.2}],"destinos":[{"lat":null,"lon":-60.6}]}""",
+            """
+            {"origenes":[{"lat":-95.0,"lon":-64.2}],"destinos":[{"lat":-32.9,"lon":-60.6}]}""",
+            """
+            {"origenes":[{"lat":-31.4,"lon":-64.2}],"destinos":[{"lat":-32.9,"lon":200.0}]}""",
+            """
+            {"origenes":[],"destinos":[{"lat":-32.9,"lon":-60.6}]}"""
+        };
+
+        for (String cuerpo : cuerpos) {
+            assertThat(enviar(cuerpo).statusCode()).as(cuerpo).isEqualTo(400);
+        }
+        assertThat(llamadas).hasValue(0);
+    }
+
+    private HttpResponse<String> enviar(String cuerpo) throws IOException, InterruptedException {
+        return cliente.send(HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + puerto + "/api/v1/routing/matriz"))
+            .header("Content-Type", "application/json")
+            .timeout(Duration.ofSeconds(15))
+            .POST(HttpRequest.BodyPublishers.ofString(cuerpo))
+            .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpServer iniciarOsrm() {
+        try {
+            HttpServer servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            servidor.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            servidor.createContext("/", intercambio -> {
+                llamadas.incrementAndGet();
+                String consulta = intercambio.getRequestURI().getQuery();
+                String coords = intercambio.getRequestURI().getPath().replaceFirst(".*/", "");
+                int filas = contar(consulta, "sources", coords);
+                int columnas = contar(consulta, "destinations", coords);
+
+                String tabla = IntStream.range(0, filas)
+                    .mapToObj(i -> IntStream.range(0, columnas)
+                        .mapToObj(j -> String.valueOf(1000.0 * (i + 1) + j))
+                        .collect(Collectors.joining(",", "[", "]")))
+                    .collect(Collectors.joining(",", "[", "]"));
+                byte[] cuerpo = ("{\"code\":\"Ok\",\"durations\":" + tabla + ",\"distances\":" + tabla + "}")
+                    .getBytes(StandardCharsets.UTF_8);
+                intercambio.getResponseHeaders().set("Content-Type", "application/json");
+                intercambio.sendResponseHeaders(200, cuerpo.length);
+                intercambio.getResponseBody().write(cuerpo);
+                intercambio.close();
+            });
+            servidor.start();
+            return servidor;
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo iniciar el OSRM simulado", e);
+        }
+    }
+
+    // Índices de sources/destinations, o todas las coordenadas si no vienen
+    private static int contar(String consulta, String parametro, String coords) {
+        return Arrays.stream(consulta.split("&"))
+            .filter(p -> p.startsWith(parametro + "="))
+            .findFirst()
+            .map(p -> p.split("%3B|;").length)
+            .orElse(coords.split("%3B|;").length);
+    }
+}
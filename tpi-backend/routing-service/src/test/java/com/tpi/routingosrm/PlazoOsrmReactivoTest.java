@@ -0,0 +1,11 @@
+package com.tpi.routingosrm;
+
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Los casos de PlazoOsrmTest en modo reactivo (perfil "reactive", Netty): el plazo viaja en
+ * el contexto de Reactor en lugar del hilo de la request.
+ */
+@ActiveProfiles("reactive")
+class PlazoOsrmReactivoTest extends PlazoOsrmTest {
+}
@@ -0,0 +1,155 @@
+package com.tpi.routingosrm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * La espera de OSRM no supera el plazo de la request (X-Deadline-Ms): con un OSRM lento se
+ * responde 504 cuando vence el plazo, no cuando vence el timeout del cliente de OSRM (10s).
+ * Modo servlet; PlazoOsrmReactivoTest corre los mismos casos en modo reactivo.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class PlazoOsrmTest {
+
+    private static final String RUTA = """
+        {"code":"Ok","routes":[{"distance":12000.0,"duration":900.0}]}""";
+    private static final String TABLA = """
+        {"code":"Ok","durations":[[0.0,900.0],[900.0,0.0]],"distances":[[0.0,12000.0],[12000.0,0.0]]}""";
+
+    // OSRM simulado: responde después de "demora" milisegundos. Lo comparte PlazoOsrmReactivoTest
+    private static final AtomicLong demora = new AtomicLong();
+    private static final AtomicInteger llamadas = new AtomicInteger();
+    private static final HttpServer osrm = iniciarOsrm();
+
+    // Coordenadas distintas en cada request para no responder desde el cache
+    private static final AtomicInteger siguientePunto = new AtomicInteger();
+
+    private final HttpClient cliente = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int puerto;
+
+    @DynamicPropertySource
+    static void apuntarAOsrm(DynamicPropertyRegistry registro) {
+        registro.add("osrm.base-url", () -> "http://127.0.0.1:" + osrm.getAddress().getPort());
+    }
+
+    @BeforeEach
+    void reiniciar() {
+        demora.set(0);
+        llamadas.set(0);
+    }
+
+    @Test
+    void conOsrmLentoRespondeAlVencerElPlazo() throws Exception {
+        demora.set(3000);
+
+        long inicio = System.nanoTime();
+        HttpResponse<String> respuesta = enviar(calcularRuta(), "300");
+        Duration espera = Duration.ofNanos(System.nanoTime() - inicio);
+
+        assertThat(respuesta.statusCode()).isEqualTo(504);
+        assertThat(espera).isLessThan(Duration.ofMillis(2000));
+    }
+
+    @Test
+    void laMatrizTambienSeCortaAlVencerElPlazo() throws Exception {
+        demora.set(3000);
+        double lat = -31 - siguientePunto.incrementAndGet() * 0.001;
+        String cuerpo = """
+            {"origenes":[{"lat":%s,"lon":-64.1},{"lat":%s,"lon":-64.2}]}""".formatted(lat, lat);
+
+        long inicio = System.nanoTime();
+        HttpResponse<String> respuesta = enviar(HttpRequest.newBuilder(uri("/api/v1/routing/matriz"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(cuerpo)), "300");
+        Duration espera = Duration.ofNanos(System.nanoTime() - inicio);
+
+        assertThat(respuesta.statusCode()).isEqualTo(504);
+        assertThat(espera).isLessThan(Duration.ofMillis(2000));
+    }
+
+    @Test
+    void conPlazoSuficienteRespondeOsrm() throws Exception {
+        demora.set(100);
+
+        HttpResponse<String> respuesta = enviar(calcularRuta(), "5000");
+
+        assertThat(respuesta.statusCode()).isEqualTo(200);
+        assertThat(respuesta.body()).contains("\"distanciaKm\":12.0");
+        assertThat(llamadas).hasValue(1);
+    }
+
+    @Test
+    void conPlazoVencidoNoLlamaAOsrm() throws Exception {
+        HttpResponse<String> respuesta = enviar(calcularRuta(), "0");
+
+        assertThat(respuesta.statusCode()).isEqualTo(504);
+        assertThat(llamadas).hasValue(0);
+    }
+
+    private HttpRequest.Builder calcularRuta() {
+        double lat = -31 - siguientePunto.incrementAndGet() * 0.001;
+        return HttpRequest.newBuilder(uri("/api/v1/routing/calcular-ruta?origenLat=" + lat
+            + "&origenLon=-64.1&destinoLat=-32.9&destinoLon=-60.6")).GET();
+    }
+
+    private HttpResponse<String> enviar(HttpRequest.Builder request, String plazoMs)
+            throws IOException, InterruptedException {
+        return cliente.send(request.header("X-Deadline-Ms", plazoMs).timeout(Duration.ofSeconds(15)).build(),
+            HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String ruta) {
+        return URI.create("http://127.0.0.1:" + puerto + ruta);
+    }
+
+    private static HttpServer iniciarOsrm() {
+        try {
+            HttpServer servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            servidor.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            servidor.createContext("/", intercambio -> {
+                llamadas.incrementAndGet();
+                try {
+                    Thread.sleep(demora.get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] cuerpo = (intercambio.getRequestURI().getPath().startsWith("/table") ? TABLA : RUTA)
+                    .getBytes(StandardCharsets.UTF_8);
+                intercambio.getResponseHeaders().set("Content-Type", "application/json");
+                try {
+                    intercambio.sendResponseHeaders(200, cuerpo.length);
+                    intercambio.getResponseBody().write(cuerpo);
+                } catch (IOException e) {
+                    // El servicio ya cortó la conexión (venció el plazo)
+                }
+                intercambio.close();
+            });
+            servidor.start();
+            return servidor;
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo iniciar el OSRM simulado", e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.tpi.routingosrm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+/**
+ * Actuator atiende solo en management.server.port: el puerto de la API (el que publica
+ * docker-compose) no expone /actuator/*. Se prueba con health porque los tests no exportan
+ * métricas (sin @AutoConfigureObservability no hay /actuator/prometheus).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class PuertoAdministracionTest {
+
+    private final HttpClient cliente = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int puerto;
+
+    @LocalManagementPort
+    private int puertoAdministracion;
+
+    @Test
+    void actuatorSoloEnElPuertoDeAdministracion() throws Exception {
+        assertThat(puertoAdministracion).isNotEqualTo(puerto);
+        assertThat(estado(puertoAdministracion, "/actuator/health")).isEqualTo(200);
+        assertThat(estado(puerto, "/actuator/health")).isEqualTo(404);
+    }
+
+    private int estado(int puerto, String ruta) throws Exception {
+        return cliente.send(HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + puerto + ruta)).GET().build(),
+            HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,139 @@
+package com.tpi.routingosrm.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import com.tpi.routingosrm.dto.RouteRequest;
+import com.tpi.routingosrm.osrm.OsrmResponse;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * RouteCache con un loader que cuenta las llamadas a OSRM: puntos cercanos comparten la celda
+ * de la grilla, el tamaño queda acotado desalojando entradas, los fallos concurrentes del mismo
+ * par esperan una única carga y las respuestas vacías o con error no se guardan.
+ */
+class RouteCacheTest {
+
+    private static final Duration ESPERA = Duration.ofSeconds(5);
+
+    private final AtomicInteger cargas = new AtomicInteger();
+
+    @Test
+    void puntosEnLaMismaCeldaDeLaGrillaUsanLaMismaEntrada() {
+        RouteCache cache = new RouteCache(true, 100, Duration.ofHours(1), 4);
+        RouteRequest pedido = new RouteRequest(-31.41231, -64.18339, -32.94682, -60.63932);
+        // A menos de 1 m: redondea a la misma celda de 4 decimales
+        RouteRequest cercano = new RouteRequest(-31.41234, -64.18341, -32.94679, -60.63928);
+        // A unos 100 m: otra celda
+        RouteRequest lejano = new RouteRequest(-31.41331, -64.18339, -32.94682, -60.63932);
+
+        OsrmResponse primera = cache.obtener(pedido, 0, contando(respuesta(100))).block(ESPERA);
+        OsrmResponse segunda = cache.obtener(cercano, 0, contando(respuesta(200))).block(ESPERA);
+
+        assertThat(segunda).isSameAs(primera);
+        assertThat(cargas).hasValue(1);
+
+        assertThat(cache.obtener(lejano, 0, contando(respuesta(300))).block(ESPERA).routes().get(0).distance())
+            .isEqualTo(300);
+        // Mismo par con alternativas: es otra consulta a OSRM
+        cache.obtener(pedido, 2, contando(respuesta(400))).block(ESPERA);
+
+        assertThat(cargas).hasValue(3);
+        assertThat(cache.estadisticas().aciertos()).isEqualTo(1);
+        assertThat(cache.estadisticas().fallos()).isEqualTo(3);
+    }
+
+    @Test
+    void laCantidadDeEntradasQuedaAcotadaAlMaximo() throws InterruptedException {
+        RouteCache cache = new RouteCache(true, 2, Duration.ofHours(1), 4);
+        List<RouteRequest> pedidos = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            pedidos.add(new RouteRequest(-31.0 - i * 0.1, -64.0, -32.9, -60.6));
+        }
+
+        pedidos.forEach(pedido -> cache.obtener(pedido, 0, contando(respuesta(100))).block(ESPERA));
+
+        // Caffeine desaloja en segundo plano: se espera a que termine
+        long limite = System.nanoTime() + ESPERA.toNanos();
+        while (cache.estadisticas().entradas() > 2 && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+        assertThat(cache.estadisticas().entradas()).isLessThanOrEqualTo(2);
+        assertThat(cache.estadisticas().desalojos()).isGreaterThanOrEqualTo(8);
+
+        // Los desalojados se vuelven a pedir a OSRM
+        pedidos.forEach(pedido -> cache.obtener(pedido, 0, contando(respuesta(100))).block(ESPERA));
+        assertThat(cargas.get()).isGreaterThanOrEqualTo(18);
+    }
+
+    @Test
+    void losFallosConcurrentesDelMismoParEsperanUnaUnicaCarga() throws Exception {
+        RouteCache cache = new RouteCache(true, 100, Duration.ofHours(1), 4);
+        RouteRequest pedido = new RouteRequest(-31.4, -64.2, -32.9, -60.6);
+        // OSRM no responde hasta que el test lo libera
+        Sinks.One<OsrmResponse> osrm = Sinks.one();
+        CountDownLatch largada = new CountDownLatch(1);
+
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<OsrmResponse>> pedidos = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                pedidos.add(hilos.submit(() -> {
+                    largada.await();
+                    return cache.obtener(pedido, 0, contando(osrm::asMono)).block(ESPERA);
+                }));
+            }
+            largada.countDown();
+
+            // Tiempo para que todos los pedidos lleguen al cache mientras la carga está en vuelo
+            Thread.sleep(200);
+            assertThat(cargas).hasValue(1);
+
+            OsrmResponse respuesta = respuesta(100).get().block();
+            osrm.tryEmitValue(respuesta);
+            for (Future<OsrmResponse> resultado : pedidos) {
+                assertThat(resultado.get(5, TimeUnit.SECONDS)).isSameAs(respuesta);
+            }
+        }
+        assertThat(cargas).hasValue(1);
+    }
+
+    @Test
+    void lasRespuestasVaciasOConErrorNoSeGuardan() {
+        RouteCache cache = new RouteCache(true, 100, Duration.ofHours(1), 4);
+        RouteRequest pedido = new RouteRequest(-31.4, -64.2, -32.9, -60.6);
+
+        assertThatThrownBy(() -> cache.obtener(pedido, 0, contando(() -> Mono.error(new IllegalStateException("OSRM caído"))))
+            .block(ESPERA)).hasMessageContaining("OSRM caído");
+        assertThat(cache.obtener(pedido, 0, contando(Mono::empty)).block(ESPERA)).isNull();
+        assertThat(cache.obtener(pedido, 0, contando(respuesta(100))).block(ESPERA)).isNotNull();
+
+        assertThat(cargas).hasValue(3);
+        assertThat(cache.estadisticas().entradas()).isEqualTo(1);
+    }
+
+    private Supplier<Mono<OsrmResponse>> contando(Supplier<Mono<OsrmResponse>> loader) {
+        return () -> {
+            cargas.incrementAndGet();
+            return loader.get();
+        };
+    }
+
+    private static Supplier<Mono<OsrmResponse>> respuesta(double distancia) {
+        return () -> Mono.just(new OsrmResponse(List.of(new OsrmResponse.Route(distancia, distancia / 20)), "Ok"));
+    }
+}
@@ -6,19 +6,34 @@ import com.tpi.exception.EntidadNotFoundException;
 import com.tpi.exception.MicroservicioNoDisponibleException;
 import com.tpi.service.SecurityContextService;
 
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 
 @Service
+@Observed(name = "tpi.cliente.llamadas", lowCardinalityKeyValues = {"destino", "clientes-service"})
 @Slf4j
 @RequiredArgsConstructor
 public class ClientesServiceClient {
     
     private static final String CLIENTES_PATH = "/api/v1/clientes";
 
+    // Máximo de IDs por llamada al endpoint masivo (mantiene acotado el largo de la URL)
+    private static final int MAX_IDS_POR_LOTE = 100;
+
     private final SecurityContextService securityContextService;
     private final RestClient clientesRestClient;
 
@@ -58,6 +73,71 @@ public class ClientesServiceClient {
     }
 
 
+    /**
+     * Obtiene varios clientes usando el endpoint masivo GET /api/v1/clientes?ids=...
+     * Elimina IDs repetidos y los pide en lotes de MAX_IDS_POR_LOTE, así el costo es
+     * una llamada por lote en lugar de una por solicitud.
+     *
+     * @param clienteIds IDs de clientes (pueden repetirse o venir null)
+     * @return mapa ID → cliente; los clientes inexistentes no aparecen
+     */
+    public Map<String, ClienteDTO> obtenerClientesPorIds(Collection<String> clienteIds) {
+
+        // 1. Quitar nulls y repetidos manteniendo el orden
+        List<String> unicos = clienteIds.stream()
+            .filter(Objects::nonNull)
+            .collect(LinkedHashSet<String>::new, LinkedHashSet::add, LinkedHashSet::addAll)
+            .stream()
+            .toList();
+
+        Map<String, ClienteDTO> clientes = new HashMap<>();
+        if (unicos.isEmpty()) {
+            return clientes;
+        }
+
+        try {
+            String jwtToken = securityContextService.obtenerJwtToken();
+
+            // 2. Pedir los clientes de a lotes
+            for (int desde = 0; desde < unicos.size(); desde += MAX_IDS_POR_LOTE) {
+                List<String> lote = new ArrayList<>(
+                    unicos.subList(desde, Math.min(desde + MAX_IDS_POR_LOTE, unicos.size())));
+
+                List<ClienteDTO> respuesta = clientesRestClient
+                    .get()
+                    .uri(uriBuilder -> uriBuilder
+                        .path(CLIENTES_PATH)                    // GET /api/v1/clientes?ids=a,b,c
+                        .queryParam("ids", String.join(",", lote))
+                        .build())
+                    .header("Authorization", "Bearer " + jwtToken)
+                    .retrieve()
+                    .body(new ParameterizedTypeReference<List<ClienteDTO>>() {});
+
+                if (respuesta != null) {
+                    respuesta.forEach(cliente -> clientes.put(cliente.id(), cliente));
+                }
+            }
+
+            log.debug("Obtenidos {} clientes para {} IDs", clientes.size(), unicos.size());
+            return clientes;
+
+        } catch (HttpClientErrorException e) {
+            throw new MicroservicioNoDisponibleException(
+                "clientes-service", 
+                "obtener Clientes por IDs: " + e.getStatusCode(), 
+                e
+            );
+            
+        } catch (Exception e) {
+            throw new MicroservicioNoDisponibleException(
+                "clientes-service", 
+                "obtener Clientes por IDs", 
+                e
+            );
+        }
+    }
+
+
     /**
      * Obitnee una Cliente por el endpotin get id
      */
@@ -3,7 +3,7 @@ package com.tpi.client;
 import com.tpi.dto.external.CostoFinalDTOs.CostoFinalDTO;
 import com.tpi.dto.external.CostosEstimadosDTOs.CostosEstimadosDTO;
 import com.tpi.dto.external.RutaResponses.RutaAsignadaResponseDTO;
-import com.tpi.dto.external.RutaResponses.RutaTramosCamionResponse;
+import com.tpi.dto.external.RutaResponses.SeguimientoRutaResponse;
 import com.tpi.dto.external.UbicacionResponses.UbicacionResponseDTO;
 
 import com.tpi.dto.request.CrearRutaCompletaRequest;
@@ -14,6 +14,7 @@ import com.tpi.exception.MicroservicioNoDisponibleException;
 import com.tpi.service.SecurityContextService;
 // import com.fasterxml.jackson.databind.JsonNode;    preguntar sobre uso de jackson por sobre DTO's ?¡
 // import com.fasterxml.jackson.databind.ObjectMapper;    Ejemplo linea 56
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -23,6 +24,7 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 
 @Service
+@Observed(name = "tpi.cliente.llamadas", lowCardinalityKeyValues = {"destino", "logistica-service"})
 @Slf4j
 @RequiredArgsConstructor
 public class LogisticaServiceClient {
@@ -75,41 +77,6 @@ public class LogisticaServiceClient {
         }
     }
 
-    /**
-     * Obitnee una ubicacion por el endpotin get id
-     */
-    public UbicacionResponseDTO obtenerUbicacionPorId(Long ubicacionId) {
-        try {
-            String jwtToken = securityContextService.obtenerJwtToken();
-            
-            UbicacionResponseDTO response = logisticaRestClient
-                .get()
-                .uri(UBICACIONES_PATH + "/" + ubicacionId)   // GET /api/v1/ubicaciones/{id}
-                .header("Authorization", "Bearer " + jwtToken)
-                .retrieve()
-                .body(UbicacionResponseDTO.class);  // ← Devuelve UN solo DTO
-                
-            return response;
-            
-        } catch (HttpClientErrorException.NotFound e) {
-            throw new EntidadNotFoundException("ubicación", "ID " + ubicacionId);
-            
-        } catch (HttpClientErrorException e) {
-            throw new MicroservicioNoDisponibleException(
-                "logistica-service", 
-                "obtener ubicación: " + e.getStatusCode(), 
-                e
-            );
-            
-        } catch (Exception e) {
-            throw new MicroservicioNoDisponibleException(
-                "logistica-service", 
-                "obtener ubicación", 
-                e
-            );
-        }
-    }
-
     /*
      * Se utiliza para asginar una ruta a la solicitud
      */
@@ -144,24 +111,27 @@ public class LogisticaServiceClient {
     }
 
     /**
-     * Se comunica con end point del ms-logistica para obtener ruta, tramos asociados a la solicitud
+     * Se comunica con el endpoint de seguimiento del ms-logistica: ruta, tramos, origen y destino
+     * de la solicitud en una sola llamada
      */
-    public RutaTramosCamionResponse obtenerRutaPorSolicitudId(Long solicitudId) {
+    public SeguimientoRutaResponse obtenerSeguimiento(Long solicitudId, Long origenId, Long destinoId) {
         try {
             String jwtToken = securityContextService.obtenerJwtToken();
             
-            RutaTramosCamionResponse response = logisticaRestClient
-                .get()  // ← Cambiar POST por GET
-                .uri(RUTAS_PATH + "/solicitud/" + solicitudId)   // ← URL correcta
+            return logisticaRestClient
+                .get()
+                .uri(RUTAS_PATH + "/solicitud/{solicitudId}/seguimiento?origenId={origenId}&destinoId={destinoId}",
+                    solicitudId, origenId, destinoId)
                 .header("Authorization", "Bearer " + jwtToken)
                 .retrieve()
-                .body(RutaTramosCamionResponse.class);
-                
-            return response;
+                .body(SeguimientoRutaResponse.class);
+            
+        } catch (HttpClientErrorException.NotFound e) {
+            throw new EntidadNotFoundException("Seguimiento", "solicitud " + solicitudId);
             
         } catch (HttpClientErrorException e) {
             throw new MicroservicioNoDisponibleException(
-                "MS-Logística: ", "error en fetch a rutas" , e);
+                "logistica-service", "obtener seguimiento: " + e.getStatusCode(), e);
         }
     }
 
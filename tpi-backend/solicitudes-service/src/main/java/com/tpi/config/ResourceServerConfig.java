@@ -42,6 +42,9 @@ public class ResourceServerConfig {
                 .requestMatchers("/api/v1/solicitudes/publico").permitAll()
                 .requestMatchers("/actuator/health").permitAll()
                 .requestMatchers("/actuator/info").permitAll()
+                // Scrape de Prometheus: actuator atiende en management.server.port, que docker-compose no
+                // publica y el gateway no enruta (sus rutas van al puerto de la API)
+                .requestMatchers("/actuator/prometheus").permitAll()
 
                 // URLs para CLIENTES
                 .requestMatchers(HttpMethod.POST, "/api/v1/solicitudes").hasAnyRole("CLIENTE", "OPERADOR", "ADMIN")
@@ -72,6 +75,8 @@ public class ResourceServerConfig {
                 // URLs solo para ADMIN
                 .requestMatchers(HttpMethod.DELETE, "/api/v1/solicitudes/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.PUT, "/api/v1/solicitudes/**").hasRole("ADMIN")
+                // Recotización por cambio de tarifa (ms-logística, con el token de su service account)
+                .requestMatchers(HttpMethod.PATCH, "/api/v1/solicitudes/costos-estimados").hasRole("SERVICIO")
                 
                 .anyRequest().authenticated()
             )
@@ -5,24 +5,45 @@ import org.springframework.context.annotation.Configuration;
 // import org.springframework.http.MediaType;
 import org.springframework.web.client.RestClient;
 
+import com.tpi.comun.http.FabricaClientesHttp;
+import com.tpi.comun.resiliencia.ResilienciaHttp;
+import com.tpi.exception.MicroservicioNoDisponibleException;
+
+/**
+ * RestClient de cada servicio destino, cada uno con su pool de conexiones (FabricaClientesHttp)
+ * y su resiliencia: bulkhead, circuito, reintentos y plazo (ResilienciaHttp).
+ */
 @Configuration
 public class RestClientConfig {
     private static final String LOGISTICA_URL = "http://logistica-service:8084";
     private static final String CLIENTES_URL = "http://clientes-service:8082";
-    
-    @Bean 
-    public RestClient logisticaRestClient() {   // Bean llamado "logisticaRestClient"
-        return RestClient.builder()
+
+    @Bean
+    public RestClient logisticaRestClient(RestClient.Builder builder, FabricaClientesHttp fabrica,
+            ResilienciaHttp resiliencia) {   // Bean llamado "logisticaRestClient"
+        return builder
+            .requestFactory(fabrica.requestFactory("logistica"))
+            .requestInterceptor(resiliencia.interceptor("logistica"))
             .baseUrl(LOGISTICA_URL)
             // .defaultHeader("Accept", MediaType.APPLICATION_JSON_VALUE) // HEADER POR DEFECTO -> AGREGADO
             .build();
     }
 
-    @Bean 
-    public RestClient clientesRestClient() {   // Bean llamado "clientesRestClient"
-        return RestClient.builder()
+    @Bean
+    public RestClient clientesRestClient(RestClient.Builder builder, FabricaClientesHttp fabrica,
+            ResilienciaHttp resiliencia) {   // Bean llamado "clientesRestClient"
+        return builder
+            .requestFactory(fabrica.requestFactory("clientes"))
+            .requestInterceptor(resiliencia.interceptor("clientes"))
             .baseUrl(CLIENTES_URL)
             // .defaultHeader("Accept", MediaType.APPLICATION_JSON_VALUE) // HEADER POR DEFECTO -> AGREGADO
             .build();
     }
+
+    // Las llamadas que rechaza la resiliencia (plazo vencido, bulkhead lleno, circuito abierto)
+    // fallan igual que las demás: MicroservicioNoDisponibleException (503)
+    @Bean
+    public ResilienciaHttp.Rechazo rechazoResiliencia() {
+        return MicroservicioNoDisponibleException::new;
+    }
 }
@@ -1,12 +1,14 @@
 package com.tpi.controller;
 
+import com.tpi.comun.paginacion.PaginaRequest;
+import com.tpi.comun.paginacion.PaginaResponse;
 import com.tpi.dto.request.ContenedorRequestDTO;
 import com.tpi.dto.response.ContenedorResponseDTO;
 import com.tpi.service.ContenedorService;
 
-import java.util.List;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -33,21 +35,29 @@ public class ContenedorController {
      */
     @Operation(
         summary = "Obtener todos los contenedores",
-        description = "Retorna una lista de contenedores. Puede ser filtrada por estado."
+        description = """
+            Retorna una página de contenedores. Puede ser filtrada por estado.
+
+            Parámetros de paginación:
+            • tamanio: cantidad de elementos por página (1 a 200, por defecto 20)
+            • orden: campo por el cual ordenar (id, identificacionUnica, fechaCreacion)
+            • direccion: ASC o DESC
+            • cursor: valor siguienteCursor de la página anterior
+            """
     )
     @ApiResponses({
         @ApiResponse(
             responseCode = "200", 
-            description = "Lista de contenedores obtenida exitosamente",
-            content = @Content(schema = @Schema(implementation = ContenedorResponseDTO[].class))
+            description = "Página de contenedores obtenida exitosamente",
+            content = @Content(schema = @Schema(implementation = PaginaResponse.class))
         ),
         @ApiResponse(
             responseCode = "400", 
-            description = "Estado de filtro inválido"
+            description = "Estado de filtro o parámetros de paginación inválidos"
         )
     })
     @GetMapping
-    public ResponseEntity<List<ContenedorResponseDTO>> obtenerTodosContenedores(
+    public ResponseEntity<PaginaResponse<ContenedorResponseDTO>> obtenerTodosContenedores(
         @Parameter(
             description = "Filtrar contenedores por estado",
             examples = {
@@ -56,9 +66,10 @@ public class ContenedorController {
                 @ExampleObject(name = "Entregado", value = "ENTREGADO")
             }
         )
-        @RequestParam(required = false) String estado) {
+        @RequestParam(required = false) String estado,
+        @ParameterObject PaginaRequest pagina) {
             
-        List<ContenedorResponseDTO> contenedores = contenedorService.findAll(estado);
+        PaginaResponse<ContenedorResponseDTO> contenedores = contenedorService.findAll(estado, pagina);
         return ResponseEntity.ok(contenedores);
     }
 
@@ -1,5 +1,8 @@
 package com.tpi.controller;
 
+import java.util.List;
+
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -7,8 +10,11 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.ErrorResponse;
 import org.springframework.web.bind.annotation.*;
 
+import com.tpi.comun.paginacion.PaginaRequest;
+import com.tpi.comun.paginacion.PaginaResponse;
 import com.tpi.dto.external.CostoFinalDTOs.CostoFinalDTO;
 import com.tpi.dto.external.CostosEstimadosDTOs.CostosEstimadosDTO;
+import com.tpi.dto.request.SolicitudesRequestDTOs.CostoEstimadoRequestDTO;
 import com.tpi.dto.request.SolicitudesRequestDTOs.SolicitudClienteRequestDTO;
 import com.tpi.dto.request.SolicitudesRequestDTOs.SolicitudCompletaRequestDTO;
 import com.tpi.dto.request.AsignarRutaRequest;
@@ -35,7 +41,6 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 
 
-import java.util.List;
 
 /**
  * Controller para gestionar las operaciones relacionadas con solicitudes de transporte
@@ -51,13 +56,13 @@ public class SolicitudController {
     private final SolicitudService solicitudService;
     
     /**
-     * GET ALL - Consultar todas las solicitudes
-     * Retorna lista completa de solicitudes (para Operador/Administrador)
+     * GET ALL - Consultar solicitudes
+     * Retorna una página de solicitudes (para Operador/Administrador)
      */
     @Operation(
         summary = "Obtener todas las solicitudes",
         description = """
-            Retorna lista completa de solicitudes con posibilidad de filtrado.
+            Retorna una página de solicitudes con posibilidad de filtrado.
             
             Roles permitidos:
             • OPERADOR
@@ -66,25 +71,36 @@ public class SolicitudController {
             Filtros disponibles:
             • estado: PENDIENTE, PROGRAMADA, EN_CURSO, COMPLETADA, CANCELADA
             
-            Ejemplo: /api/v1/solicitudes?estado=PENDIENTE
+
+            Parámetros de paginación:
+            • tamanio: cantidad de elementos por página (1 a 200, por defecto 20)
+            • orden: campo por el cual ordenar (id, fechaCreacion)
+            • direccion: ASC o DESC
+            • cursor: valor siguienteCursor de la página anterior
+
+            Ejemplo: /api/v1/solicitudes?estado=PENDIENTE&tamanio=50&orden=fechaCreacion&direccion=DESC
             """
     )
     @ApiResponses({
         @ApiResponse(
-            responseCode = "200", description = "Lista de solicitudes obtenida exitosamente",
-            content = @Content(schema = @Schema(implementation = SolicitudResponseDTO[].class))
+            responseCode = "200", description = "Página de solicitudes obtenida exitosamente",
+            content = @Content(schema = @Schema(implementation = PaginaResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "400", description = "Parámetros de paginación inválidos"
         ),
         @ApiResponse(
             responseCode = "404", description = "Contenedor de la solicitud no encontrado"
         )
     })
     @GetMapping
-    public ResponseEntity<List<SolicitudResponseDTO>> obtenerTodasSolicitudes(
+    public ResponseEntity<PaginaResponse<SolicitudResponseDTO>> obtenerTodasSolicitudes(
             @Parameter(description = "Filtrar solicitudes por estado")
-            @RequestParam(required = false) String estado
+            @RequestParam(required = false) String estado,
+            @ParameterObject PaginaRequest pagina
         ) {
         
-        List<SolicitudResponseDTO> response = solicitudService.findAll(estado);
+        PaginaResponse<SolicitudResponseDTO> response = solicitudService.findAll(estado, pagina);
         return ResponseEntity.ok(response);
     }
 
@@ -482,6 +498,34 @@ public class SolicitudController {
     }
 
 
+    /**
+     * ACTUALIZAR COSTOS ESTIMADOS RECOTIZADOS
+     *
+     * Lo llama ms-logística al recotizar las rutas de una tarifa modificada, con el
+     * costo estimado total nuevo de cada solicitud afectada. Requiere el rol SERVICIO
+     * (token de la service account de ms-logística, no de un usuario).
+     *
+     * @param costos costo estimado nuevo de cada solicitud
+     * @return 204 sin contenido
+     */
+    @Operation(
+        summary = "Actualizar costos estimados recotizados",
+        description = "Guarda el costo estimado que recalculó ms-logística para cada solicitud tras un cambio de tarifa",
+        tags = {"Solicitudes - Costos"}
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "204", description = "Costos estimados actualizados"),
+        @ApiResponse(responseCode = "400", description = "Datos inválidos")
+    })
+    @PatchMapping("/costos-estimados")
+    public ResponseEntity<Void> actualizarCostosEstimados(
+        @RequestBody @Valid List<@Valid CostoEstimadoRequestDTO> costos) {
+
+        solicitudService.actualizarCostosEstimados(costos);
+        return ResponseEntity.noContent().build();
+    }
+
+
     /**
      * CALCULAR Y ACTUALIZAR COSTOS TOTALES DE SOLICITUD
      * 
@@ -79,6 +79,15 @@ public class RutaResponses {
         CamionResponse camion
     ) {}
     
+    /**
+     * Seguimiento agregado de MS-LOGISTICA: ruta con tramos más origen y destino
+     */
+    public record SeguimientoRutaResponse(
+        RutaTramosCamionResponse ruta,
+        UbicacionResponseDTO origen,
+        UbicacionResponseDTO destino
+    ) {}
+
     public record CamionResponse(
         Long id,
         String dominio,
@@ -70,7 +70,16 @@ public class SolicitudesRequestDTOs {
         @NotNull(message = "La ubicación de destino es obligatoria")
         UbicacionRequestDTO destino
     ) {}
-}
 
+    @Schema(description = "Costo estimado recalculado de una solicitud (recotización por cambio de tarifa)")
+    public record CostoEstimadoRequestDTO(
 
+        @Schema(description = "ID de la solicitud", example = "12", requiredMode = Schema.RequiredMode.REQUIRED)
+        @NotNull(message = "El ID de la solicitud es obligatorio")
+        Long solicitudId,
 
+        @Schema(description = "Nuevo costo estimado total", example = "154300.25", requiredMode = Schema.RequiredMode.REQUIRED)
+        @NotNull(message = "El costo estimado es obligatorio")
+        Double costoEstimado
+    ) {}
+}
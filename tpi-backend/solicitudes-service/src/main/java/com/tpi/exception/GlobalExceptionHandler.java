@@ -12,6 +12,8 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import com.tpi.comun.excepcion.ParametroInvalidoException;
+
 import jakarta.validation.ConstraintViolationException;
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -177,4 +179,22 @@ public class GlobalExceptionHandler {
         
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
-}
\ No newline at end of file
+
+    // Manejar parámetros de request inválidos (ej: cursor de paginación corrupto)
+    @ExceptionHandler(ParametroInvalidoException.class)
+    public ResponseEntity<ErrorResponse> handleParametroInvalido(
+            ParametroInvalidoException ex,
+            HttpServletRequest request) {
+
+        log.warn("Parámetro inválido: {}", ex.getMessage());
+
+        ErrorResponse error = new ErrorResponse(
+            "PARAMETRO_INVALIDO",
+            ex.getMessage(),
+            HttpStatus.BAD_REQUEST.value(),
+            request.getRequestURI()
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+}
@@ -1,6 +1,11 @@
 package com.tpi.repository;
 
 import com.tpi.model.Contenedor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -30,4 +35,11 @@ public interface ContenedorRepository extends JpaRepository<Contenedor, Long> {
     
     @Query("SELECT c FROM Contenedor c JOIN FETCH c.estado WHERE c.estado.nombre = :estado")
     List<Contenedor> findByEstadoNombreWithEstado(@Param("estado") String estado);
+
+    // Páginas keyset para el listado, también con el estado cargado en la misma query
+    @EntityGraph(attributePaths = "estado")
+    Window<Contenedor> findBy(ScrollPosition posicion, Sort orden, Limit limite);
+
+    @EntityGraph(attributePaths = "estado")
+    Window<Contenedor> findByEstadoNombre(String nombreEstado, ScrollPosition posicion, Sort orden, Limit limite);
 }
@@ -1,6 +1,11 @@
 package com.tpi.repository;
 
 import com.tpi.model.Solicitud;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import java.util.List;
@@ -10,6 +15,13 @@ import java.util.Optional;
 public interface SolicitudRepository extends JpaRepository<Solicitud, Long> {
     List<Solicitud> findByClienteId(String clienteId);
     List<Solicitud> findByEstadoNombre(String estadoNombre);
+
+    // Páginas keyset para el listado; traen estado y contenedor en la misma query
+    @EntityGraph(attributePaths = {"estado", "contenedor", "contenedor.estado"})
+    Window<Solicitud> findBy(ScrollPosition posicion, Sort orden, Limit limite);
+
+    @EntityGraph(attributePaths = {"estado", "contenedor", "contenedor.estado"})
+    Window<Solicitud> findByEstadoNombre(String estadoNombre, ScrollPosition posicion, Sort orden, Limit limite);
     boolean existsByContenedorIdentificacionUnica(String identificacionUnica);
 
     // Consulta específica que combina búsqueda + validación de acceso
@@ -1,5 +1,8 @@
 package com.tpi.service;
 
+import com.tpi.comun.paginacion.PaginaRequest;
+import com.tpi.comun.paginacion.PaginaResponse;
+import com.tpi.comun.paginacion.Paginador;
 import com.tpi.dto.request.ContenedorRequestDTO;
 import com.tpi.dto.response.ContenedorResponseDTO;
 import com.tpi.dto.response.EstadoContenedorInfoDTO;
@@ -11,46 +14,58 @@ import com.tpi.model.EstadoContenedor;
 import com.tpi.repository.ContenedorRepository;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class ContenedorService {
 
+    // Campos por los que se puede ordenar el listado (todos no nulos)
+    private static final Paginador PAGINADOR = new Paginador(Map.<String, Function<String, Object>>of(
+        "id", Long::valueOf,
+        "identificacionUnica", valor -> valor,
+        "fechaCreacion", LocalDateTime::parse
+    ));
+
     private final ContenedorRepository contenedorRepository;
     private final EstadoContenedorService estadoContenedorService;
 
 
     /**
-     * Obtiene todos los contenedores, filtrando opcionalmente por estado.
+     * Obtiene una página de contenedores, filtrando opcionalmente por estado.
      *
      * @param estado Estado por el cual filtrar los contenedores (si es null o vacío,
      *               se devuelven todos).
-     * @return Lista de contenedores convertidos a DTO.
+     * @param pagina tamaño, orden y cursor de la página pedida.
+     * @return Página de contenedores convertidos a DTO.
      */
-    public List<ContenedorResponseDTO> findAll(String estado) {
+    public PaginaResponse<ContenedorResponseDTO> findAll(String estado, PaginaRequest pagina) {
 
-        List<Contenedor> contenedores;
+        Paginador.Consulta consulta = PAGINADOR.consulta(pagina);
+        Window<Contenedor> contenedores;
 
         if (estado != null && !estado.trim().isEmpty()) {
             // Si se envía un estado → buscar solo los contenedores con ese estado.
-            // Esta consulta ya incluye el JOIN con Estado, por lo tanto es una sola query.
-            contenedores = contenedorRepository.findByEstadoNombreWithEstado(estado);
+            // El EntityGraph incluye el JOIN con Estado, por lo tanto es una sola query.
+            contenedores = contenedorRepository.findByEstadoNombre(
+                estado, consulta.posicion(), consulta.orden(), consulta.limite());
         } else {
-            // Si no se envía un estado → traer todos los contenedores.
+            // Si no se envía un estado → traer la página pedida de todos los contenedores.
             // También usa un JOIN para evitar consultas adicionales (N+1).
-            contenedores = contenedorRepository.findAllWithEstado();
+            contenedores = contenedorRepository.findBy(
+                consulta.posicion(), consulta.orden(), consulta.limite());
         }
 
         // Convertir cada entidad a su DTO correspondiente.
-        return contenedores.stream()
-            .map(ContenedorResponseDTO::fromEntity) // Evita queries adicionales al acceder a Estado
-            .collect(Collectors.toList());
+        return PAGINADOR.pagina(contenedores, consulta,
+            ContenedorResponseDTO::fromEntity); // Evita queries adicionales al acceder a Estado
     }
 
 
@@ -1,26 +1,43 @@
 package com.tpi.service;
 
+import com.tpi.comun.catalogo.Catalogo;
 import com.tpi.exception.EntidadNotFoundException;
 import com.tpi.model.EstadoContenedor;
 import com.tpi.repository.EstadoContenedorRepository;
-import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
 @Service
-@RequiredArgsConstructor
 public class EstadoContenedorService {
 
     private final EstadoContenedorRepository estadoContenedorRepository;
 
+    // Copia en memoria de la tabla (se recarga en cada escritura)
+    private final Catalogo<EstadoContenedor> catalogo;
+
+    public EstadoContenedorService(EstadoContenedorRepository estadoContenedorRepository) {
+        this.estadoContenedorRepository = estadoContenedorRepository;
+        this.catalogo = new Catalogo<>(estadoContenedorRepository::findAll, EstadoContenedor::getId, EstadoContenedor::getNombre);
+    }
+
+    /**
+     * Carga el catálogo al iniciar, después de que el DataLoader insertó los datos por defecto.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarCatalogo() {
+        catalogo.recargar();
+    }
+
     /**
      * Devuelve todos los estados de contenedor existentes.
      *
      * @return Lista de todos los estados de contenedor.
      */
     public List<EstadoContenedor> findAll() {
-        return estadoContenedorRepository.findAll();
+        return catalogo.todos();
     }
 
     /**
@@ -30,9 +47,8 @@ public class EstadoContenedorService {
      * @return EstadoContenedor encontrado.
      * @throws EntidadNotFoundException si no existe un estado con el ID dado.
      */
-    @SuppressWarnings("null")
     public EstadoContenedor findById(Long id) {
-        return estadoContenedorRepository.findById(id)
+        return catalogo.porId(id)
             .orElseThrow(() -> new EntidadNotFoundException(
                 "EstadoSolicitud", 
                 "No se encontró el estado con nombre: " + id
@@ -47,7 +63,7 @@ public class EstadoContenedorService {
      * @throws EntidadNotFoundException si no existe un estado con el nombre dado.
      */
     public EstadoContenedor findByNombre(String nombre) {
-        return estadoContenedorRepository.findByNombre(nombre)
+        return catalogo.porNombre(nombre)
             .orElseThrow(() -> new EntidadNotFoundException(
                 "EstadoSolicitud", 
                 "No se encontró el estado con nombre: " + nombre
@@ -55,24 +71,27 @@ public class EstadoContenedorService {
     }
 
     /**
-     * Guarda un estado de contenedor en la base de datos.
+     * Guarda un estado de contenedor en la base de datos y recarga el catálogo.
      *
      * @param estadoContenedor Estado a guardar.
      * @return EstadoContenedor guardado.
      */
     @SuppressWarnings("null")
     public EstadoContenedor save(EstadoContenedor estadoContenedor) {
-        return estadoContenedorRepository.save(estadoContenedor);
+        EstadoContenedor guardado = estadoContenedorRepository.save(estadoContenedor);
+        catalogo.recargar();
+        return guardado;
     }
 
     /**
-     * Elimina un estado de contenedor por su ID.
+     * Elimina un estado de contenedor por su ID y recarga el catálogo.
      *
      * @param id ID del estado a eliminar.
      */
     @SuppressWarnings("null")
     public void deleteById(Long id) {
         estadoContenedorRepository.deleteById(id);
+        catalogo.recargar();
     }
 
     /**
@@ -82,6 +101,6 @@ public class EstadoContenedorService {
      * @return true si existe un estado con ese nombre, false en caso contrario.
      */
     public boolean existsByNombre(String nombre) {
-        return estadoContenedorRepository.existsByNombre(nombre);
+        return catalogo.porNombre(nombre).isPresent();
     }
 }
\ No newline at end of file
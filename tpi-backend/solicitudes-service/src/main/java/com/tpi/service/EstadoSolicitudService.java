@@ -1,26 +1,42 @@
 package com.tpi.service;
 
+import com.tpi.comun.catalogo.Catalogo;
 import com.tpi.exception.EntidadNotFoundException;
 import com.tpi.model.EstadoSolicitud;
 import com.tpi.repository.EstadoSolicitudRepository;
-import lombok.RequiredArgsConstructor;
-
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import java.util.List;
 
 @Service
-@RequiredArgsConstructor
 public class EstadoSolicitudService {
 
     private final EstadoSolicitudRepository estadoSolicitudRepository;
 
+    // Copia en memoria de la tabla (se recarga en cada escritura)
+    private final Catalogo<EstadoSolicitud> catalogo;
+
+    public EstadoSolicitudService(EstadoSolicitudRepository estadoSolicitudRepository) {
+        this.estadoSolicitudRepository = estadoSolicitudRepository;
+        this.catalogo = new Catalogo<>(estadoSolicitudRepository::findAll, EstadoSolicitud::getId, EstadoSolicitud::getNombre);
+    }
+
+    /**
+     * Carga el catálogo al iniciar, después de que el DataLoader insertó los datos por defecto.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarCatalogo() {
+        catalogo.recargar();
+    }
+
     /**
      * Devuelve todos los estados de solicitud existentes.
      *
      * @return Lista de todos los estados de solicitud.
      */
     public List<EstadoSolicitud> findAll() {
-        return estadoSolicitudRepository.findAll();
+        return catalogo.todos();
     }
 
     /**
@@ -30,9 +46,8 @@ public class EstadoSolicitudService {
      * @return EstadoSolicitud encontrado.
      * @throws EntidadNotFoundException si no existe un estado con el ID dado.
      */
-    @SuppressWarnings("null")
     public EstadoSolicitud findById(Long id) {
-        return estadoSolicitudRepository.findById(id)
+        return catalogo.porId(id)
             .orElseThrow(() -> new EntidadNotFoundException(
                 "EstadoSolicitud", 
                 "No se encontró el estado con nombre: " + id
@@ -47,7 +62,7 @@ public class EstadoSolicitudService {
      * @throws EntidadNotFoundException si no existe un estado con el nombre dado.
      */
     public EstadoSolicitud findByNombre(String nombre) {
-        return estadoSolicitudRepository.findByNombre(nombre)
+        return catalogo.porNombre(nombre)
             .orElseThrow(() -> new EntidadNotFoundException(
                 "EstadoSolicitud", 
                 "No se encontró el estado con nombre: " + nombre
@@ -55,24 +70,27 @@ public class EstadoSolicitudService {
     }
 
     /**
-     * Guarda un estado de solicitud en la base de datos.
+     * Guarda un estado de solicitud en la base de datos y recarga el catálogo.
      *
      * @param estadoSolicitud Estado a guardar.
      * @return EstadoSolicitud guardado.
      */
     @SuppressWarnings("null")
     public EstadoSolicitud save(EstadoSolicitud estadoSolicitud) {
-        return estadoSolicitudRepository.save(estadoSolicitud);
+        EstadoSolicitud guardado = estadoSolicitudRepository.save(estadoSolicitud);
+        catalogo.recargar();
+        return guardado;
     }
 
     /**
-     * Elimina un estado de solicitud por su ID.
+     * Elimina un estado de solicitud por su ID y recarga el catálogo.
      *
      * @param id ID del estado a eliminar.
      */
     @SuppressWarnings("null")
     public void deleteById(Long id) {
         estadoSolicitudRepository.deleteById(id);
+        catalogo.recargar();
     }
 
     /**
@@ -82,6 +100,6 @@ public class EstadoSolicitudService {
      * @return true si existe un estado con ese nombre, false en caso contrario.
      */
     public boolean existsByNombre(String nombre) {
-        return estadoSolicitudRepository.existsByNombre(nombre);
+        return catalogo.porNombre(nombre).isPresent();
     }
 }
\ No newline at end of file
@@ -1,21 +1,31 @@
 package com.tpi.service;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import com.tpi.comun.paginacion.PaginaRequest;
+import com.tpi.comun.paginacion.PaginaResponse;
+import com.tpi.comun.paginacion.Paginador;
 import com.tpi.client.ClientesServiceClient;
 import com.tpi.client.LogisticaServiceClient;
 import com.tpi.dto.external.CostoFinalDTOs.CostoFinalDTO;
 import com.tpi.dto.external.CostosEstimadosDTOs.CostosEstimadosDTO;
 import com.tpi.dto.external.RutaResponses.RutaAsignadaResponseDTO;
-import com.tpi.dto.external.RutaResponses.RutaTramosCamionResponse;
+import com.tpi.dto.external.RutaResponses.SeguimientoRutaResponse;
 import com.tpi.dto.external.UbicacionResponses.UbicacionResponseDTO;
 import com.tpi.dto.request.AsignarRutaRequest;
 import com.tpi.dto.request.CrearRutaCompletaRequest;
+import com.tpi.dto.request.SolicitudesRequestDTOs.CostoEstimadoRequestDTO;
 import com.tpi.dto.request.SolicitudesRequestDTOs.SolicitudClienteRequestDTO;
 import com.tpi.dto.request.SolicitudesRequestDTOs.SolicitudCompletaRequestDTO;
 
@@ -33,6 +43,7 @@ import com.tpi.model.Solicitud;
 import com.tpi.model.EstadoSolicitud;
 import com.tpi.model.Contenedor;
 import com.tpi.repository.SolicitudRepository;
+import com.tpi.comun.resiliencia.Plazo;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -42,6 +53,12 @@ import lombok.extern.slf4j.Slf4j;
 @Transactional
 @RequiredArgsConstructor    // crea builder con todos los campos marcados en final, evitar builder verboso
 public class SolicitudService {
+
+    // Campos por los que se puede ordenar el listado (todos no nulos)
+    private static final Paginador PAGINADOR = new Paginador(Map.<String, Function<String, Object>>of(
+        "id", Long::valueOf,
+        "fechaCreacion", LocalDateTime::parse
+    ));
     
     private final SolicitudRepository solicitudRepository;
     private final ContenedorService contenedorService;
@@ -50,6 +67,10 @@ public class SolicitudService {
     private final LogisticaServiceClient logisticaServiceClient;
     private final ClientesServiceClient clientesServiceClient;
     // private final SecurityContextService securityContextService;
+
+    // Tiempo máximo para obtener los datos del seguimiento
+    @Value("${solicitudes.seguimiento.deadline:5s}")
+    private Duration deadlineSeguimiento;
     
     /**
      * Metodo para crear solicitud con solo contenedor en la peticion
@@ -242,6 +263,28 @@ public class SolicitudService {
     }
 
 
+    /**
+     * Actualiza el costo estimado de varias solicitudes con los totales que recalculó
+     * ms-logística al recotizar sus rutas por un cambio de tarifa.
+     * Las solicitudes que ya no existen se ignoran (repetir la llamada no cambia el resultado).
+     *
+     * @param costos Costo estimado nuevo de cada solicitud.
+     * @return Cantidad de solicitudes actualizadas.
+     */
+    public int actualizarCostosEstimados(List<CostoEstimadoRequestDTO> costos) {
+        Map<Long, Double> porSolicitud = costos.stream()
+            .collect(Collectors.toMap(CostoEstimadoRequestDTO::solicitudId, CostoEstimadoRequestDTO::costoEstimado,
+                (anterior, nuevo) -> nuevo));
+
+        List<Solicitud> solicitudes = solicitudRepository.findAllById(porSolicitud.keySet());
+        solicitudes.forEach(s -> s.setCostoEstimado(porSolicitud.get(s.getId())));
+        solicitudRepository.saveAll(solicitudes);
+
+        log.info("Costo estimado recotizado en {} de {} solicitudes", solicitudes.size(), porSolicitud.size());
+        return solicitudes.size();
+    }
+
+
     /**
      * Calcula los costos totales de una solicitud consultando a MS-Logística
      * y actualiza la solicitud con esos valores.
@@ -286,15 +329,16 @@ public class SolicitudService {
         // Solicitud solicitud = this.findByIdAndClienteId(solicitudId, clienteId);
         Solicitud solicitud = this.findById(solicitudId);
         
-        // 2. Obtener ubicaciones desde MS-LOGISTICA
-        UbicacionResponseDTO origen = logisticaServiceClient.obtenerUbicacionPorId(solicitud.getOrigenId());
-        UbicacionResponseDTO destino = logisticaServiceClient.obtenerUbicacionPorId(solicitud.getDestinoId());
+        // 2. Una sola consulta a MS-LOGISTICA (ruta y tramos + ubicaciones), acotada al deadline;
+        //    el timeout de respuesta del cliente HTTP se ajusta al plazo
+        SeguimientoRutaResponse seguimiento;
+        try (Plazo.Alcance alcance = Plazo.abrir(Plazo.acotar(deadlineSeguimiento))) {
+            seguimiento = logisticaServiceClient.obtenerSeguimiento(
+                solicitudId, solicitud.getOrigenId(), solicitud.getDestinoId());
+        }
 
-        // 3. Llamar a MS-LOGISTICA para obtener la ruta y tramos
-        RutaTramosCamionResponse ruta = logisticaServiceClient.obtenerRutaPorSolicitudId(solicitudId);
-        
         return SolicitudWithUbicacionAndRutaResponseDTO.fromEntity(
-            solicitud, origen, destino, ruta 
+            solicitud, seguimiento.origen(), seguimiento.destino(), seguimiento.ruta()
         );
     }
 
@@ -391,33 +435,39 @@ public class SolicitudService {
 
 
     /**
-     * Obtiene todas las solicitudes, con opción de filtrar por estado.
+     * Obtiene una página de solicitudes, con opción de filtrar por estado.
      *
      * @param estado Nombre del estado para filtrar (opcional).
-     * @return Lista de SolicitudResponseDTO.
+     * @param pagina tamaño, orden y cursor de la página pedida.
+     * @return Página de SolicitudResponseDTO.
      */
-    public List<SolicitudResponseDTO> findAll(String estado) {
+    public PaginaResponse<SolicitudResponseDTO> findAll(String estado, PaginaRequest pagina) {
 
-        // 1 Obtener la lista de solicitudes según el filtro
-        List<Solicitud> solicitudes;
+        // 1 Obtener la página de solicitudes según el filtro
+        Paginador.Consulta consulta = PAGINADOR.consulta(pagina);
+        Window<Solicitud> solicitudes;
         if (estado != null && !estado.trim().isEmpty()) {
-            solicitudes = solicitudRepository.findByEstadoNombre(estado);
+            solicitudes = solicitudRepository.findByEstadoNombre(
+                    estado, consulta.posicion(), consulta.orden(), consulta.limite());
         } else {
-            solicitudes = solicitudRepository.findAll();
+            solicitudes = solicitudRepository.findBy(
+                    consulta.posicion(), consulta.orden(), consulta.limite());
         }
 
-        // 2 Mapear a DTOs usando Stream
-        return solicitudes.stream()
-                .map(solicitud -> {
+        // 2 Obtener los clientes de la página de una sola vez (en lotes, sin repetir IDs)
+        Map<String, ClienteDTO> clientes = clientesServiceClient.obtenerClientesPorIds(
+                solicitudes.stream().map(Solicitud::getClienteId).toList());
+
+        // 3 Mapear a DTOs
+        return PAGINADOR.pagina(solicitudes, consulta, solicitud -> {
                     // Obtener estado
                     EstadoSolicitud estadoSolicitud = solicitud.getEstado();
                     
-                    // Obtener info del cliente desde microservicio
-                    ClienteDTO cliente = clientesServiceClient.obtenerClientePorId(solicitud.getClienteId());
+                    // Info del cliente ya obtenida del microservicio
+                    ClienteDTO cliente = clientes.get(solicitud.getClienteId());
                     
                     // Crear DTO
                     return SolicitudResponseDTO.fromEntity(solicitud, estadoSolicitud, cliente);
-                })
-                .collect(Collectors.toList());
+                });
     }
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.tpi.comun.catalogo;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Copia en memoria de una tabla de referencia chica (estados, tipos, etc.).
+ *
+ * Se carga completa desde la base de datos y resuelve búsquedas por nombre o por ID
+ * en O(1) sin consultar la base. Cada recarga arma una foto nueva y la publica de una
+ * sola vez, así que los lectores nunca ven un catálogo a medio actualizar.
+ *
+ * @param <T> entidad del catálogo
+ */
+public class Catalogo<T> {
+
+    private record Foto<T>(List<T> todos, Map<Long, T> porId, Map<String, T> porNombre) {}
+
+    private final Supplier<List<T>> fuente;
+    private final Function<T, Long> id;
+    private final Function<T, String> nombre;
+
+    private volatile Foto<T> foto;
+
+    /**
+     * @param fuente consulta que devuelve todas las filas (ej: repository.findAll())
+     * @param id     cómo obtener el ID de una entidad
+     * @param nombre cómo obtener el nombre de una entidad
+     */
+    public Catalogo(Supplier<List<T>> fuente, Function<T, Long> id, Function<T, String> nombre) {
+        this.fuente = fuente;
+        this.id = id;
+        this.nombre = nombre;
+    }
+
+    /**
+     * Vuelve a leer la tabla completa y reemplaza la foto actual.
+     * Debe llamarse después de cada alta, modificación o baja.
+     */
+    public void recargar() {
+        List<T> filas = List.copyOf(fuente.get());
+        Map<Long, T> porId = new HashMap<>();
+        Map<String, T> porNombre = new HashMap<>();
+        for (T fila : filas) {
+            porId.put(id.apply(fila), fila);
+            // Si hubiera nombres repetidos se queda con el primero
+            if (nombre.apply(fila) != null) {
+                porNombre.putIfAbsent(nombre.apply(fila), fila);
+            }
+        }
+        foto = new Foto<>(filas, Map.copyOf(porId), Map.copyOf(porNombre));
+    }
+
+    public List<T> todos() {
+        return foto().todos();
+    }
+
+    public Optional<T> porId(Long valor) {
+        return valor == null ? Optional.empty() : Optional.ofNullable(foto().porId().get(valor));
+    }
+
+    public Optional<T> porNombre(String valor) {
+        return valor == null ? Optional.empty() : Optional.ofNullable(foto().porNombre().get(valor));
+    }
+
+    /**
+     * Devuelve la foto actual, cargándola la primera vez que se usa.
+     */
+    private Foto<T> foto() {
+        Foto<T> actual = foto;
+        if (actual == null) {
+            recargar();
+            actual = foto;
+        }
+        return actual;
+    }
+}
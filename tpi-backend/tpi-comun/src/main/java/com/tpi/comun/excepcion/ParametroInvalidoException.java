@@ -0,0 +1,11 @@
+package com.tpi.comun.excepcion;
+
+/**
+ * Excepción que indica que un parámetro del request tiene un valor inválido
+ * (por ejemplo un cursor de paginación corrupto o un campo de orden no permitido).
+ */
+public class ParametroInvalidoException extends RuntimeException {
+    public ParametroInvalidoException(String mensaje) {
+        super(mensaje);
+    }
+}
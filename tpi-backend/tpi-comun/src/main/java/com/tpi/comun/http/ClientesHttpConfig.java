@@ -0,0 +1,25 @@
+package com.tpi.comun.http;
+
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Registra FabricaClientesHttp en cada servicio que depende de tpi-comun y tiene HttpClient 5.
+ */
+@AutoConfiguration
+@ConditionalOnClass(CloseableHttpClient.class)
+public class ClientesHttpConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public FabricaClientesHttp fabricaClientesHttp(Environment entorno, ObjectProvider<MeterRegistry> metricas) {
+        return new FabricaClientesHttp(entorno, metricas);
+    }
+}
@@ -0,0 +1,147 @@
+package com.tpi.comun.http;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import com.tpi.comun.resiliencia.Plazo;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Clientes HTTP con pool de conexiones (Apache HttpClient 5) para llamar a otros servicios.
+ *
+ * Hay un pool por servicio destino: las conexiones se reutilizan con keep-alive en lugar de
+ * abrir una por llamada, la cantidad está acotada y todos los timeouts son explícitos.
+ * Cada pool publica sus métricas en Micrometer (httpcomponents.httpclient.pool.*,
+ * con el tag httpclient=<destino>).
+ *
+ * El timeout de respuesta de cada llamada se acota al plazo que le queda a la request (Plazo),
+ * así una llamada no espera más de lo que el llamador original está dispuesto a esperar.
+ *
+ * Los valores salen de http-cliente.* y cada destino puede pisarlos con
+ * http-cliente.destinos.<destino>.* (ej: http-cliente.destinos.routing.timeout-lectura).
+ *
+ * La registra ClientesHttpConfig en los servicios que tienen HttpClient 5.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class FabricaClientesHttp implements DisposableBean {
+
+    private final Environment entorno;
+    private final ObjectProvider<MeterRegistry> metricas;
+
+    private final Map<String, Cliente> clientes = new ConcurrentHashMap<>();
+
+    // Cliente del pool de un destino y su configuración por defecto
+    private record Cliente(CloseableHttpClient http, RequestConfig configuracion) {}
+
+    /**
+     * Request factory para un servicio destino. Las llamadas con el mismo destino
+     * comparten el pool, aunque sean de distintos RestClient.
+     *
+     * @param destino nombre del servicio destino (nombre del pool)
+     * @return request factory respaldado por el pool del destino
+     */
+    public ClientHttpRequestFactory requestFactory(String destino) {
+        Cliente cliente = clientes.computeIfAbsent(destino, this::crearCliente);
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(cliente.http());
+        factory.setHttpContextFactory((metodo, uri) -> contextoConPlazo(cliente.configuracion()));
+        return factory;
+    }
+
+    /**
+     * Contexto de la llamada con el timeout de respuesta acotado al plazo restante.
+     * Sin plazo devuelve null y se usa la configuración por defecto del cliente.
+     */
+    private static HttpClientContext contextoConPlazo(RequestConfig configuracion) {
+        return Plazo.restante()
+            .map(restante -> {
+                // Timeout 0 es "sin límite" en HttpClient: el mínimo es 1 ms
+                long milis = Math.max(1, Plazo.acotar(configuracion.getResponseTimeout().toDuration()).toMillis());
+                HttpClientContext contexto = HttpClientContext.create();
+                contexto.setRequestConfig(RequestConfig.copy(configuracion)
+                    .setResponseTimeout(Timeout.ofMilliseconds(milis))
+                    .build());
+                return contexto;
+            })
+            .orElse(null);
+    }
+
+    private Cliente crearCliente(String destino) {
+        int maxConexiones = propiedad(destino, "max-conexiones", Integer.class, 50);
+        Duration timeoutConexion = propiedad(destino, "timeout-conexion", Duration.class, Duration.ofSeconds(2));
+        Duration timeoutLectura = propiedad(destino, "timeout-lectura", Duration.class, Duration.ofSeconds(10));
+        Duration timeoutPool = propiedad(destino, "timeout-pool", Duration.class, Duration.ofSeconds(2));
+        Duration keepAlive = propiedad(destino, "keep-alive", Duration.class, Duration.ofSeconds(15));
+        Duration vidaMaxima = propiedad(destino, "vida-maxima", Duration.class, Duration.ofMinutes(5));
+
+        // 1. Pool: un solo host por destino, así que el máximo total es el máximo por host
+        PoolingHttpClientConnectionManager conexiones = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(maxConexiones)
+            .setMaxConnPerRoute(maxConexiones)
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(timeoutConexion))
+                .setSocketTimeout(Timeout.of(timeoutLectura))
+                .setTimeToLive(TimeValue.of(vidaMaxima))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                .build())
+            .build();
+
+        // 2. Cliente: keep-alive menor al del servidor (Tomcat cierra a los 20 s sin uso)
+        //    y limpieza de conexiones vencidas o inactivas en segundo plano.
+        //    Sin reintentos automáticos: si hay, los decide ResilienciaHttp (solo GET, con presupuesto)
+        RequestConfig configuracion = RequestConfig.custom()
+            .setConnectionRequestTimeout(Timeout.of(timeoutPool))
+            .setResponseTimeout(Timeout.of(timeoutLectura))
+            .setConnectionKeepAlive(TimeValue.of(keepAlive))
+            .build();
+        CloseableHttpClient cliente = HttpClients.custom()
+            .setConnectionManager(conexiones)
+            .setDefaultRequestConfig(configuracion)
+            .disableAutomaticRetries()
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.of(keepAlive))
+            .build();
+
+        // 3. Métricas del pool (conexiones libres, en uso y llamadas esperando una conexión)
+        metricas.ifAvailable(registro ->
+            new PoolingHttpClientConnectionManagerMetricsBinder(conexiones, destino).bindTo(registro));
+
+        log.info("Pool HTTP '{}': {} conexiones, timeouts conexión {} / lectura {} / pool {}, keep-alive {}",
+            destino, maxConexiones, timeoutConexion, timeoutLectura, timeoutPool, keepAlive);
+        return new Cliente(cliente, configuracion);
+    }
+
+    private <T> T propiedad(String destino, String nombre, Class<T> tipo, T porDefecto) {
+        T general = entorno.getProperty("http-cliente." + nombre, tipo, porDefecto);
+        return entorno.getProperty("http-cliente.destinos." + destino + "." + nombre, tipo, general);
+    }
+
+    /**
+     * Cierra los pools (y sus conexiones) al apagar la aplicación.
+     */
+    @Override
+    public void destroy() {
+        clientes.values().forEach(cliente -> cliente.http().close(CloseMode.GRACEFUL));
+    }
+}
@@ -0,0 +1,41 @@
+package com.tpi.comun.metricas;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.ObservationFilter;
+import io.micrometer.observation.aop.ObservedAspect;
+
+/**
+ * Métricas propias de los servicios que miden métodos con @Observed
+ * (management.observations.annotations.enabled=true).
+ *
+ * Los métodos marcados con @Observed (clientes de otros servicios, cálculos) generan un timer
+ * con el nombre de la observación y los tags class, method y error; acá se agrega outcome.
+ * Las consultas a repositorios las mide Spring Boot (spring.data.repository.invocations, con
+ * el tag state) y las llamadas HTTP salientes también (http.client.requests, con client.name).
+ * Los histogramas para percentiles se activan en el application.yml de cada servicio.
+ */
+@AutoConfiguration
+@ConditionalOnClass(ObservedAspect.class)
+@ConditionalOnProperty(name = "management.observations.annotations.enabled", havingValue = "true")
+public class MetricasConfig {
+
+    /**
+     * Tag outcome (SUCCESS / ERROR) en las observaciones de @Observed, igual al de
+     * http.server.requests y http.client.requests, para filtrar todas con el mismo tag.
+     */
+    @Bean
+    public ObservationFilter resultadoObservaciones() {
+        return contexto -> {
+            if (contexto instanceof ObservedAspect.ObservedAspectContext) {
+                contexto.addLowCardinalityKeyValue(
+                    KeyValue.of("outcome", contexto.getError() == null ? "SUCCESS" : "ERROR"));
+            }
+            return contexto;
+        };
+    }
+}
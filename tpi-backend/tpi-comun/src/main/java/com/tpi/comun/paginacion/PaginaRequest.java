@@ -0,0 +1,24 @@
+package com.tpi.comun.paginacion;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Parámetros de paginación que aceptan los endpoints de listado.
+ * Se bindean directamente desde la query string (?tamanio=50&orden=id&direccion=DESC&cursor=...).
+ */
+public record PaginaRequest(
+
+    @Schema(description = "Cursor devuelto por la página anterior (siguienteCursor). " +
+                          "Si se envía, define el orden y se ignoran 'orden' y 'direccion'")
+    String cursor,
+
+    @Schema(description = "Cantidad de elementos por página", example = "20", defaultValue = "20")
+    Integer tamanio,
+
+    @Schema(description = "Campo por el cual ordenar", example = "id", defaultValue = "id")
+    String orden,
+
+    @Schema(description = "Dirección del orden", example = "ASC", allowableValues = {"ASC", "DESC"}, defaultValue = "ASC")
+    String direccion
+) {
+}
@@ -0,0 +1,27 @@
+package com.tpi.comun.paginacion;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Página de resultados de un listado paginado por cursor.
+ * Para pedir la página siguiente se reenvía siguienteCursor en el parámetro "cursor".
+ */
+@Schema(description = "Página de resultados con cursor para continuar el listado")
+public record PaginaResponse<T>(
+
+    @Schema(description = "Elementos de la página")
+    List<T> contenido,
+
+    @Schema(description = "Cantidad de elementos devueltos", example = "20")
+    int tamanio,
+
+    @Schema(description = "Indica si hay más elementos después de esta página", example = "true")
+    boolean hayMas,
+
+    @Schema(description = "Cursor para pedir la página siguiente (null si no hay más)",
+            example = "bz1pZCZkPUFTQyZrLmlkPTIw")
+    String siguienteCursor
+) {
+}
@@ -0,0 +1,169 @@
+package com.tpi.comun.paginacion;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import com.tpi.comun.excepcion.ParametroInvalidoException;
+
+/**
+ * Arma consultas paginadas por keyset (cursor) y convierte el resultado en una PaginaResponse.
+ *
+ * A diferencia de la paginación por offset, cada página continúa desde la última clave leída
+ * (WHERE campo > ultimoValor ORDER BY campo, id LIMIT n), así que pedir la página 1000 cuesta
+ * lo mismo que pedir la primera. El ID se agrega siempre como desempate para que el orden sea estable.
+ *
+ * El cursor es opaco para el cliente: guarda campo, dirección y las claves de la última fila
+ * en Base64 URL-safe.
+ */
+public class Paginador {
+
+    public static final int TAMANIO_POR_DEFECTO = 20;
+    public static final int TAMANIO_MAXIMO = 200;
+
+    private static final String CAMPO_ID = "id";
+    private static final String CLAVE_ORDEN = "o";
+    private static final String CLAVE_DIRECCION = "d";
+    private static final String PREFIJO_VALOR = "k.";
+
+    /**
+     * Consulta lista para pasar a un método de repositorio que devuelve Window.
+     */
+    public record Consulta(String campo, Sort.Direction direccion, ScrollPosition posicion, Sort orden, Limit limite) {}
+
+    // campo ordenable -> cómo reconstruir su valor desde el cursor
+    private final Map<String, Function<String, Object>> camposOrdenables;
+
+    /**
+     * @param camposOrdenables campos permitidos para ordenar y cómo parsear su valor;
+     *                         deben ser columnas no nulas. Debe incluir "id".
+     */
+    public Paginador(Map<String, Function<String, Object>> camposOrdenables) {
+        if (!camposOrdenables.containsKey(CAMPO_ID)) {
+            throw new IllegalArgumentException("Los campos ordenables deben incluir 'id'");
+        }
+        this.camposOrdenables = Map.copyOf(camposOrdenables);
+    }
+
+    /**
+     * Traduce los parámetros del request a posición, orden y límite.
+     * Si viene un cursor, el orden sale del cursor y no de los parámetros.
+     */
+    public Consulta consulta(PaginaRequest request) {
+        int tamanio = request.tamanio() == null ? TAMANIO_POR_DEFECTO : request.tamanio();
+        if (tamanio < 1 || tamanio > TAMANIO_MAXIMO) {
+            throw new ParametroInvalidoException(
+                "El tamaño de página debe estar entre 1 y " + TAMANIO_MAXIMO + ": " + tamanio);
+        }
+
+        String campo;
+        Sort.Direction direccion;
+        ScrollPosition posicion;
+
+        if (request.cursor() != null && !request.cursor().isBlank()) {
+            Map<String, String> partes = decodificar(request.cursor());
+            campo = validarCampo(partes.get(CLAVE_ORDEN));
+            direccion = parsearDireccion(partes.get(CLAVE_DIRECCION));
+            posicion = ScrollPosition.forward(clavesDesdeCursor(partes, campo));
+        } else {
+            campo = validarCampo(request.orden() == null || request.orden().isBlank() ? CAMPO_ID : request.orden());
+            direccion = parsearDireccion(request.direccion());
+            posicion = ScrollPosition.keyset();
+        }
+
+        Sort orden = Sort.by(direccion, campo);
+        if (!CAMPO_ID.equals(campo)) {
+            orden = orden.and(Sort.by(direccion, CAMPO_ID));
+        }
+
+        return new Consulta(campo, direccion, posicion, orden, Limit.of(tamanio));
+    }
+
+    /**
+     * Convierte la ventana leída en una página, mapeando cada elemento y calculando el siguiente cursor.
+     */
+    public <E, D> PaginaResponse<D> pagina(Window<E> ventana, Consulta consulta, Function<E, D> mapeo) {
+        List<D> contenido = ventana.getContent().stream().map(mapeo).toList();
+
+        String siguienteCursor = null;
+        if (ventana.hasNext() && !ventana.isEmpty()) {
+            KeysetScrollPosition ultima = (KeysetScrollPosition) ventana.positionAt(ventana.size() - 1);
+            siguienteCursor = codificar(consulta, ultima.getKeys());
+        }
+
+        return new PaginaResponse<>(contenido, contenido.size(), ventana.hasNext(), siguienteCursor);
+    }
+
+    private String validarCampo(String campo) {
+        if (campo == null || !camposOrdenables.containsKey(campo)) {
+            throw new ParametroInvalidoException(
+                "Campo de orden inválido: " + campo + ". Permitidos: " + camposOrdenables.keySet());
+        }
+        return campo;
+    }
+
+    private Sort.Direction parsearDireccion(String direccion) {
+        if (direccion == null || direccion.isBlank()) {
+            return Sort.Direction.ASC;
+        }
+        return Sort.Direction.fromOptionalString(direccion)
+            .orElseThrow(() -> new ParametroInvalidoException("Dirección de orden inválida: " + direccion));
+    }
+
+    private Map<String, Object> clavesDesdeCursor(Map<String, String> partes, String campo) {
+        Map<String, Object> claves = new LinkedHashMap<>();
+        for (String nombre : List.of(campo, CAMPO_ID)) {
+            String valor = partes.get(PREFIJO_VALOR + nombre);
+            if (valor == null) {
+                throw new ParametroInvalidoException("Cursor inválido: falta el valor de '" + nombre + "'");
+            }
+            try {
+                claves.put(nombre, camposOrdenables.get(nombre).apply(valor));
+            } catch (RuntimeException e) {
+                throw new ParametroInvalidoException("Cursor inválido: valor de '" + nombre + "' ilegible");
+            }
+        }
+        return claves;
+    }
+
+    private String codificar(Consulta consulta, Map<String, ?> claves) {
+        StringBuilder sb = new StringBuilder()
+            .append(CLAVE_ORDEN).append('=').append(consulta.campo())
+            .append('&').append(CLAVE_DIRECCION).append('=').append(consulta.direccion().name());
+        claves.forEach((nombre, valor) -> sb
+            .append('&').append(PREFIJO_VALOR).append(nombre)
+            .append('=').append(URLEncoder.encode(String.valueOf(valor), StandardCharsets.UTF_8)));
+
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Map<String, String> decodificar(String cursor) {
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            Map<String, String> partes = new LinkedHashMap<>();
+            for (String par : texto.split("&")) {
+                int igual = par.indexOf('=');
+                if (igual < 0) {
+                    throw new IllegalArgumentException(par);
+                }
+                partes.put(par.substring(0, igual),
+                           URLDecoder.decode(par.substring(igual + 1), StandardCharsets.UTF_8));
+            }
+            return partes;
+        } catch (IllegalArgumentException e) {
+            throw new ParametroInvalidoException("Cursor inválido");
+        }
+    }
+}
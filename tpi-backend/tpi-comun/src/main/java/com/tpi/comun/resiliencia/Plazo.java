@@ -0,0 +1,123 @@
+package com.tpi.comun.resiliencia;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Plazo (deadline) de la request que se está atendiendo.
+ *
+ * PlazoFilter lo fija al entrar la request, a partir del header X-Deadline-Ms (tiempo que le
+ * queda al que llama) o del plazo por defecto. Las llamadas a otros servicios lo usan para no
+ * esperar más de lo que queda y lo reenvían, así todo el recorrido comparte el mismo plazo.
+ *
+ * Se guarda por hilo: los ejecutores lo copian a sus tareas con {@link #propagar(Runnable)}.
+ * Se mide con System.nanoTime(), así un cambio de hora del sistema no lo altera.
+ */
+public final class Plazo {
+
+    /** Header con los milisegundos que le quedan al que llama. */
+    public static final String HEADER = "X-Deadline-Ms";
+
+    // Instante límite en nanoTime, o null si el hilo no atiende una request con plazo
+    private static final ThreadLocal<Long> LIMITE = new ThreadLocal<>();
+
+    private Plazo() {
+    }
+
+    /**
+     * @return tiempo que queda (cero o negativo si ya venció), o vacío si no hay plazo
+     */
+    public static Optional<Duration> restante() {
+        Long limite = LIMITE.get();
+        return limite == null ? Optional.empty() : Optional.of(Duration.ofNanos(limite - System.nanoTime()));
+    }
+
+    /**
+     * Plazo de una request que llega, según su header X-Deadline-Ms.
+     *
+     * @param header valor del header (null si no vino)
+     * @param porDefecto plazo sin header o con un valor que no es un número
+     * @param maximo tope para el plazo que pide el que llama
+     * @return plazo de la request (cero o negativo si ya venció)
+     */
+    public static Duration pedido(String header, Duration porDefecto, Duration maximo) {
+        if (header == null || header.isBlank()) {
+            return porDefecto;
+        }
+        try {
+            Duration pedido = Duration.ofMillis(Long.parseLong(header.trim()));
+            return pedido.compareTo(maximo) > 0 ? maximo : pedido;
+        } catch (NumberFormatException e) {
+            return porDefecto;
+        }
+    }
+
+    /**
+     * Acota una espera local (ej: el deadline para calcular todos los tramos) al plazo de la request.
+     *
+     * @param espera espera configurada
+     * @return la menor entre la espera y lo que queda del plazo (nunca negativa)
+     */
+    public static Duration acotar(Duration espera) {
+        return restante()
+            .map(queda -> queda.compareTo(espera) < 0 ? queda : espera)
+            .map(acotada -> acotada.isNegative() ? Duration.ZERO : acotada)
+            .orElse(espera);
+    }
+
+    /**
+     * Fija un plazo para el hilo actual hasta cerrar el alcance, que restaura el anterior.
+     *
+     * @param plazo tiempo disponible desde ahora
+     * @return alcance a cerrar al terminar (try-with-resources)
+     */
+    public static Alcance abrir(Duration plazo) {
+        return abrirConLimite(System.nanoTime() + plazo.toNanos());
+    }
+
+    /**
+     * Envuelve una tarea para que corra con el plazo del hilo que la crea.
+     * Se usa como TaskDecorator de los ejecutores de llamadas a otros servicios.
+     *
+     * @param tarea tarea a envolver
+     * @return la tarea con el plazo actual, o la misma si no hay plazo
+     */
+    public static Runnable propagar(Runnable tarea) {
+        Long limite = LIMITE.get();
+        if (limite == null) {
+            return tarea;
+        }
+        return () -> {
+            try (Alcance alcance = abrirConLimite(limite)) {
+                tarea.run();
+            }
+        };
+    }
+
+    /**
+     * Alcance de un plazo fijado con {@link #abrir(Duration)}.
+     */
+    public static final class Alcance implements AutoCloseable {
+
+        private final Long anterior;
+
+        private Alcance(Long anterior) {
+            this.anterior = anterior;
+        }
+
+        @Override
+        public void close() {
+            if (anterior == null) {
+                LIMITE.remove();
+            } else {
+                LIMITE.set(anterior);
+            }
+        }
+    }
+
+    private static Alcance abrirConLimite(long limite) {
+        Alcance alcance = new Alcance(LIMITE.get());
+        LIMITE.set(limite);
+        return alcance;
+    }
+}
@@ -0,0 +1,54 @@
+package com.tpi.comun.resiliencia;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fija el plazo de cada request antes que cualquier otro filtro.
+ *
+ * - Con header X-Deadline-Ms se usa lo que le queda al que llama (sin superar el máximo).
+ * - Sin header se usa el plazo por defecto.
+ * - Si el plazo ya venció, se responde 504 sin procesar nada: el que llama ya no espera la respuesta.
+ *
+ * Lo registra ResilienciaConfig en los servicios servlet, con resiliencia.plazo-por-defecto
+ * y resiliencia.plazo-maximo.
+ */
+@Slf4j
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class PlazoFilter extends OncePerRequestFilter {
+
+    private final Duration plazoPorDefecto;
+    private final Duration plazoMaximo;
+
+    public PlazoFilter(Duration plazoPorDefecto, Duration plazoMaximo) {
+        this.plazoPorDefecto = plazoPorDefecto;
+        this.plazoMaximo = plazoMaximo;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        Duration plazo = Plazo.pedido(request.getHeader(Plazo.HEADER), plazoPorDefecto, plazoMaximo);
+        if (plazo.isNegative() || plazo.isZero()) {
+            log.warn("{} {} llegó con el plazo vencido", request.getMethod(), request.getRequestURI());
+            response.sendError(HttpStatus.GATEWAY_TIMEOUT.value(), "Plazo de la request vencido");
+            return;
+        }
+
+        try (Plazo.Alcance alcance = Plazo.abrir(plazo)) {
+            chain.doFilter(request, response);
+        }
+    }
+}
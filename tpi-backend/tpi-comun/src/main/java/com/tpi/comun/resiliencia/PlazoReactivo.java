@@ -0,0 +1,68 @@
+package com.tpi.comun.resiliencia;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Plazo de la request para código reactivo (Mono de WebClient).
+ *
+ * En WebFlux una request no tiene un hilo propio, así que PlazoWebFilter guarda el plazo en el
+ * contexto de Reactor. En un servicio servlet los Mono se suscriben en el hilo de la request y
+ * el plazo se toma de {@link Plazo}. {@link #acotar(Mono)} funciona igual en los dos modos.
+ */
+public final class PlazoReactivo {
+
+    // Clave del contexto de Reactor con el instante límite en nanoTime (como Plazo)
+    private static final String LIMITE = PlazoReactivo.class.getName() + ".limite";
+
+    private PlazoReactivo() {
+    }
+
+    /**
+     * Fija un plazo en el contexto de Reactor.
+     *
+     * @param plazo tiempo disponible desde ahora
+     * @return función para Mono.contextWrite / Flux.contextWrite
+     */
+    public static Function<Context, Context> fijar(Duration plazo) {
+        long limite = System.nanoTime() + plazo.toNanos();
+        return contexto -> contexto.put(LIMITE, limite);
+    }
+
+    /**
+     * @param contexto contexto de Reactor de quien se suscribe
+     * @return tiempo que queda (cero o negativo si ya venció), o vacío si no hay plazo
+     */
+    public static Optional<Duration> restante(ContextView contexto) {
+        return contexto.<Long>getOrEmpty(LIMITE)
+            .map(limite -> Duration.ofNanos(limite - System.nanoTime()))
+            .or(Plazo::restante);
+    }
+
+    /**
+     * Acota la espera de una llamada al plazo de la request. Si vence antes de que la llamada
+     * emita, se cancela y falla con 504. Sin plazo la llamada queda igual (con su propio timeout).
+     *
+     * @param llamada llamada a acotar
+     * @return la llamada con el plazo como timeout
+     */
+    public static <T> Mono<T> acotar(Mono<T> llamada) {
+        return Mono.deferContextual(contexto -> restante(contexto)
+            .map(queda -> queda.isNegative() || queda.isZero()
+                ? Mono.<T>error(vencido())
+                : llamada.timeout(queda, Mono.error(PlazoReactivo::vencido)))
+            .orElse(llamada));
+    }
+
+    private static ResponseStatusException vencido() {
+        return new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Plazo de la request vencido");
+    }
+}
@@ -0,0 +1,47 @@
+package com.tpi.comun.resiliencia;
+
+import java.time.Duration;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * PlazoFilter para los servicios reactivos (WebFlux), con las mismas reglas: header
+ * X-Deadline-Ms o plazo por defecto, y 504 si ya venció.
+ *
+ * El plazo queda en el contexto de Reactor de la request; las llamadas lo usan con
+ * PlazoReactivo.acotar.
+ */
+@Slf4j
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class PlazoWebFilter implements WebFilter {
+
+    private final Duration plazoPorDefecto;
+    private final Duration plazoMaximo;
+
+    public PlazoWebFilter(Duration plazoPorDefecto, Duration plazoMaximo) {
+        this.plazoPorDefecto = plazoPorDefecto;
+        this.plazoMaximo = plazoMaximo;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        Duration plazo = Plazo.pedido(
+            exchange.getRequest().getHeaders().getFirst(Plazo.HEADER), plazoPorDefecto, plazoMaximo);
+        if (plazo.isNegative() || plazo.isZero()) {
+            log.warn("{} {} llegó con el plazo vencido",
+                exchange.getRequest().getMethod(), exchange.getRequest().getPath());
+            return Mono.error(new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Plazo de la request vencido"));
+        }
+
+        return chain.filter(exchange).contextWrite(PlazoReactivo.fijar(plazo));
+    }
+}
@@ -0,0 +1,70 @@
+package com.tpi.comun.resiliencia;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Registra el plazo de las requests y la resiliencia de las llamadas en cada servicio que
+ * depende de tpi-comun (auto-configuración: no depende del paquete que escanea el servicio).
+ *
+ * - PlazoFilter (servlet) o PlazoWebFilter (WebFlux), salvo con resiliencia.fijar-plazo=false.
+ * - ResilienciaHttp: en los servicios que tienen Resilience4j. Los rechazos usan el bean
+ *   ResilienciaHttp.Rechazo del servicio, si lo define.
+ */
+@AutoConfiguration
+public class ResilienciaConfig {
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnProperty(name = "resiliencia.fijar-plazo", havingValue = "true", matchIfMissing = true)
+    static class PlazoServlet {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public PlazoFilter plazoFilter(
+                @Value("${resiliencia.plazo-por-defecto:60s}") Duration plazoPorDefecto,
+                @Value("${resiliencia.plazo-maximo:120s}") Duration plazoMaximo) {
+            return new PlazoFilter(plazoPorDefecto, plazoMaximo);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    @ConditionalOnProperty(name = "resiliencia.fijar-plazo", havingValue = "true", matchIfMissing = true)
+    static class PlazoWebFlux {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public PlazoWebFilter plazoWebFilter(
+                @Value("${resiliencia.plazo-por-defecto:60s}") Duration plazoPorDefecto,
+                @Value("${resiliencia.plazo-maximo:120s}") Duration plazoMaximo) {
+            return new PlazoWebFilter(plazoPorDefecto, plazoMaximo);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass({CircuitBreaker.class, Bulkhead.class})
+    static class Llamadas {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public ResilienciaHttp resilienciaHttp(Environment entorno, ObjectProvider<MeterRegistry> metricas,
+                                               ObjectProvider<ResilienciaHttp.Rechazo> rechazo) {
+            return new ResilienciaHttp(entorno, metricas, rechazo.getIfAvailable(() -> ResilienciaHttp.Rechazo.POR_DEFECTO));
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.tpi.comun.resiliencia;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Capa de resiliencia de las llamadas a otros servicios: un interceptor de RestClient por destino.
+ *
+ * Por cada llamada, en este orden:
+ * 1. Plazo: si la request ya no tiene tiempo, falla sin llamar; si tiene, se envía en X-Deadline-Ms.
+ * 2. Bulkhead: llamadas simultáneas acotadas por destino. Si está lleno, falla enseguida
+ *    en lugar de dejar el hilo esperando a un servicio lento.
+ * 3. Circuit breaker: si fallan (5xx, timeouts, errores de conexión) o tardan demasiadas de las
+ *    últimas llamadas, se deja de llamar por un rato y se falla enseguida.
+ * 4. Reintentos: solo GET (idempotentes), ante errores de conexión o 502/503/504, con espera
+ *    exponencial al azar (full jitter) que no supera el plazo. Un presupuesto por destino limita
+ *    los reintentos a una fracción de las llamadas, así no se multiplica la carga de un servicio caído.
+ *
+ * Los rechazos se lanzan con la excepción que arma el {@link Rechazo} del servicio (en los
+ * servicios, MicroservicioNoDisponibleException, igual que los clientes).
+ * Las métricas quedan en Micrometer: resilience4j.circuitbreaker.*, resilience4j.bulkhead.*
+ * y http.cliente.reintentos (tag destino).
+ *
+ * Los valores salen de resiliencia.* y cada destino puede pisarlos con
+ * resiliencia.destinos.<destino>.* (ej: resiliencia.destinos.routing.llamada-lenta).
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ResilienciaHttp {
+
+    /**
+     * Arma la excepción con la que se rechaza una llamada (plazo vencido, bulkhead lleno o
+     * circuito abierto). Cada servicio la define como bean para lanzar su propia excepción.
+     */
+    @FunctionalInterface
+    public interface Rechazo {
+
+        /** Sin bean del servicio: IllegalStateException con el destino y la operación. */
+        Rechazo POR_DEFECTO = (destino, operacion, causa) ->
+            new IllegalStateException("Servicio " + destino + " no disponible: " + operacion, causa);
+
+        RuntimeException crear(String destino, String operacion, Throwable causa);
+    }
+
+    private final Environment entorno;
+    private final ObjectProvider<MeterRegistry> metricas;
+    private final Rechazo rechazo;
+
+    private final CircuitBreakerRegistry circuitos = CircuitBreakerRegistry.ofDefaults();
+    private final BulkheadRegistry bulkheads = BulkheadRegistry.ofDefaults();
+    private final Map<String, Interceptor> interceptores = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void registrarMetricas() {
+        metricas.ifAvailable(registro -> {
+            TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitos).bindTo(registro);
+            TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(registro);
+        });
+    }
+
+    /**
+     * Interceptor de resiliencia de un servicio destino. Los RestClient con el mismo
+     * destino comparten bulkhead, circuito y presupuesto de reintentos.
+     *
+     * @param destino nombre del servicio destino
+     * @return interceptor para agregar al RestClient
+     */
+    public ClientHttpRequestInterceptor interceptor(String destino) {
+        return interceptores.computeIfAbsent(destino, this::crearInterceptor);
+    }
+
+    private Interceptor crearInterceptor(String destino) {
+        CircuitBreaker circuito = circuitos.circuitBreaker(destino, CircuitBreakerConfig.custom()
+            .slidingWindowSize(propiedad(destino, "ventana-circuito", Integer.class, 20))
+            .minimumNumberOfCalls(propiedad(destino, "minimo-llamadas-circuito", Integer.class, 10))
+            .failureRateThreshold(propiedad(destino, "porcentaje-fallas", Float.class, 50f))
+            .slowCallDurationThreshold(propiedad(destino, "llamada-lenta", Duration.class, Duration.ofSeconds(5)))
+            .slowCallRateThreshold(propiedad(destino, "porcentaje-lentas", Float.class, 80f))
+            .waitDurationInOpenState(propiedad(destino, "espera-circuito-abierto", Duration.class, Duration.ofSeconds(10)))
+            .permittedNumberOfCallsInHalfOpenState(3)
+            .build());
+
+        Bulkhead bulkhead = bulkheads.bulkhead(destino, BulkheadConfig.custom()
+            .maxConcurrentCalls(propiedad(destino, "max-llamadas", Integer.class, 40))
+            .maxWaitDuration(propiedad(destino, "max-espera-lugar", Duration.class, Duration.ofMillis(100)))
+            .build());
+
+        Reintentos reintentos = new Reintentos(
+            propiedad(destino, "max-intentos", Integer.class, 3),
+            propiedad(destino, "espera-base-reintento", Duration.class, Duration.ofMillis(100)),
+            propiedad(destino, "espera-max-reintento", Duration.class, Duration.ofSeconds(1)),
+            new Presupuesto(propiedad(destino, "proporcion-reintentos", Double.class, 0.1)),
+            metricas.getIfAvailable() != null
+                ? Counter.builder("http.cliente.reintentos").tag("destino", destino)
+                    .description("Reintentos de llamadas GET a otros servicios").register(metricas.getObject())
+                : null);
+
+        circuito.getEventPublisher().onStateTransition(evento ->
+            log.warn("Circuito '{}': {}", destino, evento.getStateTransition()));
+
+        return new Interceptor(destino, circuito, bulkhead, reintentos, rechazo);
+    }
+
+    private <T> T propiedad(String destino, String nombre, Class<T> tipo, T porDefecto) {
+        T general = entorno.getProperty("resiliencia." + nombre, tipo, porDefecto);
+        return entorno.getProperty("resiliencia.destinos." + destino + "." + nombre, tipo, general);
+    }
+
+    // Parámetros y estado de los reintentos de un destino
+    private record Reintentos(int maxIntentos, Duration esperaBase, Duration esperaMax,
+                              Presupuesto presupuesto, Counter contador) {}
+
+    /**
+     * Presupuesto de reintentos (cubeta de fichas): cada llamada suma una fracción de ficha
+     * y cada reintento gasta una. Con proporción 0.1, a lo sumo ~1 reintento cada 10 llamadas
+     * una vez agotado el saldo inicial.
+     */
+    private static final class Presupuesto {
+
+        private static final long MILIS_POR_FICHA = 1000;
+        private static final long SALDO_MAXIMO = 10 * MILIS_POR_FICHA;
+
+        private final long aporte;
+        private final AtomicLong saldo = new AtomicLong(SALDO_MAXIMO);
+
+        Presupuesto(double proporcion) {
+            this.aporte = Math.round(proporcion * MILIS_POR_FICHA);
+        }
+
+        void registrarLlamada() {
+            saldo.updateAndGet(actual -> Math.min(SALDO_MAXIMO, actual + aporte));
+        }
+
+        boolean gastar() {
+            long actual;
+            do {
+                actual = saldo.get();
+                if (actual < MILIS_POR_FICHA) {
+                    return false;
+                }
+            } while (!saldo.compareAndSet(actual, actual - MILIS_POR_FICHA));
+            return true;
+        }
+    }
+
+    // Respuesta 5xx: cuenta como falla para el circuito
+    private static final class RespuestaConError extends Exception {
+        RespuestaConError(HttpStatusCode estado) {
+            super("Respuesta " + estado.value(), null, false, false);
+        }
+    }
+
+    private static final class Interceptor implements ClientHttpRequestInterceptor {
+
+        private final String destino;
+        private final CircuitBreaker circuito;
+        private final Bulkhead bulkhead;
+        private final Reintentos reintentos;
+        private final Rechazo rechazo;
+
+        Interceptor(String destino, CircuitBreaker circuito, Bulkhead bulkhead, Reintentos reintentos,
+                    Rechazo rechazo) {
+            this.destino = destino;
+            this.circuito = circuito;
+            this.bulkhead = bulkhead;
+            this.reintentos = reintentos;
+            this.rechazo = rechazo;
+        }
+
+        @Override
+        public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution ejecucion)
+                throws IOException {
+
+            boolean idempotente = request.getMethod() == HttpMethod.GET;
+            reintentos.presupuesto().registrarLlamada();
+
+            for (int intento = 1; ; intento++) {
+                ClientHttpResponse respuesta;
+                try {
+                    respuesta = llamar(request, body, ejecucion);
+                } catch (IOException e) {
+                    if (!idempotente || !esperarReintento(request, intento)) {
+                        throw e;
+                    }
+                    continue;
+                }
+
+                if (!idempotente || !reintentable(respuesta.getStatusCode()) || !esperarReintento(request, intento)) {
+                    return respuesta;
+                }
+                respuesta.close();
+            }
+        }
+
+        private ClientHttpResponse llamar(HttpRequest request, byte[] body, ClientHttpRequestExecution ejecucion)
+                throws IOException {
+
+            // 1. Plazo
+            Duration restante = Plazo.restante().orElse(null);
+            if (restante != null) {
+                if (restante.isNegative() || restante.isZero()) {
+                    throw rechazo(request, "plazo de la request vencido", null);
+                }
+                request.getHeaders().set(Plazo.HEADER, String.valueOf(restante.toMillis()));
+            }
+
+            // 2. Bulkhead
+            try {
+                bulkhead.acquirePermission();
+            } catch (BulkheadFullException e) {
+                throw rechazo(request, "demasiadas llamadas simultáneas", e);
+            }
+
+            try {
+                // 3. Circuit breaker
+                try {
+                    circuito.acquirePermission();
+                } catch (CallNotPermittedException e) {
+                    throw rechazo(request, "circuito abierto", e);
+                }
+
+                long inicio = System.nanoTime();
+                try {
+                    ClientHttpResponse respuesta = ejecucion.execute(request, body);
+                    long duracion = System.nanoTime() - inicio;
+                    if (respuesta.getStatusCode().is5xxServerError()) {
+                        circuito.onError(duracion, TimeUnit.NANOSECONDS, new RespuestaConError(respuesta.getStatusCode()));
+                    } else {
+                        circuito.onSuccess(duracion, TimeUnit.NANOSECONDS);
+                    }
+                    return respuesta;
+                } catch (IOException | RuntimeException e) {
+                    circuito.onError(System.nanoTime() - inicio, TimeUnit.NANOSECONDS, e);
+                    throw e;
+                }
+            } finally {
+                bulkhead.onComplete();
+            }
+        }
+
+        /**
+         * Decide si se reintenta y, si es así, espera antes de volver a llamar.
+         *
+         * @return true si hay que reintentar
+         */
+        private boolean esperarReintento(HttpRequest request, int intento) {
+            if (intento >= reintentos.maxIntentos()) {
+                return false;
+            }
+
+            // Espera exponencial con full jitter: al azar entre 0 y base * 2^(intento-1), con tope
+            long topeNanos = Math.min(reintentos.esperaMax().toNanos(),
+                reintentos.esperaBase().toNanos() << Math.min(intento - 1, 20));
+            long esperaNanos = ThreadLocalRandom.current().nextLong(topeNanos + 1);
+
+            // Sin tiempo para esperar y volver a llamar, no se reintenta
+            Duration restante = Plazo.restante().orElse(null);
+            if (restante != null && restante.toNanos() <= esperaNanos) {
+                return false;
+            }
+            if (!reintentos.presupuesto().gastar()) {
+                log.debug("Sin presupuesto de reintentos para '{}'", destino);
+                return false;
+            }
+
+            if (reintentos.contador() != null) {
+                reintentos.contador().increment();
+            }
+            log.debug("Reintento {} de {} {} en {} ms", intento, request.getMethod(), request.getURI(),
+                TimeUnit.NANOSECONDS.toMillis(esperaNanos));
+            try {
+                TimeUnit.NANOSECONDS.sleep(esperaNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            return true;
+        }
+
+        private static boolean reintentable(HttpStatusCode estado) {
+            int codigo = estado.value();
+            return codigo == 502 || codigo == 503 || codigo == 504;
+        }
+
+        private RuntimeException rechazo(HttpRequest request, String motivo, Throwable causa) {
+            return rechazo.crear(destino,
+                request.getMethod() + " " + request.getURI().getPath() + " (" + motivo + ")", causa);
+        }
+    }
+}
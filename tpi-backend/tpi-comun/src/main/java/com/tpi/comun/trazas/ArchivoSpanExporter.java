@@ -0,0 +1,88 @@
+package com.tpi.comun.trazas;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Exporta los spans terminados a un archivo local, una línea JSON por span.
+ *
+ * Lo registra TrazasConfig cuando está trazas.archivo (variable TRAZAS_ARCHIVO). Spring Boot
+ * lo agrega al BatchSpanProcessor, así que se escribe por lotes desde un hilo propio y no en el
+ * camino de la request. Cada línea trae traza, span, padre, servicio, nombre, tipo (SERVER /
+ * CLIENT / INTERNAL), inicio, duracionMs, estado y atributos: agrupando por traza y siguiendo
+ * los padres se obtiene cuánto tardó cada salto (gateway → solicitudes → logistica → routing → OSRM).
+ */
+@Slf4j
+public class ArchivoSpanExporter implements SpanExporter {
+
+    private static final AttributeKey<String> SERVICIO = AttributeKey.stringKey("service.name");
+
+    private final Path archivo;
+    private final ObjectMapper mapper;
+
+    public ArchivoSpanExporter(Path archivo, ObjectMapper mapper) throws IOException {
+        this.archivo = archivo.toAbsolutePath();
+        this.mapper = mapper;
+        Files.createDirectories(this.archivo.getParent());
+        log.info("Exportando spans a {}", this.archivo);
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        try {
+            StringBuilder lineas = new StringBuilder();
+            for (SpanData span : spans) {
+                lineas.append(mapper.writeValueAsString(linea(span))).append('\n');
+            }
+            Files.writeString(archivo, lineas, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            log.warn("No se pudieron escribir {} spans en {}: {}", spans.size(), archivo, e.getMessage());
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    private static Map<String, Object> linea(SpanData span) {
+        Map<String, Object> atributos = new LinkedHashMap<>();
+        span.getAttributes().forEach((clave, valor) -> atributos.put(clave.getKey(), valor));
+
+        Map<String, Object> linea = new LinkedHashMap<>();
+        linea.put("traza", span.getTraceId());
+        linea.put("span", span.getSpanId());
+        linea.put("padre", span.getParentSpanContext().isValid() ? span.getParentSpanId() : null);
+        linea.put("servicio", span.getResource().getAttribute(SERVICIO));
+        linea.put("nombre", span.getName());
+        linea.put("tipo", span.getKind().name());
+        linea.put("inicio", Instant.EPOCH.plusNanos(span.getStartEpochNanos()).toString());
+        linea.put("duracionMs", (span.getEndEpochNanos() - span.getStartEpochNanos()) / 1_000_000.0);
+        linea.put("estado", span.getStatus().getStatusCode().name());
+        linea.put("atributos", atributos);
+        return linea;
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+}
@@ -0,0 +1,55 @@
+package com.tpi.comun.trazas;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.ObjectProvider;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Span por cada llamada a un repositorio de Spring Data (ej: SolicitudRepository.findById),
+ * hijo del span de la request o del método que lo llama.
+ *
+ * Solo se crea dentro de una traza: las consultas de tareas en segundo plano sin request no
+ * abren trazas nuevas. Usa el Tracer directamente y no una Observation para no duplicar el
+ * timer que ya publica Spring Boot (spring.data.repository.invocations).
+ */
+@Aspect
+@RequiredArgsConstructor
+public class RepositorioTrazas {
+
+    private final ObjectProvider<Tracer> tracer;
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object trazar(ProceedingJoinPoint llamada) throws Throwable {
+        Tracer trazas = tracer.getIfAvailable();
+        if (trazas == null || trazas.currentSpan() == null) {
+            return llamada.proceed();
+        }
+
+        // El proxy implementa la interfaz del repositorio; el método puede venir de CrudRepository
+        Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(llamada.getThis());
+        String repositorio = interfaces.length > 0
+            ? interfaces[0].getSimpleName()
+            : llamada.getSignature().getDeclaringType().getSimpleName();
+        String metodo = llamada.getSignature().getName();
+
+        Span span = trazas.nextSpan()
+            .name(repositorio + "." + metodo)
+            .tag("repositorio", repositorio)
+            .tag("metodo", metodo)
+            .start();
+        try (Tracer.SpanInScope alcance = trazas.withSpan(span)) {
+            return llamada.proceed();
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
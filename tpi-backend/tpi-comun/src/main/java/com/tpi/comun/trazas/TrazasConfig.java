@@ -0,0 +1,54 @@
+package com.tpi.comun.trazas;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.Repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.tracing.Tracer;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+/**
+ * Registra las trazas comunes en cada servicio que depende de tpi-comun.
+ *
+ * - ArchivoSpanExporter: con trazas.archivo, en los servicios con el SDK de OpenTelemetry.
+ * - RepositorioTrazas: en los servicios con repositorios de Spring Data y AOP.
+ */
+@AutoConfiguration
+public class TrazasConfig {
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass({SpanExporter.class, ObjectMapper.class})
+    @ConditionalOnProperty("trazas.archivo")
+    static class Archivo {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public ArchivoSpanExporter archivoSpanExporter(@Value("${trazas.archivo}") Path archivo,
+                                                       ObjectMapper mapper) throws IOException {
+            return new ArchivoSpanExporter(archivo, mapper);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass({Tracer.class, Repository.class, Aspect.class})
+    static class Repositorios {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public RepositorioTrazas repositorioTrazas(ObjectProvider<Tracer> tracer) {
+            return new RepositorioTrazas(tracer);
+        }
+    }
+}
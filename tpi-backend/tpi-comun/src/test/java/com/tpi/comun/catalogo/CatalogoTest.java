@@ -0,0 +1,68 @@
+package com.tpi.comun.catalogo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Catalogo: se carga la primera vez que se usa, resuelve por ID y por nombre sin volver a leer
+ * la fuente y solo ve los cambios de la tabla después de recargar.
+ */
+class CatalogoTest {
+
+    private record Estado(Long id, String nombre) {}
+
+    private final List<Estado> tabla = new ArrayList<>(List.of(new Estado(1L, "PENDIENTE"), new Estado(2L, "ASIGNADO")));
+    private final AtomicInteger lecturas = new AtomicInteger();
+    private final Catalogo<Estado> catalogo = new Catalogo<>(() -> {
+        lecturas.incrementAndGet();
+        return tabla;
+    }, Estado::id, Estado::nombre);
+
+    @Test
+    void seCargaUnaSolaVezAlPrimerUso() {
+        assertThat(lecturas).hasValue(0);
+
+        assertThat(catalogo.porNombre("ASIGNADO")).contains(new Estado(2L, "ASIGNADO"));
+        assertThat(catalogo.porId(1L)).contains(new Estado(1L, "PENDIENTE"));
+        assertThat(catalogo.todos()).hasSize(2);
+
+        assertThat(lecturas).hasValue(1);
+    }
+
+    @Test
+    void valoresDesconocidosONulosNoEncuentranNada() {
+        assertThat(catalogo.porId(99L)).isEmpty();
+        assertThat(catalogo.porNombre("CANCELADO")).isEmpty();
+        assertThat(catalogo.porId(null)).isEmpty();
+        assertThat(catalogo.porNombre(null)).isEmpty();
+    }
+
+    @Test
+    void losCambiosDeLaTablaSeVenAlRecargar() {
+        catalogo.todos();
+        tabla.add(new Estado(3L, "FINALIZADO"));
+
+        assertThat(catalogo.porNombre("FINALIZADO")).isEmpty();
+        assertThat(catalogo.todos()).hasSize(2);
+
+        catalogo.recargar();
+
+        assertThat(catalogo.porNombre("FINALIZADO")).contains(new Estado(3L, "FINALIZADO"));
+        assertThat(catalogo.todos()).hasSize(3);
+    }
+
+    @Test
+    void conNombresRepetidosSeQuedaConElPrimero() {
+        tabla.add(new Estado(4L, "PENDIENTE"));
+        tabla.add(new Estado(5L, null));
+
+        assertThat(catalogo.porNombre("PENDIENTE")).contains(new Estado(1L, "PENDIENTE"));
+        assertThat(catalogo.porId(4L)).contains(new Estado(4L, "PENDIENTE"));
+        assertThat(catalogo.porId(5L)).isPresent();
+    }
+}
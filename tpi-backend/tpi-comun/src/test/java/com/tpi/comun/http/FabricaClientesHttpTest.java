@@ -0,0 +1,152 @@
+package com.tpi.comun.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import com.sun.net.httpserver.HttpServer;
+import com.tpi.comun.resiliencia.Plazo;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * FabricaClientesHttp contra un servidor simulado: las llamadas a un mismo destino reutilizan la
+ * conexión (aunque sean de distintos RestClient), cada destino puede pisar los valores generales,
+ * el timeout de respuesta se acota al Plazo de la request y cada pool publica sus métricas.
+ */
+class FabricaClientesHttpTest {
+
+    // Servidor simulado: anota el puerto del cliente de cada llamada y responde después de "demora"
+    private final List<Integer> puertosCliente = new CopyOnWriteArrayList<>();
+    private final AtomicLong demora = new AtomicLong();
+    private HttpServer servidor;
+
+    private final MockEnvironment entorno = new MockEnvironment()
+        .withProperty("http-cliente.destinos.lento.max-conexiones", "3")
+        .withProperty("http-cliente.destinos.lento.timeout-lectura", "200ms");
+    private final MeterRegistry registro = new SimpleMeterRegistry();
+    private FabricaClientesHttp fabrica;
+
+    @BeforeEach
+    void iniciar() throws IOException {
+        // Como en los servicios: las duraciones se leen en formato "100ms", "1s"
+        entorno.setConversionService(new ApplicationConversionService());
+
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        servidor.createContext("/", intercambio -> {
+            puertosCliente.add(intercambio.getRemoteAddress().getPort());
+            intercambio.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(demora.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            intercambio.sendResponseHeaders(200, -1);
+            intercambio.close();
+        });
+        servidor.start();
+
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("registro", registro);
+        fabrica = new FabricaClientesHttp(entorno, beans.getBeanProvider(MeterRegistry.class));
+    }
+
+    @AfterEach
+    void detener() {
+        fabrica.destroy();
+        servidor.stop(0);
+    }
+
+    @Test
+    void lasLlamadasAUnDestinoReutilizanLaConexion() {
+        RestClient uno = cliente("routing");
+        RestClient otro = cliente("routing");
+
+        for (int i = 0; i < 3; i++) {
+            get(uno);
+            get(otro);
+        }
+
+        // Seis llamadas por una sola conexión, que queda libre en el pool
+        assertThat(puertosCliente).hasSize(6).containsOnly(puertosCliente.get(0));
+        assertThat(registro.get("httpcomponents.httpclient.pool.total.connections")
+            .tags("httpclient", "routing", "state", "available").gauge().value()).isEqualTo(1);
+
+        // Otro destino tiene su propio pool
+        get(cliente("logistica"));
+        assertThat(puertosCliente.get(6)).isNotEqualTo(puertosCliente.get(0));
+    }
+
+    @Test
+    void cadaDestinoPuedePisarLosValoresGenerales() {
+        demora.set(500);
+
+        assertThatThrownBy(() -> get(cliente("lento"))).isInstanceOf(ResourceAccessException.class);
+        get(cliente("routing"));
+
+        assertThat(maximoDelPool("lento")).isEqualTo(3);
+        assertThat(maximoDelPool("routing")).isEqualTo(50);
+    }
+
+    @Test
+    void elTimeoutDeRespuestaSeAcotaAlPlazoDeLaRequest() {
+        demora.set(2_000);
+        RestClient cliente = cliente("routing");
+
+        // Timeout de lectura de 10 s, pero a la request solo le quedan 200 ms
+        long inicio = System.nanoTime();
+        try (Plazo.Alcance alcance = Plazo.abrir(Duration.ofMillis(200))) {
+            assertThatThrownBy(() -> get(cliente)).isInstanceOf(ResourceAccessException.class);
+        }
+
+        assertThat(Duration.ofNanos(System.nanoTime() - inicio)).isLessThan(Duration.ofMillis(1_500));
+    }
+
+    @Test
+    void cadaPoolPublicaSusMetricasConElNombreDelDestino() {
+        assertThat(registro.find("httpcomponents.httpclient.pool.total.max").gauges()).isEmpty();
+
+        fabrica.requestFactory("routing");
+        fabrica.requestFactory("routing");
+        fabrica.requestFactory("logistica");
+
+        assertThat(registro.find("httpcomponents.httpclient.pool.total.max").gauges())
+            .extracting(gauge -> gauge.getId().getTag("httpclient"))
+            .containsExactlyInAnyOrder("routing", "logistica");
+        assertThat(registro.get("httpcomponents.httpclient.pool.total.pending").tag("httpclient", "routing").gauge()
+            .value()).isZero();
+    }
+
+    private RestClient cliente(String destino) {
+        return RestClient.builder()
+            .baseUrl("http://127.0.0.1:" + servidor.getAddress().getPort())
+            .requestFactory(fabrica.requestFactory(destino))
+            .build();
+    }
+
+    private double maximoDelPool(String destino) {
+        return registro.get("httpcomponents.httpclient.pool.total.max").tag("httpclient", destino).gauge().value();
+    }
+
+    private static void get(RestClient cliente) {
+        cliente.get().uri("/recurso").retrieve().toBodilessEntity();
+    }
+}
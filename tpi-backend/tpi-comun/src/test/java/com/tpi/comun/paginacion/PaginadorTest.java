@@ -0,0 +1,144 @@
+package com.tpi.comun.paginacion;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import com.tpi.comun.excepcion.ParametroInvalidoException;
+
+/**
+ * Paginador: orden por defecto y desempate por id, ida y vuelta del cursor (el orden sale del
+ * cursor, no de los parámetros), cursores corruptos o adulterados y límites del tamaño de página.
+ */
+class PaginadorTest {
+
+    private record Camion(Long id, String dominio) {}
+
+    private final Paginador paginador = new Paginador(Map.<String, Function<String, Object>>of(
+        "id", Long::valueOf,
+        "dominio", valor -> valor
+    ));
+
+    @Test
+    void sinParametrosOrdenaPorIdAscendenteConElTamanioPorDefecto() {
+        Paginador.Consulta consulta = paginador.consulta(new PaginaRequest(null, null, null, null));
+
+        assertThat(consulta.campo()).isEqualTo("id");
+        assertThat(consulta.direccion()).isEqualTo(Sort.Direction.ASC);
+        assertThat(consulta.posicion().isInitial()).isTrue();
+        assertThat(consulta.orden()).isEqualTo(Sort.by(Sort.Direction.ASC, "id"));
+        assertThat(consulta.limite().max()).isEqualTo(Paginador.TAMANIO_POR_DEFECTO);
+    }
+
+    @Test
+    void elOrdenPorOtroCampoDesempataPorIdEnLaMismaDireccion() {
+        Paginador.Consulta consulta = paginador.consulta(new PaginaRequest(null, 5, "dominio", "desc"));
+
+        assertThat(consulta.direccion()).isEqualTo(Sort.Direction.DESC);
+        assertThat(consulta.orden()).containsExactly(Sort.Order.desc("dominio"), Sort.Order.desc("id"));
+    }
+
+    @Test
+    void elCursorDeLaPaginaContinuaDesdeLaUltimaFila() {
+        Paginador.Consulta primera = paginador.consulta(new PaginaRequest(null, 2, "dominio", "DESC"));
+        // Valores con caracteres que el cursor tiene que escapar
+        List<Camion> filas = List.of(new Camion(9L, "ZZ 999 ZZ"), new Camion(7L, "a&b=c ñ"));
+
+        PaginaResponse<String> pagina = paginador.pagina(ventana(filas, true), primera, Camion::dominio);
+
+        assertThat(pagina.contenido()).containsExactly("ZZ 999 ZZ", "a&b=c ñ");
+        assertThat(pagina.tamanio()).isEqualTo(2);
+        assertThat(pagina.hayMas()).isTrue();
+        assertThat(pagina.siguienteCursor()).isNotBlank().doesNotContain("+", "/", "=");
+
+        // Orden y dirección salen del cursor aunque los parámetros digan otra cosa
+        Paginador.Consulta siguiente = paginador.consulta(new PaginaRequest(pagina.siguienteCursor(), 2, "id", "ASC"));
+
+        assertThat(siguiente.campo()).isEqualTo("dominio");
+        assertThat(siguiente.direccion()).isEqualTo(Sort.Direction.DESC);
+        assertThat(siguiente.orden()).containsExactly(Sort.Order.desc("dominio"), Sort.Order.desc("id"));
+        assertThat(siguiente.posicion()).isInstanceOfSatisfying(KeysetScrollPosition.class, posicion -> {
+            assertThat(posicion.scrollsForward()).isTrue();
+            assertThat(posicion.getKeys()).containsExactly(Map.entry("dominio", "a&b=c ñ"), Map.entry("id", 7L));
+        });
+    }
+
+    @Test
+    void laUltimaPaginaNoTieneCursor() {
+        Paginador.Consulta consulta = paginador.consulta(new PaginaRequest(null, 2, null, null));
+
+        PaginaResponse<Long> pagina = paginador.pagina(ventana(List.of(new Camion(1L, "AA")), false), consulta, Camion::id);
+
+        assertThat(pagina.hayMas()).isFalse();
+        assertThat(pagina.siguienteCursor()).isNull();
+        assertThat(paginador.pagina(ventana(List.of(), false), consulta, Camion::id).contenido()).isEmpty();
+    }
+
+    @Test
+    void rechazaCursoresCorruptosOAdulterados() {
+        assertCursorInvalido("no es base64!", "Cursor inválido");
+        assertCursorInvalido(cursor("sin-igual"), "Cursor inválido");
+        assertCursorInvalido(cursor("o=patente&d=ASC&k.patente=x&k.id=1"), "Campo de orden inválido");
+        assertCursorInvalido(cursor("o=dominio&d=ARRIBA&k.dominio=x&k.id=1"), "Dirección de orden inválida");
+        assertCursorInvalido(cursor("o=dominio&d=ASC&k.dominio=x"), "falta el valor de 'id'");
+        assertCursorInvalido(cursor("o=id&d=ASC&k.id=uno"), "valor de 'id' ilegible");
+    }
+
+    @Test
+    void rechazaCamposDeOrdenNoPermitidos() {
+        assertThatThrownBy(() -> paginador.consulta(new PaginaRequest(null, null, "patente", null)))
+            .isInstanceOf(ParametroInvalidoException.class)
+            .hasMessageContaining("Campo de orden inválido");
+        assertThatThrownBy(() -> paginador.consulta(new PaginaRequest(null, null, null, "arriba")))
+            .isInstanceOf(ParametroInvalidoException.class);
+    }
+
+    @Test
+    void elTamanioDePaginaVaDeUnoAlMaximo() {
+        assertThat(paginador.consulta(new PaginaRequest(null, 1, null, null)).limite().max()).isEqualTo(1);
+        assertThat(paginador.consulta(new PaginaRequest(null, Paginador.TAMANIO_MAXIMO, null, null)).limite().max())
+            .isEqualTo(Paginador.TAMANIO_MAXIMO);
+
+        for (int tamanio : new int[] {0, -1, Paginador.TAMANIO_MAXIMO + 1}) {
+            assertThatThrownBy(() -> paginador.consulta(new PaginaRequest(null, tamanio, null, null)))
+                .isInstanceOf(ParametroInvalidoException.class)
+                .hasMessageContaining("tamaño de página");
+        }
+    }
+
+    @Test
+    void losCamposOrdenablesIncluyenElId() {
+        assertThatThrownBy(() -> new Paginador(Map.of("dominio", valor -> valor)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Ventana como la que devuelve un repositorio: la posición de cada fila son sus claves
+    private static Window<Camion> ventana(List<Camion> filas, boolean hayMas) {
+        return Window.from(filas,
+            i -> ScrollPosition.of(Map.of("dominio", filas.get(i).dominio(), "id", filas.get(i).id()),
+                ScrollPosition.Direction.FORWARD),
+            hayMas);
+    }
+
+    private static String cursor(String texto) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void assertCursorInvalido(String cursor, String mensaje) {
+        assertThatThrownBy(() -> paginador.consulta(new PaginaRequest(cursor, null, null, null)))
+            .as(cursor)
+            .isInstanceOf(ParametroInvalidoException.class)
+            .hasMessageContaining(mensaje);
+    }
+}
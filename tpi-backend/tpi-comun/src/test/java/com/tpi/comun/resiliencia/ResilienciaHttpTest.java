@@ -0,0 +1,227 @@
+package com.tpi.comun.resiliencia;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.RestClient;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * ResilienciaHttp contra un servidor simulado: qué se reintenta (solo GET, solo 502/503/504),
+ * cuándo se corta (presupuesto agotado, plazo más corto que la espera) y que los rechazos
+ * (plazo vencido, bulkhead lleno, circuito abierto) salen con la excepción del {@link ResilienciaHttp.Rechazo}.
+ */
+class ResilienciaHttpTest {
+
+    /** Excepción del Rechazo de prueba, como MicroservicioNoDisponibleException en los servicios. */
+    static final class NoDisponible extends RuntimeException {
+        NoDisponible(String mensaje, Throwable causa) {
+            super(mensaje, causa);
+        }
+    }
+
+    // Servidor simulado: responde con "estado" y, si hay "bloqueo", espera a que se libere
+    private final AtomicInteger estado = new AtomicInteger(200);
+    private final AtomicInteger llamadas = new AtomicInteger();
+    private final AtomicReference<CountDownLatch> bloqueo = new AtomicReference<>();
+    private final AtomicReference<String> plazoRecibido = new AtomicReference<>();
+    private final CountDownLatch recibida = new CountDownLatch(1);
+    private HttpServer servidor;
+
+    private final MockEnvironment entorno = new MockEnvironment()
+        .withProperty("resiliencia.espera-base-reintento", "1ms")
+        .withProperty("resiliencia.espera-max-reintento", "2ms");
+    private final MeterRegistry registro = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void iniciarServidor() throws IOException {
+        // Como en los servicios: las duraciones se leen en formato "100ms", "1s"
+        entorno.setConversionService(new ApplicationConversionService());
+
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        servidor.createContext("/", intercambio -> {
+            llamadas.incrementAndGet();
+            plazoRecibido.set(intercambio.getRequestHeaders().getFirst(Plazo.HEADER));
+            intercambio.getRequestBody().readAllBytes();
+            recibida.countDown();
+            CountDownLatch espera = bloqueo.get();
+            if (espera != null) {
+                try {
+                    espera.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            intercambio.sendResponseHeaders(estado.get(), -1);
+            intercambio.close();
+        });
+        servidor.start();
+    }
+
+    @AfterEach
+    void detenerServidor() {
+        servidor.stop(0);
+    }
+
+    @Test
+    void reintentaLosGetConErroresTransitoriosHastaElMaximo() {
+        estado.set(503);
+
+        assertThat(get(cliente())).isEqualTo(503);
+
+        assertThat(llamadas).hasValue(3);
+        assertThat(registro.get("http.cliente.reintentos").tag("destino", "prueba").counter().count())
+            .isEqualTo(2);
+    }
+
+    @Test
+    void nuncaReintentaUnPost() {
+        estado.set(503);
+        RestClient cliente = cliente();
+
+        int respuesta = cliente.post().uri("/recurso").body("{}")
+            .exchange((request, response) -> response.getStatusCode().value());
+
+        assertThat(respuesta).isEqualTo(503);
+        assertThat(llamadas).hasValue(1);
+    }
+
+    @Test
+    void noReintentaErroresQueNoSonTransitorios() {
+        estado.set(500);
+
+        assertThat(get(cliente())).isEqualTo(500);
+        assertThat(llamadas).hasValue(1);
+    }
+
+    @Test
+    void elCircuitoSeAbreYLosRechazosUsanLaExcepcionDelServicio() {
+        estado.set(500);
+        entorno.withProperty("resiliencia.ventana-circuito", "4")
+            .withProperty("resiliencia.minimo-llamadas-circuito", "4");
+        RestClient cliente = cliente();
+
+        for (int i = 0; i < 4; i++) {
+            get(cliente);
+        }
+
+        assertThatThrownBy(() -> get(cliente))
+            .isInstanceOf(NoDisponible.class)
+            .hasMessageContaining("prueba")
+            .hasMessageContaining("GET /recurso (circuito abierto)");
+        assertThat(llamadas).hasValue(4);
+    }
+
+    @Test
+    void elPresupuestoCortaLosReintentosCuandoElDestinoSigueCaido() {
+        estado.set(503);
+        // Sin aporte por llamada solo queda el saldo inicial (10 reintentos); el circuito no se abre
+        entorno.withProperty("resiliencia.proporcion-reintentos", "0")
+            .withProperty("resiliencia.ventana-circuito", "100")
+            .withProperty("resiliencia.minimo-llamadas-circuito", "100");
+        RestClient cliente = cliente();
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(get(cliente)).isEqualTo(503);
+        }
+
+        // 20 llamadas + 10 reintentos, no 20 * 3
+        assertThat(llamadas).hasValue(30);
+        assertThat(registro.get("http.cliente.reintentos").counter().count()).isEqualTo(10);
+    }
+
+    @Test
+    void noReintentaSiElPlazoRestanteEsMenorQueLaEspera() {
+        estado.set(503);
+        // Espera al azar entre 0 y 1h: con 500 ms de plazo, casi nunca entra un reintento
+        entorno.withProperty("resiliencia.espera-base-reintento", "1h")
+            .withProperty("resiliencia.espera-max-reintento", "1h");
+        RestClient cliente = cliente();
+
+        long inicio = System.nanoTime();
+        try (Plazo.Alcance alcance = Plazo.abrir(Duration.ofMillis(500))) {
+            assertThat(get(cliente)).isEqualTo(503);
+        }
+
+        assertThat(llamadas).hasValue(1);
+        assertThat(Duration.ofNanos(System.nanoTime() - inicio)).isLessThan(Duration.ofMillis(500));
+        assertThat(Long.parseLong(plazoRecibido.get())).isBetween(1L, 500L);
+    }
+
+    @Test
+    void conElPlazoVencidoRechazaSinLlamar() throws InterruptedException {
+        RestClient cliente = cliente();
+
+        try (Plazo.Alcance alcance = Plazo.abrir(Duration.ofMillis(1))) {
+            Thread.sleep(5);
+            assertThatThrownBy(() -> get(cliente))
+                .isInstanceOf(NoDisponible.class)
+                .hasMessageContaining("plazo de la request vencido");
+        }
+        assertThat(llamadas).hasValue(0);
+    }
+
+    @Test
+    void conElBulkheadLlenoRechazaEnseguida() throws Exception {
+        entorno.withProperty("resiliencia.max-llamadas", "1")
+            .withProperty("resiliencia.max-espera-lugar", "0ms");
+        CountDownLatch liberar = new CountDownLatch(1);
+        bloqueo.set(liberar);
+        RestClient cliente = cliente();
+
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Integer> ocupada = hilos.submit(() -> get(cliente));
+            assertThat(recibida.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> get(cliente))
+                .isInstanceOf(NoDisponible.class)
+                .hasMessageContaining("demasiadas llamadas simultáneas");
+
+            liberar.countDown();
+            assertThat(ocupada.get(5, TimeUnit.SECONDS)).isEqualTo(200);
+        }
+        assertThat(llamadas).hasValue(1);
+    }
+
+    // Cada test arma su ResilienciaHttp: circuito, bulkhead y presupuesto nuevos
+    private RestClient cliente() {
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("registro", registro);
+        ResilienciaHttp resiliencia = new ResilienciaHttp(entorno, beans.getBeanProvider(MeterRegistry.class),
+            (destino, operacion, causa) -> new NoDisponible("Servicio " + destino + ": " + operacion, causa));
+
+        return RestClient.builder()
+            .baseUrl("http://127.0.0.1:" + servidor.getAddress().getPort())
+            .requestFactory(new JdkClientHttpRequestFactory())
+            .requestInterceptor(resiliencia.interceptor("prueba"))
+            .build();
+    }
+
+    private static int get(RestClient cliente) {
+        return cliente.get().uri("/recurso")
+            .exchange((request, response) -> response.getStatusCode().value());
+    }
+}